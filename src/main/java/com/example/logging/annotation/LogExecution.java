@@ -12,4 +12,12 @@ public @interface LogExecution {
     boolean logArguments() default true;
     boolean logResult() default false;
     LogLevel level() default LogLevel.INFO;
+    // Записывать время, вызовы и ошибки в ExecutionMetrics (см. также logging.library.metrics.enabled)
+    boolean metrics() default false;
+    // false - не писать строки входа/выхода, только метрики и исключения
+    boolean logCalls() default true;
+    // Доля вызовов, для которых пишутся строки входа/выхода (метрики и исключения - всегда)
+    double sampleRate() default 1.0;
+    // Метка строк входа/выхода и ошибок (Marker.get), по ней их можно направить в отдельный приёмник
+    String marker() default "";
 }
\ No newline at end of file
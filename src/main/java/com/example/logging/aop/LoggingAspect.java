@@ -2,17 +2,25 @@
 package com.example.logging.aop;
 
 import com.example.logging.annotation.LogExecution;
+import com.example.logging.core.Logger;
 import com.example.logging.core.LoggingLibrary;
+import com.example.logging.core.Marker;
 import com.example.logging.config.LogLevel;
+import com.example.logging.metrics.ExecutionMetrics;
+import com.example.logging.metrics.MethodMetrics;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.stereotype.Component;
 
 import java.lang.reflect.Method;
-import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Aspect
 @Component
@@ -21,69 +29,117 @@ public class LoggingAspect {
     @Autowired
     private LoggingLibrary loggingLibrary;
 
-    @Around("@annotation(logExecution)")
-    public Object logExecutionTime(ProceedingJoinPoint joinPoint, LogExecution logExecution) throws Throwable {
-        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-        Method method = signature.getMethod();
-        String methodName = logExecution.value().isEmpty() ?
-                method.getDeclaringClass().getSimpleName() + "." + method.getName() :
-                logExecution.value();
+    // Всё, что зависит только от метода, вычисляется один раз на первом вызове.
+    // Ключ - класс цели и метод сигнатуры: для JDK-прокси это метод интерфейса,
+    // общий для разных реализаций.
+    private final ClassValue<ConcurrentMap<Method, MethodMetadata>> metadata = new ClassValue<>() {
+        @Override
+        protected ConcurrentMap<Method, MethodMetadata> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    // Pointcut без привязки аннотации к параметру: привязка заставляет Spring AOP
+    // заново сопоставлять выражение AspectJ на каждом вызове. Аннотация читается
+    // один раз при построении метаданных.
+    @Around("@annotation(com.example.logging.annotation.LogExecution)")
+    public Object logExecutionTime(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Object target = joinPoint.getTarget();
+        Class<?> targetClass = target != null ? target.getClass() : method.getDeclaringClass();
+        ConcurrentMap<Method, MethodMetadata> byMethod = metadata.get(targetClass);
+        MethodMetadata meta = byMethod.get(method);
+        if (meta == null) {
+            meta = byMethod.computeIfAbsent(method, m -> new MethodMetadata(m, targetClass, loggingLibrary));
+        }
 
-        com.example.logging.core.Logger logger = loggingLibrary.getLogger(method.getDeclaringClass());
+        Logger logger = meta.logger;
+        LogLevel level = meta.level;
+        Marker marker = meta.marker;
+        MethodMetrics metrics = meta.metrics;
+        // Аргументы и результат не трогаем вовсе, если уровень выключен
+        boolean enabled = meta.logCalls && logger.isEnabled(level, marker)
+                && (meta.sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < meta.sampleRate);
 
-        if (logExecution.logArguments()) {
-            logMessage(logger, logExecution.level(),
-                    "Entering {} with arguments: {}",
-                    methodName, Arrays.toString(joinPoint.getArgs()));
-        } else {
-            logMessage(logger, logExecution.level(), "Entering {}", methodName);
+        if (enabled && meta.logArguments) {
+            logger.log(level, marker, "Entering {} with arguments: {}", meta.displayName, joinPoint.getArgs());
+        } else if (enabled) {
+            logger.log(level, marker, "Entering {}", meta.displayName);
         }
 
-        long start = System.currentTimeMillis();
+        if (metrics != null) {
+            metrics.enter();
+        }
+        long start = System.nanoTime();
+        boolean recorded = false;
 
         try {
             Object result = joinPoint.proceed();
-            long executionTime = System.currentTimeMillis() - start;
+            long elapsed = System.nanoTime() - start;
+            if (metrics != null) {
+                metrics.exit(elapsed, false);
+                recorded = true;
+            }
 
-            if (logExecution.logResult()) {
-                logMessage(logger, logExecution.level(),
-                        "Exiting {} with result: {} (execution time: {} ms)",
-                        methodName, result, executionTime);
-            } else {
-                logMessage(logger, logExecution.level(),
-                        "Exiting {} (execution time: {} ms)",
-                        methodName, executionTime);
+            if (enabled) {
+                String executionTime = ExecutionMetrics.formatMillis(elapsed);
+                if (meta.logResult) {
+                    logger.log(level, marker, "Exiting {} with result: {} (execution time: {} ms)",
+                            meta.displayName, result, executionTime);
+                } else {
+                    logger.log(level, marker, "Exiting {} (execution time: {} ms)", meta.displayName, executionTime);
+                }
             }
 
             return result;
         } catch (Exception e) {
-            long executionTime = System.currentTimeMillis() - start;
-            logger.error("Exception in {} (execution time: {} ms): {}",
-                    methodName, executionTime, e.getMessage(), e);
+            long elapsed = System.nanoTime() - start;
+            if (metrics != null) {
+                metrics.exit(elapsed, true);
+                recorded = true;
+            }
+            logger.error(marker, "Exception in {} (execution time: {} ms): {}",
+                    meta.displayName, ExecutionMetrics.formatMillis(elapsed), e.getMessage(), e);
             throw e;
+        } finally {
+            // Error и прочие Throwable, не пойманные выше
+            if (metrics != null && !recorded) {
+                metrics.exit(System.nanoTime() - start, true);
+            }
         }
     }
 
-    private void logMessage(com.example.logging.core.Logger logger, LogLevel level,
-                            String format, Object... args) {
-        String message = String.format(format.replace("{}", "%s"), args);
+    private static final class MethodMetadata {
+        final String displayName;
+        final Logger logger;
+        final LogLevel level;
+        final Marker marker; // null - без метки
+        final boolean logArguments;
+        final boolean logResult;
+        final boolean logCalls;
+        final double sampleRate;
+        // null - метрики для метода не собираются
+        final MethodMetrics metrics;
 
-        switch (level) {
-            case TRACE:
-                logger.trace(message);
-                break;
-            case DEBUG:
-                logger.debug(message);
-                break;
-            case INFO:
-                logger.info(message);
-                break;
-            case WARN:
-                logger.warn(message);
-                break;
-            case ERROR:
-                logger.error(message);
-                break;
+        MethodMetadata(Method method, Class<?> targetClass, LoggingLibrary library) {
+            // Аннотация может стоять и на реализации, и на методе интерфейса
+            Method specific = AopUtils.getMostSpecificMethod(method, targetClass);
+            LogExecution logExecution = AnnotatedElementUtils.findMergedAnnotation(specific, LogExecution.class);
+            if (logExecution == null) {
+                logExecution = AnnotatedElementUtils.findMergedAnnotation(method, LogExecution.class);
+            }
+            this.displayName = logExecution.value().isEmpty()
+                    ? specific.getDeclaringClass().getSimpleName() + "." + specific.getName()
+                    : logExecution.value();
+            this.logger = library.getLogger(specific.getDeclaringClass());
+            this.level = logExecution.level();
+            this.marker = Marker.find(logExecution.marker());
+            this.logArguments = logExecution.logArguments();
+            this.logResult = logExecution.logResult();
+            this.logCalls = logExecution.logCalls();
+            this.sampleRate = logExecution.sampleRate();
+            this.metrics = logExecution.metrics() || library.isExecutionMetricsEnabled()
+                    ? library.getExecutionMetrics().get(displayName) : null;
         }
     }
-}
\ No newline at end of file
+}
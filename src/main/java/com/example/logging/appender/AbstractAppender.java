@@ -0,0 +1,109 @@
+// AbstractAppender.java
+package com.example.logging.appender;
+
+import com.example.logging.config.LogLevel;
+import com.example.logging.config.LoggerConfig;
+import com.example.logging.core.LogEvent;
+import com.example.logging.layout.Layout;
+import com.example.logging.layout.PatternLayout;
+
+// Базовый приёмник с порогом уровня и собственным layout.
+// Без собственного layout приёмник получает текст общего layout библиотеки; если текста
+// нет (прямой вызов append), отрисовывает событие текущим общим layout реестра.
+// Смена layout после регистрации пересобирает маршрут реестра.
+public abstract class AbstractAppender implements Appender {
+
+    // Для приёмника вне реестра
+    private static final Layout DEFAULT_LAYOUT = new PatternLayout(new LoggerConfig().getPattern());
+    private static final int MAX_RETAINED_CAPACITY = 8192;
+
+    private final String name;
+    private volatile Layout layout;
+    private volatile LogLevel threshold = LogLevel.TRACE;
+    private volatile AppenderRegistry registry;
+    private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+    protected AbstractAppender(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    public Layout getLayout() { return layout; }
+
+    public void setLayout(Layout layout) {
+        this.layout = layout;
+        AppenderRegistry owner = registry;
+        if (owner != null) {
+            owner.layoutChanged(this);
+        }
+    }
+
+    public LogLevel getThreshold() { return threshold; }
+    public void setThreshold(LogLevel threshold) { this.threshold = threshold; }
+
+    @Override
+    public boolean usesSharedLayout() {
+        return layout == null;
+    }
+
+    @Override
+    public void append(LogEvent event, boolean endOfBatch) {
+        if (!event.getLevel().isEnabled(threshold)) {
+            return;
+        }
+        Layout own = layout;
+        render(event, own != null ? own : sharedLayout(), endOfBatch);
+    }
+
+    @Override
+    public void append(LogEvent event, CharSequence rendered, boolean endOfBatch) {
+        if (!event.getLevel().isEnabled(threshold)) {
+            return;
+        }
+        Layout own = layout;
+        if (own != null || rendered == null) {
+            render(event, own != null ? own : sharedLayout(), endOfBatch);
+        } else {
+            write(event, rendered, endOfBatch);
+        }
+    }
+
+    private Layout sharedLayout() {
+        AppenderRegistry owner = registry;
+        Layout shared = owner != null ? owner.getSharedLayout() : null;
+        return shared != null ? shared : DEFAULT_LAYOUT;
+    }
+
+    AppenderRegistry getRegistry() {
+        return registry;
+    }
+
+    void setRegistry(AppenderRegistry registry) {
+        this.registry = registry;
+    }
+
+    private void render(LogEvent event, Layout layout, boolean endOfBatch) {
+        StringBuilder buffer = buffers.get();
+        buffer.setLength(0);
+        layout.format(event, buffer);
+        write(event, buffer, endOfBatch);
+        if (buffer.capacity() > MAX_RETAINED_CAPACITY) {
+            buffers.set(new StringBuilder(256));
+        }
+    }
+
+    // text действителен только на время вызова
+    protected abstract void write(LogEvent event, CharSequence text, boolean endOfBatch);
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+    }
+}
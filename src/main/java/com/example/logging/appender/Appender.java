@@ -0,0 +1,31 @@
+// Appender.java
+package com.example.logging.appender;
+
+import com.example.logging.core.LogEvent;
+
+// Приёмник событий (консоль, файл, память, сеть...). Реализации должны быть
+// потокобезопасны: в синхронном режиме append вызывается из потоков приложения.
+public interface Appender {
+
+    String getName();
+
+    default void start() {
+    }
+
+    // Сырое событие: приёмник сам решает, как его отрисовать или сохранить
+    void append(LogEvent event, boolean endOfBatch);
+
+    // Событие, уже отрисованное общим layout библиотеки (один раз на все такие приёмники)
+    default void append(LogEvent event, CharSequence rendered, boolean endOfBatch) {
+        append(event, endOfBatch);
+    }
+
+    // true - библиотека передаёт в append текст общего layout
+    default boolean usesSharedLayout() {
+        return false;
+    }
+
+    void flush();
+
+    void close();
+}
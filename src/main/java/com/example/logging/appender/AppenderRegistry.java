@@ -0,0 +1,388 @@
+// AppenderRegistry.java
+package com.example.logging.appender;
+
+import com.example.logging.config.AppenderType;
+import com.example.logging.config.LayoutType;
+import com.example.logging.config.LoggerConfig;
+import com.example.logging.config.OutputType;
+import com.example.logging.core.Marker;
+import com.example.logging.layout.JsonLayout;
+import com.example.logging.layout.Layout;
+import com.example.logging.layout.PatternLayout;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// Именованные приёмники библиотеки. Маршрут (массив приёмников и признак, нужен ли
+// общий layout) пересчитывается только при изменении состава и публикуется одной
+// volatile-ссылкой, так что путь записи не берёт блокировок.
+//
+// С правилами маршрутов (RouteRule) приёмники события зависят от логгера и метки.
+// Решение для пары логгер/метка вычисляется один раз и кэшируется в снимке маршрута,
+// поэтому стоимость записи не растёт с числом правил.
+public class AppenderRegistry {
+
+    public static final String CONSOLE = "console";
+    public static final String FILE = "file";
+
+    private final Map<String, Appender> appenders = new LinkedHashMap<>();
+    private List<RouteRule> routes = List.of();
+    private volatile Routing routing = new Routing(new Appender[0], List.of());
+    // Общий layout библиотеки: им рисуют приёмники без своего layout, если текста нет
+    private volatile Layout sharedLayout;
+
+    // OutputType задаёт приёмники по умолчанию, logging.library.appenders добавляет остальные
+    public synchronized void configure(LoggerConfig config) {
+        applyOutput(config.getOutput(), config);
+        List<RouteRule> rules = new ArrayList<>();
+        for (LoggerConfig.RouteDefinition definition : config.getRoutes()) {
+            rules.add(RouteRule.of(definition));
+        }
+        routes = List.copyOf(rules);
+        for (Map.Entry<String, LoggerConfig.AppenderDefinition> entry : config.getAppenders().entrySet()) {
+            try {
+                register(create(entry.getKey(), entry.getValue(), config));
+            } catch (RuntimeException e) {
+                System.err.println("Failed to create appender '" + entry.getKey() + "': " + e.getMessage());
+            }
+        }
+    }
+
+    // Приводит стандартные приёмники console/file к указанному OutputType
+    public synchronized void applyOutput(OutputType output, LoggerConfig config) {
+        boolean console = output == OutputType.CONSOLE || output == OutputType.BOTH;
+        boolean file = output == OutputType.FILE || output == OutputType.BOTH;
+        if (console && !appenders.containsKey(CONSOLE)) {
+            register(new ConsoleAppender(CONSOLE, config.isGarbageFree()));
+        } else if (!console) {
+            remove(CONSOLE);
+        }
+        if (file && !appenders.containsKey(FILE)) {
+            register(createFileAppender(FILE, new LoggerConfig.AppenderDefinition(), config));
+        } else if (!file) {
+            remove(FILE);
+        }
+    }
+
+    public static Appender create(String name, LoggerConfig.AppenderDefinition definition, LoggerConfig config) {
+        Appender appender;
+        AppenderType type = definition.getType();
+        switch (type) {
+            case FILE:
+                appender = createFileAppender(name, definition, config);
+                break;
+            case BINARY:
+                appender = createBinaryAppender(name, definition, config);
+                break;
+            case COMPRESSED:
+                appender = createCompressedAppender(name, definition, config);
+                break;
+            case MEMORY:
+                appender = new InMemoryAppender(name, definition.getCapacity(), definition.getMaxSize() * 1024L);
+                break;
+            case NETWORK:
+                appender = createNetworkAppender(name, definition, config);
+                break;
+            case CUSTOM:
+                appender = instantiate(name, definition.getClassName());
+                break;
+            case CONSOLE:
+            default:
+                appender = new ConsoleAppender(name, config.isGarbageFree());
+        }
+        if (appender instanceof AbstractAppender) {
+            AbstractAppender configurable = (AbstractAppender) appender;
+            if (definition.getLayout() == LayoutType.JSON) {
+                configurable.setLayout(new JsonLayout());
+            } else if (definition.getPattern() != null) {
+                configurable.setLayout(new PatternLayout(definition.getPattern()));
+            }
+            configurable.setThreshold(definition.getThreshold());
+        }
+        return appender;
+    }
+
+    private static RollingFileAppender createFileAppender(String name, LoggerConfig.AppenderDefinition definition,
+                                                          LoggerConfig config) {
+        String filePath = definition.getFilePath() != null ? definition.getFilePath() : config.getFilePath();
+        int maxFileSize = definition.getMaxFileSize() != null ? definition.getMaxFileSize() : config.getMaxFileSize();
+        int maxHistory = definition.getMaxHistory() != null ? definition.getMaxHistory() : config.getMaxHistory();
+        boolean compress = definition.getCompressArchives() != null
+                ? definition.getCompressArchives() : config.isCompressArchives();
+        RollingFileAppender appender = new RollingFileAppender(name, filePath, maxFileSize * 1024L * 1024L,
+                maxHistory, compress, config.getFileBufferSize() * 1024, config.getFlushInterval(),
+                config.getDurability(), ZoneId.systemDefault());
+        appender.setIndexed(definition.getFileIndex() != null ? definition.getFileIndex() : config.isFileIndex());
+        return appender;
+    }
+
+    // По умолчанию рядом с текстовым логом: logs/app.log -> logs/app.blog
+    private static BinaryFileAppender createBinaryAppender(String name, LoggerConfig.AppenderDefinition definition,
+                                                           LoggerConfig config) {
+        String filePath = definition.getFilePath();
+        if (filePath == null) {
+            String base = config.getFilePath();
+            int dot = base.lastIndexOf('.');
+            filePath = (dot > base.lastIndexOf('/') ? base.substring(0, dot) : base) + ".blog";
+        }
+        return new BinaryFileAppender(name, filePath, config.getFileBufferSize() * 1024,
+                config.getFlushInterval(), config.getDurability());
+    }
+
+    // По умолчанию рядом с текстовым логом: logs/app.log -> logs/app.zlog
+    private static CompressedFileAppender createCompressedAppender(String name,
+                                                                   LoggerConfig.AppenderDefinition definition,
+                                                                   LoggerConfig config) {
+        String filePath = definition.getFilePath();
+        if (filePath == null) {
+            String base = config.getFilePath();
+            int dot = base.lastIndexOf('.');
+            filePath = (dot > base.lastIndexOf('/') ? base.substring(0, dot) : base) + ".zlog";
+        }
+        return new CompressedFileAppender(name, filePath, definition.getFrameSize() * 1024,
+                definition.getCompressionLevel(), config.getFlushInterval(), config.getDurability());
+    }
+
+    // Spool по умолчанию - каталог spool рядом с текстовым логом: logs/app.log -> logs/spool
+    private static NetworkAppender createNetworkAppender(String name, LoggerConfig.AppenderDefinition definition,
+                                                         LoggerConfig config) {
+        Path spoolDir;
+        if (definition.getSpoolPath() != null) {
+            spoolDir = Paths.get(definition.getSpoolPath());
+        } else {
+            Path parent = Paths.get(config.getFilePath()).toAbsolutePath().getParent();
+            spoolDir = parent != null ? parent.resolve("spool") : Paths.get("spool");
+        }
+        NetworkAppender appender = new NetworkAppender(name, definition.getHost(), definition.getPort(),
+                definition.getProtocol(), definition.getFraming(), definition.getBatchSize() * 1024,
+                config.getFlushInterval(), spoolDir, definition.getSpoolMaxSize() * 1024L * 1024L);
+        appender.setAppName(definition.getAppName());
+        return appender;
+    }
+
+    private static Appender instantiate(String name, String className) {
+        if (className == null || className.isBlank()) {
+            throw new IllegalArgumentException("class-name is required for CUSTOM appender");
+        }
+        try {
+            Class<?> type = Class.forName(className);
+            if (!Appender.class.isAssignableFrom(type)) {
+                throw new IllegalArgumentException(className + " does not implement " + Appender.class.getName());
+            }
+            try {
+                return (Appender) type.getConstructor(String.class).newInstance(name);
+            } catch (NoSuchMethodException e) {
+                return (Appender) type.getConstructor().newInstance();
+            }
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Cannot instantiate appender " + className + ": " + e, e);
+        }
+    }
+
+    // Запускает приёмник и добавляет его; приёмник с тем же именем закрывается
+    public synchronized boolean register(Appender appender) {
+        try {
+            appender.start();
+        } catch (RuntimeException e) {
+            System.err.println("Failed to start appender '" + appender.getName() + "': " + e.getMessage());
+            appender.close();
+            return false;
+        }
+        if (appender instanceof AbstractAppender attached) {
+            attached.setRegistry(this);
+        }
+        Appender previous = appenders.put(appender.getName(), appender);
+        updateRouting();
+        if (previous != null && previous != appender) {
+            detach(previous);
+            previous.close();
+        }
+        return true;
+    }
+
+    public synchronized Appender remove(String name) {
+        Appender removed = appenders.remove(name);
+        if (removed != null) {
+            updateRouting();
+            detach(removed);
+            removed.close();
+        }
+        return removed;
+    }
+
+    private void detach(Appender appender) {
+        if (appender instanceof AbstractAppender attached && attached.getRegistry() == this) {
+            attached.setRegistry(null);
+        }
+    }
+
+    // Приёмник сменил layout: признак общего layout в маршрутах устарел
+    synchronized void layoutChanged(Appender appender) {
+        if (appenders.get(appender.getName()) == appender) {
+            updateRouting();
+        }
+    }
+
+    public Layout getSharedLayout() {
+        return sharedLayout;
+    }
+
+    public void setSharedLayout(Layout sharedLayout) {
+        this.sharedLayout = sharedLayout;
+    }
+
+    public synchronized List<RouteRule> getRoutes() {
+        return routes;
+    }
+
+    public synchronized void setRoutes(List<RouteRule> routes) {
+        this.routes = List.copyOf(routes);
+        updateRouting();
+    }
+
+    public synchronized Appender get(String name) {
+        return appenders.get(name);
+    }
+
+    public Routing getRouting() {
+        return routing;
+    }
+
+    public void flushAll() {
+        for (Appender appender : routing.getAppenders()) {
+            appender.flush();
+        }
+    }
+
+    public synchronized void closeAll() {
+        Appender[] closing = appenders.values().toArray(new Appender[0]);
+        appenders.clear();
+        updateRouting();
+        for (Appender appender : closing) {
+            detach(appender);
+            try {
+                appender.flush();
+                appender.close();
+            } catch (RuntimeException e) {
+                System.err.println("Failed to close appender '" + appender.getName() + "': " + e.getMessage());
+            }
+        }
+    }
+
+    private void updateRouting() {
+        routing = new Routing(appenders.values().toArray(new Appender[0]), routes);
+    }
+
+    // Приёмники одного события и признак, нужен ли им общий layout
+    public static final class Route {
+        private final Appender[] appenders;
+        private final boolean sharedLayoutNeeded;
+
+        Route(Appender[] appenders) {
+            this.appenders = appenders;
+            boolean shared = false;
+            for (Appender appender : appenders) {
+                shared |= appender.usesSharedLayout();
+            }
+            this.sharedLayoutNeeded = shared;
+        }
+
+        public Appender[] getAppenders() {
+            return appenders;
+        }
+
+        public boolean isSharedLayoutNeeded() {
+            return sharedLayoutNeeded;
+        }
+    }
+
+    // Неизменяемый снимок маршрута: все приёмники и кэш решений по логгеру и метке.
+    // Новый снимок (при изменении приёмников или правил) начинает с пустого кэша
+    public static final class Routing {
+        private static final Route[] NO_ROUTES = new Route[0];
+
+        private final Appender[] appenders;
+        private final boolean sharedLayoutNeeded;
+        private final RouteRule[] rules;
+        private final Set<String> dedicated = new HashSet<>(); // приёмники из правил
+        private final Route defaultRoute;
+        // Логгер -> решения по Marker.getId() + 1, элемент 0 - без метки
+        private final ConcurrentMap<String, Route[]> routes = new ConcurrentHashMap<>();
+
+        Routing(Appender[] appenders, List<RouteRule> rules) {
+            this.appenders = appenders;
+            this.rules = rules.toArray(new RouteRule[0]);
+            for (RouteRule rule : rules) {
+                dedicated.addAll(rule.getAppenders());
+            }
+            List<Appender> common = new ArrayList<>();
+            for (Appender appender : appenders) {
+                if (!dedicated.contains(appender.getName())) {
+                    common.add(appender);
+                }
+            }
+            this.defaultRoute = dedicated.isEmpty() ? new Route(appenders) : new Route(common.toArray(new Appender[0]));
+            this.sharedLayoutNeeded = new Route(appenders).isSharedLayoutNeeded();
+        }
+
+        public Appender[] getAppenders() {
+            return appenders;
+        }
+
+        public boolean isSharedLayoutNeeded() {
+            return sharedLayoutNeeded;
+        }
+
+        // Приёмники события логгера loggerName с меткой marker (null - без метки)
+        public Route resolve(String loggerName, Marker marker) {
+            if (rules.length == 0) {
+                return defaultRoute;
+            }
+            int index = marker != null ? marker.getId() + 1 : 0;
+            Route[] byMarker = routes.getOrDefault(loggerName, NO_ROUTES);
+            if (index < byMarker.length && byMarker[index] != null) {
+                return byMarker[index];
+            }
+            Route route = compute(loggerName, marker);
+            // Массив заменяется целиком; при гонке одно из решений пропадёт и будет вычислено заново
+            Route[] updated = Arrays.copyOf(byMarker, Math.max(byMarker.length, index + 1));
+            updated[index] = route;
+            routes.put(loggerName, updated);
+            return route;
+        }
+
+        private Route compute(String loggerName, Marker marker) {
+            Set<String> targets = new HashSet<>();
+            boolean matched = false;
+            boolean additive = true;
+            for (RouteRule rule : rules) {
+                if (rule.matches(loggerName, marker)) {
+                    matched = true;
+                    additive &= rule.isAdditive();
+                    targets.addAll(rule.getAppenders());
+                }
+            }
+            if (!matched) {
+                return defaultRoute;
+            }
+            List<Appender> selected = new ArrayList<>();
+            for (Appender appender : appenders) {
+                String name = appender.getName();
+                if (targets.contains(name) || (additive && !dedicated.contains(name))) {
+                    selected.add(appender);
+                }
+            }
+            return new Route(selected.toArray(new Appender[0]));
+        }
+    }
+}
@@ -0,0 +1,155 @@
+// BinaryFileAppender.java
+package com.example.logging.appender;
+
+import com.example.logging.binary.BinaryLogWriter;
+import com.example.logging.config.Durability;
+import com.example.logging.config.LogLevel;
+import com.example.logging.core.LogEvent;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Запись в бинарном формате (см. BinaryLogFormat): сообщение не форматируется,
+// layout не используется, в файл уходят шаблон и сырые аргументы. Текст получают
+// офлайн утилитой BinaryLogDecoder. Политика сброса буфера и блокировка те же,
+// что у RollingFileAppender.
+public class BinaryFileAppender extends AbstractAppender {
+
+    private final Path file;
+    private final int bufferSize;
+    private final long flushInterval;
+    private final Durability durability;
+
+    private FileChannel channel;
+    private BinaryLogWriter writer;
+    private ScheduledThreadPoolExecutor flusher;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public BinaryFileAppender(String name, String filePath, int bufferSize, long flushInterval, Durability durability) {
+        super(name);
+        this.file = Paths.get(filePath).toAbsolutePath();
+        this.bufferSize = Math.max(bufferSize, 256);
+        this.flushInterval = flushInterval;
+        this.durability = durability;
+    }
+
+    @Override
+    public void start() {
+        lock.lock();
+        try {
+            Path parent = file.getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+            // Каждое открытие начинает новый сегмент со своей таблицей строк
+            writer = new BinaryLogWriter(channel, ByteBuffer.allocateDirect(bufferSize));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open log file " + file, e);
+        } finally {
+            lock.unlock();
+        }
+        if (flushInterval > 0) {
+            flusher = new ScheduledThreadPoolExecutor(1, r -> {
+                Thread thread = new Thread(r, "logging-library-binary-flush");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flusher.scheduleWithFixedDelay(this::flush, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public boolean usesSharedLayout() {
+        return false;
+    }
+
+    @Override
+    public void append(LogEvent event, boolean endOfBatch) {
+        if (event.getLevel().isEnabled(getThreshold())) {
+            write(event, endOfBatch);
+        }
+    }
+
+    @Override
+    public void append(LogEvent event, CharSequence rendered, boolean endOfBatch) {
+        append(event, endOfBatch);
+    }
+
+    @Override
+    protected void write(LogEvent event, CharSequence text, boolean endOfBatch) {
+        write(event, endOfBatch);
+    }
+
+    private void write(LogEvent event, boolean endOfBatch) {
+        lock.lock();
+        try {
+            if (writer == null) {
+                return;
+            }
+            writer.write(event);
+            if (event.getLevel() == LogLevel.ERROR && durability != Durability.NONE) {
+                writer.flush();
+                if (durability == Durability.FSYNC_ON_ERROR) {
+                    channel.force(false);
+                }
+            } else if (endOfBatch && flushInterval <= 0) {
+                writer.flush();
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to write to binary log file: " + e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void flush() {
+        lock.lock();
+        try {
+            if (writer != null) {
+                writer.flush();
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to flush binary log file: " + e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (flusher != null) {
+            flusher.shutdown();
+        }
+        lock.lock();
+        try {
+            if (writer != null) {
+                try {
+                    writer.flush();
+                    channel.close();
+                } catch (IOException e) {
+                    System.err.println("Failed to close binary log file: " + e.getMessage());
+                }
+                writer = null;
+                channel = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+}
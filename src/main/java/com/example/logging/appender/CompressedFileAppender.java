@@ -0,0 +1,367 @@
+// CompressedFileAppender.java
+package com.example.logging.appender;
+
+import com.example.logging.compressed.CompressedLogFormat;
+import com.example.logging.compressed.CompressedLogReader;
+import com.example.logging.config.Durability;
+import com.example.logging.config.LogLevel;
+import com.example.logging.core.LogEvent;
+import com.example.logging.util.Utf8;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+// Запись отрисованного текста в сжатый файл (см. CompressedLogFormat).
+//
+// Поток записи только кодирует строку в UTF-8 в текущий кадр. Заполненный кадр
+// (frameSize байт текста) уходит фоновому потоку, который сжимает его Deflater и
+// пишет в файл; пустые кадры берутся из небольшого пула, так что в установившемся
+// режиме запись не выделяет памяти. Если все кадры пула ждут сжатия, поток записи
+// ждёт свободный - это и есть обратное давление при нехватке CPU на сжатие.
+//
+// Неполный кадр закрывается по flush(), по таймеру flushInterval и сразу для ERROR
+// (если durability != NONE). Сброс после каждой пачки, как у RollingFileAppender,
+// здесь не делается: кадр из пары событий почти не сжимается.
+//
+// Для ERROR при durability != NONE вызов, как и у RollingFileAppender, возвращается
+// только после записи кадра в файл (и fsync при FSYNC_ON_ERROR): поток записи ждёт
+// номер своего кадра, блокировка записи при этом не удерживается.
+public class CompressedFileAppender extends AbstractAppender {
+
+    public static final long DEFAULT_FLUSH_INTERVAL = 1000;
+
+    private static final int POOL_SIZE = 4;
+
+    private final Path file;
+    private final int frameSize;
+    private final int compressionLevel;
+    private final long flushInterval;
+    private final Durability durability;
+    private final BlockingQueue<Frame> free = new ArrayBlockingQueue<>(POOL_SIZE);
+    private final ReentrantLock lock = new ReentrantLock();
+    // Номер последнего записанного кадра; кадры пишутся по порядку одним потоком
+    private final ReentrantLock progressLock = new ReentrantLock();
+    private final Condition frameWritten = progressLock.newCondition();
+    private long written;
+    private long sealed; // под lock
+
+    // Только для потока сжатия
+    private final CRC32 crc = new CRC32();
+    private Deflater deflater;
+    private byte[] compressed = new byte[0];
+
+    private FileChannel channel;
+    private ScheduledThreadPoolExecutor compressor;
+    private Frame current;
+
+    public CompressedFileAppender(String name, String filePath, int frameSize, int compressionLevel,
+                                  long flushInterval, Durability durability) {
+        super(name);
+        this.file = Paths.get(filePath).toAbsolutePath();
+        this.frameSize = Math.max(frameSize, 4096);
+        this.compressionLevel = compressionLevel;
+        this.flushInterval = flushInterval > 0 ? flushInterval : DEFAULT_FLUSH_INTERVAL;
+        this.durability = durability;
+    }
+
+    public CompressedFileAppender(String name, String filePath) {
+        this(name, filePath, CompressedLogFormat.DEFAULT_FRAME_SIZE, Deflater.BEST_SPEED, DEFAULT_FLUSH_INTERVAL,
+                Durability.FLUSH);
+    }
+
+    @Override
+    public void start() {
+        lock.lock();
+        try {
+            Path parent = file.getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            prepareFile();
+            for (int i = 0; i < POOL_SIZE; i++) {
+                free.add(new Frame(frameSize));
+            }
+            current = free.poll();
+            deflater = new Deflater(compressionLevel, true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open log file " + file, e);
+        } finally {
+            lock.unlock();
+        }
+        compressor = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "logging-library-compress");
+            thread.setDaemon(true);
+            return thread;
+        });
+        compressor.setContinueExistingPeriodicTasksAfterShutdownPolicy(false);
+        compressor.scheduleWithFixedDelay(this::sealOnTimer, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+    }
+
+    // Новый файл получает заголовок, у существующего отрезается оборванный последний кадр
+    private void prepareFile() throws IOException {
+        long size = channel.size();
+        if (size == 0) {
+            ByteBuffer header = ByteBuffer.allocate(CompressedLogFormat.FILE_HEADER_SIZE);
+            header.put(CompressedLogFormat.MAGIC).put(CompressedLogFormat.VERSION).flip();
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            return;
+        }
+        long valid = CompressedLogReader.validLength(file);
+        if (valid < 0) {
+            channel.close();
+            throw new IOException("Not a compressed log: " + file);
+        }
+        if (valid < size) {
+            channel.truncate(valid);
+        }
+        channel.position(valid);
+    }
+
+    @Override
+    protected void write(LogEvent event, CharSequence text, boolean endOfBatch) {
+        // Длина считается до захвата блокировки
+        int length = Utf8.encodedLength(text);
+        long awaited = 0;
+        lock.lock();
+        try {
+            if (current == null) {
+                return;
+            }
+            if (current.length > 0 && current.length + length > current.data.length) {
+                seal(false, true);
+            }
+            if (length > current.data.length) {
+                // Событие больше кадра: кадр растягивается под него и после сжатия возвращается к frameSize
+                current.data = Arrays.copyOf(current.data, length);
+            }
+            current.length = Utf8.encode(text, current.data, current.length);
+            current.add(event.getTimestamp());
+
+            if (event.getLevel() == LogLevel.ERROR && durability != Durability.NONE) {
+                seal(durability == Durability.FSYNC_ON_ERROR, true);
+                awaited = sealed;
+            } else if (current.length >= frameSize) {
+                seal(false, true);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+        if (awaited > 0) {
+            awaitWritten(awaited);
+        }
+    }
+
+    private void awaitWritten(long sequence) {
+        progressLock.lock();
+        try {
+            while (written < sequence) {
+                frameWritten.await();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            progressLock.unlock();
+        }
+    }
+
+    // Под блокировкой: отдаёт текущий кадр на сжатие и берёт свободный. Без wait кадр
+    // не закрывается, если свободных нет (сжатие и так отстаёт)
+    private void seal(boolean force, boolean wait) throws InterruptedException {
+        if (current.length == 0) {
+            return;
+        }
+        Frame next = free.poll();
+        if (next == null) {
+            if (!wait) {
+                return;
+            }
+            next = free.take();
+        }
+        Frame frame = current;
+        frame.force = force;
+        frame.sequence = ++sealed;
+        compressor.execute(() -> compress(frame));
+        current = next;
+    }
+
+    // По таймеру, в потоке сжатия: ждать здесь нельзя - только этот поток освобождает кадры
+    private void sealOnTimer() {
+        if (!lock.tryLock()) {
+            return;
+        }
+        try {
+            if (current != null) {
+                seal(false, false);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void compress(Frame frame) {
+        try {
+            deflater.reset();
+            deflater.setInput(frame.data, 0, frame.length);
+            deflater.finish();
+            int bound = frame.length + frame.length / 1000 + 64;
+            if (compressed.length < CompressedLogFormat.FRAME_HEADER_SIZE + bound) {
+                compressed = new byte[CompressedLogFormat.FRAME_HEADER_SIZE + bound];
+            }
+            int size = CompressedLogFormat.FRAME_HEADER_SIZE;
+            while (!deflater.finished()) {
+                if (size == compressed.length) {
+                    compressed = Arrays.copyOf(compressed, compressed.length * 2);
+                }
+                size += deflater.deflate(compressed, size, compressed.length - size);
+            }
+            crc.reset();
+            crc.update(frame.data, 0, frame.length);
+
+            ByteBuffer out = ByteBuffer.wrap(compressed, 0, size);
+            out.put(CompressedLogFormat.FRAME)
+                    .putInt(size - CompressedLogFormat.FRAME_HEADER_SIZE)
+                    .putInt(frame.length)
+                    .putInt(frame.events)
+                    .putLong(frame.minTimestamp)
+                    .putLong(frame.maxTimestamp)
+                    .putInt((int) crc.getValue());
+            out.position(0);
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+            if (frame.force) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to write compressed log file: " + e.getMessage());
+        } finally {
+            long sequence = frame.sequence;
+            frame.reset(frameSize);
+            free.add(frame);
+            progressLock.lock();
+            try {
+                written = sequence;
+                frameWritten.signalAll();
+            } finally {
+                progressLock.unlock();
+            }
+        }
+    }
+
+    // Закрывает неполный кадр и ждёт, пока все кадры будут записаны
+    @Override
+    public void flush() {
+        lock.lock();
+        try {
+            if (current != null) {
+                seal(false, true);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } finally {
+            lock.unlock();
+        }
+        ScheduledThreadPoolExecutor executor = compressor;
+        if (executor == null || executor.isShutdown()) {
+            return;
+        }
+        try {
+            executor.submit(() -> { }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.err.println("Failed to flush compressed log file: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (current == null) {
+                return;
+            }
+            seal(false, true);
+            current = null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+        compressor.shutdown();
+        try {
+            if (!compressor.awaitTermination(30, TimeUnit.SECONDS)) {
+                System.err.println("Log compression did not finish in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Failed to close compressed log file: " + e.getMessage());
+        }
+        deflater.end();
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    // Кадр: текст событий в UTF-8 и их границы по времени
+    private static final class Frame {
+        byte[] data;
+        int length;
+        int events;
+        long minTimestamp;
+        long maxTimestamp;
+        boolean force;
+        long sequence;
+
+        Frame(int size) {
+            this.data = new byte[size];
+            reset(size);
+        }
+
+        void add(long timestamp) {
+            minTimestamp = Math.min(minTimestamp, timestamp);
+            maxTimestamp = Math.max(maxTimestamp, timestamp);
+            events++;
+        }
+
+        void reset(int size) {
+            if (data.length != size) {
+                data = new byte[size];
+            }
+            length = 0;
+            events = 0;
+            minTimestamp = Long.MAX_VALUE;
+            maxTimestamp = Long.MIN_VALUE;
+            force = false;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+// ConsoleAppender.java
+package com.example.logging.appender;
+
+import com.example.logging.config.LogLevel;
+import com.example.logging.core.LogEvent;
+
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.concurrent.locks.ReentrantLock;
+
+// ERROR пишется в System.err, остальное в System.out.
+// В режиме garbage-free текст не превращается в String: он кодируется в кодировке
+// потока переиспользуемым CharsetEncoder и пишется байтами. Кодировщик один на
+// поток вывода и занят на всё событие: длинный текст уходит несколькими write,
+// и без этого строки разных потоков перемешивались бы. Буферы на каждый поток
+// (ThreadLocal) при тысячах виртуальных потоков заняли бы сотни мегабайт.
+public class ConsoleAppender extends AbstractAppender {
+
+    private final Encoder outEncoder;
+    private final Encoder errEncoder;
+
+    public ConsoleAppender(String name) {
+        this(name, false);
+    }
+
+    public ConsoleAppender(String name, boolean garbageFree) {
+        super(name);
+        this.outEncoder = garbageFree ? new Encoder() : null;
+        this.errEncoder = garbageFree ? new Encoder() : null;
+    }
+
+    @Override
+    protected void write(LogEvent event, CharSequence text, boolean endOfBatch) {
+        boolean error = event.getLevel() == LogLevel.ERROR;
+        if (outEncoder != null) {
+            (error ? errEncoder : outEncoder).write(text, error ? System.err : System.out);
+        } else if (error) {
+            System.err.print(text);
+        } else {
+            System.out.print(text);
+        }
+    }
+
+    @Override
+    public void flush() {
+        System.out.flush();
+        System.err.flush();
+    }
+
+    // ReentrantLock, а не synchronized: ожидающий виртуальный поток не закрепляется за носителем
+    private static final class Encoder {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final CharBuffer chars = CharBuffer.allocate(1024);
+        private final ByteBuffer bytes = ByteBuffer.allocate(4096);
+        private CharsetEncoder encoder;
+
+        void write(CharSequence text, PrintStream stream) {
+            lock.lock();
+            try {
+                encode(text, stream);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void encode(CharSequence text, PrintStream stream) {
+            // System.out могли заменить потоком с другой кодировкой
+            if (encoder == null || !encoder.charset().equals(stream.charset())) {
+                encoder = stream.charset().newEncoder()
+                        .onMalformedInput(CodingErrorAction.REPLACE)
+                        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            }
+            encoder.reset();
+            chars.clear();
+            int length = text.length();
+            int next = 0;
+            boolean endOfInput;
+            do {
+                while (next < length && chars.hasRemaining()) {
+                    chars.put(text.charAt(next++));
+                }
+                endOfInput = next == length;
+                chars.flip();
+                while (encoder.encode(chars, bytes, endOfInput).isOverflow()) {
+                    drain(stream);
+                }
+                // Половина суррогатной пары на границе порции остаётся до следующей
+                chars.compact();
+            } while (!endOfInput);
+            while (encoder.flush(bytes).isOverflow()) {
+                drain(stream);
+            }
+            drain(stream);
+        }
+
+        private void drain(PrintStream stream) {
+            stream.write(bytes.array(), 0, bytes.position());
+            bytes.clear();
+        }
+    }
+}
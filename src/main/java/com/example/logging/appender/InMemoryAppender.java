@@ -0,0 +1,243 @@
+// InMemoryAppender.java
+package com.example.logging.appender;
+
+import com.example.logging.config.LogLevel;
+import com.example.logging.core.LogEvent;
+import com.example.logging.util.Utf8;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Последние события в памяти - для тестов и диагностики без чтения файлов
+// (см. LoggingLibrary.queryRecent и /actuator/recentlogs).
+//
+// Событие хранится одним byte[]: номер, время, уровень, длины имён, затем логгер, поток
+// и отрисованный текст в UTF-8 - без графа LogEvent/String. Кольцо слотов без блокировок:
+// запись берёт номер getAndIncrement и кладёт массив в слот номер % capacity, вытесняя
+// самое старое событие. Объём ограничен отдельно: пока сумма размеров больше maxBytes,
+// вытесняются самые старые записи.
+public class InMemoryAppender extends AbstractAppender {
+
+    public static final int DEFAULT_CAPACITY = 1000;
+    public static final long DEFAULT_MAX_BYTES = 4L * 1024 * 1024;
+
+    private static final LogLevel[] LEVELS = LogLevel.values();
+    // sequence, timestamp, level, длина логгера, длина потока
+    private static final int HEADER = 8 + 8 + 1 + 4 + 4;
+
+    private final int capacity;
+    private final long maxBytes;
+    private final AtomicReferenceArray<byte[]> slots;
+    private final AtomicLong next = new AtomicLong(); // номер следующей записи
+    private final AtomicLong head = new AtomicLong(); // номер самой старой из хранимых
+    private final AtomicLong bytes = new AtomicLong();
+
+    public InMemoryAppender(String name, int capacity) {
+        this(name, capacity, DEFAULT_MAX_BYTES);
+    }
+
+    public InMemoryAppender(String name, int capacity, long maxBytes) {
+        super(name);
+        this.capacity = Math.max(capacity, 1);
+        this.maxBytes = Math.max(maxBytes, HEADER);
+        this.slots = new AtomicReferenceArray<>(this.capacity);
+    }
+
+    @Override
+    protected void write(LogEvent event, CharSequence text, boolean endOfBatch) {
+        String logger = event.getLoggerName();
+        String thread = event.getThreadName();
+        int loggerLength = Utf8.encodedLength(logger);
+        int threadLength = Utf8.encodedLength(thread);
+        int size = HEADER + loggerLength + threadLength + Utf8.encodedLength(text);
+        if (size > maxBytes) {
+            return; // событие больше всего буфера не сохраняется
+        }
+        byte[] record = new byte[size];
+        long sequence = next.getAndIncrement();
+        putLong(record, 0, sequence);
+        putLong(record, 8, event.getTimestamp());
+        record[16] = (byte) event.getLevel().ordinal();
+        putInt(record, 17, loggerLength);
+        putInt(record, 21, threadLength);
+        int position = Utf8.encode(logger, record, HEADER);
+        position = Utf8.encode(thread, record, position);
+        Utf8.encode(text, record, position);
+
+        int index = index(sequence);
+        byte[] previous;
+        do {
+            previous = slots.get(index);
+            if (previous != null && sequenceOf(previous) > sequence) {
+                return; // пока писали, слот уже занял более новый номер
+            }
+        } while (!slots.compareAndSet(index, previous, record));
+        if (previous != null) {
+            bytes.addAndGet(-previous.length);
+        }
+        long total = bytes.addAndGet(size);
+
+        advanceHead(sequence - capacity + 1);
+        while (total > maxBytes && evictOldest(sequence)) {
+            total = bytes.get();
+        }
+    }
+
+    private void advanceHead(long minimum) {
+        long current;
+        while ((current = head.get()) < minimum) {
+            if (head.compareAndSet(current, minimum)) {
+                return;
+            }
+        }
+    }
+
+    // Вытесняет запись с номером head, но не новее limit; false - вытеснять нечего
+    private boolean evictOldest(long limit) {
+        long oldest = head.get();
+        if (oldest >= limit) {
+            return false;
+        }
+        if (head.compareAndSet(oldest, oldest + 1)) {
+            int index = index(oldest);
+            byte[] record = slots.get(index);
+            if (record != null && sequenceOf(record) == oldest && slots.compareAndSet(index, record, null)) {
+                bytes.addAndGet(-record.length);
+            }
+        }
+        return true;
+    }
+
+    // События от старых к новым; limit оставляет самые новые
+    public List<MemoryLogEntry> query(LogQuery query) {
+        byte[] loggerPrefix = query.getLogger() != null ? query.getLogger().getBytes(StandardCharsets.UTF_8) : null;
+        List<MemoryLogEntry> result = new ArrayList<>();
+        long end = next.get();
+        long start = Math.max(head.get(), end - capacity);
+        for (long sequence = end - 1; sequence >= start && result.size() < query.getLimit(); sequence--) {
+            byte[] record = slots.get(index(sequence));
+            if (record == null || sequenceOf(record) != sequence || !matches(record, query, loggerPrefix)) {
+                continue;
+            }
+            MemoryLogEntry entry = decode(record);
+            if (query.getContains() == null || entry.getText().contains(query.getContains())) {
+                result.add(entry);
+            }
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    public List<String> getLines() {
+        List<String> lines = new ArrayList<>();
+        for (MemoryLogEntry entry : query(LogQuery.all())) {
+            lines.add(entry.getText());
+        }
+        return lines;
+    }
+
+    public void clear() {
+        advanceHead(next.get());
+        for (int i = 0; i < capacity; i++) {
+            byte[] record = slots.getAndSet(i, null);
+            if (record != null) {
+                bytes.addAndGet(-record.length);
+            }
+        }
+    }
+
+    public int size() {
+        long end = next.get();
+        return (int) Math.min(end - head.get(), capacity);
+    }
+
+    // Сумма размеров хранимых записей
+    public long getSizeInBytes() {
+        return bytes.get();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    // Уровень, время и логгер проверяются по байтам, без декодирования строк
+    private static boolean matches(byte[] record, LogQuery query, byte[] loggerPrefix) {
+        long timestamp = getLong(record, 8);
+        if (timestamp < query.getFrom() || timestamp >= query.getTo()) {
+            return false;
+        }
+        if (query.getLevel() != null && !LEVELS[record[16]].isEnabled(query.getLevel())) {
+            return false;
+        }
+        if (loggerPrefix == null) {
+            return true;
+        }
+        int loggerLength = getInt(record, 17);
+        if (loggerLength < loggerPrefix.length) {
+            return false;
+        }
+        for (int i = 0; i < loggerPrefix.length; i++) {
+            if (record[HEADER + i] != loggerPrefix[i]) {
+                return false;
+            }
+        }
+        return loggerLength == loggerPrefix.length || record[HEADER + loggerPrefix.length] == '.';
+    }
+
+    private static MemoryLogEntry decode(byte[] record) {
+        int loggerLength = getInt(record, 17);
+        int threadLength = getInt(record, 21);
+        int thread = HEADER + loggerLength;
+        int text = thread + threadLength;
+        return new MemoryLogEntry(getLong(record, 0), getLong(record, 8), LEVELS[record[16]],
+                new String(record, HEADER, loggerLength, StandardCharsets.UTF_8),
+                new String(record, thread, threadLength, StandardCharsets.UTF_8),
+                new String(record, text, record.length - text, StandardCharsets.UTF_8));
+    }
+
+    private int index(long sequence) {
+        return (int) (sequence % capacity);
+    }
+
+    private static long sequenceOf(byte[] record) {
+        return getLong(record, 0);
+    }
+
+    private static void putLong(byte[] target, int offset, long value) {
+        for (int i = 7; i >= 0; i--) {
+            target[offset + i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+
+    private static void putInt(byte[] target, int offset, int value) {
+        for (int i = 3; i >= 0; i--) {
+            target[offset + i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+
+    private static long getLong(byte[] source, int offset) {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (source[offset + i] & 0xFF);
+        }
+        return value;
+    }
+
+    private static int getInt(byte[] source, int offset) {
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            value = (value << 8) | (source[offset + i] & 0xFF);
+        }
+        return value;
+    }
+}
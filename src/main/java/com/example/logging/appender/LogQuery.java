@@ -0,0 +1,59 @@
+// LogQuery.java
+package com.example.logging.appender;
+
+import com.example.logging.config.LogLevel;
+
+import java.time.Instant;
+
+// Отбор событий из InMemoryAppender. Условия объединяются по И, незаданные не проверяются:
+//   LogQuery.all().level(LogLevel.WARN).logger("com.foo").contains("timeout").limit(100)
+public class LogQuery {
+
+    private LogLevel level; // не ниже этого уровня
+    private String logger; // логгер или пакет: com.foo подходит и для com.foo.Bar
+    private long from = Long.MIN_VALUE; // ms, включительно
+    private long to = Long.MAX_VALUE; // ms, не включительно
+    private String contains; // подстрока отрисованного текста, с учётом регистра
+    private int limit = Integer.MAX_VALUE; // самые новые limit событий
+
+    public static LogQuery all() {
+        return new LogQuery();
+    }
+
+    public LogQuery level(LogLevel level) {
+        this.level = level;
+        return this;
+    }
+
+    public LogQuery logger(String logger) {
+        this.logger = logger == null || logger.isEmpty() ? null : logger;
+        return this;
+    }
+
+    public LogQuery from(Instant from) {
+        this.from = from.toEpochMilli();
+        return this;
+    }
+
+    public LogQuery to(Instant to) {
+        this.to = to.toEpochMilli();
+        return this;
+    }
+
+    public LogQuery contains(String contains) {
+        this.contains = contains == null || contains.isEmpty() ? null : contains;
+        return this;
+    }
+
+    public LogQuery limit(int limit) {
+        this.limit = Math.max(limit, 0);
+        return this;
+    }
+
+    public LogLevel getLevel() { return level; }
+    public String getLogger() { return logger; }
+    public long getFrom() { return from; }
+    public long getTo() { return to; }
+    public String getContains() { return contains; }
+    public int getLimit() { return limit; }
+}
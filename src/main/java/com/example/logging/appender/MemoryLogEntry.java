@@ -0,0 +1,37 @@
+// MemoryLogEntry.java
+package com.example.logging.appender;
+
+import com.example.logging.config.LogLevel;
+
+// Событие, прочитанное из InMemoryAppender; text - строка, отрисованная layout приёмника
+public class MemoryLogEntry {
+
+    private final long sequence;
+    private final long timestamp;
+    private final LogLevel level;
+    private final String loggerName;
+    private final String threadName;
+    private final String text;
+
+    public MemoryLogEntry(long sequence, long timestamp, LogLevel level, String loggerName, String threadName,
+                          String text) {
+        this.sequence = sequence;
+        this.timestamp = timestamp;
+        this.level = level;
+        this.loggerName = loggerName;
+        this.threadName = threadName;
+        this.text = text;
+    }
+
+    public long getSequence() { return sequence; }
+    public long getTimestamp() { return timestamp; }
+    public LogLevel getLevel() { return level; }
+    public String getLoggerName() { return loggerName; }
+    public String getThreadName() { return threadName; }
+    public String getText() { return text; }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+}
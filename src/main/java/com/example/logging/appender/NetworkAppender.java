@@ -0,0 +1,700 @@
+// NetworkAppender.java
+package com.example.logging.appender;
+
+import com.example.logging.config.LogLevel;
+import com.example.logging.config.NetworkFraming;
+import com.example.logging.config.NetworkProtocol;
+import com.example.logging.core.LogEvent;
+import com.example.logging.layout.CachedDateFormatter;
+import com.example.logging.layout.JsonLayout;
+import com.example.logging.network.NetworkSpool;
+import com.example.logging.util.Utf8;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.channels.UnresolvedAddressException;
+import java.nio.file.Path;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Отправка событий на сервер сбора логов по TCP или UDP (см. NetworkFraming).
+//
+// Поток записи только кодирует событие в текущую пачку. Заполненная пачка (batchSize
+// байт), пачка по концу серии событий (flushInterval = 0) или по таймеру уходит
+// потоку отправки. Он пишет в неблокирующий SocketChannel: пачки идут подряд, без
+// ожидания ответа. Пока сервер недоступен или не успевает читать (сокет заполнен),
+// новые пачки дописываются в локальный spool (NetworkSpool), после переподключения
+// сначала отправляется он - порядок событий сохраняется. Пачка, оборванная
+// разрывом соединения, отправляется повторно целиком (доставка "хотя бы раз").
+//
+// Обратное давление: если заполнен и spool (spoolMaxSize), пачки перестают
+// освобождаться и поток записи ждёт свободную. В асинхронном режиме это ожидание
+// фонового потока, дальше действует overflow-policy буфера (BLOCK, DROP_BELOW_WARN,
+// DISCARD); в синхронном ждут потоки приложения.
+//
+// Если spool испорчен или поток отправки получил неожиданную ошибку, состояние spool
+// неизвестно: он больше не используется (файлы остаются на диске), пачки, которые
+// нельзя отправить сразу, отбрасываются и учитываются в getDroppedCount().
+//
+// UDP - событие на датаграмму, без подключения и spool: датаграмму, которую не
+// удалось отправить, учитывает getDroppedCount().
+public class NetworkAppender extends AbstractAppender {
+
+    public static final int DEFAULT_BATCH_SIZE = 64 * 1024;
+    public static final long DEFAULT_SPOOL_MAX_SIZE = 256L * 1024 * 1024;
+    public static final long DEFAULT_RECONNECT_DELAY = 1000;
+
+    private static final int POOL_SIZE = 4;
+    private static final long SEGMENT_SIZE = 16L * 1024 * 1024;
+    private static final long MAX_RECONNECT_DELAY = 30_000;
+    private static final long FLUSH_TIMEOUT = 5000;
+    private static final int FACILITY_USER = 1;
+
+    private final String host;
+    private final int port;
+    private final NetworkProtocol protocol;
+    private final NetworkFraming framing;
+    private final int batchSize;
+    private final long flushInterval;
+    private final Path spoolDir;
+    private final long spoolMaxSize;
+    private volatile long reconnectDelay = DEFAULT_RECONNECT_DELAY;
+    private String appName = "-";
+
+    private final BlockingQueue<Batch> free = new ArrayBlockingQueue<>(POOL_SIZE);
+    private final BlockingQueue<Batch> ready = new ArrayBlockingQueue<>(POOL_SIZE);
+    // Пачки, отданные потоку отправки и ещё не отправленные или не сохранённые в spool
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final Object drained = new Object();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Под lock
+    private final StringBuilder header = new StringBuilder(128);
+    private final CachedDateFormatter dates = new CachedDateFormatter(JsonLayout.TIMESTAMP_PATTERN, ZoneOffset.UTC);
+    private String hostname = "-";
+    private Batch current;
+
+    // Только для потока отправки
+    private Selector selector;
+    private SocketChannel socket;
+    private SelectionKey key;
+    private boolean connected;
+    private DatagramChannel datagram;
+    private NetworkSpool spool;
+    private boolean spoolBroken;
+    private ByteBuffer inFlight;
+    private Batch inFlightBatch; // null - inFlight прочитан из spool
+    private ByteBuffer spoolBuffer;
+    private final ByteBuffer scratch = ByteBuffer.allocate(1024);
+    private long nextConnect;
+    private long delay;
+    private boolean reported; // ошибка соединения уже выведена
+
+    private Thread sender;
+    private volatile boolean running;
+    private volatile boolean sleeping;
+
+    private final AtomicLong sentBytes = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile long spoolSize;
+
+    public NetworkAppender(String name, String host, int port, NetworkProtocol protocol, NetworkFraming framing,
+                           int batchSize, long flushInterval, Path spoolDir, long spoolMaxSize) {
+        super(name);
+        this.host = host;
+        this.port = port;
+        this.protocol = protocol;
+        this.framing = framing;
+        this.batchSize = Math.max(batchSize, 1024);
+        this.flushInterval = Math.max(flushInterval, 0);
+        this.spoolDir = spoolDir.toAbsolutePath();
+        this.spoolMaxSize = spoolMaxSize;
+    }
+
+    public void setAppName(String appName) {
+        this.appName = appName == null || appName.isBlank() ? "-" : appName.replace(' ', '_');
+    }
+
+    public void setReconnectDelay(long reconnectDelay) {
+        this.reconnectDelay = Math.max(reconnectDelay, 1);
+    }
+
+    @Override
+    public void start() {
+        try {
+            hostname = InetAddress.getLocalHost().getHostName();
+        } catch (IOException e) {
+            hostname = "-";
+        }
+        try {
+            selector = Selector.open();
+            if (protocol == NetworkProtocol.UDP) {
+                datagram = DatagramChannel.open();
+                datagram.configureBlocking(false);
+                datagram.connect(new InetSocketAddress(host, port));
+            } else {
+                spool = NetworkSpool.open(spoolDir, getName(), SEGMENT_SIZE, spoolMaxSize);
+                spoolSize = spool.size();
+            }
+        } catch (IOException | UnresolvedAddressException e) {
+            closeQuietly();
+            throw new UncheckedIOException("Failed to open network appender to " + host + ":" + port,
+                    e instanceof IOException ? (IOException) e : new IOException(e));
+        }
+        for (int i = 0; i < POOL_SIZE; i++) {
+            free.add(new Batch(batchSize));
+        }
+        current = free.poll();
+        delay = reconnectDelay;
+        running = true;
+        sender = new Thread(this::run, "logging-library-network");
+        sender.setDaemon(true);
+        sender.start();
+    }
+
+    @Override
+    protected void write(LogEvent event, CharSequence text, boolean endOfBatch) {
+        // Перевод строки в конце не нужен: границы событий задаёт кадр
+        int trailing = 0;
+        for (int i = text.length() - 1; i >= 0 && (text.charAt(i) == '\n' || text.charAt(i) == '\r'); i--) {
+            trailing++;
+        }
+        int textLength = Utf8.encodedLength(text) - trailing;
+        lock.lock();
+        try {
+            if (current == null) {
+                return;
+            }
+            int headerLength = 0;
+            if (framing == NetworkFraming.SYSLOG) {
+                header.setLength(0);
+                appendSyslogHeader(event);
+                headerLength = Utf8.encodedLength(header);
+            }
+            int messageLength = headerLength + textLength;
+            int prefixLength = prefixLength(messageLength);
+            int frameLength = prefixLength + messageLength;
+
+            if (current.length > 0 && current.length + frameLength > current.data.length) {
+                seal(true);
+            }
+            current.ensureCapacity(frameLength + trailing); // перевод строки кодируется и отрезается
+            byte[] data = current.data;
+            int position = current.length;
+            if (protocol == NetworkProtocol.TCP && framing == NetworkFraming.LENGTH_PREFIXED) {
+                data[position] = (byte) (messageLength >>> 24);
+                data[position + 1] = (byte) (messageLength >>> 16);
+                data[position + 2] = (byte) (messageLength >>> 8);
+                data[position + 3] = (byte) messageLength;
+                position += 4;
+            } else if (protocol == NetworkProtocol.TCP) {
+                position = appendDigits(messageLength, data, position);
+                data[position++] = ' ';
+            }
+            if (headerLength > 0) {
+                position = Utf8.encode(header, data, position);
+            }
+            position = Utf8.encode(text, data, position) - trailing;
+            current.add(position);
+
+            // ERROR не ждёт таймера
+            if ((endOfBatch && (flushInterval == 0 || event.getLevel() == LogLevel.ERROR))
+                    || current.length >= batchSize) {
+                seal(true);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // <PRI>1 TIMESTAMP HOSTNAME APP-NAME PROCID MSGID STRUCTURED-DATA, сообщение - текст layout
+    private void appendSyslogHeader(LogEvent event) {
+        header.append('<').append(FACILITY_USER * 8 + severity(event.getLevel())).append(">1 ");
+        dates.formatTo(event.getTimestamp(), header);
+        header.append(' ').append(hostname).append(' ').append(appName).append(" - - - ");
+    }
+
+    private static int severity(LogLevel level) {
+        switch (level) {
+            case ERROR:
+                return 3;
+            case WARN:
+                return 4;
+            case INFO:
+                return 6;
+            default:
+                return 7;
+        }
+    }
+
+    private int prefixLength(int messageLength) {
+        if (protocol == NetworkProtocol.UDP) {
+            return 0;
+        }
+        if (framing == NetworkFraming.LENGTH_PREFIXED) {
+            return 4;
+        }
+        return digits(messageLength) + 1;
+    }
+
+    private static int digits(int value) {
+        int digits = 1;
+        for (; value >= 10; value /= 10) {
+            digits++;
+        }
+        return digits;
+    }
+
+    private static int appendDigits(int value, byte[] out, int position) {
+        int digits = digits(value);
+        for (int i = position + digits - 1; i >= position; i--) {
+            out[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return position + digits;
+    }
+
+    // Под lock: отдаёт текущую пачку потоку отправки и берёт свободную. Без wait пачка
+    // не отдаётся, если свободных нет; current == null после возврата - приёмник закрыт
+    private void seal(boolean wait) throws InterruptedException {
+        if (current.length == 0) {
+            return;
+        }
+        Batch next = free.poll();
+        if (next == null) {
+            if (!wait) {
+                return;
+            }
+            while ((next = free.poll(100, TimeUnit.MILLISECONDS)) == null) {
+                if (!running) {
+                    // Отправлять уже некому
+                    dropped.addAndGet(current.frames);
+                    current.reset(batchSize);
+                    return;
+                }
+            }
+        }
+        outstanding.incrementAndGet();
+        ready.add(current);
+        current = next;
+        if (sleeping) {
+            selector.wakeup();
+        }
+    }
+
+    // В потоке отправки: ждать здесь нельзя - только этот поток освобождает пачки
+    private void sealOnTimer() {
+        if (!lock.tryLock()) {
+            return;
+        }
+        try {
+            if (current != null) {
+                seal(false);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void run() {
+        long lastSeal = System.currentTimeMillis();
+        while (running) {
+            try {
+                if (protocol == NetworkProtocol.UDP) {
+                    sendDatagrams();
+                } else {
+                    if (socket == null && System.currentTimeMillis() >= nextConnect) {
+                        connect();
+                    }
+                    if (connected) {
+                        pump();
+                    }
+                    if (!connected || inFlight != null) {
+                        spoolReady();
+                    }
+                }
+
+                long now = System.currentTimeMillis();
+                if (flushInterval > 0 && now - lastSeal >= flushInterval) {
+                    sealOnTimer();
+                    lastSeal = now;
+                }
+                long timeout = 1000;
+                if (flushInterval > 0) {
+                    timeout = Math.min(timeout, flushInterval - (now - lastSeal));
+                }
+                if (protocol == NetworkProtocol.TCP && socket == null) {
+                    timeout = Math.min(timeout, nextConnect - now);
+                }
+                await(Math.max(timeout, 1));
+            } catch (IOException | UnresolvedAddressException e) {
+                disconnect(e);
+            } catch (RuntimeException e) {
+                // Поток отправки не должен умереть: иначе пачки не освобождаются и встают потоки записи
+                if (protocol == NetworkProtocol.TCP) {
+                    spoolFailed(e);
+                    disconnect(e);
+                } else {
+                    System.err.println("Network appender '" + getName() + "' failed to send: " + e);
+                }
+            }
+        }
+        shutdown();
+    }
+
+    private void await(long timeout) throws IOException {
+        if (key != null && key.isValid()) {
+            key.interestOps(!connected ? SelectionKey.OP_CONNECT
+                    : inFlight != null ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+        }
+        sleeping = true;
+        try {
+            if (!ready.isEmpty()) {
+                selector.selectNow();
+            } else {
+                selector.select(timeout);
+            }
+        } finally {
+            sleeping = false;
+        }
+        if (key == null || !selector.selectedKeys().remove(key) || !key.isValid()) {
+            return;
+        }
+        if (key.isConnectable() && socket.finishConnect()) {
+            connected();
+        }
+        if (key.isValid() && key.isReadable()) {
+            // Сервер ничего не шлёт; чтение нужно, чтобы заметить закрытое соединение
+            scratch.clear();
+            if (socket.read(scratch) < 0) {
+                throw new EOFException("Connection closed by " + host + ":" + port);
+            }
+        }
+    }
+
+    private void connect() throws IOException {
+        socket = SocketChannel.open();
+        socket.configureBlocking(false);
+        socket.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        boolean done = socket.connect(new InetSocketAddress(host, port));
+        key = socket.register(selector, done ? SelectionKey.OP_READ : SelectionKey.OP_CONNECT);
+        if (done) {
+            connected();
+        }
+    }
+
+    private void connected() {
+        connected = true;
+        delay = reconnectDelay;
+        if (reported) {
+            System.err.println("Network appender '" + getName() + "' reconnected to " + host + ":" + port);
+            reported = false;
+        }
+    }
+
+    private void disconnect(Exception cause) {
+        if (!reported) {
+            System.err.println("Network appender '" + getName() + "' cannot send to " + host + ":" + port
+                    + ", spooling: " + cause);
+            reported = true;
+        }
+        closeSocket();
+        requeueInFlight();
+        nextConnect = System.currentTimeMillis() + delay;
+        delay = Math.min(delay * 2, MAX_RECONNECT_DELAY);
+    }
+
+    // Недописанная пачка уйдёт первой после переподключения
+    private void requeueInFlight() {
+        try {
+            if (inFlight != null && inFlightBatch != null) {
+                if (spoolBroken || !spool.prepend(inFlightBatch.data, 0, inFlightBatch.length)) {
+                    dropped.addAndGet(inFlightBatch.frames);
+                }
+                release(inFlightBatch);
+            } else if (inFlight != null && !spoolBroken) {
+                spool.rollback();
+            }
+            spoolSize = spool.size();
+        } catch (IOException | RuntimeException e) {
+            if (e instanceof RuntimeException) {
+                spoolFailed((RuntimeException) e);
+            } else {
+                System.err.println("Failed to write network spool: " + e.getMessage());
+            }
+            if (inFlightBatch != null) {
+                dropped.addAndGet(inFlightBatch.frames);
+                release(inFlightBatch);
+            }
+        }
+        inFlight = null;
+        inFlightBatch = null;
+    }
+
+    private void spoolFailed(RuntimeException cause) {
+        if (!spoolBroken) {
+            System.err.println("Network appender '" + getName() + "' stopped using its spool " + spoolDir
+                    + ", unsent batches will be dropped: " + cause);
+            spoolBroken = true;
+        }
+    }
+
+    private void closeSocket() {
+        connected = false;
+        if (key != null) {
+            key.cancel();
+            key = null;
+        }
+        if (socket != null) {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // соединение и так потеряно
+            }
+            socket = null;
+        }
+    }
+
+    // Пишет, пока сокет принимает данные: сначала spool, затем новые пачки
+    private void pump() throws IOException {
+        while (true) {
+            if (inFlight == null) {
+                if (!spoolBroken && !spool.isEmpty()) {
+                    spoolBuffer = spool.next(spoolBuffer);
+                    inFlight = spoolBuffer;
+                } else {
+                    Batch batch = ready.poll();
+                    if (batch == null) {
+                        return;
+                    }
+                    inFlightBatch = batch;
+                    inFlight = ByteBuffer.wrap(batch.data, 0, batch.length);
+                }
+            }
+            sentBytes.addAndGet(socket.write(inFlight));
+            if (inFlight.hasRemaining()) {
+                return; // сокет заполнен: ждём OP_WRITE, новые пачки тем временем идут в spool
+            }
+            if (inFlightBatch != null) {
+                release(inFlightBatch);
+                inFlightBatch = null;
+            } else {
+                spool.commit();
+                spoolSize = spool.size();
+            }
+            inFlight = null;
+        }
+    }
+
+    // Пачки, которые нельзя отправить сразу, - в spool. Если он заполнен, пачки
+    // остаются в очереди и поток записи в конце концов ждёт свободную
+    private void spoolReady() throws IOException {
+        Batch batch;
+        if (spoolBroken) {
+            while ((batch = ready.poll()) != null) {
+                dropped.addAndGet(batch.frames);
+                release(batch);
+            }
+            return;
+        }
+        while ((batch = ready.peek()) != null) {
+            if (!spool.append(batch.data, 0, batch.length)) {
+                break;
+            }
+            ready.poll();
+            release(batch);
+        }
+        spoolSize = spool.size();
+    }
+
+    private void sendDatagrams() {
+        Batch batch;
+        while ((batch = ready.poll()) != null) {
+            int start = 0;
+            for (int i = 0; i < batch.frames; i++) {
+                int end = batch.ends[i];
+                try {
+                    int written = datagram.write(ByteBuffer.wrap(batch.data, start, end - start));
+                    if (written == 0) {
+                        dropped.incrementAndGet(); // буфер сокета заполнен
+                    } else {
+                        sentBytes.addAndGet(written);
+                    }
+                } catch (IOException e) {
+                    dropped.incrementAndGet(); // например, ICMP port unreachable
+                }
+                start = end;
+            }
+            release(batch);
+        }
+    }
+
+    private void release(Batch batch) {
+        batch.reset(batchSize);
+        free.add(batch);
+        if (outstanding.decrementAndGet() == 0) {
+            synchronized (drained) {
+                drained.notifyAll();
+            }
+        }
+    }
+
+    // Поток отправки остановлен: всё неотправленное - в spool до следующего запуска
+    private void shutdown() {
+        try {
+            if (protocol == NetworkProtocol.TCP) {
+                requeueInFlight();
+                spoolReady();
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Failed to write network spool: " + e);
+        }
+        Batch batch;
+        while ((batch = ready.poll()) != null) {
+            dropped.addAndGet(batch.frames);
+            release(batch);
+        }
+        closeQuietly();
+    }
+
+    private void closeQuietly() {
+        closeSocket();
+        try {
+            if (datagram != null) {
+                datagram.close();
+            }
+            if (selector != null) {
+                selector.close();
+            }
+            if (spool != null) {
+                spool.close();
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to close network appender: " + e.getMessage());
+        }
+    }
+
+    // Отдаёт текущую пачку и ждёт, пока все пачки будут отправлены или сохранены в spool
+    @Override
+    public void flush() {
+        lock.lock();
+        try {
+            if (current != null) {
+                seal(true);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } finally {
+            lock.unlock();
+        }
+        long deadline = System.currentTimeMillis() + FLUSH_TIMEOUT;
+        synchronized (drained) {
+            long remaining;
+            while (outstanding.get() > 0 && running && (remaining = deadline - System.currentTimeMillis()) > 0) {
+                try {
+                    drained.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (!running) {
+            return;
+        }
+        flush();
+        // Сначала флаг: потоки записи, ждущие свободную пачку, отпускают блокировку
+        running = false;
+        selector.wakeup();
+        try {
+            sender.join(FLUSH_TIMEOUT);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        lock.lock();
+        try {
+            if (current != null) {
+                dropped.addAndGet(current.frames); // записано после flush()
+                current = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    public long getSentBytes() {
+        return sentBytes.get();
+    }
+
+    // Событий, потерянных без отправки (UDP, заполненный или испорченный spool, закрытие)
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getSpoolSize() {
+        return spoolSize;
+    }
+
+    // Кадры событий подряд; ends - конец каждого кадра (нужен для датаграмм)
+    private static final class Batch {
+        byte[] data;
+        int length;
+        int[] ends = new int[64];
+        int frames;
+
+        Batch(int size) {
+            this.data = new byte[size];
+        }
+
+        void ensureCapacity(int frameLength) {
+            if (length + frameLength > data.length) {
+                // Событие больше пачки: пачка растягивается под него и после отправки возвращается к batchSize
+                data = Arrays.copyOf(data, length + frameLength);
+            }
+        }
+
+        void add(int end) {
+            if (frames == ends.length) {
+                ends = Arrays.copyOf(ends, frames * 2);
+            }
+            ends[frames++] = end;
+            length = end;
+        }
+
+        void reset(int size) {
+            if (data.length != size) {
+                data = new byte[size];
+            }
+            length = 0;
+            frames = 0;
+        }
+    }
+}
@@ -0,0 +1,450 @@
+// RollingFileAppender.java
+package com.example.logging.appender;
+
+import com.example.logging.config.Durability;
+import com.example.logging.config.LogLevel;
+import com.example.logging.core.LogEvent;
+import com.example.logging.index.LogIndexFormat;
+import com.example.logging.index.LogIndexWriter;
+import com.example.logging.util.Utf8;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+// Запись в файл с ротацией по размеру и по суткам.
+//
+// События кодируются в UTF-8 прямо в direct ByteBuffer и уходят в FileChannel
+// одним write, когда буфер заполнен, по таймеру (flushInterval), сразу для ERROR
+// (в зависимости от durability) или, если flushInterval = 0, после каждого события/пачки.
+//
+// Архивы именуются <имя>.<yyyy-MM-dd>.<индекс><расширение>[.gz], например
+// logs/myapp.2026-10-17.0.log.gz. Сжатие и удаление архивов старше maxHistory
+// дней выполняются в фоновом потоке, поток записи ждёт только переименования.
+// Все операции с активным файлом выполняются под одной блокировкой, поэтому
+// строка целиком попадает либо в старый, либо в новый файл. Блокировка -
+// ReentrantLock, а не synchronized: виртуальный поток, ждущий её или пишущий
+// в файл, не закрепляется за потоком-носителем.
+//
+// С indexed = true рядом с файлом ведётся индекс <файл>.idx (см. LogIndexFormat): он
+// переезжает вместе с архивом, а при сжатии каждый блок становится отдельным
+// gzip-членом, чтобы LogSearch распаковывал только нужные блоки.
+public class RollingFileAppender extends AbstractAppender {
+
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private static final String GZIP_SUFFIX = ".gz";
+    // Пауза перед повтором неудачной ротации: иначе каждая запись снова закрывает и открывает файл
+    private static final long ROLLOVER_RETRY_INTERVAL = 60_000;
+
+    private final Path file;
+    private final long maxFileSize;
+    private final int maxHistory;
+    private final boolean compress;
+    private final long flushInterval;
+    private final Durability durability;
+    private final ZoneId zone;
+    private final Pattern archivePattern;
+    private final String baseName;
+    private final String extension;
+    private final ByteBuffer buffer;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Пересоздаётся в open() после close()
+    private volatile ScheduledExecutorService housekeeper;
+    private FileChannel channel;
+    // Активный файл не удалось открыть заново после ошибки ротации - пробуем при каждой записи
+    private boolean broken;
+    // Об ошибках ротации сообщаем один раз до следующей успешной ротации
+    private boolean failureReported;
+    private long currentSize;
+    private LocalDate currentDate;
+    private long nextRolloverAt;
+    private long retryRolloverAt; // до этого момента после ошибки ротация не повторяется
+    private boolean indexed;
+    private LogIndexWriter index;
+
+    public RollingFileAppender(String filePath, long maxFileSize, int maxHistory, boolean compress) {
+        this("file", filePath, maxFileSize, maxHistory, compress, DEFAULT_BUFFER_SIZE, 0, Durability.FLUSH,
+                ZoneId.systemDefault());
+    }
+
+    public RollingFileAppender(String filePath, long maxFileSize, int maxHistory, boolean compress, ZoneId zone) {
+        this("file", filePath, maxFileSize, maxHistory, compress, DEFAULT_BUFFER_SIZE, 0, Durability.FLUSH, zone);
+    }
+
+    public RollingFileAppender(String name, String filePath, long maxFileSize, int maxHistory, boolean compress,
+                               int bufferSize, long flushInterval, Durability durability, ZoneId zone) {
+        super(name);
+        this.file = Paths.get(filePath).toAbsolutePath();
+        this.maxFileSize = maxFileSize;
+        this.maxHistory = maxHistory;
+        this.compress = compress;
+        this.flushInterval = flushInterval;
+        this.durability = durability;
+        this.zone = zone;
+        this.buffer = ByteBuffer.allocateDirect(Math.max(bufferSize, 256));
+
+        String fileName = file.getFileName().toString();
+        int dot = fileName.lastIndexOf('.');
+        this.baseName = dot > 0 ? fileName.substring(0, dot) : fileName;
+        this.extension = dot > 0 ? fileName.substring(dot) : "";
+        this.archivePattern = Pattern.compile(Pattern.quote(baseName) + "\\.(\\d{4}-\\d{2}-\\d{2})\\.(\\d+)"
+                + Pattern.quote(extension) + "(" + Pattern.quote(GZIP_SUFFIX) + "|"
+                + Pattern.quote(LogIndexFormat.INDEX_SUFFIX) + ")?");
+        this.housekeeper = newHousekeeper();
+    }
+
+    private static ScheduledExecutorService newHousekeeper() {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "logging-library-rolling");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setContinueExistingPeriodicTasksAfterShutdownPolicy(false);
+        return executor;
+    }
+
+    @Override
+    public void start() {
+        try {
+            open();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open log file " + file, e);
+        }
+    }
+
+    public void open() throws IOException {
+        ScheduledExecutorService executor;
+        lock.lock();
+        try {
+            if (housekeeper.isShutdown()) {
+                housekeeper = newHousekeeper();
+            }
+            executor = housekeeper;
+            Path parent = file.getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            long now = System.currentTimeMillis();
+            if (Files.exists(file) && Files.size(file) > 0) {
+                // Файл остался с прошлого запуска: если он за прошлые сутки - сразу архивируем
+                LocalDate fileDate = toDate(Files.getLastModifiedTime(file).toMillis());
+                if (fileDate.isBefore(toDate(now))) {
+                    archive(fileDate);
+                }
+            }
+            openActiveFile(now);
+            broken = false;
+            retryRolloverAt = 0;
+        } finally {
+            lock.unlock();
+        }
+        executor.execute(this::deleteExpiredArchives);
+        if (flushInterval > 0) {
+            executor.scheduleWithFixedDelay(this::flush, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    protected void write(LogEvent event, CharSequence text, boolean endOfBatch) {
+        try {
+            write(text, event.getTimestamp(), event.getLevel(), event.getLoggerName(), endOfBatch);
+        } catch (IOException e) {
+            System.err.println("Failed to write to log file: " + e.getMessage());
+        }
+    }
+
+    // endOfBatch - последнее событие синхронного вызова или пачки асинхронного буфера
+    public void write(CharSequence text, long timestamp, LogLevel level, boolean endOfBatch) throws IOException {
+        write(text, timestamp, level, "", endOfBatch);
+    }
+
+    private void write(CharSequence text, long timestamp, LogLevel level, String loggerName, boolean endOfBatch)
+            throws IOException {
+        // Длина считается до захвата блокировки
+        int length = Utf8.encodedLength(text);
+        lock.lock();
+        try {
+            if (channel == null && !(broken && reopen(timestamp))) {
+                return;
+            }
+            if ((timestamp >= nextRolloverAt
+                    || (maxFileSize > 0 && currentSize > 0 && currentSize + length > maxFileSize))
+                    && timestamp >= retryRolloverAt) {
+                rollover(timestamp);
+            }
+
+            int next = 0;
+            while ((next = Utf8.encode(text, next, buffer)) < text.length()) {
+                drainBuffer();
+            }
+            if (index != null) {
+                addToIndex(currentSize, length, timestamp, level, loggerName, text);
+            }
+            currentSize += length;
+
+            if (level == LogLevel.ERROR && durability != Durability.NONE) {
+                drainBuffer();
+                if (durability == Durability.FSYNC_ON_ERROR) {
+                    channel.force(false);
+                }
+            } else if (endOfBatch && flushInterval <= 0) {
+                drainBuffer();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void flush() {
+        lock.lock();
+        try {
+            if (channel != null) {
+                drainBuffer();
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to flush log file: " + e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            broken = false;
+            if (channel != null) {
+                try {
+                    drainBuffer();
+                    channel.close();
+                } catch (IOException e) {
+                    System.err.println("Failed to close log file: " + e.getMessage());
+                }
+                channel = null;
+                closeIndex();
+            }
+        } finally {
+            lock.unlock();
+        }
+        // Даём фоновому потоку дожать уже поставленные в очередь архивы
+        ScheduledExecutorService executor = housekeeper;
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                System.err.println("Log archive compression did not finish in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // При ошибке незаписанные байты остаются в буфере и уйдут следующей записью
+    private void drainBuffer() throws IOException {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } finally {
+            buffer.compact();
+        }
+    }
+
+    private void addToIndex(long offset, int length, long timestamp, LogLevel level, String loggerName,
+                            CharSequence text) {
+        try {
+            index.add(offset, length, timestamp, level, loggerName, text);
+        } catch (IOException e) {
+            // Лог важнее индекса: остаток файла LogSearch просмотрит целиком
+            System.err.println("Failed to write log index, indexing disabled for " + file + ": " + e.getMessage());
+            closeIndex();
+        }
+    }
+
+    private void closeIndex() {
+        if (index == null) {
+            return;
+        }
+        try {
+            index.close();
+        } catch (IOException e) {
+            System.err.println("Failed to close log index: " + e.getMessage());
+        }
+        index = null;
+    }
+
+    private void rollover(long timestamp) {
+        Path archived;
+        try {
+            drainBuffer();
+            channel.close();
+            channel = null;
+            closeIndex();
+            archived = archive(currentDate);
+            openActiveFile(timestamp);
+        } catch (IOException e) {
+            // Ротация не удалась (диск заполнен, нет прав, ошибка переименования):
+            // продолжаем дописывать в активный файл, попытка повторится через
+            // ROLLOVER_RETRY_INTERVAL или на границе суток, если она раньше
+            reportFailure("Failed to roll over log file " + file + ": " + e.getMessage());
+            if (channel == null || !channel.isOpen()) {
+                channel = null;
+                closeIndex();
+                reopen(timestamp);
+            }
+            retryRolloverAt = timestamp + ROLLOVER_RETRY_INTERVAL;
+            if (nextRolloverAt > timestamp) {
+                retryRolloverAt = Math.min(retryRolloverAt, nextRolloverAt);
+            }
+            return;
+        }
+        failureReported = false;
+        retryRolloverAt = 0;
+
+        if (compress && archived != null) {
+            housekeeper.execute(() -> compress(archived));
+        }
+        housekeeper.execute(this::deleteExpiredArchives);
+    }
+
+    private boolean reopen(long timestamp) {
+        try {
+            openActiveFile(timestamp);
+            broken = false;
+            return true;
+        } catch (IOException e) {
+            broken = true;
+            reportFailure("Failed to reopen log file " + file + ", events are dropped: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void reportFailure(String message) {
+        if (!failureReported) {
+            failureReported = true;
+            System.err.println(message);
+        }
+    }
+
+    // Не private: тесты подменяют, чтобы проверить ошибку ротации
+    Path archive(LocalDate date) throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        Path target = nextArchivePath(date);
+        move(file, target);
+        Path indexFile = LogIndexFormat.indexFor(file);
+        if (Files.exists(indexFile)) {
+            move(indexFile, LogIndexFormat.indexFor(target));
+        }
+        return target;
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private void openActiveFile(long timestamp) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        currentSize = channel.size();
+        if (indexed) {
+            try {
+                index = LogIndexWriter.open(LogIndexFormat.indexFor(file), currentSize);
+            } catch (IOException e) {
+                System.err.println("Failed to open log index for " + file + ": " + e.getMessage());
+            }
+        }
+        currentDate = toDate(timestamp);
+        nextRolloverAt = currentDate.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+    }
+
+    private Path nextArchivePath(LocalDate date) {
+        int index = 0;
+        Path dir = file.getParent();
+        while (true) {
+            String name = baseName + "." + date + "." + index + extension;
+            Path candidate = dir.resolve(name);
+            if (!Files.exists(candidate) && !Files.exists(dir.resolve(name + GZIP_SUFFIX))) {
+                return candidate;
+            }
+            index++;
+        }
+    }
+
+    private void compress(Path archived) {
+        Path gzipped = archived.resolveSibling(archived.getFileName() + GZIP_SUFFIX);
+        Path partial = archived.resolveSibling(gzipped.getFileName() + ".tmp");
+        try {
+            if (Files.exists(LogIndexFormat.indexFor(archived))) {
+                LogIndexWriter.compress(archived, partial);
+            } else {
+                try (InputStream in = Files.newInputStream(archived);
+                     OutputStream gzip = new GZIPOutputStream(Files.newOutputStream(partial), 65536)) {
+                    in.transferTo(gzip);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to compress log archive " + archived + ": " + e.getMessage());
+            try {
+                Files.deleteIfExists(partial);
+            } catch (IOException ignored) {
+                // оставляем несжатый архив как есть
+            }
+            return;
+        }
+        try {
+            Files.move(partial, gzipped, StandardCopyOption.ATOMIC_MOVE);
+            Files.delete(archived);
+        } catch (IOException e) {
+            System.err.println("Failed to finish compression of " + archived + ": " + e.getMessage());
+        }
+    }
+
+    void deleteExpiredArchives() {
+        if (maxHistory <= 0) {
+            return;
+        }
+        LocalDate oldestKept = toDate(System.currentTimeMillis()).minusDays(maxHistory);
+        try (DirectoryStream<Path> archives = Files.newDirectoryStream(file.getParent())) {
+            for (Path archive : archives) {
+                Matcher matcher = archivePattern.matcher(archive.getFileName().toString());
+                if (matcher.matches() && LocalDate.parse(matcher.group(1)).isBefore(oldestKept)) {
+                    Files.deleteIfExists(archive);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to clean up old log archives: " + e.getMessage());
+        }
+    }
+
+    private LocalDate toDate(long epochMillis) {
+        return LocalDate.ofInstant(Instant.ofEpochMilli(epochMillis), zone);
+    }
+
+    // Вести индекс для LogSearch; задаётся до start()
+    public void setIndexed(boolean indexed) {
+        this.indexed = indexed;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+}
@@ -0,0 +1,44 @@
+// RouteRule.java
+package com.example.logging.appender;
+
+import com.example.logging.config.LoggerConfig;
+import com.example.logging.core.Marker;
+
+import java.util.List;
+
+// Правило маршрута: события с меткой marker от логгера logger (незаданное - любое)
+// уходят в перечисленные приёмники. Приёмник, упомянутый хотя бы в одном правиле,
+// получает только события совпавших правил; additive - событие идёт ещё и в
+// обычные приёмники.
+public final class RouteRule {
+
+    private final Marker marker;
+    private final String logger;
+    private final List<String> appenders;
+    private final boolean additive;
+
+    public RouteRule(Marker marker, String logger, List<String> appenders, boolean additive) {
+        this.marker = marker;
+        this.logger = logger == null || logger.isEmpty() ? null : logger;
+        this.appenders = List.copyOf(appenders);
+        this.additive = additive;
+    }
+
+    public static RouteRule of(LoggerConfig.RouteDefinition definition) {
+        return new RouteRule(Marker.find(definition.getMarker()), definition.getLogger(),
+                definition.getAppenders(), definition.isAdditive());
+    }
+
+    boolean matches(String loggerName, Marker eventMarker) {
+        if (marker != null && marker != eventMarker) {
+            return false;
+        }
+        return logger == null || (loggerName.startsWith(logger)
+                && (loggerName.length() == logger.length() || loggerName.charAt(logger.length()) == '.'));
+    }
+
+    public Marker getMarker() { return marker; }
+    public String getLogger() { return logger; }
+    public List<String> getAppenders() { return appenders; }
+    public boolean isAdditive() { return additive; }
+}
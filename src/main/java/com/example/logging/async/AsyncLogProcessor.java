@@ -0,0 +1,197 @@
+// AsyncLogProcessor.java
+package com.example.logging.async;
+
+import com.example.logging.config.LogLevel;
+import com.example.logging.config.LoggerConfig;
+import com.example.logging.config.OverflowPolicy;
+import com.example.logging.core.LogEvent;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+// Связывает кольцевой буфер с единственным фоновым потоком, который
+// форматирует и записывает события.
+//
+// Использование со стороны производителя:
+//   long seq = processor.claim(level);
+//   if (seq >= 0) { fill(processor.get(seq)); processor.publish(seq); }
+public class AsyncLogProcessor implements Runnable {
+
+    private static final long BLOCK_PARK_NANOS = 1_000L;
+
+    private final RingBuffer ringBuffer;
+    private final WaitStrategy waitStrategy;
+    private final OverflowPolicy overflowPolicy;
+    private final EventHandler handler;
+    private final LongAdder discarded = new LongAdder();
+    private final BooleanSupplier runningCheck = () -> this.running;
+    // Создаётся в start(): передавать this в поток из конструктора нельзя
+    private volatile Thread thread;
+
+    private volatile boolean running;
+
+    public AsyncLogProcessor(LoggerConfig.Async config, EventHandler handler) {
+        this.ringBuffer = new RingBuffer(config.getBufferSize());
+        this.waitStrategy = WaitStrategy.of(config.getWaitStrategy());
+        this.overflowPolicy = config.getOverflowPolicy();
+        this.handler = handler;
+    }
+
+    public void start() {
+        Thread consumer = new Thread(this, "logging-library-async");
+        consumer.setDaemon(true);
+        thread = consumer;
+        running = true;
+        consumer.start();
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Фоновый поток не должен публиковать в собственный буфер - при BLOCK это взаимоблокировка
+    public boolean isConsumerThread() {
+        return Thread.currentThread() == thread;
+    }
+
+    // Захватывает слот согласно политике переполнения; -1 означает, что событие отброшено
+    public long claim(LogLevel level) {
+        if (!running) {
+            // Фоновый поток остановлен или упал - событие никто не запишет
+            discarded.increment();
+            return -1;
+        }
+        long sequence = ringBuffer.tryNext();
+        if (sequence >= 0) {
+            return sequence;
+        }
+        switch (overflowPolicy) {
+            case DISCARD:
+                discarded.increment();
+                return -1;
+            case DROP_BELOW_WARN:
+                if (level.getLevel() < LogLevel.WARN.getLevel()) {
+                    discarded.increment();
+                    return -1;
+                }
+                return awaitSlot();
+            case BLOCK:
+            default:
+                return awaitSlot();
+        }
+    }
+
+    private long awaitSlot() {
+        long sequence;
+        while ((sequence = ringBuffer.tryNext()) < 0) {
+            if (!running) {
+                discarded.increment();
+                return -1;
+            }
+            LockSupport.parkNanos(BLOCK_PARK_NANOS);
+        }
+        return sequence;
+    }
+
+    public LogEvent get(long sequence) {
+        return ringBuffer.get(sequence);
+    }
+
+    public void publish(long sequence) {
+        ringBuffer.publish(sequence);
+        waitStrategy.signalAllWhenBlocking();
+    }
+
+    @Override
+    public void run() {
+        long next = 0;
+        try {
+            while (true) {
+                try {
+                    if (!waitStrategy.waitFor(next, ringBuffer, runningCheck)) {
+                        break;
+                    }
+                } catch (InterruptedException e) {
+                    if (!running) {
+                        break;
+                    }
+                    continue;
+                }
+                long available = ringBuffer.getHighestPublished(next, ringBuffer.getCursor());
+                next = process(next, available);
+            }
+            next = drain(next);
+        } finally {
+            // Поток завершается (в том числе из-за Error вне обработки события):
+            // производители больше не ждут слота, а получают отказ
+            running = false;
+            long lost = ringBuffer.getCursor() - next + 1;
+            if (lost > 0) {
+                discarded.add(lost);
+            }
+        }
+    }
+
+    private long process(long from, long to) {
+        for (long sequence = from; sequence <= to; sequence++) {
+            LogEvent event = ringBuffer.get(sequence);
+            try {
+                handler.onEvent(event, sequence == to);
+            } catch (Throwable e) {
+                // Error приёмника или layout не должен останавливать поток: иначе
+                // производители с политикой BLOCK зависнут в ожидании слота
+                System.err.println("Failed to process log event: " + e);
+            } finally {
+                event.clear();
+            }
+        }
+        ringBuffer.setConsumed(to);
+        return to + 1;
+    }
+
+    // Дописывает всё, что успели опубликовать до остановки
+    private long drain(long next) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        while (next <= ringBuffer.getCursor()) {
+            if (ringBuffer.isPublished(next)) {
+                next = process(next, ringBuffer.getHighestPublished(next, ringBuffer.getCursor()));
+            } else if (System.nanoTime() > deadline) {
+                // Производитель захватил слот, но так и не опубликовал его
+                break;
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+        return next;
+    }
+
+    // Останавливает приём событий и ждёт, пока фоновый поток допишет буфер
+    public boolean stop(long timeoutMillis) {
+        running = false;
+        waitStrategy.signalAllWhenBlocking();
+        Thread consumer = thread;
+        if (consumer == null) {
+            return true;
+        }
+        try {
+            consumer.join(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return !consumer.isAlive();
+    }
+
+    public long getDiscardedCount() {
+        return discarded.sum();
+    }
+
+    public int getBufferSize() {
+        return ringBuffer.getBufferSize();
+    }
+
+    public long remainingCapacity() {
+        return ringBuffer.remainingCapacity();
+    }
+}
@@ -0,0 +1,56 @@
+// BlockingWaitStrategy.java
+package com.example.logging.async;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+// Потребитель спит на Condition. Производители берут блокировку только тогда,
+// когда потребитель действительно ждёт (signalNeeded), поэтому в нагруженном
+// режиме публикация обходится без lock.
+public class BlockingWaitStrategy implements WaitStrategy {
+
+    private static final long MAX_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition published = lock.newCondition();
+    private final AtomicBoolean signalNeeded = new AtomicBoolean(false);
+
+    @Override
+    public boolean waitFor(long sequence, RingBuffer ringBuffer, BooleanSupplier running) throws InterruptedException {
+        if (ringBuffer.isPublished(sequence)) {
+            return true;
+        }
+        lock.lock();
+        try {
+            while (!ringBuffer.isPublished(sequence)) {
+                if (!running.getAsBoolean()) {
+                    return false;
+                }
+                signalNeeded.set(true);
+                if (ringBuffer.isPublished(sequence)) {
+                    break;
+                }
+                // Таймаут страхует от потерянного сигнала
+                published.awaitNanos(MAX_WAIT_NANOS);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void signalAllWhenBlocking() {
+        if (signalNeeded.getAndSet(false)) {
+            lock.lock();
+            try {
+                published.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
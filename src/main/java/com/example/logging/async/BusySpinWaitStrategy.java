@@ -0,0 +1,23 @@
+// BusySpinWaitStrategy.java
+package com.example.logging.async;
+
+import java.util.function.BooleanSupplier;
+
+// Только для выделенных ядер: поток-потребитель никогда не засыпает
+public class BusySpinWaitStrategy implements WaitStrategy {
+
+    @Override
+    public boolean waitFor(long sequence, RingBuffer ringBuffer, BooleanSupplier running) {
+        while (!ringBuffer.isPublished(sequence)) {
+            if (!running.getAsBoolean()) {
+                return false;
+            }
+            Thread.onSpinWait();
+        }
+        return true;
+    }
+
+    @Override
+    public void signalAllWhenBlocking() {
+    }
+}
@@ -0,0 +1,10 @@
+// EventHandler.java
+package com.example.logging.async;
+
+import com.example.logging.core.LogEvent;
+
+@FunctionalInterface
+public interface EventHandler {
+    // endOfBatch = true для последнего события в текущей пачке - удобный момент для flush()
+    void onEvent(LogEvent event, boolean endOfBatch);
+}
@@ -0,0 +1,99 @@
+// RingBuffer.java
+package com.example.logging.async;
+
+import com.example.logging.core.LogEvent;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Ограниченный кольцевой буфер с заранее созданными событиями.
+// Много производителей (CAS по cursor), один потребитель.
+// Опубликованность слота отмечается номером круга в available, поэтому
+// потребитель не видит слот, который производитель ещё заполняет.
+public final class RingBuffer {
+
+    private final LogEvent[] entries;
+    private final int bufferSize;
+    private final int mask;
+    private final int indexShift;
+    private final AtomicIntegerArray available;
+
+    // Последний выданный производителю номер
+    private final AtomicLong cursor = new AtomicLong(-1);
+    // Последний номер, обработанный потребителем
+    private volatile long consumed = -1;
+
+    public RingBuffer(int requestedSize) {
+        this.bufferSize = ceilingPowerOfTwo(requestedSize);
+        this.mask = bufferSize - 1;
+        this.indexShift = Integer.numberOfTrailingZeros(bufferSize);
+        this.entries = new LogEvent[bufferSize];
+        this.available = new AtomicIntegerArray(bufferSize);
+        for (int i = 0; i < bufferSize; i++) {
+            entries[i] = new LogEvent();
+            available.set(i, -1);
+        }
+    }
+
+    // Захватывает следующий слот или возвращает -1, если буфер заполнен
+    public long tryNext() {
+        while (true) {
+            long current = cursor.get();
+            long next = current + 1;
+            if (next - bufferSize > consumed) {
+                return -1;
+            }
+            if (cursor.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    public LogEvent get(long sequence) {
+        return entries[(int) sequence & mask];
+    }
+
+    public void publish(long sequence) {
+        available.setRelease((int) sequence & mask, (int) (sequence >>> indexShift));
+    }
+
+    public boolean isPublished(long sequence) {
+        return available.getAcquire((int) sequence & mask) == (int) (sequence >>> indexShift);
+    }
+
+    // Максимальный номер в [from, upTo], до которого все слоты опубликованы подряд
+    public long getHighestPublished(long from, long upTo) {
+        for (long sequence = from; sequence <= upTo; sequence++) {
+            if (!isPublished(sequence)) {
+                return sequence - 1;
+            }
+        }
+        return upTo;
+    }
+
+    void setConsumed(long sequence) {
+        this.consumed = sequence;
+    }
+
+    public long getCursor() {
+        return cursor.get();
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public long remainingCapacity() {
+        return bufferSize - (cursor.get() - consumed);
+    }
+
+    private static int ceilingPowerOfTwo(int size) {
+        if (size < 2) {
+            return 2;
+        }
+        if (size > (1 << 30)) {
+            throw new IllegalArgumentException("Ring buffer size is too large: " + size);
+        }
+        return Integer.highestOneBit(size - 1) << 1;
+    }
+}
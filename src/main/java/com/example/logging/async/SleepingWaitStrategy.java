@@ -0,0 +1,36 @@
+// SleepingWaitStrategy.java
+package com.example.logging.async;
+
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+// Spin -> yield -> parkNanos. Хороший компромисс между задержкой и загрузкой CPU
+public class SleepingWaitStrategy implements WaitStrategy {
+
+    private static final int RETRIES = 200;
+    private static final long SLEEP_NANOS = 100_000L;
+
+    @Override
+    public boolean waitFor(long sequence, RingBuffer ringBuffer, BooleanSupplier running) {
+        int counter = RETRIES;
+        while (!ringBuffer.isPublished(sequence)) {
+            if (!running.getAsBoolean()) {
+                return false;
+            }
+            if (counter > 100) {
+                counter--;
+                Thread.onSpinWait();
+            } else if (counter > 0) {
+                counter--;
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(SLEEP_NANOS);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void signalAllWhenBlocking() {
+    }
+}
@@ -0,0 +1,30 @@
+// WaitStrategy.java
+package com.example.logging.async;
+
+import com.example.logging.config.WaitStrategyType;
+
+import java.util.function.BooleanSupplier;
+
+// Стратегия ожидания потока-потребителя, пока производители не опубликуют событие
+public interface WaitStrategy {
+
+    // Возвращает true, когда sequence опубликован, и false, если процессор остановлен
+    boolean waitFor(long sequence, RingBuffer ringBuffer, BooleanSupplier running) throws InterruptedException;
+
+    // Вызывается производителем после публикации события
+    void signalAllWhenBlocking();
+
+    static WaitStrategy of(WaitStrategyType type) {
+        switch (type) {
+            case SLEEPING:
+                return new SleepingWaitStrategy();
+            case YIELDING:
+                return new YieldingWaitStrategy();
+            case BUSY_SPIN:
+                return new BusySpinWaitStrategy();
+            case BLOCKING:
+            default:
+                return new BlockingWaitStrategy();
+        }
+    }
+}
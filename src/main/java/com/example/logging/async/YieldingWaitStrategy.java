@@ -0,0 +1,30 @@
+// YieldingWaitStrategy.java
+package com.example.logging.async;
+
+import java.util.function.BooleanSupplier;
+
+public class YieldingWaitStrategy implements WaitStrategy {
+
+    private static final int SPIN_TRIES = 100;
+
+    @Override
+    public boolean waitFor(long sequence, RingBuffer ringBuffer, BooleanSupplier running) {
+        int counter = SPIN_TRIES;
+        while (!ringBuffer.isPublished(sequence)) {
+            if (!running.getAsBoolean()) {
+                return false;
+            }
+            if (counter > 0) {
+                counter--;
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void signalAllWhenBlocking() {
+    }
+}
@@ -1,8 +1,13 @@
 // LoggingLibraryAutoConfiguration.java
 package com.example.logging.autoconfigure;
 
+import com.example.logging.appender.Appender;
 import com.example.logging.config.LoggerConfig;
 import com.example.logging.core.LoggingLibrary;
+import com.example.logging.management.LoggingLibraryEndpoint;
+import com.example.logging.management.RecentLogsEndpoint;
+import com.example.logging.metrics.ExecutionMetricsBinder;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -18,7 +23,40 @@ public class LoggingLibraryAutoConfiguration {
 
     @Bean
     @ConditionalOnMissingBean
-    public LoggingLibrary loggingLibrary(LoggerConfig config) {
-        return new LoggingLibrary(config);
+    public LoggingLibrary loggingLibrary(LoggerConfig config, ObjectProvider<Appender> appenders) {
+        LoggingLibrary library = new LoggingLibrary(config);
+        // Пользовательские приёмники, объявленные как бины
+        appenders.orderedStream().forEach(library::addAppender);
+        return library;
     }
-}
\ No newline at end of file
+
+    // Эндпоинты только при наличии actuator в classpath
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "org.springframework.boot.actuate.endpoint.annotation.Endpoint")
+    static class EndpointConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public LoggingLibraryEndpoint loggingLibraryEndpoint(LoggingLibrary library) {
+            return new LoggingLibraryEndpoint(library);
+        }
+
+        @Bean
+        @ConditionalOnMissingBean
+        public RecentLogsEndpoint recentLogsEndpoint(LoggingLibrary library) {
+            return new RecentLogsEndpoint(library);
+        }
+    }
+
+    // Метрики @LogExecution в Micrometer; actuator сам привязывает MeterBinder к реестрам
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "io.micrometer.core.instrument.binder.MeterBinder")
+    static class MetricsConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public ExecutionMetricsBinder executionMetricsBinder(LoggingLibrary library) {
+            return new ExecutionMetricsBinder(library.getExecutionMetrics());
+        }
+    }
+}
@@ -0,0 +1,83 @@
+// BinaryLogDecoder.java
+package com.example.logging.binary;
+
+import com.example.logging.config.LoggerConfig;
+import com.example.logging.core.LogEvent;
+import com.example.logging.layout.JsonLayout;
+import com.example.logging.layout.Layout;
+import com.example.logging.layout.PatternLayout;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+// Перевод бинарного лога в текст:
+//   java -cp logging-library.jar com.example.logging.binary.BinaryLogDecoder \
+//        [--json | --pattern "<шаблон>"] app.blog...
+// Без файлов читает stdin. По умолчанию используется шаблон LoggerConfig, время
+// выводится в часовом поясе JVM (-Duser.timezone=...).
+public final class BinaryLogDecoder {
+
+    private static final String USAGE = "Usage: BinaryLogDecoder [--json | --pattern <pattern>] [file...]";
+
+    private BinaryLogDecoder() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        String pattern = new LoggerConfig().getPattern();
+        boolean json = false;
+        List<String> files = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.equals("--json")) {
+                json = true;
+            } else if (arg.equals("--pattern") && i + 1 < args.length) {
+                pattern = args[++i];
+            } else if (arg.startsWith("--")) {
+                System.err.println(USAGE);
+                System.exit(2);
+                return;
+            } else {
+                files.add(arg);
+            }
+        }
+
+        Layout layout = json ? new JsonLayout() : new PatternLayout(pattern);
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 65536);
+        boolean truncated = false;
+        if (files.isEmpty()) {
+            truncated = decode(System.in, layout, out);
+        }
+        for (String file : files) {
+            try (InputStream in = Files.newInputStream(Paths.get(file))) {
+                if (decode(in, layout, out)) {
+                    System.err.println(file + ": last record is truncated");
+                }
+            }
+        }
+        out.flush();
+        if (truncated) {
+            System.err.println("stdin: last record is truncated");
+        }
+    }
+
+    // true - последняя запись оборвана
+    public static boolean decode(InputStream in, Layout layout, Appendable out) throws IOException {
+        BinaryLogReader reader = new BinaryLogReader(in);
+        StringBuilder line = new StringBuilder(256);
+        LogEvent event;
+        while ((event = reader.next()) != null) {
+            line.setLength(0);
+            layout.format(event, line);
+            out.append(line);
+        }
+        return reader.isTruncated();
+    }
+}
@@ -0,0 +1,57 @@
+// BinaryLogFormat.java
+package com.example.logging.binary;
+
+// Формат бинарного лога.
+//
+// Файл - последовательность сегментов. Сегмент начинается заголовком
+//   'L' 'L' 'B' <версия> <базовое время, 8 байт big-endian>
+// и сбрасывает таблицу строк и базу времени, поэтому дописывание в существующий
+// файл (или запись после ошибки ввода-вывода) просто открывает новый сегмент.
+//
+// Событие:
+//   'E' <zigzag varint: дельта времени от предыдущего события сегмента, мс>
+//   <уровень, 1 байт> <ссылка: логгер> <ссылка: поток> <ссылка: шаблон>
+//   <varint: число аргументов> <аргументы> <varint: число исключений в цепочке> <исключения>
+//   <varint: число пар MDC> <пары: ссылка на ключ, ссылка на значение> (с версии 2)
+//
+// Ссылка на строку: 0 - null, 1 - новая строка (UTF-8 с длиной) получает следующий
+// номер в таблице, 2 - строка без занесения в таблицу, n >= 3 - строка номер n - 3.
+// Так таблица строк пишется в файл ровно один раз, по месту первого использования.
+//
+// Аргумент: байт типа и значение. Числа, boolean и символы сохраняются как есть,
+// KeyValue - ссылкой на ключ и значением, остальное - текстом, как в сообщении.
+//
+// Исключение: ссылка на класс, сообщение (строка с длиной или null), число кадров,
+// кадры (ссылки на класс, метод, файл и zigzag varint номер строки).
+public final class BinaryLogFormat {
+
+    public static final byte SEGMENT = 'L';
+    public static final byte EVENT = 'E';
+    public static final byte[] MAGIC = {'L', 'L', 'B'};
+    public static final byte VERSION = 2;
+    public static final byte MIN_VERSION = 1;
+
+    public static final int REF_NULL = 0;
+    public static final int REF_NEW = 1;
+    public static final int REF_LITERAL = 2;
+    public static final int REF_OFFSET = 3;
+
+    public static final byte T_NULL = 0;
+    public static final byte T_STRING = 1;
+    public static final byte T_INT = 2;
+    public static final byte T_LONG = 3;
+    public static final byte T_DOUBLE = 4;
+    public static final byte T_FLOAT = 5;
+    public static final byte T_TRUE = 6;
+    public static final byte T_FALSE = 7;
+    public static final byte T_CHAR = 8;
+    public static final byte T_KEY_VALUE = 9;
+
+    // Длинные и динамические строки (стек, склеенные сообщения) в таблицу не попадают
+    public static final int MAX_INTERNED_LENGTH = 512;
+    public static final int MAX_STRINGS = 16384;
+    public static final int MAX_CAUSES = 32;
+
+    private BinaryLogFormat() {
+    }
+}
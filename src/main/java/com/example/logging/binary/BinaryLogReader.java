@@ -0,0 +1,227 @@
+// BinaryLogReader.java
+package com.example.logging.binary;
+
+import com.example.logging.config.LogLevel;
+import com.example.logging.core.ContextMap;
+import com.example.logging.core.KeyValue;
+import com.example.logging.core.LogEvent;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.logging.binary.BinaryLogFormat.*;
+
+// Читает события, записанные BinaryLogWriter. Исключения восстанавливаются с
+// исходными именем класса, сообщением и стеком.
+public class BinaryLogReader implements Closeable {
+
+    private static final LogLevel[] LEVELS = LogLevel.values();
+
+    private final DataInputStream in;
+    private final List<String> strings = new ArrayList<>();
+    private long lastTimestamp;
+    private byte version;
+    private boolean truncated;
+
+    public BinaryLogReader(InputStream in) {
+        this.in = new DataInputStream(new BufferedInputStream(in, 65536));
+    }
+
+    // null - конец файла. Оборванная последняя запись (процесс упал посреди записи)
+    // считается концом файла, см. isTruncated()
+    public LogEvent next() throws IOException {
+        while (true) {
+            int tag = in.read();
+            if (tag < 0) {
+                return null;
+            }
+            try {
+                if (tag == SEGMENT) {
+                    readSegmentHeader();
+                } else if (tag == EVENT) {
+                    return readEvent();
+                } else {
+                    throw new IOException("Corrupted binary log: unexpected record tag " + tag);
+                }
+            } catch (EOFException e) {
+                truncated = true;
+                return null;
+            }
+        }
+    }
+
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    private void readSegmentHeader() throws IOException {
+        for (int i = 1; i < MAGIC.length; i++) {
+            if (in.readByte() != MAGIC[i]) {
+                throw new IOException("Not a binary log file");
+            }
+        }
+        version = in.readByte();
+        if (version < MIN_VERSION || version > VERSION) {
+            throw new IOException("Unsupported binary log version " + version);
+        }
+        lastTimestamp = in.readLong();
+        strings.clear();
+    }
+
+    private LogEvent readEvent() throws IOException {
+        long timestamp = lastTimestamp + readSignedVarLong();
+        lastTimestamp = timestamp;
+        int level = in.readUnsignedByte();
+        if (level >= LEVELS.length) {
+            throw new IOException("Corrupted binary log: unknown level " + level);
+        }
+        String logger = readRef();
+        String thread = readRef();
+        String template = readRef();
+
+        int count = readVarInt();
+        Object[] parameters = count > 0 ? new Object[count] : null;
+        for (int i = 0; i < count; i++) {
+            parameters[i] = readValue();
+        }
+        Throwable throwable = readThrowable();
+        ContextMap context = version >= 2 ? readContext() : ContextMap.EMPTY;
+        return new LogEvent(timestamp, LEVELS[level], logger, thread, template, parameters, throwable, context);
+    }
+
+    private Object readValue() throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case T_NULL: return null;
+            case T_STRING: return readString(readVarInt());
+            case T_INT: return (int) readSignedVarLong();
+            case T_LONG: return readSignedVarLong();
+            case T_DOUBLE: return in.readDouble();
+            case T_FLOAT: return in.readFloat();
+            case T_TRUE: return Boolean.TRUE;
+            case T_FALSE: return Boolean.FALSE;
+            case T_CHAR: return (char) readVarInt();
+            case T_KEY_VALUE: return KeyValue.of(readRef(), readValue());
+            default: throw new IOException("Corrupted binary log: unknown value type " + type);
+        }
+    }
+
+    private Throwable readThrowable() throws IOException {
+        int causes = readVarInt();
+        if (causes == 0) {
+            return null;
+        }
+        String[] classNames = new String[causes];
+        String[] messages = new String[causes];
+        StackTraceElement[][] stacks = new StackTraceElement[causes][];
+        for (int i = 0; i < causes; i++) {
+            classNames[i] = readRef();
+            int messageLength = readVarInt();
+            messages[i] = messageLength == 0 ? null : readString(messageLength - 1);
+            StackTraceElement[] frames = new StackTraceElement[readVarInt()];
+            for (int f = 0; f < frames.length; f++) {
+                String declaringClass = readRef();
+                String method = readRef();
+                String file = readRef();
+                frames[f] = new StackTraceElement(declaringClass, method, file, (int) readSignedVarLong());
+            }
+            stacks[i] = frames;
+        }
+        // Причина задаётся только в конструкторе, поэтому цепочка собирается с конца
+        Throwable cause = null;
+        for (int i = causes - 1; i >= 0; i--) {
+            cause = new DecodedThrowable(classNames[i], messages[i], cause);
+            cause.setStackTrace(stacks[i]);
+        }
+        return cause;
+    }
+
+    private ContextMap readContext() throws IOException {
+        ContextMap context = ContextMap.EMPTY;
+        for (int i = readVarInt(); i > 0; i--) {
+            String key = readRef();
+            context = context.with(key, readRef());
+        }
+        return context;
+    }
+
+    private String readRef() throws IOException {
+        int ref = readVarInt();
+        switch (ref) {
+            case REF_NULL:
+                return null;
+            case REF_NEW:
+                String value = readString(readVarInt());
+                strings.add(value);
+                return value;
+            case REF_LITERAL:
+                return readString(readVarInt());
+            default:
+                int index = ref - REF_OFFSET;
+                if (index >= strings.size()) {
+                    throw new IOException("Corrupted binary log: unknown string #" + index);
+                }
+                return strings.get(index);
+        }
+    }
+
+    private String readString(int length) throws IOException {
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int readVarInt() throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = in.readByte();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IOException("Corrupted binary log: malformed varint");
+    }
+
+    private long readSignedVarLong() throws IOException {
+        long zigzag = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            byte b = in.readByte();
+            zigzag |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return (zigzag >>> 1) ^ -(zigzag & 1);
+            }
+        }
+        throw new IOException("Corrupted binary log: malformed varint");
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    // Исключение из файла: toString() и стек как у исходного
+    private static final class DecodedThrowable extends Throwable {
+        private static final long serialVersionUID = 1L;
+
+        private final String className;
+
+        DecodedThrowable(String className, String message, Throwable cause) {
+            super(message, cause, false, true);
+            this.className = className;
+        }
+
+        @Override
+        public String toString() {
+            String message = getLocalizedMessage();
+            return message != null ? className + ": " + message : className;
+        }
+    }
+}
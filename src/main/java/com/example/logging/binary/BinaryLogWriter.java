@@ -0,0 +1,228 @@
+// BinaryLogWriter.java
+package com.example.logging.binary;
+
+import com.example.logging.core.ContextMap;
+import com.example.logging.core.KeyValue;
+import com.example.logging.core.LogEvent;
+import com.example.logging.core.MessageFormatter;
+import com.example.logging.util.Utf8;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.example.logging.binary.BinaryLogFormat.*;
+
+// Кодирует события в формат BinaryLogFormat. Сообщение не форматируется: в файл
+// уходят номер шаблона и сырые аргументы, текст собирает декодер.
+// Не потокобезопасен, синхронизация - на стороне приёмника.
+public class BinaryLogWriter {
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final Map<String, Integer> strings = new HashMap<>();
+    // Текст аргументов произвольных типов
+    private final StringBuilder scratch = new StringBuilder(128);
+
+    private boolean segmentStarted;
+    private long lastTimestamp;
+    private long flushes;
+
+    public BinaryLogWriter(WritableByteChannel channel, ByteBuffer buffer) {
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    public void write(LogEvent event) throws IOException {
+        int start = buffer.position();
+        long flushesBefore = flushes;
+        try {
+            if (!segmentStarted) {
+                startSegment(event.getTimestamp());
+            }
+            ensure(1 + 10 + 1);
+            buffer.put(EVENT);
+            writeSignedVarLong(event.getTimestamp() - lastTimestamp);
+            lastTimestamp = event.getTimestamp();
+            buffer.put((byte) event.getLevel().ordinal());
+            writeRef(event.getLoggerName());
+            writeRef(event.getThreadName());
+            writeRef(event.getMessageTemplate());
+
+            Object[] parameters = event.getParameters();
+            int count = parameters != null ? parameters.length : 0;
+            ensure(5);
+            writeVarInt(count);
+            for (int i = 0; i < count; i++) {
+                writeValue(parameters[i]);
+            }
+            writeThrowable(event.getThrowable());
+            writeContext(event.getContext());
+        } catch (IOException | RuntimeException e) {
+            // Таблица строк могла пополниться строками недописанного события:
+            // следующее событие начнёт новый сегмент. Если событие целиком в буфере,
+            // отрезаем его, иначе его начало уже в файле и декодер остановится на нём.
+            if (flushes == flushesBefore) {
+                buffer.position(start);
+            }
+            segmentStarted = false;
+            throw e;
+        }
+    }
+
+    public void flush() throws IOException {
+        flushes++;
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    private void startSegment(long timestamp) throws IOException {
+        strings.clear();
+        ensure(MAGIC.length + 1 + 8);
+        buffer.put(MAGIC).put(VERSION).putLong(timestamp);
+        lastTimestamp = timestamp;
+        segmentStarted = true;
+    }
+
+    private void writeValue(Object value) throws IOException {
+        ensure(1 + 10);
+        if (value == null) {
+            buffer.put(T_NULL);
+        } else if (value instanceof String) {
+            buffer.put(T_STRING);
+            writeString((String) value);
+        } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            buffer.put(T_INT);
+            writeSignedVarLong(((Number) value).intValue());
+        } else if (value instanceof Long) {
+            buffer.put(T_LONG);
+            writeSignedVarLong((Long) value);
+        } else if (value instanceof Double) {
+            buffer.put(T_DOUBLE).putDouble((Double) value);
+        } else if (value instanceof Float) {
+            buffer.put(T_FLOAT).putFloat((Float) value);
+        } else if (value instanceof Boolean) {
+            buffer.put((Boolean) value ? T_TRUE : T_FALSE);
+        } else if (value instanceof Character) {
+            buffer.put(T_CHAR);
+            writeVarInt((Character) value);
+        } else if (value instanceof KeyValue) {
+            KeyValue keyValue = (KeyValue) value;
+            buffer.put(T_KEY_VALUE);
+            writeRef(keyValue.getKey());
+            writeValue(keyValue.getValue());
+        } else {
+            buffer.put(T_STRING);
+            scratch.setLength(0);
+            MessageFormatter.appendParameter(scratch, value);
+            writeString(scratch);
+        }
+    }
+
+    private void writeThrowable(Throwable throwable) throws IOException {
+        int causes = 0;
+        for (Throwable t = throwable; t != null && causes < MAX_CAUSES; t = t.getCause() == t ? null : t.getCause()) {
+            causes++;
+        }
+        ensure(5);
+        writeVarInt(causes);
+        Throwable current = throwable;
+        for (int i = 0; i < causes; i++) {
+            writeRef(current.getClass().getName());
+            writeNullableString(current.getMessage());
+            StackTraceElement[] frames = current.getStackTrace();
+            ensure(5);
+            writeVarInt(frames.length);
+            for (StackTraceElement frame : frames) {
+                writeRef(frame.getClassName());
+                writeRef(frame.getMethodName());
+                writeRef(frame.getFileName());
+                ensure(10);
+                writeSignedVarLong(frame.getLineNumber());
+            }
+            current = current.getCause();
+        }
+    }
+
+    private void writeContext(ContextMap context) throws IOException {
+        ensure(5);
+        writeVarInt(context.size());
+        for (int i = 0; i < context.size(); i++) {
+            writeRef(context.getKey(i));
+            writeRef(context.getValue(i));
+        }
+    }
+
+    private void writeRef(String value) throws IOException {
+        ensure(5);
+        if (value == null) {
+            writeVarInt(REF_NULL);
+            return;
+        }
+        Integer id = strings.get(value);
+        if (id != null) {
+            writeVarInt(id + REF_OFFSET);
+        } else if (value.length() <= MAX_INTERNED_LENGTH && strings.size() < MAX_STRINGS) {
+            strings.put(value, strings.size());
+            writeVarInt(REF_NEW);
+            writeString(value);
+        } else {
+            writeVarInt(REF_LITERAL);
+            writeString(value);
+        }
+    }
+
+    private void writeNullableString(String value) throws IOException {
+        ensure(5);
+        if (value == null) {
+            writeVarInt(0);
+        } else {
+            writeVarInt(Utf8.encodedLength(value) + 1);
+            writeChars(value);
+        }
+    }
+
+    private void writeString(CharSequence value) throws IOException {
+        ensure(5);
+        writeVarInt(Utf8.encodedLength(value));
+        writeChars(value);
+    }
+
+    private void writeChars(CharSequence value) throws IOException {
+        int next = 0;
+        while ((next = Utf8.encode(value, next, buffer)) < value.length()) {
+            flush();
+        }
+    }
+
+    private void writeVarInt(int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private void writeSignedVarLong(long value) {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            buffer.put((byte) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        buffer.put((byte) zigzag);
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+// CompressedLogDecoder.java
+package com.example.logging.compressed;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+// Распаковка сжатого лога в текст:
+//   java -cp logging-library.jar com.example.logging.compressed.CompressedLogDecoder \
+//        [--from 2026-10-17T10:00:00Z] [--to 2026-10-17T11:00:00Z] [--frames] app.zlog...
+// С --from/--to выводятся только кадры, пересекающие интервал (целиком, события
+// по краям интервала могут оказаться вне его). --frames печатает заголовки кадров
+// без распаковки.
+public final class CompressedLogDecoder {
+
+    private static final String USAGE =
+            "Usage: CompressedLogDecoder [--from <instant>] [--to <instant>] [--frames] file...";
+
+    private CompressedLogDecoder() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        long from = Long.MIN_VALUE;
+        long to = Long.MAX_VALUE;
+        boolean frames = false;
+        List<String> files = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                if (arg.equals("--frames")) {
+                    frames = true;
+                } else if (arg.equals("--from") && i + 1 < args.length) {
+                    from = Instant.parse(args[++i]).toEpochMilli();
+                } else if (arg.equals("--to") && i + 1 < args.length) {
+                    to = Instant.parse(args[++i]).toEpochMilli();
+                } else if (arg.startsWith("--")) {
+                    throw new IllegalArgumentException(arg);
+                } else {
+                    files.add(arg);
+                }
+            }
+            if (files.isEmpty()) {
+                throw new IllegalArgumentException("no files");
+            }
+        } catch (RuntimeException e) {
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+
+        OutputStream out = new BufferedOutputStream(System.out, 65536);
+        for (String file : files) {
+            try (CompressedLogReader reader = new CompressedLogReader(Paths.get(file))) {
+                if (frames) {
+                    printFrames(reader, out);
+                } else {
+                    decode(reader, from, to, out);
+                }
+                if (reader.isTruncated()) {
+                    System.err.println(file + ": last frame is truncated");
+                }
+            }
+        }
+        out.flush();
+    }
+
+    // Текст кадров, пересекающих [from, to)
+    public static void decode(CompressedLogReader reader, long from, long to, OutputStream out) throws IOException {
+        CompressedLogReader.Frame frame = reader.seek(from);
+        for (; frame != null; frame = reader.next()) {
+            if (frame.getMinTimestamp() < to && frame.getMaxTimestamp() >= from) {
+                out.write(reader.text(frame));
+            }
+        }
+    }
+
+    public static void decode(Path file, OutputStream out) throws IOException {
+        try (CompressedLogReader reader = new CompressedLogReader(file)) {
+            decode(reader, Long.MIN_VALUE, Long.MAX_VALUE, out);
+        }
+    }
+
+    private static void printFrames(CompressedLogReader reader, OutputStream out) throws IOException {
+        CompressedLogReader.Frame frame;
+        while ((frame = reader.next()) != null) {
+            String line = frame.getOffset() + " " + Instant.ofEpochMilli(frame.getMinTimestamp()) + " "
+                    + Instant.ofEpochMilli(frame.getMaxTimestamp()) + " events=" + frame.getEvents()
+                    + " bytes=" + frame.getRawLength() + " compressed=" + frame.getCompressedLength() + "\n";
+            out.write(line.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,30 @@
+// CompressedLogFormat.java
+package com.example.logging.compressed;
+
+// Формат сжатого текстового лога (CompressedFileAppender).
+//
+// Файл начинается заголовком 'L' 'L' 'Z' <версия>, дальше - кадры. Кадр - независимо
+// сжатый (raw deflate) кусок отрисованного текста, события в кадре целые:
+//
+//   'F' <int: длина сжатых данных> <int: длина текста> <int: число событий>
+//   <long: время самого раннего события> <long: время самого позднего события>
+//   <int: CRC32 текста> <сжатые данные>
+//
+// Числа - big-endian фиксированной длины, так что заголовок кадра читается без
+// распаковки: поиск по времени перескакивает кадры по их длине, распаковывается только
+// нужное. Дописывание в существующий файл продолжает цепочку кадров; оборванный
+// последний кадр отрезается при следующем открытии.
+public final class CompressedLogFormat {
+
+    public static final byte[] MAGIC = {'L', 'L', 'Z'};
+    public static final byte VERSION = 1;
+    public static final int FILE_HEADER_SIZE = 4;
+
+    public static final byte FRAME = 'F';
+    public static final int FRAME_HEADER_SIZE = 1 + 4 + 4 + 4 + 8 + 8 + 4;
+
+    public static final int DEFAULT_FRAME_SIZE = 256 * 1024;
+
+    private CompressedLogFormat() {
+    }
+}
@@ -0,0 +1,176 @@
+// CompressedLogReader.java
+package com.example.logging.compressed;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import static com.example.logging.compressed.CompressedLogFormat.*;
+
+// Читает кадры сжатого лога. next() читает только заголовок кадра, text() распаковывает
+// его содержимое - кадры, не попавшие в нужный интервал времени, не распаковываются.
+public class CompressedLogReader implements Closeable {
+
+    private final FileChannel channel;
+    private final ByteBuffer header = ByteBuffer.allocate(FRAME_HEADER_SIZE);
+    private final Inflater inflater = new Inflater(true);
+    private final CRC32 crc = new CRC32();
+    private long position = FILE_HEADER_SIZE;
+    private boolean truncated;
+
+    public CompressedLogReader(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        ByteBuffer magic = ByteBuffer.allocate(FILE_HEADER_SIZE);
+        channel.read(magic, 0);
+        if (magic.position() < FILE_HEADER_SIZE || magic.get(0) != MAGIC[0] || magic.get(1) != MAGIC[1]
+                || magic.get(2) != MAGIC[2]) {
+            channel.close();
+            throw new IOException("Not a compressed log: " + file);
+        }
+        if (magic.get(3) != VERSION) {
+            channel.close();
+            throw new IOException("Unsupported compressed log version " + magic.get(3) + ": " + file);
+        }
+    }
+
+    // Следующий кадр или null в конце файла. Оборванный последний кадр (процесс упал
+    // посреди записи) считается концом файла, см. isTruncated()
+    public Frame next() throws IOException {
+        long size = channel.size();
+        if (position >= size) {
+            return null;
+        }
+        header.clear();
+        while (header.hasRemaining() && channel.read(header, position + header.position()) > 0) {
+            // дочитываем заголовок
+        }
+        header.flip();
+        if (header.remaining() < FRAME_HEADER_SIZE) {
+            truncated = true;
+            return null;
+        }
+        if (header.get() != FRAME) {
+            throw new IOException("Corrupted compressed log: no frame at offset " + position);
+        }
+        Frame frame = new Frame(position, header.getInt(), header.getInt(), header.getInt(), header.getLong(),
+                header.getLong(), header.getInt());
+        if (frame.compressedLength < 0 || frame.rawLength < 0) {
+            throw new IOException("Corrupted compressed log: bad frame length at offset " + position);
+        }
+        long end = position + FRAME_HEADER_SIZE + frame.compressedLength;
+        if (end > size) {
+            truncated = true;
+            return null;
+        }
+        position = end;
+        return frame;
+    }
+
+    // Первый кадр, в котором могут быть события не раньше timestamp
+    public Frame seek(long timestamp) throws IOException {
+        Frame frame;
+        while ((frame = next()) != null && frame.maxTimestamp < timestamp) {
+            // кадр целиком раньше - пропускаем, не распаковывая
+        }
+        return frame;
+    }
+
+    // Текст кадра в UTF-8
+    public byte[] text(Frame frame) throws IOException {
+        ByteBuffer compressed = ByteBuffer.allocate(frame.compressedLength);
+        long offset = frame.offset + FRAME_HEADER_SIZE;
+        while (compressed.hasRemaining()) {
+            if (channel.read(compressed, offset + compressed.position()) < 0) {
+                throw new IOException("Corrupted compressed log: frame at offset " + frame.offset + " is cut");
+            }
+        }
+        byte[] text = new byte[frame.rawLength];
+        inflater.reset();
+        inflater.setInput(compressed.array());
+        try {
+            int length = 0;
+            while (length < text.length && !inflater.finished()) {
+                int inflated = inflater.inflate(text, length, text.length - length);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += inflated;
+            }
+            if (length != text.length) {
+                throw new IOException("Corrupted compressed log: frame at offset " + frame.offset
+                        + " has " + length + " bytes instead of " + text.length);
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupted compressed log: frame at offset " + frame.offset, e);
+        }
+        crc.reset();
+        crc.update(text);
+        if ((int) crc.getValue() != frame.checksum) {
+            throw new IOException("Corrupted compressed log: checksum mismatch in frame at offset " + frame.offset);
+        }
+        return text;
+    }
+
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    // Длина файла до оборванного или испорченного кадра; -1 - файл не сжатый лог
+    public static long validLength(Path file) throws IOException {
+        CompressedLogReader reader;
+        try {
+            reader = new CompressedLogReader(file);
+        } catch (IOException e) {
+            return -1;
+        }
+        try (reader) {
+            while (reader.next() != null) {
+                // только заголовки
+            }
+        } catch (IOException e) {
+            // всё после испорченного кадра отбрасывается
+        }
+        return reader.position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        inflater.end();
+        channel.close();
+    }
+
+    // Заголовок кадра
+    public static final class Frame {
+        private final long offset;
+        private final int compressedLength;
+        private final int rawLength;
+        private final int events;
+        private final long minTimestamp;
+        private final long maxTimestamp;
+        private final int checksum;
+
+        Frame(long offset, int compressedLength, int rawLength, int events, long minTimestamp, long maxTimestamp,
+              int checksum) {
+            this.offset = offset;
+            this.compressedLength = compressedLength;
+            this.rawLength = rawLength;
+            this.events = events;
+            this.minTimestamp = minTimestamp;
+            this.maxTimestamp = maxTimestamp;
+            this.checksum = checksum;
+        }
+
+        public long getOffset() { return offset; }
+        public int getCompressedLength() { return compressedLength; }
+        public int getRawLength() { return rawLength; }
+        public int getEvents() { return events; }
+        public long getMinTimestamp() { return minTimestamp; }
+        public long getMaxTimestamp() { return maxTimestamp; }
+    }
+}
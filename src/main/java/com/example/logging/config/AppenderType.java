@@ -0,0 +1,5 @@
+package com.example.logging.config;
+
+public enum AppenderType {
+    CONSOLE, FILE, BINARY, COMPRESSED, MEMORY, NETWORK, CUSTOM
+}
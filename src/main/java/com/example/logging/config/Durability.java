@@ -0,0 +1,7 @@
+package com.example.logging.config;
+
+public enum Durability {
+    NONE,           // буфер сбрасывается только при заполнении, по интервалу и при закрытии
+    FLUSH,          // ERROR сразу передаётся в ОС (write)
+    FSYNC_ON_ERROR  // ERROR сразу передаётся в ОС и на диск (write + fsync)
+}
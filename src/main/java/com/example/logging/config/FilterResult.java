@@ -0,0 +1,7 @@
+package com.example.logging.config;
+
+public enum FilterResult {
+    ACCEPT,  // записать, остальные фильтры и уровень логгера не проверяются
+    DENY,    // отбросить
+    NEUTRAL  // решают следующие фильтры, в конце - уровень логгера
+}
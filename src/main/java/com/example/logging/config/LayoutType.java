@@ -0,0 +1,6 @@
+package com.example.logging.config;
+
+public enum LayoutType {
+    PATTERN,  // Текст по шаблону pattern
+    JSON      // JSON Lines: один объект на строку
+}
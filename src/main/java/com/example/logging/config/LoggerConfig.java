@@ -3,20 +3,47 @@ package com.example.logging.config;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 @ConfigurationProperties(prefix = "logging.library")
 public class LoggerConfig {
     private LogLevel level = LogLevel.INFO;
+    // Уровни по пакетам/логгерам: logging.library.levels.com.foo.bar=DEBUG, ключ root - корень
+    private Map<String, LogLevel> levels = new ConcurrentHashMap<>();
     private OutputType output = OutputType.CONSOLE;
     private String filePath = "logs/application.log";
-    private String pattern = "%d [%thread] %level %logger - %msg%n";
+    private String pattern = "%d [%thread] %-5level %logger{36} - %msg%n";
+    private LayoutType layout = LayoutType.PATTERN;
     private int maxFileSize = 10; // MB
     private int maxHistory = 7; // days
+    private boolean compressArchives = false; // gzip для файлов после ротации
+    private boolean fileIndex = false; // индекс <файл>.idx для LogSearch
+    private int fileBufferSize = 64; // KB
+    private long flushInterval = 0; // ms, 0 - сбрасывать после каждого события/пачки
+    private Durability durability = Durability.FLUSH;
     private boolean enabled = true;
+    private boolean garbageFree = false; // переиспользуемые события и буферы вместо аллокаций на вызов
+    private final Async async = new Async();
+    private final Metrics metrics = new Metrics();
+    private final RateLimit rateLimit = new RateLimit();
+    // Дополнительные приёмники: logging.library.appenders.<name>.*
+    private Map<String, AppenderDefinition> appenders = new LinkedHashMap<>();
+    // Фильтры событий по порядку: logging.library.filters[n].*
+    private List<FilterDefinition> filters = new ArrayList<>();
+    // Маршруты событий с метками в отдельные приёмники: logging.library.routes[n].*
+    private List<RouteDefinition> routes = new ArrayList<>();
 
     // Getters and Setters
     public LogLevel getLevel() { return level; }
     public void setLevel(LogLevel level) { this.level = level; }
 
+    public Map<String, LogLevel> getLevels() { return levels; }
+    public void setLevels(Map<String, LogLevel> levels) { this.levels = new ConcurrentHashMap<>(levels); }
+
     public OutputType getOutput() { return output; }
     public void setOutput(OutputType output) { this.output = output; }
 
@@ -26,13 +53,270 @@ public class LoggerConfig {
     public String getPattern() { return pattern; }
     public void setPattern(String pattern) { this.pattern = pattern; }
 
+    public LayoutType getLayout() { return layout; }
+    public void setLayout(LayoutType layout) { this.layout = layout; }
+
     public int getMaxFileSize() { return maxFileSize; }
     public void setMaxFileSize(int maxFileSize) { this.maxFileSize = maxFileSize; }
 
     public int getMaxHistory() { return maxHistory; }
     public void setMaxHistory(int maxHistory) { this.maxHistory = maxHistory; }
 
+    public boolean isCompressArchives() { return compressArchives; }
+    public void setCompressArchives(boolean compressArchives) { this.compressArchives = compressArchives; }
+
+    public boolean isFileIndex() { return fileIndex; }
+    public void setFileIndex(boolean fileIndex) { this.fileIndex = fileIndex; }
+
+    public int getFileBufferSize() { return fileBufferSize; }
+    public void setFileBufferSize(int fileBufferSize) { this.fileBufferSize = fileBufferSize; }
+
+    public long getFlushInterval() { return flushInterval; }
+    public void setFlushInterval(long flushInterval) { this.flushInterval = flushInterval; }
+
+    public Durability getDurability() { return durability; }
+    public void setDurability(Durability durability) { this.durability = durability; }
+
     public boolean isEnabled() { return enabled; }
     public void setEnabled(boolean enabled) { this.enabled = enabled; }
-}
 
+    public boolean isGarbageFree() { return garbageFree; }
+    public void setGarbageFree(boolean garbageFree) { this.garbageFree = garbageFree; }
+
+    public Async getAsync() { return async; }
+
+    public Metrics getMetrics() { return metrics; }
+
+    public RateLimit getRateLimit() { return rateLimit; }
+
+    public Map<String, AppenderDefinition> getAppenders() { return appenders; }
+    public void setAppenders(Map<String, AppenderDefinition> appenders) { this.appenders = appenders; }
+
+    public List<FilterDefinition> getFilters() { return filters; }
+    public void setFilters(List<FilterDefinition> filters) { this.filters = filters; }
+
+    public List<RouteDefinition> getRoutes() { return routes; }
+    public void setRoutes(List<RouteDefinition> routes) { this.routes = routes; }
+
+    // logging.library.metrics.*
+    public static class Metrics {
+        private boolean enabled = false; // метрики для всех @LogExecution, а не только metrics = true
+        private long summaryInterval = 0; // ms, 0 - без периодических сводок
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+        public long getSummaryInterval() { return summaryInterval; }
+        public void setSummaryInterval(long summaryInterval) { this.summaryInterval = summaryInterval; }
+    }
+
+    // logging.library.rate-limit.*
+    // Имена в loggers и sample-rates разрешаются по иерархии, как levels
+    public static class RateLimit {
+        private boolean enabled = false;
+        private LogLevel maxLevel = LogLevel.WARN; // события выше (ERROR) не ограничиваются
+        private double perSite = 0; // событий/с на шаблон сообщения в логгере, 0 - без ограничения
+        private int burst = 0; // 0 - запас в одну секунду лимита
+        private Map<String, Double> loggers = new ConcurrentHashMap<>(); // событий/с на логгер
+        private Map<String, Double> sampleRates = new ConcurrentHashMap<>(); // доля пропускаемых, 0..1
+        private long reportInterval = 10000; // ms, сводка подавленных
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+        public LogLevel getMaxLevel() { return maxLevel; }
+        public void setMaxLevel(LogLevel maxLevel) { this.maxLevel = maxLevel; }
+
+        public double getPerSite() { return perSite; }
+        public void setPerSite(double perSite) { this.perSite = perSite; }
+
+        public int getBurst() { return burst; }
+        public void setBurst(int burst) { this.burst = burst; }
+
+        public Map<String, Double> getLoggers() { return loggers; }
+        public void setLoggers(Map<String, Double> loggers) { this.loggers = new ConcurrentHashMap<>(loggers); }
+
+        public Map<String, Double> getSampleRates() { return sampleRates; }
+        public void setSampleRates(Map<String, Double> sampleRates) { this.sampleRates = new ConcurrentHashMap<>(sampleRates); }
+
+        public long getReportInterval() { return reportInterval; }
+        public void setReportInterval(long reportInterval) { this.reportInterval = reportInterval; }
+    }
+
+    // logging.library.async.*
+    public static class Async {
+        private boolean enabled = false;
+        private int bufferSize = 8192; // округляется до степени двойки
+        private WaitStrategyType waitStrategy = WaitStrategyType.BLOCKING;
+        private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+        private long shutdownTimeout = 5000; // ms
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+        public int getBufferSize() { return bufferSize; }
+        public void setBufferSize(int bufferSize) { this.bufferSize = bufferSize; }
+
+        public WaitStrategyType getWaitStrategy() { return waitStrategy; }
+        public void setWaitStrategy(WaitStrategyType waitStrategy) { this.waitStrategy = waitStrategy; }
+
+        public OverflowPolicy getOverflowPolicy() { return overflowPolicy; }
+        public void setOverflowPolicy(OverflowPolicy overflowPolicy) { this.overflowPolicy = overflowPolicy; }
+
+        public long getShutdownTimeout() { return shutdownTimeout; }
+        public void setShutdownTimeout(long shutdownTimeout) { this.shutdownTimeout = shutdownTimeout; }
+    }
+
+    // Пустые поля берутся из общих настроек (pattern, filePath, maxFileSize...)
+    public static class AppenderDefinition {
+        private AppenderType type = AppenderType.CONSOLE;
+        private String pattern;
+        private LayoutType layout; // null - PATTERN, если задан pattern, иначе общий layout
+        private LogLevel threshold = LogLevel.TRACE;
+        private String filePath;
+        private Integer maxFileSize; // MB
+        private Integer maxHistory; // days
+        private Boolean compressArchives;
+        private Boolean fileIndex;
+        private int capacity = 1000; // для MEMORY, событий
+        private int maxSize = 4096; // KB, для MEMORY: сколько памяти занимают события
+        private int frameSize = 256; // KB текста, для COMPRESSED
+        private int compressionLevel = 1; // 1-9, для COMPRESSED
+        private String host = "localhost"; // для NETWORK
+        private int port = 5170;
+        private NetworkProtocol protocol = NetworkProtocol.TCP;
+        private NetworkFraming framing = NetworkFraming.LENGTH_PREFIXED;
+        private int batchSize = 64; // KB
+        private String spoolPath; // каталог spool, по умолчанию spool рядом с file-path
+        private int spoolMaxSize = 256; // MB
+        private String appName; // APP-NAME в заголовке syslog
+        private String className; // для CUSTOM
+
+        public AppenderType getType() { return type; }
+        public void setType(AppenderType type) { this.type = type; }
+
+        public String getPattern() { return pattern; }
+        public void setPattern(String pattern) { this.pattern = pattern; }
+
+        public LayoutType getLayout() { return layout; }
+        public void setLayout(LayoutType layout) { this.layout = layout; }
+
+        public LogLevel getThreshold() { return threshold; }
+        public void setThreshold(LogLevel threshold) { this.threshold = threshold; }
+
+        public String getFilePath() { return filePath; }
+        public void setFilePath(String filePath) { this.filePath = filePath; }
+
+        public Integer getMaxFileSize() { return maxFileSize; }
+        public void setMaxFileSize(Integer maxFileSize) { this.maxFileSize = maxFileSize; }
+
+        public Integer getMaxHistory() { return maxHistory; }
+        public void setMaxHistory(Integer maxHistory) { this.maxHistory = maxHistory; }
+
+        public Boolean getCompressArchives() { return compressArchives; }
+        public void setCompressArchives(Boolean compressArchives) { this.compressArchives = compressArchives; }
+
+        public Boolean getFileIndex() { return fileIndex; }
+        public void setFileIndex(Boolean fileIndex) { this.fileIndex = fileIndex; }
+
+        public int getCapacity() { return capacity; }
+        public void setCapacity(int capacity) { this.capacity = capacity; }
+
+        public int getMaxSize() { return maxSize; }
+        public void setMaxSize(int maxSize) { this.maxSize = maxSize; }
+
+        public int getFrameSize() { return frameSize; }
+        public void setFrameSize(int frameSize) { this.frameSize = frameSize; }
+
+        public int getCompressionLevel() { return compressionLevel; }
+        public void setCompressionLevel(int compressionLevel) { this.compressionLevel = compressionLevel; }
+
+        public String getHost() { return host; }
+        public void setHost(String host) { this.host = host; }
+
+        public int getPort() { return port; }
+        public void setPort(int port) { this.port = port; }
+
+        public NetworkProtocol getProtocol() { return protocol; }
+        public void setProtocol(NetworkProtocol protocol) { this.protocol = protocol; }
+
+        public NetworkFraming getFraming() { return framing; }
+        public void setFraming(NetworkFraming framing) { this.framing = framing; }
+
+        public int getBatchSize() { return batchSize; }
+        public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+
+        public String getSpoolPath() { return spoolPath; }
+        public void setSpoolPath(String spoolPath) { this.spoolPath = spoolPath; }
+
+        public int getSpoolMaxSize() { return spoolMaxSize; }
+        public void setSpoolMaxSize(int spoolMaxSize) { this.spoolMaxSize = spoolMaxSize; }
+
+        public String getAppName() { return appName; }
+        public void setAppName(String appName) { this.appName = appName; }
+
+        public String getClassName() { return className; }
+        public void setClassName(String className) { this.className = className; }
+    }
+
+    // Условия объединяются по И, незаданные не проверяются (см. LogFilter)
+    public static class FilterDefinition {
+        private FilterResult onMatch = FilterResult.DENY;
+        private FilterResult onMismatch = FilterResult.NEUTRAL;
+        private String logger; // логгер или пакет
+        private String marker; // имя метки события
+        private LogLevel maxLevel; // уровень события не выше
+        private String message; // регулярное выражение, ищется в отформатированном сообщении
+        private String mdcKey;
+        private String mdcValue; // пусто - достаточно наличия ключа
+        private String exception; // класс исключения в цепочке причин, с учётом наследования
+
+        public FilterResult getOnMatch() { return onMatch; }
+        public void setOnMatch(FilterResult onMatch) { this.onMatch = onMatch; }
+
+        public FilterResult getOnMismatch() { return onMismatch; }
+        public void setOnMismatch(FilterResult onMismatch) { this.onMismatch = onMismatch; }
+
+        public String getLogger() { return logger; }
+        public void setLogger(String logger) { this.logger = logger; }
+
+        public String getMarker() { return marker; }
+        public void setMarker(String marker) { this.marker = marker; }
+
+        public LogLevel getMaxLevel() { return maxLevel; }
+        public void setMaxLevel(LogLevel maxLevel) { this.maxLevel = maxLevel; }
+
+        public String getMessage() { return message; }
+        public void setMessage(String message) { this.message = message; }
+
+        public String getMdcKey() { return mdcKey; }
+        public void setMdcKey(String mdcKey) { this.mdcKey = mdcKey; }
+
+        public String getMdcValue() { return mdcValue; }
+        public void setMdcValue(String mdcValue) { this.mdcValue = mdcValue; }
+
+        public String getException() { return exception; }
+        public void setException(String exception) { this.exception = exception; }
+    }
+
+    // logging.library.routes[n].*: события с меткой marker (и/или от логгера logger)
+    // уходят в appenders. Приёмник, упомянутый в маршруте, получает только такие события
+    public static class RouteDefinition {
+        private String marker; // пусто - любая метка и события без метки
+        private String logger; // логгер или пакет, пусто - любой
+        private List<String> appenders = new ArrayList<>();
+        private boolean additive = false; // true - ещё и в обычные приёмники
+
+        public String getMarker() { return marker; }
+        public void setMarker(String marker) { this.marker = marker; }
+
+        public String getLogger() { return logger; }
+        public void setLogger(String logger) { this.logger = logger; }
+
+        public List<String> getAppenders() { return appenders; }
+        public void setAppenders(List<String> appenders) { this.appenders = appenders; }
+
+        public boolean isAdditive() { return additive; }
+        public void setAdditive(boolean additive) { this.additive = additive; }
+    }
+}
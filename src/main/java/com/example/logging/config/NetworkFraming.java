@@ -0,0 +1,6 @@
+package com.example.logging.config;
+
+public enum NetworkFraming {
+    LENGTH_PREFIXED, // по TCP 4 байта длины (big-endian) + текст события в UTF-8, по UDP только текст
+    SYSLOG           // RFC 5424; по TCP с префиксом длины "<n> " (RFC 6587, octet counting)
+}
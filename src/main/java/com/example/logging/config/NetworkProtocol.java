@@ -0,0 +1,6 @@
+package com.example.logging.config;
+
+public enum NetworkProtocol {
+    TCP, // пачки событий, при недоступности сервера - локальный spool
+    UDP  // событие на датаграмму, без подтверждений и spool
+}
@@ -0,0 +1,7 @@
+package com.example.logging.config;
+
+public enum OverflowPolicy {
+    BLOCK,            // ждать освобождения места в буфере
+    DROP_BELOW_WARN,  // отбрасывать TRACE/DEBUG/INFO, ждать для WARN/ERROR
+    DISCARD           // отбрасывать любое событие и увеличивать счётчик
+}
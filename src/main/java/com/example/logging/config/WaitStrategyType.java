@@ -0,0 +1,8 @@
+package com.example.logging.config;
+
+public enum WaitStrategyType {
+    BLOCKING,   // поток-потребитель спит на Condition до сигнала от производителя
+    SLEEPING,   // короткий spin, затем parkNanos
+    YIELDING,   // spin + Thread.yield()
+    BUSY_SPIN   // минимальная задержка, занимает целое ядро
+}
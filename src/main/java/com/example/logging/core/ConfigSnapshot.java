@@ -0,0 +1,142 @@
+// ConfigSnapshot.java
+package com.example.logging.core;
+
+import com.example.logging.config.LayoutType;
+import com.example.logging.config.LogLevel;
+import com.example.logging.config.LoggerConfig;
+import com.example.logging.config.OutputType;
+import com.example.logging.filter.FilterChain;
+import com.example.logging.filter.LogFilter;
+import com.example.logging.layout.JsonLayout;
+import com.example.logging.layout.Layout;
+import com.example.logging.layout.PatternLayout;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Неизменяемый снимок изменяемой на лету части конфигурации. Любое изменение
+// создаёт новый снимок и публикует его одной volatile-записью, поэтому читатели
+// на пути записи не берут блокировок и никогда не видят половину изменения.
+final class ConfigSnapshot {
+
+    private final LogLevel defaultLevel;
+    private final Map<String, LogLevel> levels;
+    private final String pattern;
+    private final LayoutType layoutType;
+    private final Layout layout;
+    private final OutputType output;
+    private final FilterChain filters;
+    private final boolean enabled;
+
+    private ConfigSnapshot(LogLevel defaultLevel, Map<String, LogLevel> levels, String pattern,
+                           LayoutType layoutType, OutputType output, FilterChain filters, boolean enabled) {
+        this.defaultLevel = defaultLevel;
+        this.levels = levels;
+        this.pattern = pattern;
+        this.layoutType = layoutType;
+        this.layout = layoutType == LayoutType.JSON ? new JsonLayout() : new PatternLayout(pattern);
+        this.output = output;
+        this.filters = filters;
+        this.enabled = enabled;
+    }
+
+    static ConfigSnapshot of(LoggerConfig config) {
+        List<LogFilter> filters = new ArrayList<>();
+        for (LoggerConfig.FilterDefinition definition : config.getFilters()) {
+            filters.add(LogFilter.of(definition));
+        }
+        return new ConfigSnapshot(config.getLevel(), Collections.unmodifiableMap(new HashMap<>(config.getLevels())),
+                config.getPattern(), config.getLayout(), config.getOutput(),
+                filters.isEmpty() ? FilterChain.EMPTY : new FilterChain(filters), config.isEnabled());
+    }
+
+    ConfigSnapshot withLevel(String name, LogLevel level) {
+        Map<String, LogLevel> copy = new HashMap<>(levels);
+        if (level != null) {
+            copy.put(name, level);
+        } else {
+            copy.remove(name);
+        }
+        return new ConfigSnapshot(defaultLevel, Collections.unmodifiableMap(copy), pattern, layoutType, output, filters, enabled);
+    }
+
+    ConfigSnapshot withPattern(String pattern) {
+        return new ConfigSnapshot(defaultLevel, levels, pattern, layoutType, output, filters, enabled);
+    }
+
+    ConfigSnapshot withLayout(LayoutType layoutType) {
+        return new ConfigSnapshot(defaultLevel, levels, pattern, layoutType, output, filters, enabled);
+    }
+
+    ConfigSnapshot withOutput(OutputType output) {
+        return new ConfigSnapshot(defaultLevel, levels, pattern, layoutType, output, filters, enabled);
+    }
+
+    ConfigSnapshot withFilters(FilterChain filters) {
+        return new ConfigSnapshot(defaultLevel, levels, pattern, layoutType, output, filters, enabled);
+    }
+
+    ConfigSnapshot withEnabled(boolean enabled) {
+        return new ConfigSnapshot(defaultLevel, levels, pattern, layoutType, output, filters, enabled);
+    }
+
+    // Ближайший настроенный предок по точкам: com.foo.Bar -> com.foo -> com -> root
+    LogLevel resolve(String name) {
+        LogLevel level = findNearest(levels, name);
+        return level != null ? level : defaultLevel;
+    }
+
+    static <V> V findNearest(Map<String, V> values, String name) {
+        if (values.isEmpty()) {
+            return null;
+        }
+        String current = name;
+        while (true) {
+            V value = values.get(current);
+            if (value != null) {
+                return value;
+            }
+            int dot = current.lastIndexOf('.');
+            if (dot < 0) {
+                break;
+            }
+            current = current.substring(0, dot);
+        }
+        return values.get(LoggingLibrary.ROOT_LOGGER_NAME);
+    }
+
+    LogLevel getLevel(String name) {
+        return levels.get(name);
+    }
+
+    Map<String, LogLevel> getLevels() {
+        return levels;
+    }
+
+    Layout getLayout() {
+        return layout;
+    }
+
+    String getPattern() {
+        return pattern;
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    LayoutType getLayoutType() {
+        return layoutType;
+    }
+
+    OutputType getOutput() {
+        return output;
+    }
+
+    FilterChain getFilters() {
+        return filters;
+    }
+}
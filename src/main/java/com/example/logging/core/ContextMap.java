@@ -0,0 +1,118 @@
+// ContextMap.java
+package com.example.logging.core;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Неизменяемая маленькая карта для MDC: ключи и значения лежат в одном массиве
+// через один, поиск линейный. Изменение создаёт копию, поэтому снимок контекста
+// в событии - это одна ссылка, а один экземпляр можно разделять между потоками.
+public final class ContextMap {
+
+    public static final ContextMap EMPTY = new ContextMap(new String[0]);
+
+    // key0, value0, key1, value1, ... в порядке добавления
+    private final String[] entries;
+
+    private ContextMap(String[] entries) {
+        this.entries = entries;
+    }
+
+    public static ContextMap of(Map<String, String> values) {
+        ContextMap result = EMPTY;
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            result = result.with(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+
+    public ContextMap with(String key, String value) {
+        if (value == null) {
+            return without(key);
+        }
+        int index = indexOf(key);
+        if (index >= 0) {
+            if (value.equals(entries[index + 1])) {
+                return this;
+            }
+            String[] copy = entries.clone();
+            copy[index + 1] = value;
+            return new ContextMap(copy);
+        }
+        String[] copy = new String[entries.length + 2];
+        System.arraycopy(entries, 0, copy, 0, entries.length);
+        copy[entries.length] = key;
+        copy[entries.length + 1] = value;
+        return new ContextMap(copy);
+    }
+
+    public ContextMap without(String key) {
+        int index = indexOf(key);
+        if (index < 0) {
+            return this;
+        }
+        if (entries.length == 2) {
+            return EMPTY;
+        }
+        String[] copy = new String[entries.length - 2];
+        System.arraycopy(entries, 0, copy, 0, index);
+        System.arraycopy(entries, index + 2, copy, index, entries.length - index - 2);
+        return new ContextMap(copy);
+    }
+
+    public String get(String key) {
+        int index = indexOf(key);
+        return index >= 0 ? entries[index + 1] : null;
+    }
+
+    public int size() {
+        return entries.length >> 1;
+    }
+
+    public boolean isEmpty() {
+        return entries.length == 0;
+    }
+
+    public String getKey(int index) {
+        return entries[index << 1];
+    }
+
+    public String getValue(int index) {
+        return entries[(index << 1) + 1];
+    }
+
+    public Map<String, String> toMap() {
+        Map<String, String> result = new LinkedHashMap<>();
+        for (int i = 0; i < entries.length; i += 2) {
+            result.put(entries[i], entries[i + 1]);
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    // key1=value1, key2=value2 - как %X без ключа
+    public void appendTo(StringBuilder out) {
+        for (int i = 0; i < entries.length; i += 2) {
+            if (i > 0) {
+                out.append(", ");
+            }
+            out.append(entries[i]).append('=').append(entries[i + 1]);
+        }
+    }
+
+    private int indexOf(String key) {
+        for (int i = 0; i < entries.length; i += 2) {
+            if (entries[i].equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder("{");
+        appendTo(out);
+        return out.append('}').toString();
+    }
+}
@@ -0,0 +1,36 @@
+// KeyValue.java
+package com.example.logging.core;
+
+import java.util.Objects;
+
+// Структурированное поле события: logger.info("Order placed {}", KeyValue.of("orderId", 42)).
+// В тексте сообщения выводится как key=value, JsonLayout пишет его отдельным полем,
+// даже если в шаблоне для него нет "{}".
+public final class KeyValue {
+
+    private final String key;
+    private final Object value;
+
+    private KeyValue(String key, Object value) {
+        // Ключ - имя поля JSON, null дал бы невалидную строку
+        this.key = Objects.requireNonNull(key, "KeyValue key must not be null");
+        this.value = value;
+    }
+
+    public static KeyValue of(String key, Object value) {
+        return new KeyValue(key, value);
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public Object getValue() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return key + "=" + value;
+    }
+}
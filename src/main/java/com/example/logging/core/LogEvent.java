@@ -0,0 +1,135 @@
+// LogEvent.java
+package com.example.logging.core;
+
+import com.example.logging.config.LogLevel;
+
+import java.util.Arrays;
+
+// Изменяемое событие логирования. В асинхронном режиме экземпляры заранее
+// создаются в слотах кольцевого буфера и переиспользуются.
+//
+// Сообщение хранится как шаблон + аргументы и форматируется только при записи.
+// В асинхронном режиме toString() аргументов вызывается в фоновом потоке.
+// MDC хранится ссылкой на неизменяемую ContextMap потока на момент вызова.
+// Метка (Marker) необязательна, null - без метки.
+public class LogEvent {
+    private long timestamp;
+    private LogLevel level;
+    private String loggerName;
+    private String threadName;
+    private String message;
+    private Object[] parameters;
+    private Throwable throwable;
+    private ContextMap context = ContextMap.EMPTY;
+    private Marker marker;
+    private String formattedMessage;
+    // Массивы аргументов для перегрузок с 1-3 аргументами в режиме garbage-free
+    private Object[][] reusableParameters;
+
+    public LogEvent() {
+    }
+
+    public LogEvent(long timestamp, LogLevel level, String loggerName, String threadName,
+                    String message, Throwable throwable) {
+        init(timestamp, level, loggerName, threadName, message, null, throwable, ContextMap.EMPTY, null);
+    }
+
+    public LogEvent(long timestamp, LogLevel level, String loggerName, String threadName,
+                    String message, Object[] parameters, Throwable throwable) {
+        init(timestamp, level, loggerName, threadName, message, parameters, throwable, ContextMap.EMPTY, null);
+    }
+
+    public LogEvent(long timestamp, LogLevel level, String loggerName, String threadName,
+                    String message, Object[] parameters, Throwable throwable, ContextMap context) {
+        init(timestamp, level, loggerName, threadName, message, parameters, throwable, context, null);
+    }
+
+    public LogEvent(long timestamp, LogLevel level, String loggerName, String threadName,
+                    String message, Object[] parameters, Throwable throwable, ContextMap context, Marker marker) {
+        init(timestamp, level, loggerName, threadName, message, parameters, throwable, context, marker);
+    }
+
+    public void set(long timestamp, LogLevel level, String loggerName, String threadName,
+                    String message, Object[] parameters, Throwable throwable) {
+        set(timestamp, level, loggerName, threadName, message, parameters, throwable, ContextMap.EMPTY, null);
+    }
+
+    public void set(long timestamp, LogLevel level, String loggerName, String threadName,
+                    String message, Object[] parameters, Throwable throwable, ContextMap context, Marker marker) {
+        init(timestamp, level, loggerName, threadName, message, parameters, throwable, context, marker);
+    }
+
+    // Конструкторы вызывают private-метод, а не переопределяемый set()
+    private void init(long timestamp, LogLevel level, String loggerName, String threadName,
+                      String message, Object[] parameters, Throwable throwable, ContextMap context, Marker marker) {
+        this.timestamp = timestamp;
+        this.level = level;
+        this.loggerName = loggerName;
+        this.threadName = threadName;
+        this.message = message;
+        this.parameters = parameters;
+        this.throwable = throwable;
+        this.context = context;
+        this.marker = marker;
+        this.formattedMessage = null;
+    }
+
+    // Копирует аргументы в собственный массив события нужной длины
+    public Object[] copyParameters(int count, Object arg1, Object arg2, Object arg3) {
+        if (reusableParameters == null) {
+            reusableParameters = new Object[][]{new Object[1], new Object[2], new Object[3]};
+        }
+        Object[] target = reusableParameters[count - 1];
+        target[0] = arg1;
+        if (count > 1) {
+            target[1] = arg2;
+        }
+        if (count > 2) {
+            target[2] = arg3;
+        }
+        return target;
+    }
+
+    // Освобождает ссылки, чтобы слот буфера не удерживал объекты от сборки мусора
+    public void clear() {
+        Object[] params = parameters;
+        if (reusableParameters != null && params != null && params.length <= 3
+                && params == reusableParameters[params.length - 1]) {
+            Arrays.fill(params, null);
+        }
+        this.loggerName = null;
+        this.threadName = null;
+        this.message = null;
+        this.parameters = null;
+        this.throwable = null;
+        this.context = ContextMap.EMPTY;
+        this.marker = null;
+        this.formattedMessage = null;
+    }
+
+    // Дописывает отформатированное сообщение без промежуточной строки
+    public void appendMessage(StringBuilder out) {
+        if (formattedMessage != null) {
+            out.append(formattedMessage);
+        } else {
+            MessageFormatter.formatTo(out, message, parameters);
+        }
+    }
+
+    public String getMessage() {
+        if (formattedMessage == null) {
+            formattedMessage = MessageFormatter.format(message, parameters);
+        }
+        return formattedMessage;
+    }
+
+    public long getTimestamp() { return timestamp; }
+    public LogLevel getLevel() { return level; }
+    public String getLoggerName() { return loggerName; }
+    public String getThreadName() { return threadName; }
+    public String getMessageTemplate() { return message; }
+    public Object[] getParameters() { return parameters; }
+    public Throwable getThrowable() { return throwable; }
+    public ContextMap getContext() { return context; }
+    public Marker getMarker() { return marker; }
+}
@@ -1,20 +1,79 @@
 package com.example.logging.core;
 
+import com.example.logging.config.LogLevel;
+
+// Шаблоны сообщений используют "{}" для аргументов. Форматирование выполняется
+// только если уровень включён; перегрузки с 1-3 аргументами не создают массив
+// varargs для отключённых уровней.
+//
+// Перегрузки с Marker помечают событие: по метке событие может уйти в отдельные
+// приёмники (logging.library.routes) или быть отфильтровано.
 public interface Logger {
+    String getName();
+
+    boolean isEnabled(LogLevel level);
+    boolean isTraceEnabled();
+    boolean isDebugEnabled();
+    boolean isInfoEnabled();
+    boolean isWarnEnabled();
+    boolean isErrorEnabled();
+    boolean isEnabled(LogLevel level, Marker marker);
+
+    void log(LogLevel level, String message);
+    void log(LogLevel level, String format, Object... args);
+    void log(LogLevel level, Marker marker, String message);
+    void log(LogLevel level, Marker marker, String format, Object... args);
+
     void trace(String message);
+    void trace(String format, Object arg);
+    void trace(String format, Object arg1, Object arg2);
+    void trace(String format, Object arg1, Object arg2, Object arg3);
     void trace(String format, Object... args);
+    void trace(Marker marker, String message);
+    void trace(Marker marker, String format, Object arg);
+    void trace(Marker marker, String format, Object arg1, Object arg2);
+    void trace(Marker marker, String format, Object... args);
 
     void debug(String message);
+    void debug(String format, Object arg);
+    void debug(String format, Object arg1, Object arg2);
+    void debug(String format, Object arg1, Object arg2, Object arg3);
     void debug(String format, Object... args);
+    void debug(Marker marker, String message);
+    void debug(Marker marker, String format, Object arg);
+    void debug(Marker marker, String format, Object arg1, Object arg2);
+    void debug(Marker marker, String format, Object... args);
 
     void info(String message);
+    void info(String format, Object arg);
+    void info(String format, Object arg1, Object arg2);
+    void info(String format, Object arg1, Object arg2, Object arg3);
     void info(String format, Object... args);
+    void info(Marker marker, String message);
+    void info(Marker marker, String format, Object arg);
+    void info(Marker marker, String format, Object arg1, Object arg2);
+    void info(Marker marker, String format, Object... args);
 
     void warn(String message);
+    void warn(String format, Object arg);
+    void warn(String format, Object arg1, Object arg2);
+    void warn(String format, Object arg1, Object arg2, Object arg3);
     void warn(String format, Object... args);
+    void warn(Marker marker, String message);
+    void warn(Marker marker, String format, Object arg);
+    void warn(Marker marker, String format, Object arg1, Object arg2);
+    void warn(Marker marker, String format, Object... args);
 
     void error(String message);
+    void error(String format, Object arg);
+    void error(String format, Object arg1, Object arg2);
+    void error(String format, Object arg1, Object arg2, Object arg3);
     void error(String format, Object... args);
+    void error(Marker marker, String message);
+    void error(Marker marker, String format, Object arg);
+    void error(Marker marker, String format, Object arg1, Object arg2);
+    void error(Marker marker, String format, Object... args);
     void error(String message, Throwable throwable);
     void error(String format, Throwable throwable, Object... args);
-}
\ No newline at end of file
+    void error(Marker marker, String message, Throwable throwable);
+}
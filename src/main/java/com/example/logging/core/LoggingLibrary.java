@@ -1,59 +1,135 @@
 // LoggingLibrary.java
 package com.example.logging.core;
 
+import com.example.logging.appender.Appender;
+import com.example.logging.appender.AppenderRegistry;
+import com.example.logging.appender.InMemoryAppender;
+import com.example.logging.appender.LogQuery;
+import com.example.logging.appender.MemoryLogEntry;
+import com.example.logging.appender.RouteRule;
+import com.example.logging.async.AsyncLogProcessor;
+import com.example.logging.config.LayoutType;
 import com.example.logging.config.LoggerConfig;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import com.example.logging.config.LogLevel;
 import com.example.logging.config.OutputType;
+import com.example.logging.filter.FilterChain;
+import com.example.logging.filter.LogFilter;
+import com.example.logging.metrics.ExecutionMetrics;
+import com.example.logging.metrics.HistogramSnapshot;
+import com.example.logging.metrics.MethodMetrics;
 
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import java.io.*;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class LoggingLibrary {
 
+    public static final String ROOT_LOGGER_NAME = "root";
+
+    private static final int MAX_RETAINED_CAPACITY = 8192;
+
     private final LoggerConfig config;
     private final ConcurrentMap<String, Logger> loggers = new ConcurrentHashMap<>();
-    private PrintWriter fileWriter;
-    private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+    // Изменения конфигурации сериализуются этой блокировкой; читатели берут снимок без неё
+    private final Object configLock = new Object();
+    private volatile ConfigSnapshot snapshot;
+    // Временные уровни: имя -> отложенный откат к прежнему значению
+    private final Map<String, Expiry> expiries = new HashMap<>();
+    // Фоновые задачи: откат временных уровней, сводки метрик
+    private ScheduledThreadPoolExecutor scheduler;
+    private final ExecutionMetrics executionMetrics = new ExecutionMetrics();
+    private final AppenderRegistry appenders = new AppenderRegistry();
+    private volatile AsyncLogProcessor asyncProcessor;
+    private final ThreadLocal<StringBuilder> renderBuffers = ThreadLocal.withInitial(() -> new StringBuilder(256));
+    // Режим garbage-free: одно переиспользуемое событие на поток для синхронной записи
+    private final ThreadLocal<LogEvent> reusableEvents = ThreadLocal.withInitial(LogEvent::new);
+    private volatile boolean garbageFree;
 
     @Autowired
     public LoggingLibrary(LoggerConfig config) {
         this.config = config;
+        this.snapshot = ConfigSnapshot.of(config);
+        appenders.setSharedLayout(snapshot.getLayout());
     }
 
     @PostConstruct
     public void init() {
-        if (config.isEnabled() && (config.getOutput() == OutputType.FILE || config.getOutput() == OutputType.BOTH)) {
-            try {
-                File logFile = new File(config.getFilePath());
-                File parentDir = logFile.getParentFile();
-                if (parentDir != null && !parentDir.exists()) {
-                    boolean dirsCreated = parentDir.mkdirs();
-                    if (!dirsCreated) {
-                        System.err.println("Failed to create directories for log file: " + config.getFilePath());
-                    }
-                }
-                fileWriter = new PrintWriter(new FileWriter(logFile, true), true);
-                logInternal("LoggingLibrary initialized successfully", LogLevel.INFO);
-            } catch (IOException e) {
-                System.err.println("Failed to initialize file logger: " + e.getMessage());
-                fileWriter = null;
+        // Логгеры, полученные до init, могли застать конфигурацию недозаполненной
+        synchronized (configLock) {
+            snapshot = ConfigSnapshot.of(config);
+            appenders.setSharedLayout(snapshot.getLayout());
+            updateEffectiveLevels(ROOT_LOGGER_NAME);
+            for (Logger logger : loggers.values()) {
+                ((LoggerImpl) logger).updateThrottle();
+            }
+        }
+        garbageFree = config.isGarbageFree();
+        if (config.isEnabled()) {
+            appenders.configure(config);
+            logInternal("LoggingLibrary initialized successfully", LogLevel.DEBUG);
+        }
+
+        long reportInterval = config.getRateLimit().getReportInterval();
+        if (config.isEnabled() && config.getRateLimit().isEnabled() && reportInterval > 0) {
+            synchronized (configLock) {
+                scheduler().scheduleWithFixedDelay(this::reportSuppressed,
+                        reportInterval, reportInterval, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        long summaryInterval = config.getMetrics().getSummaryInterval();
+        if (config.isEnabled() && summaryInterval > 0) {
+            Map<String, Long> previousCalls = new HashMap<>();
+            synchronized (configLock) {
+                scheduler().scheduleWithFixedDelay(() -> logMetricsSummary(previousCalls),
+                        summaryInterval, summaryInterval, TimeUnit.MILLISECONDS);
             }
         }
+
+        if (config.isEnabled() && config.getAsync().isEnabled()) {
+            AsyncLogProcessor processor = new AsyncLogProcessor(config.getAsync(), this::handleAsyncEvent);
+            processor.start();
+            asyncProcessor = processor;
+        }
     }
 
     @PreDestroy
     public void cleanup() {
-        if (fileWriter != null) {
-            fileWriter.close();
+        reportSuppressed();
+        synchronized (configLock) {
+            if (scheduler != null) {
+                scheduler.shutdownNow();
+                scheduler = null;
+            }
+            expiries.clear();
         }
+        AsyncLogProcessor processor = asyncProcessor;
+        if (processor != null) {
+            if (!processor.stop(config.getAsync().getShutdownTimeout())) {
+                System.err.println("Async logger did not drain within "
+                        + config.getAsync().getShutdownTimeout() + " ms");
+            }
+            long discarded = processor.getDiscardedCount();
+            if (discarded > 0) {
+                System.err.println("Async logger discarded " + discarded + " events due to buffer overflow");
+            }
+        }
+        appenders.closeAll();
     }
 
     public Logger getLogger(Class<?> clazz) {
@@ -61,166 +137,916 @@ public class LoggingLibrary {
     }
 
     public Logger getLogger(String name) {
-        return loggers.computeIfAbsent(name, key -> new LoggerImpl(name));
+        Logger logger = loggers.get(name);
+        if (logger != null) {
+            return logger;
+        }
+        // Создание под той же блокировкой, что и пересчёт уровней, чтобы новый логгер
+        // не разминулся с одновременным setLevel
+        synchronized (configLock) {
+            return loggers.computeIfAbsent(name, key -> new LoggerImpl(name));
+        }
     }
 
-    private void logInternal(String message, LogLevel level) {
-        if (!config.isEnabled() || level.ordinal() < config.getLevel().ordinal()) {
-            return;
+    // Меняет уровень логгера/пакета (null - сбросить к родительскому) и пересчитывает
+    // действующие уровни всего поддерева; ROOT_LOGGER_NAME задаёт уровень по умолчанию
+    public void setLevel(String name, LogLevel level) {
+        synchronized (configLock) {
+            Expiry pending = expiries.remove(name);
+            if (pending != null) {
+                pending.future.cancel(false);
+            }
+            applyLevel(name, level);
         }
+    }
 
-        String formattedMessage = formatMessage(message, level, "LoggingLibrary");
+    // Временный уровень: через duration восстанавливается уровень, действовавший до первого
+    // из наложенных временных изменений
+    public void setLevel(String name, LogLevel level, Duration duration) {
+        synchronized (configLock) {
+            Expiry pending = expiries.remove(name);
+            LogLevel previous;
+            if (pending != null) {
+                pending.future.cancel(false);
+                previous = pending.previous;
+            } else {
+                previous = snapshot.getLevel(name);
+            }
+            applyLevel(name, level);
 
-        if (config.getOutput() == OutputType.CONSOLE || config.getOutput() == OutputType.BOTH) {
-            writeToConsole(formattedMessage, level);
+            Expiry expiry = new Expiry(previous);
+            expiry.future = scheduler().schedule(() -> expire(name, expiry),
+                    duration.toMillis(), TimeUnit.MILLISECONDS);
+            expiries.put(name, expiry);
         }
+    }
 
-        if ((config.getOutput() == OutputType.FILE || config.getOutput() == OutputType.BOTH)
-                && fileWriter != null) {
-            writeToFile(formattedMessage);
+    private void expire(String name, Expiry expiry) {
+        synchronized (configLock) {
+            // Уровень могли переопределить после планирования отката
+            if (expiries.get(name) == expiry) {
+                expiries.remove(name);
+                applyLevel(name, expiry.previous);
+            }
         }
     }
 
-    private void writeToConsole(String message, LogLevel level) {
-        switch (level) {
-            case ERROR:
-                System.err.println(message);
-                break;
-            default:
-                System.out.println(message);
+    private void applyLevel(String name, LogLevel level) {
+        snapshot = snapshot.withLevel(name, level);
+        updateEffectiveLevels(name);
+    }
+
+    private ScheduledThreadPoolExecutor scheduler() {
+        if (scheduler == null) {
+            ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, r -> {
+                Thread thread = new Thread(r, "logging-library-scheduler");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.setRemoveOnCancelPolicy(true);
+            scheduler = executor;
         }
+        return scheduler;
+    }
+
+    public LogLevel getEffectiveLevel(String name) {
+        return snapshot.resolve(name);
+    }
+
+    // Уровни, заданные явно (из конфигурации и на лету)
+    public Map<String, LogLevel> getLevels() {
+        return snapshot.getLevels();
     }
 
-    private void writeToFile(String message) {
-        synchronized (this) {
-            fileWriter.println(message);
-            fileWriter.flush();
+    // Оставшееся время временных уровней
+    public Map<String, Duration> getLevelExpirations() {
+        synchronized (configLock) {
+            Map<String, Duration> result = new HashMap<>();
+            for (Map.Entry<String, Expiry> entry : expiries.entrySet()) {
+                long delay = entry.getValue().future.getDelay(TimeUnit.MILLISECONDS);
+                result.put(entry.getKey(), Duration.ofMillis(Math.max(delay, 0)));
+            }
+            return result;
         }
     }
 
-    private String formatMessage(String message, LogLevel level, String loggerName) {
-        // Используем replace вместо String.format
-        String result = config.getPattern();
+    // Пересчитывает действующие уровни всех логгеров (в том числе после смены
+    // LoggerConfig.enabled напрямую)
+    public void refreshLevels() {
+        synchronized (configLock) {
+            snapshot = snapshot.withEnabled(config.isEnabled());
+            updateEffectiveLevels(ROOT_LOGGER_NAME);
+        }
+    }
 
-        // Заменяем все спецификаторы
-        result = result.replace("%d", LocalDateTime.now().format(formatter))
-                .replace("%thread", Thread.currentThread().getName())
-                .replace("%level", level.toString())
-                .replace("%logger", loggerName)
-                .replace("%msg", message)
-                .replace("%n", System.lineSeparator());
+    public boolean isEnabled() {
+        return snapshot.isEnabled();
+    }
 
-        // Обработка дополнительных спецификаторов
-        if (loggerName.length() > 36) {
-            result = result.replace("%logger{36}", loggerName.substring(0, 36));
-        } else {
-            result = result.replace("%logger{36}", loggerName);
+    public void setEnabled(boolean enabled) {
+        synchronized (configLock) {
+            // LoggerConfig только для согласованности с refreshLevels(); путь записи читает снимок
+            config.setEnabled(enabled);
+            snapshot = snapshot.withEnabled(enabled);
+            updateEffectiveLevels(ROOT_LOGGER_NAME);
         }
+    }
 
-        // Обработка ширины уровня (%-5level)
-        String levelStr = level.toString();
-        if (result.contains("%-5level")) {
-            String formattedLevel = String.format("%-5s", levelStr);
-            result = result.replace("%-5level", formattedLevel);
+    public String getPattern() {
+        return snapshot.getPattern();
+    }
+
+    // Новый шаблон общего layout; события, уже отрисованные старым, не затрагиваются
+    public void setPattern(String pattern) {
+        synchronized (configLock) {
+            snapshot = snapshot.withPattern(pattern);
+            appenders.setSharedLayout(snapshot.getLayout());
         }
+    }
+
+    public LayoutType getLayout() {
+        return snapshot.getLayoutType();
+    }
 
+    // Общий layout: текст по шаблону или JSON Lines
+    public void setLayout(LayoutType layout) {
+        synchronized (configLock) {
+            snapshot = snapshot.withLayout(layout);
+            appenders.setSharedLayout(snapshot.getLayout());
+        }
+    }
+
+    public OutputType getOutput() {
+        return snapshot.getOutput();
+    }
+
+    // Включает/выключает стандартные приёмники console и file
+    public void setOutput(OutputType output) {
+        synchronized (configLock) {
+            appenders.applyOutput(output, config);
+            snapshot = snapshot.withOutput(output);
+        }
+    }
+
+    public List<LogFilter> getFilters() {
+        return snapshot.getFilters().getFilters();
+    }
+
+    // Заменяет цепочку фильтров; решения по логгеру и уровню пересчитываются для всех логгеров
+    public void setFilters(List<LogFilter> filters) {
+        synchronized (configLock) {
+            snapshot = snapshot.withFilters(filters.isEmpty() ? FilterChain.EMPTY : new FilterChain(filters));
+            updateEffectiveLevels(ROOT_LOGGER_NAME);
+        }
+    }
+
+    private void updateEffectiveLevels(String prefix) {
+        boolean root = ROOT_LOGGER_NAME.equals(prefix);
+        for (Logger logger : loggers.values()) {
+            String name = logger.getName();
+            if (root || name.equals(prefix)
+                    || (name.startsWith(prefix) && name.charAt(prefix.length()) == '.')) {
+                ((LoggerImpl) logger).updateThreshold();
+            }
+        }
+    }
+
+    // Добавляет (или заменяет одноимённый) приёмник; он сразу запускается
+    public boolean addAppender(Appender appender) {
+        return appenders.register(appender);
+    }
+
+    public Appender removeAppender(String name) {
+        return appenders.remove(name);
+    }
+
+    public Appender getAppender(String name) {
+        return appenders.get(name);
+    }
+
+    public List<RouteRule> getRoutes() {
+        return appenders.getRoutes();
+    }
+
+    // Заменяет правила маршрутов событий с метками
+    public void setRoutes(List<RouteRule> routes) {
+        appenders.setRoutes(routes);
+    }
+
+    // Последние события из приёмников типа MEMORY, от старых к новым.
+    // Если таких приёмников несколько, их события сливаются по времени.
+    public List<MemoryLogEntry> queryRecent(LogQuery query) {
+        List<MemoryLogEntry> result = new ArrayList<>();
+        int sources = 0;
+        for (Appender appender : appenders.getRouting().getAppenders()) {
+            if (appender instanceof InMemoryAppender) {
+                result.addAll(((InMemoryAppender) appender).query(query));
+                sources++;
+            }
+        }
+        if (sources > 1) {
+            result.sort(Comparator.comparingLong(MemoryLogEntry::getTimestamp));
+            if (result.size() > query.getLimit()) {
+                result = new ArrayList<>(result.subList(result.size() - query.getLimit(), result.size()));
+            }
+        }
         return result;
     }
 
+    // Метрики методов с @LogExecution (заполняет LoggingAspect)
+    public ExecutionMetrics getExecutionMetrics() {
+        return executionMetrics;
+    }
+
+    // logging.library.metrics.enabled: метрики для всех @LogExecution
+    public boolean isExecutionMetricsEnabled() {
+        return config.getMetrics().isEnabled();
+    }
+
+    // Снимок метрик методов по отображаемому имени
+    public Map<String, MethodMetrics.Snapshot> getMethodMetrics() {
+        return executionMetrics.snapshot();
+    }
+
+    // Одна строка на метод; previousCalls - число вызовов на момент прошлой сводки
+    private void logMetricsSummary(Map<String, Long> previousCalls) {
+        Logger logger = getLogger(ExecutionMetrics.class);
+        if (!logger.isInfoEnabled()) {
+            return;
+        }
+        for (MethodMetrics.Snapshot method : executionMetrics.snapshot().values()) {
+            Long previous = previousCalls.put(method.getName(), method.getCalls());
+            long delta = method.getCalls() - (previous != null ? previous : 0);
+            HistogramSnapshot latency = method.getLatency();
+            logger.info("{}: calls={} (+{}), errors={}, active={}, mean={} ms, p50={} ms, p99={} ms, max={} ms",
+                    method.getName(), method.getCalls(), delta, method.getErrors(), method.getInFlight(),
+                    ExecutionMetrics.formatMillis((long) latency.getMean()),
+                    ExecutionMetrics.formatMillis(latency.getP50()),
+                    ExecutionMetrics.formatMillis(latency.getP99()),
+                    ExecutionMetrics.formatMillis(latency.getMax()));
+        }
+    }
+
+    // Одна строка на каждый шаблон, у которого с прошлой сводки были подавленные события;
+    // пишется уровнем и логгером исходного сообщения в обход ограничений
+    void reportSuppressed() {
+        for (Logger logger : loggers.values()) {
+            LoggerImpl impl = (LoggerImpl) logger;
+            Throttle throttle = impl.throttle;
+            if (throttle == null) {
+                continue;
+            }
+            for (Throttle.Site site : throttle.getSites()) {
+                long suppressed = site.suppressed.sumThenReset();
+                if (suppressed > 0 && impl.isEnabled(site.level)) {
+                    impl.log(site.level, null, "{} similar messages suppressed: {}",
+                            new Object[]{suppressed, site.template}, null);
+                }
+            }
+        }
+    }
+
+    // Количество событий, отброшенных асинхронным буфером при переполнении
+    public long getDroppedEventCount() {
+        AsyncLogProcessor processor = asyncProcessor;
+        return processor != null ? processor.getDiscardedCount() : 0;
+    }
+
+    private void logInternal(String message, LogLevel level) {
+        ConfigSnapshot current = snapshot;
+        if (!current.isEnabled() || !level.isEnabled(current.resolve("LoggingLibrary"))) {
+            return;
+        }
+
+        handleEvent(new LogEvent(System.currentTimeMillis(), level, "LoggingLibrary",
+                Thread.currentThread().getName(), message, null), true);
+    }
+
+    // Фоновый поток асинхронного режима: фильтры содержимого проверяются здесь,
+    // а не в потоке приложения
+    private void handleAsyncEvent(LogEvent event, boolean endOfBatch) {
+        if (snapshot.getFilters().isContentDependent()) {
+            Logger logger = loggers.get(event.getLoggerName());
+            FilterChain.Compiled filters = logger != null ? ((LoggerImpl) logger).contentFilters(event.getMarker()) : null;
+            if (filters != null && !filters.accept(event)) {
+                if (endOfBatch) {
+                    // Отброшено последнее событие пачки: сбрасываем то, что записано до него
+                    for (Appender appender : appenders.getRouting().getAppenders()) {
+                        appender.flush();
+                    }
+                }
+                return;
+            }
+        }
+        handleEvent(event, endOfBatch);
+    }
+
+    // Общий путь записи: вызывается из потока приложения в синхронном режиме
+    // и из фонового потока в асинхронном
+    private void handleEvent(LogEvent event, boolean endOfBatch) {
+        AppenderRegistry.Route route = appenders.getRouting().resolve(event.getLoggerName(), event.getMarker());
+        Appender[] targets = route.getAppenders();
+        if (targets.length == 0) {
+            return;
+        }
+
+        // Общий layout отрисовывается один раз для всех приёмников без собственного
+        StringBuilder rendered = null;
+        if (route.isSharedLayoutNeeded()) {
+            rendered = renderBuffers.get();
+            rendered.setLength(0);
+            snapshot.getLayout().format(event, rendered);
+        }
+
+        for (Appender appender : targets) {
+            try {
+                appender.append(event, rendered, endOfBatch);
+            } catch (RuntimeException e) {
+                System.err.println("Appender '" + appender.getName() + "' failed: " + e.getMessage());
+            }
+        }
+
+        if (rendered != null && rendered.capacity() > MAX_RETAINED_CAPACITY) {
+            renderBuffers.set(new StringBuilder(256));
+        }
+    }
+
     // Вложенный класс LoggerImpl
     private class LoggerImpl implements Logger {
         private final String name;
+        // Маска включённых уровней (бит ordinal()) с учётом фильтров по логгеру и уровню:
+        // проверка уровня - одно volatile-чтение
+        private volatile int enabledLevels;
+        // Фильтры содержимого для этого логгера, null - нет
+        private volatile FilterChain.Compiled filters;
+        // Цепочка для событий с меткой по Marker.getId(), заполняется при первом использовании;
+        // null - фильтры не проверяют метки, действуют enabledLevels и filters
+        private volatile FilterChain.Compiled[] markerFilters;
+
+        // null - ни выборки, ни лимитов (обычный случай: одно volatile-чтение)
+        private volatile Throttle throttle;
 
         LoggerImpl(String name) {
             this.name = name;
+            updateThreshold();
+            updateThrottle();
+        }
+
+        void updateThrottle() {
+            LoggerConfig.RateLimit rateLimit = config.getRateLimit();
+            if (!rateLimit.isEnabled()) {
+                throttle = null;
+                return;
+            }
+            Double sampleRate = ConfigSnapshot.findNearest(rateLimit.getSampleRates(), name);
+            Double loggerRate = ConfigSnapshot.findNearest(rateLimit.getLoggers(), name);
+            double sample = sampleRate != null ? sampleRate : 1;
+            double perLogger = loggerRate != null ? loggerRate : 0;
+            throttle = sample >= 1 && perLogger <= 0 && rateLimit.getPerSite() <= 0 ? null
+                    : new Throttle(rateLimit.getMaxLevel(), sample, rateLimit.getPerSite(), perLogger,
+                    rateLimit.getBurst());
+        }
+
+        // Проверка уровня, затем выборка и лимиты - до создания массива аргументов и форматирования
+        private boolean shouldLog(LogLevel level, String template) {
+            if ((enabledLevels & (1 << level.ordinal())) == 0) {
+                return false;
+            }
+            Throttle current = throttle;
+            return current == null || current.admit(level, template);
+        }
+
+        // Проверка уровня с меткой: без фильтров по меткам она не отличается от обычной
+        private boolean shouldLog(LogLevel level, Marker marker, String template) {
+            // Поле читается один раз: updateThreshold может обнулить его между проверкой и чтением
+            FilterChain.Compiled[] cache = markerFilters;
+            if (marker == null || cache == null) {
+                return shouldLog(level, template);
+            }
+            if ((compiled(marker, cache).getEnabledLevels() & (1 << level.ordinal())) == 0) {
+                return false;
+            }
+            Throttle current = throttle;
+            return current == null || current.admit(level, template);
+        }
+
+        void updateThreshold() {
+            ConfigSnapshot current = snapshot;
+            LogLevel threshold = current.isEnabled() ? current.resolve(name) : null;
+            FilterChain chain = current.getFilters();
+            synchronized (this) {
+                markerFilters = chain.isMarkerDependent() ? new FilterChain.Compiled[0] : null;
+            }
+            if (chain.isEmpty()) {
+                filters = null;
+                enabledLevels = FilterChain.mask(threshold);
+                return;
+            }
+            FilterChain.Compiled compiled = chain.compile(name, null, threshold);
+            filters = compiled.hasContentFilters() ? compiled : null;
+            enabledLevels = compiled.getEnabledLevels();
+        }
+
+        // Цепочка для метки; вычисляется один раз на пару логгер/метка
+        private FilterChain.Compiled compiled(Marker marker, FilterChain.Compiled[] cache) {
+            int id = marker.getId();
+            if (id < cache.length && cache[id] != null) {
+                return cache[id];
+            }
+            ConfigSnapshot current = snapshot;
+            LogLevel threshold = current.isEnabled() ? current.resolve(name) : null;
+            FilterChain.Compiled compiled = current.getFilters().compile(name, marker, threshold);
+            FilterChain.Compiled[] updated = Arrays.copyOf(cache, Math.max(cache.length, id + 1));
+            updated[id] = compiled;
+            synchronized (this) {
+                // Кэш заменён updateThreshold - результат мог устареть, не сохраняем
+                if (markerFilters == cache) {
+                    markerFilters = updated;
+                }
+            }
+            return compiled;
+        }
+
+        // Фильтры содержимого для события с меткой marker, null - нет
+        FilterChain.Compiled contentFilters(Marker marker) {
+            FilterChain.Compiled[] cache = markerFilters;
+            if (marker == null || cache == null) {
+                return filters;
+            }
+            FilterChain.Compiled compiled = compiled(marker, cache);
+            return compiled.hasContentFilters() ? compiled : null;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public boolean isEnabled(LogLevel level) {
+            return (enabledLevels & (1 << level.ordinal())) != 0;
+        }
+
+        @Override
+        public boolean isTraceEnabled() {
+            return isEnabled(LogLevel.TRACE);
+        }
+
+        @Override
+        public boolean isDebugEnabled() {
+            return isEnabled(LogLevel.DEBUG);
+        }
+
+        @Override
+        public boolean isInfoEnabled() {
+            return isEnabled(LogLevel.INFO);
+        }
+
+        @Override
+        public boolean isWarnEnabled() {
+            return isEnabled(LogLevel.WARN);
+        }
+
+        @Override
+        public boolean isErrorEnabled() {
+            return isEnabled(LogLevel.ERROR);
+        }
+
+        @Override
+        public boolean isEnabled(LogLevel level, Marker marker) {
+            FilterChain.Compiled[] cache = markerFilters;
+            if (marker == null || cache == null) {
+                return isEnabled(level);
+            }
+            return (compiled(marker, cache).getEnabledLevels() & (1 << level.ordinal())) != 0;
+        }
+
+        @Override
+        public void log(LogLevel level, String message) {
+            if (shouldLog(level, message)) {
+                log(level, null, message, null, null);
+            }
+        }
+
+        @Override
+        public void log(LogLevel level, String format, Object... args) {
+            if (shouldLog(level, format)) {
+                logParameterized(level, null, format, args);
+            }
+        }
+
+        @Override
+        public void log(LogLevel level, Marker marker, String message) {
+            if (shouldLog(level, marker, message)) {
+                log(level, marker, message, null, null);
+            }
+        }
+
+        @Override
+        public void log(LogLevel level, Marker marker, String format, Object... args) {
+            if (shouldLog(level, marker, format)) {
+                logParameterized(level, marker, format, args);
+            }
         }
 
         @Override
         public void trace(String message) {
-            log(message, LogLevel.TRACE);
+            log(LogLevel.TRACE, message);
+        }
+
+        @Override
+        public void trace(String format, Object arg) {
+            if (shouldLog(LogLevel.TRACE, format)) {
+                logArguments(LogLevel.TRACE, null, format, 1, arg, null, null);
+            }
+        }
+
+        @Override
+        public void trace(String format, Object arg1, Object arg2) {
+            if (shouldLog(LogLevel.TRACE, format)) {
+                logArguments(LogLevel.TRACE, null, format, 2, arg1, arg2, null);
+            }
+        }
+
+        @Override
+        public void trace(String format, Object arg1, Object arg2, Object arg3) {
+            if (shouldLog(LogLevel.TRACE, format)) {
+                logArguments(LogLevel.TRACE, null, format, 3, arg1, arg2, arg3);
+            }
         }
 
         @Override
         public void trace(String format, Object... args) {
-            log(String.format(format, args), LogLevel.TRACE);
+            log(LogLevel.TRACE, format, args);
+        }
+
+        @Override
+        public void trace(Marker marker, String message) {
+            log(LogLevel.TRACE, marker, message);
+        }
+
+        @Override
+        public void trace(Marker marker, String format, Object arg) {
+            if (shouldLog(LogLevel.TRACE, marker, format)) {
+                logArguments(LogLevel.TRACE, marker, format, 1, arg, null, null);
+            }
+        }
+
+        @Override
+        public void trace(Marker marker, String format, Object arg1, Object arg2) {
+            if (shouldLog(LogLevel.TRACE, marker, format)) {
+                logArguments(LogLevel.TRACE, marker, format, 2, arg1, arg2, null);
+            }
+        }
+
+        @Override
+        public void trace(Marker marker, String format, Object... args) {
+            log(LogLevel.TRACE, marker, format, args);
         }
 
         @Override
         public void debug(String message) {
-            log(message, LogLevel.DEBUG);
+            log(LogLevel.DEBUG, message);
+        }
+
+        @Override
+        public void debug(String format, Object arg) {
+            if (shouldLog(LogLevel.DEBUG, format)) {
+                logArguments(LogLevel.DEBUG, null, format, 1, arg, null, null);
+            }
+        }
+
+        @Override
+        public void debug(String format, Object arg1, Object arg2) {
+            if (shouldLog(LogLevel.DEBUG, format)) {
+                logArguments(LogLevel.DEBUG, null, format, 2, arg1, arg2, null);
+            }
+        }
+
+        @Override
+        public void debug(String format, Object arg1, Object arg2, Object arg3) {
+            if (shouldLog(LogLevel.DEBUG, format)) {
+                logArguments(LogLevel.DEBUG, null, format, 3, arg1, arg2, arg3);
+            }
         }
 
         @Override
         public void debug(String format, Object... args) {
-            log(String.format(format, args), LogLevel.DEBUG);
+            log(LogLevel.DEBUG, format, args);
+        }
+
+        @Override
+        public void debug(Marker marker, String message) {
+            log(LogLevel.DEBUG, marker, message);
+        }
+
+        @Override
+        public void debug(Marker marker, String format, Object arg) {
+            if (shouldLog(LogLevel.DEBUG, marker, format)) {
+                logArguments(LogLevel.DEBUG, marker, format, 1, arg, null, null);
+            }
+        }
+
+        @Override
+        public void debug(Marker marker, String format, Object arg1, Object arg2) {
+            if (shouldLog(LogLevel.DEBUG, marker, format)) {
+                logArguments(LogLevel.DEBUG, marker, format, 2, arg1, arg2, null);
+            }
+        }
+
+        @Override
+        public void debug(Marker marker, String format, Object... args) {
+            log(LogLevel.DEBUG, marker, format, args);
         }
 
         @Override
         public void info(String message) {
-            log(message, LogLevel.INFO);
+            log(LogLevel.INFO, message);
+        }
+
+        @Override
+        public void info(String format, Object arg) {
+            if (shouldLog(LogLevel.INFO, format)) {
+                logArguments(LogLevel.INFO, null, format, 1, arg, null, null);
+            }
+        }
+
+        @Override
+        public void info(String format, Object arg1, Object arg2) {
+            if (shouldLog(LogLevel.INFO, format)) {
+                logArguments(LogLevel.INFO, null, format, 2, arg1, arg2, null);
+            }
+        }
+
+        @Override
+        public void info(String format, Object arg1, Object arg2, Object arg3) {
+            if (shouldLog(LogLevel.INFO, format)) {
+                logArguments(LogLevel.INFO, null, format, 3, arg1, arg2, arg3);
+            }
         }
 
         @Override
         public void info(String format, Object... args) {
-            log(String.format(format, args), LogLevel.INFO);
+            log(LogLevel.INFO, format, args);
+        }
+
+        @Override
+        public void info(Marker marker, String message) {
+            log(LogLevel.INFO, marker, message);
+        }
+
+        @Override
+        public void info(Marker marker, String format, Object arg) {
+            if (shouldLog(LogLevel.INFO, marker, format)) {
+                logArguments(LogLevel.INFO, marker, format, 1, arg, null, null);
+            }
+        }
+
+        @Override
+        public void info(Marker marker, String format, Object arg1, Object arg2) {
+            if (shouldLog(LogLevel.INFO, marker, format)) {
+                logArguments(LogLevel.INFO, marker, format, 2, arg1, arg2, null);
+            }
+        }
+
+        @Override
+        public void info(Marker marker, String format, Object... args) {
+            log(LogLevel.INFO, marker, format, args);
         }
 
         @Override
         public void warn(String message) {
-            log(message, LogLevel.WARN);
+            log(LogLevel.WARN, message);
+        }
+
+        @Override
+        public void warn(String format, Object arg) {
+            if (shouldLog(LogLevel.WARN, format)) {
+                logArguments(LogLevel.WARN, null, format, 1, arg, null, null);
+            }
+        }
+
+        @Override
+        public void warn(String format, Object arg1, Object arg2) {
+            if (shouldLog(LogLevel.WARN, format)) {
+                logArguments(LogLevel.WARN, null, format, 2, arg1, arg2, null);
+            }
+        }
+
+        @Override
+        public void warn(String format, Object arg1, Object arg2, Object arg3) {
+            if (shouldLog(LogLevel.WARN, format)) {
+                logArguments(LogLevel.WARN, null, format, 3, arg1, arg2, arg3);
+            }
         }
 
         @Override
         public void warn(String format, Object... args) {
-            log(String.format(format, args), LogLevel.WARN);
+            log(LogLevel.WARN, format, args);
+        }
+
+        @Override
+        public void warn(Marker marker, String message) {
+            log(LogLevel.WARN, marker, message);
+        }
+
+        @Override
+        public void warn(Marker marker, String format, Object arg) {
+            if (shouldLog(LogLevel.WARN, marker, format)) {
+                logArguments(LogLevel.WARN, marker, format, 1, arg, null, null);
+            }
+        }
+
+        @Override
+        public void warn(Marker marker, String format, Object arg1, Object arg2) {
+            if (shouldLog(LogLevel.WARN, marker, format)) {
+                logArguments(LogLevel.WARN, marker, format, 2, arg1, arg2, null);
+            }
+        }
+
+        @Override
+        public void warn(Marker marker, String format, Object... args) {
+            log(LogLevel.WARN, marker, format, args);
         }
 
         @Override
         public void error(String message) {
-            log(message, LogLevel.ERROR);
+            log(LogLevel.ERROR, message);
+        }
+
+        @Override
+        public void error(String format, Object arg) {
+            if (shouldLog(LogLevel.ERROR, format)) {
+                logArguments(LogLevel.ERROR, null, format, 1, arg, null, null);
+            }
+        }
+
+        @Override
+        public void error(String format, Object arg1, Object arg2) {
+            if (shouldLog(LogLevel.ERROR, format)) {
+                logArguments(LogLevel.ERROR, null, format, 2, arg1, arg2, null);
+            }
+        }
+
+        @Override
+        public void error(String format, Object arg1, Object arg2, Object arg3) {
+            if (shouldLog(LogLevel.ERROR, format)) {
+                logArguments(LogLevel.ERROR, null, format, 3, arg1, arg2, arg3);
+            }
         }
 
         @Override
         public void error(String format, Object... args) {
-            log(String.format(format, args), LogLevel.ERROR);
+            log(LogLevel.ERROR, format, args);
         }
 
         @Override
-        public void error(String message, Throwable throwable) {
-            String fullMessage = message + ": " + throwable.getMessage();
-            log(fullMessage, LogLevel.ERROR);
+        public void error(Marker marker, String message) {
+            log(LogLevel.ERROR, marker, message);
+        }
 
-            if (config.isEnabled() && LogLevel.ERROR.isEnabled(config.getLevel())) {
-                StringWriter sw = new StringWriter();
-                PrintWriter pw = new PrintWriter(sw);
-                throwable.printStackTrace(pw);
-                log(sw.toString(), LogLevel.ERROR);
+        @Override
+        public void error(Marker marker, String format, Object arg) {
+            if (shouldLog(LogLevel.ERROR, marker, format)) {
+                logArguments(LogLevel.ERROR, marker, format, 1, arg, null, null);
+            }
+        }
+
+        @Override
+        public void error(Marker marker, String format, Object arg1, Object arg2) {
+            if (shouldLog(LogLevel.ERROR, marker, format)) {
+                logArguments(LogLevel.ERROR, marker, format, 2, arg1, arg2, null);
+            }
+        }
+
+        @Override
+        public void error(Marker marker, String format, Object... args) {
+            log(LogLevel.ERROR, marker, format, args);
+        }
+
+        @Override
+        public void error(String message, Throwable throwable) {
+            if (shouldLog(LogLevel.ERROR, message)) {
+                logThrowable(LogLevel.ERROR, null, message, throwable);
             }
         }
 
         @Override
         public void error(String format, Throwable throwable, Object... args) {
-            String message = String.format(format, args);
-            error(message, throwable);
+            if (shouldLog(LogLevel.ERROR, format)) {
+                log(LogLevel.ERROR, null, format, args, throwable);
+            }
         }
 
-        private void log(String message, LogLevel level) {
-            if (!config.isEnabled() || !level.isEnabled(config.getLevel())) {
-                return;
+        @Override
+        public void error(Marker marker, String message, Throwable throwable) {
+            if (shouldLog(LogLevel.ERROR, marker, message)) {
+                logThrowable(LogLevel.ERROR, marker, message, throwable);
+            }
+        }
+
+        // Вызывается только после проверки уровня. Исключение последним аргументом
+        // отделяется, остальные аргументы (в том числе KeyValue) остаются в событии
+        // и форматируются при записи, как и без исключения
+        private void logParameterized(LogLevel level, Marker marker, String format, Object[] args) {
+            Throwable throwable = MessageFormatter.extractThrowable(format, args);
+            if (throwable != null) {
+                log(level, marker, format, Arrays.copyOf(args, args.length - 1), throwable);
+            } else {
+                log(level, marker, format, args, null);
             }
+        }
 
-            String formattedMessage = formatMessage(message, level, name);
+        // Перегрузки с 1-3 аргументами: в режиме garbage-free аргументы копируются
+        // в массив самого события, без нового Object[]
+        private void logArguments(LogLevel level, Marker marker, String format, int count,
+                                  Object arg1, Object arg2, Object arg3) {
+            Object last = count == 1 ? arg1 : count == 2 ? arg2 : arg3;
+            if (garbageFree && !(last instanceof Throwable)) {
+                log(level, marker, format, null, count, arg1, arg2, arg3, null);
+            } else if (count == 1) {
+                logParameterized(level, marker, format, new Object[]{arg1});
+            } else if (count == 2) {
+                logParameterized(level, marker, format, new Object[]{arg1, arg2});
+            } else {
+                logParameterized(level, marker, format, new Object[]{arg1, arg2, arg3});
+            }
+        }
 
-            if (config.getOutput() == OutputType.CONSOLE || config.getOutput() == OutputType.BOTH) {
-                writeToConsole(formattedMessage, level);
+        // Одно событие: стек выводит layout (%ex), а не отдельная запись с printStackTrace
+        private void logThrowable(LogLevel level, Marker marker, String message, Throwable throwable) {
+            log(level, marker, message, null, throwable);
+        }
+
+        private void log(LogLevel level, Marker marker, String message, Object[] params, Throwable throwable) {
+            log(level, marker, message, params, 0, null, null, null, throwable);
+        }
+
+        // count > 0 - аргументы переданы по одному и копируются в массив события
+        private void log(LogLevel level, Marker marker, String message, Object[] params, int count,
+                         Object arg1, Object arg2, Object arg3, Throwable throwable) {
+            long timestamp = System.currentTimeMillis();
+            String threadName = Thread.currentThread().getName();
+            ContextMap context = MDC.getContext();
+
+            AsyncLogProcessor processor = asyncProcessor;
+            if (processor != null && processor.isRunning() && !processor.isConsumerThread()) {
+                long sequence = processor.claim(level);
+                if (sequence < 0) {
+                    return; // отброшено политикой переполнения
+                }
+                try {
+                    LogEvent event = processor.get(sequence);
+                    event.set(timestamp, level, name, threadName, message,
+                            count > 0 ? event.copyParameters(count, arg1, arg2, arg3) : params, throwable, context,
+                            marker);
+                } finally {
+                    processor.publish(sequence);
+                }
+                return;
             }
 
-            if ((config.getOutput() == OutputType.FILE || config.getOutput() == OutputType.BOTH)
-                    && fileWriter != null) {
-                writeToFile(formattedMessage);
+            FilterChain.Compiled contentFilters = contentFilters(marker);
+            if (garbageFree) {
+                LogEvent event = reusableEvents.get();
+                // null - событие потока уже занято: приёмник сам пишет в лог
+                if (event != null) {
+                    reusableEvents.set(null);
+                    try {
+                        event.set(timestamp, level, name, threadName, message,
+                                count > 0 ? event.copyParameters(count, arg1, arg2, arg3) : params, throwable, context,
+                                marker);
+                        if (contentFilters == null || contentFilters.accept(event)) {
+                            handleEvent(event, true);
+                        }
+                    } finally {
+                        event.clear();
+                        reusableEvents.set(event);
+                    }
+                    return;
+                }
+            }
+            if (count == 1) {
+                params = new Object[]{arg1};
+            } else if (count == 2) {
+                params = new Object[]{arg1, arg2};
+            } else if (count == 3) {
+                params = new Object[]{arg1, arg2, arg3};
+            }
+            LogEvent event = new LogEvent(timestamp, level, name, threadName, message, params, throwable, context,
+                    marker);
+            if (contentFilters == null || contentFilters.accept(event)) {
+                handleEvent(event, true);
             }
         }
     }
-}
 
+    private static final class Expiry {
+        final LogLevel previous;
+        ScheduledFuture<?> future;
 
+        Expiry(LogLevel previous) {
+            this.previous = previous;
+        }
+    }
+}
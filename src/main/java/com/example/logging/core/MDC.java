@@ -0,0 +1,99 @@
+// MDC.java
+package com.example.logging.core;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+
+// Диагностический контекст потока: requestId, tenantId и т.п. попадают в каждое
+// событие потока (%X{key} в шаблоне, поле "mdc" в JsonLayout).
+//
+//   try (MDC.Scope ignored = MDC.putScoped("requestId", id)) {
+//       logger.info("Handling request");
+//   }
+//
+// Контекст - неизменяемая ContextMap в ThreadLocal: событие забирает его одной
+// ссылкой. Новые потоки контекст не наследуют: поток пула, созданный во время
+// запроса, иначе всю жизнь писал бы чужой requestId. В другие потоки, в том числе
+// виртуальные, контекст передаётся явно через wrap().
+public final class MDC {
+
+    private static final ThreadLocal<ContextMap> CONTEXT = ThreadLocal.withInitial(() -> ContextMap.EMPTY);
+
+    private MDC() {
+    }
+
+    public static void put(String key, String value) {
+        if (key == null) {
+            throw new IllegalArgumentException("MDC key must not be null");
+        }
+        CONTEXT.set(CONTEXT.get().with(key, value));
+    }
+
+    // Значение действует до закрытия Scope, затем восстанавливается прежнее
+    public static Scope putScoped(String key, String value) {
+        ContextMap previous = CONTEXT.get();
+        put(key, value);
+        return () -> CONTEXT.set(previous);
+    }
+
+    public static String get(String key) {
+        return CONTEXT.get().get(key);
+    }
+
+    public static void remove(String key) {
+        CONTEXT.set(CONTEXT.get().without(key));
+    }
+
+    public static void clear() {
+        CONTEXT.set(ContextMap.EMPTY);
+    }
+
+    public static ContextMap getContext() {
+        return CONTEXT.get();
+    }
+
+    public static void setContext(ContextMap context) {
+        CONTEXT.set(context != null ? context : ContextMap.EMPTY);
+    }
+
+    public static Map<String, String> getCopyOfContextMap() {
+        return CONTEXT.get().toMap();
+    }
+
+    // Задача выполняется с контекстом, который был у потока в момент wrap(); после неё
+    // контекст потока пуст, чтобы следующая задача не получила его
+    public static Runnable wrap(Runnable task) {
+        ContextMap captured = CONTEXT.get();
+        return () -> {
+            CONTEXT.set(captured);
+            try {
+                task.run();
+            } finally {
+                CONTEXT.set(ContextMap.EMPTY);
+            }
+        };
+    }
+
+    public static <V> Callable<V> wrap(Callable<V> task) {
+        ContextMap captured = CONTEXT.get();
+        return () -> {
+            CONTEXT.set(captured);
+            try {
+                return task.call();
+            } finally {
+                CONTEXT.set(ContextMap.EMPTY);
+            }
+        };
+    }
+
+    // Каждая задача получает контекст потока, который её отправил
+    public static Executor wrap(Executor executor) {
+        return task -> executor.execute(wrap(task));
+    }
+
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,54 @@
+// Marker.java
+package com.example.logging.core;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Метка события: аудит, безопасность, производительность. Метки интернируются -
+// на каждое имя один экземпляр, поэтому сравниваются по ссылке, а номер id служит
+// индексом в кэшах маршрутов и фильтров.
+//   private static final Marker AUDIT = Marker.get("AUDIT");
+//   logger.info(AUDIT, "User {} changed role of {}", admin, user);
+public final class Marker {
+
+    private static final ConcurrentMap<String, Marker> MARKERS = new ConcurrentHashMap<>();
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+    private final String name;
+    private final int id;
+
+    private Marker(String name, int id) {
+        this.name = name;
+        this.id = id;
+    }
+
+    public static Marker get(String name) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("Marker name must not be empty");
+        }
+        Marker marker = MARKERS.get(name);
+        if (marker == null) {
+            marker = MARKERS.computeIfAbsent(name, n -> new Marker(n, NEXT_ID.getAndIncrement()));
+        }
+        return marker;
+    }
+
+    // null для пустого имени: удобно для необязательных настроек
+    public static Marker find(String name) {
+        return name == null || name.isEmpty() ? null : get(name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,142 @@
+// MessageFormatter.java
+package com.example.logging.core;
+
+import java.util.Arrays;
+
+// Подстановка аргументов в шаблон вида "User {} logged in from {}".
+// "\{}" выводится как литерал "{}".
+public final class MessageFormatter {
+
+    private static final char ESCAPE = '\\';
+
+    private MessageFormatter() {
+    }
+
+    public static String format(String template, Object[] params) {
+        if (params == null || params.length == 0 || template == null) {
+            return template;
+        }
+        StringBuilder out = new StringBuilder(template.length() + 16 * params.length);
+        formatTo(out, template, params);
+        return out.toString();
+    }
+
+    public static void formatTo(StringBuilder out, String template, Object[] params) {
+        if (template == null) {
+            out.append((String) null);
+            return;
+        }
+        if (params == null || params.length == 0) {
+            out.append(template);
+            return;
+        }
+
+        int length = template.length();
+        int from = 0;
+        int paramIndex = 0;
+        while (paramIndex < params.length) {
+            int placeholder = template.indexOf("{}", from);
+            if (placeholder < 0) {
+                break;
+            }
+            if (placeholder > 0 && template.charAt(placeholder - 1) == ESCAPE) {
+                if (placeholder > 1 && template.charAt(placeholder - 2) == ESCAPE) {
+                    // "\\{}" - экранирован сам обратный слэш
+                    out.append(template, from, placeholder - 1);
+                    appendParameter(out, params[paramIndex++]);
+                } else {
+                    out.append(template, from, placeholder - 1).append("{}");
+                }
+            } else {
+                out.append(template, from, placeholder);
+                appendParameter(out, params[paramIndex++]);
+            }
+            from = placeholder + 2;
+        }
+        out.append(template, from, length);
+    }
+
+    // Число "{}" в шаблоне (без экранированных)
+    public static int countPlaceholders(String template) {
+        if (template == null) {
+            return 0;
+        }
+        int count = 0;
+        int from = 0;
+        int placeholder;
+        while ((placeholder = template.indexOf("{}", from)) >= 0) {
+            boolean escaped = placeholder > 0 && template.charAt(placeholder - 1) == ESCAPE
+                    && !(placeholder > 1 && template.charAt(placeholder - 2) == ESCAPE);
+            if (!escaped) {
+                count++;
+            }
+            from = placeholder + 2;
+        }
+        return count;
+    }
+
+    // Последний аргумент-исключение, для которого в шаблоне нет "{}", считается
+    // исключением события (как в SLF4J)
+    public static Throwable extractThrowable(String template, Object[] params) {
+        if (params == null || params.length == 0) {
+            return null;
+        }
+        Object last = params[params.length - 1];
+        if (last instanceof Throwable && countPlaceholders(template) < params.length) {
+            return (Throwable) last;
+        }
+        return null;
+    }
+
+    // Текстовое представление одного аргумента, как в сообщении
+    public static void appendParameter(StringBuilder out, Object param) {
+        if (param == null) {
+            out.append("null");
+        } else if (param instanceof String) {
+            out.append((String) param);
+        } else if (param instanceof Integer) {
+            // Числа дописываются напрямую, без промежуточной строки toString()
+            out.append(((Integer) param).intValue());
+        } else if (param instanceof Long) {
+            out.append(((Long) param).longValue());
+        } else if (param instanceof Boolean) {
+            out.append(((Boolean) param).booleanValue());
+        } else if (param instanceof Character) {
+            out.append(((Character) param).charValue());
+        } else if (param.getClass().isArray()) {
+            appendArray(out, param);
+        } else if (param instanceof KeyValue) {
+            KeyValue keyValue = (KeyValue) param;
+            out.append(keyValue.getKey()).append('=');
+            appendParameter(out, keyValue.getValue());
+        } else {
+            try {
+                out.append(param);
+            } catch (RuntimeException e) {
+                out.append("[FAILED toString() of ").append(param.getClass().getName()).append(']');
+            }
+        }
+    }
+
+    private static void appendArray(StringBuilder out, Object array) {
+        if (array instanceof Object[]) {
+            out.append(Arrays.deepToString((Object[]) array));
+        } else if (array instanceof int[]) {
+            out.append(Arrays.toString((int[]) array));
+        } else if (array instanceof long[]) {
+            out.append(Arrays.toString((long[]) array));
+        } else if (array instanceof double[]) {
+            out.append(Arrays.toString((double[]) array));
+        } else if (array instanceof float[]) {
+            out.append(Arrays.toString((float[]) array));
+        } else if (array instanceof boolean[]) {
+            out.append(Arrays.toString((boolean[]) array));
+        } else if (array instanceof byte[]) {
+            out.append(Arrays.toString((byte[]) array));
+        } else if (array instanceof short[]) {
+            out.append(Arrays.toString((short[]) array));
+        } else if (array instanceof char[]) {
+            out.append(Arrays.toString((char[]) array));
+        }
+    }
+}
@@ -0,0 +1,37 @@
+// RateLimiter.java
+package com.example.logging.core;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token bucket в форме GCRA: вместо числа жетонов хранится "теоретическое время
+// прибытия" следующего события. Одно состояние в AtomicLong, проверка - один CAS.
+final class RateLimiter {
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong theoreticalArrival;
+
+    // ratePerSecond событий в секунду, burst - сколько можно пропустить подряд
+    RateLimiter(double ratePerSecond, int burst) {
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / ratePerSecond));
+        this.toleranceNanos = intervalNanos * (Math.max(burst, 1) - 1);
+        this.theoreticalArrival = new AtomicLong(System.nanoTime());
+    }
+
+    boolean tryAcquire() {
+        return tryAcquire(System.nanoTime());
+    }
+
+    boolean tryAcquire(long now) {
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long base = tat - now > 0 ? tat : now;
+            if (base - now > toleranceNanos) {
+                return false;
+            }
+            if (theoreticalArrival.compareAndSet(tat, base + intervalNanos)) {
+                return true;
+            }
+        }
+    }
+}
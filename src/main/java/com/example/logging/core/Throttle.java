@@ -0,0 +1,103 @@
+// Throttle.java
+package com.example.logging.core;
+
+import com.example.logging.config.LogLevel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+// Выборка и ограничение частоты событий одного логгера. Место вызова - уровень и шаблон
+// сообщения: у вызовов с одинаковыми уровнем и шаблоном общий лимит и общий счётчик
+// подавленных, который периодически сбрасывается строкой "N similar messages suppressed".
+final class Throttle {
+
+    // Защита от шаблонов, собранных конкатенацией: дальше - один общий "сайт"
+    static final int MAX_SITES = 1024;
+    static final String OTHER_SITE = "<other messages>";
+
+    private final int maxLevel;
+    private final double sampleRate;
+    private final double perSiteRate;
+    private final int burst;
+    private final RateLimiter loggerLimiter;
+    // Места вызова по LogLevel.ordinal(): ключ без составной строки на каждое событие
+    private final List<ConcurrentMap<String, Site>> sites = new ArrayList<>();
+
+    // Ограничиваются только события уровня maxLevel и ниже; 0 в лимитах - без ограничения
+    Throttle(LogLevel maxLevel, double sampleRate, double perSiteRate, double loggerRate, int burst) {
+        this.maxLevel = maxLevel.getLevel();
+        this.sampleRate = sampleRate;
+        this.perSiteRate = perSiteRate;
+        this.burst = burst;
+        this.loggerLimiter = loggerRate > 0 ? new RateLimiter(loggerRate, burstFor(loggerRate)) : null;
+        for (int i = 0; i < LogLevel.values().length; i++) {
+            sites.add(new ConcurrentHashMap<>());
+        }
+    }
+
+    // Вызывается после проверки уровня и до любого форматирования
+    boolean admit(LogLevel level, String template) {
+        if (level.getLevel() > maxLevel) {
+            return true;
+        }
+        Site site = site(level, template);
+        if ((sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate)
+                || (site.limiter != null && !site.limiter.tryAcquire())
+                || (loggerLimiter != null && !loggerLimiter.tryAcquire())) {
+            site.suppressed.increment();
+            return false;
+        }
+        return true;
+    }
+
+    private Site site(LogLevel level, String template) {
+        String key = template != null ? template : "null";
+        ConcurrentMap<String, Site> byTemplate = sites.get(level.ordinal());
+        Site site = byTemplate.get(key);
+        if (site == null) {
+            if (siteCount() >= MAX_SITES) {
+                key = OTHER_SITE;
+            }
+            site = byTemplate.computeIfAbsent(key, k -> new Site(k, level,
+                    perSiteRate > 0 ? new RateLimiter(perSiteRate, burstFor(perSiteRate)) : null));
+        }
+        return site;
+    }
+
+    private int burstFor(double rate) {
+        return burst > 0 ? burst : (int) Math.max(1, Math.ceil(rate));
+    }
+
+    private int siteCount() {
+        int count = 0;
+        for (ConcurrentMap<String, Site> byTemplate : sites) {
+            count += byTemplate.size();
+        }
+        return count;
+    }
+
+    Iterable<Site> getSites() {
+        List<Site> all = new ArrayList<>();
+        for (ConcurrentMap<String, Site> byTemplate : sites) {
+            all.addAll(byTemplate.values());
+        }
+        return all;
+    }
+
+    static final class Site {
+        final String template;
+        final LogLevel level;
+        final RateLimiter limiter;
+        final LongAdder suppressed = new LongAdder();
+
+        Site(String template, LogLevel level, RateLimiter limiter) {
+            this.template = template;
+            this.level = level;
+            this.limiter = limiter;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+// FilterChain.java
+package com.example.logging.filter;
+
+import com.example.logging.config.FilterResult;
+import com.example.logging.config.LogLevel;
+import com.example.logging.core.LogEvent;
+import com.example.logging.core.Marker;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Цепочка фильтров: проверяются по порядку, первый ответ ACCEPT или DENY окончательный,
+// если все NEUTRAL - решает уровень логгера.
+//
+// Для каждого логгера (и метки, если фильтры их проверяют) цепочка заранее вычисляется
+// по всем уровням (compile): условия на логгер, метку и уровень известны сразу, поэтому на пути записи остаётся маска включённых
+// уровней и, если в цепочке есть условия на содержимое, короткий список таких фильтров.
+// ACCEPT (известный до события или возможный по содержимому) включает уровень
+// независимо от порога логгера; фильтры содержимого проверяются только для событий,
+// уже прошедших маску.
+public final class FilterChain {
+
+    public static final FilterChain EMPTY = new FilterChain(List.of());
+
+    private static final LogLevel[] LEVELS = LogLevel.values();
+
+    private final LogFilter[] filters;
+    private final boolean contentDependent;
+    private final boolean markerDependent;
+
+    public FilterChain(List<LogFilter> filters) {
+        this.filters = filters.toArray(new LogFilter[0]);
+        boolean content = false;
+        boolean markers = false;
+        for (LogFilter filter : this.filters) {
+            content |= filter.isContentDependent();
+            markers |= filter.hasMarker();
+        }
+        this.contentDependent = content;
+        this.markerDependent = markers;
+    }
+
+    public boolean isEmpty() {
+        return filters.length == 0;
+    }
+
+    public boolean isContentDependent() {
+        return contentDependent;
+    }
+
+    // Решение зависит от метки: без таких фильтров события с меткой проверяются как без неё
+    public boolean isMarkerDependent() {
+        return markerDependent;
+    }
+
+    public List<LogFilter> getFilters() {
+        return List.of(filters);
+    }
+
+    // threshold - порог логгера, null - логгер выключен; marker - null для событий без метки
+    public Compiled compile(String loggerName, Marker marker, LogLevel threshold) {
+        int enabledLevels = 0;
+        LogFilter[][] content = new LogFilter[LEVELS.length][];
+        FilterResult[] tails = new FilterResult[LEVELS.length];
+        boolean anyContent = false;
+        for (LogLevel level : LEVELS) {
+            List<LogFilter> pending = new ArrayList<>();
+            FilterResult decided = FilterResult.NEUTRAL;
+            for (LogFilter filter : filters) {
+                FilterResult result = filter.decide(loggerName, marker, level);
+                if (result == null) {
+                    pending.add(filter);
+                } else if (result != FilterResult.NEUTRAL) {
+                    decided = result;
+                    break;
+                }
+            }
+            if (threshold == null) {
+                continue;
+            }
+            // Если все фильтры промолчали, решает порог логгера
+            FilterResult tail = decided != FilterResult.NEUTRAL ? decided
+                    : level.isEnabled(threshold) ? FilterResult.ACCEPT : FilterResult.DENY;
+            boolean mayAccept = tail == FilterResult.ACCEPT;
+            for (LogFilter filter : pending) {
+                mayAccept |= filter.mayAccept();
+            }
+            if (mayAccept) {
+                int ordinal = level.ordinal();
+                enabledLevels |= 1 << ordinal;
+                if (!pending.isEmpty()) {
+                    content[ordinal] = pending.toArray(new LogFilter[0]);
+                    tails[ordinal] = tail;
+                    anyContent = true;
+                }
+            }
+        }
+        return new Compiled(enabledLevels, anyContent ? content : null, tails);
+    }
+
+    public static int mask(LogLevel threshold) {
+        int mask = 0;
+        if (threshold != null) {
+            for (LogLevel level : LEVELS) {
+                if (level.isEnabled(threshold)) {
+                    mask |= 1 << level.ordinal();
+                }
+            }
+        }
+        return mask;
+    }
+
+    // Цепочка, вычисленная для одного логгера
+    public static final class Compiled {
+        private final int enabledLevels; // бит ordinal() уровня
+        private final LogFilter[][] content; // null - фильтров содержимого нет ни на одном уровне
+        private final FilterResult[] tails; // ответ, если все фильтры содержимого NEUTRAL: ACCEPT или DENY
+
+        Compiled(int enabledLevels, LogFilter[][] content, FilterResult[] tails) {
+            this.enabledLevels = enabledLevels;
+            this.content = content;
+            this.tails = tails;
+        }
+
+        public int getEnabledLevels() {
+            return enabledLevels;
+        }
+
+        public boolean hasContentFilters() {
+            return content != null;
+        }
+
+        // Событие уровня из enabledLevels: проверка условий на содержимое
+        public boolean accept(LogEvent event) {
+            if (content == null) {
+                return true;
+            }
+            int ordinal = event.getLevel().ordinal();
+            LogFilter[] filters = content[ordinal];
+            if (filters == null) {
+                return true;
+            }
+            for (LogFilter filter : filters) {
+                FilterResult result = filter.filter(event);
+                if (result != FilterResult.NEUTRAL) {
+                    return result == FilterResult.ACCEPT;
+                }
+            }
+            return tails[ordinal] == FilterResult.ACCEPT;
+        }
+    }
+}
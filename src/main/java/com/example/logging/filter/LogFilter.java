@@ -0,0 +1,173 @@
+// LogFilter.java
+package com.example.logging.filter;
+
+import com.example.logging.config.FilterResult;
+import com.example.logging.config.LogLevel;
+import com.example.logging.config.LoggerConfig;
+import com.example.logging.core.LogEvent;
+import com.example.logging.core.Marker;
+
+import java.util.regex.Pattern;
+
+// Фильтр событий: заданные условия объединяются по И. Совпало - onMatch, нет - onMismatch:
+//   LogFilter.deny().logger("org.hibernate").maxLevel(LogLevel.DEBUG)
+//   LogFilter.deny().message("health check").exception("java.io.EOFException")
+//
+// Логгер, метка и уровень известны до создания события, их проверка заранее сводится
+// в решение на логгер и метку (см. FilterChain). Сообщение, MDC и исключение проверяются по
+// событию, только если до них дошло дело.
+public class LogFilter {
+
+    private final FilterResult onMatch;
+    private FilterResult onMismatch = FilterResult.NEUTRAL;
+    private String logger; // логгер или пакет: com.foo подходит и для com.foo.Bar
+    private Marker marker; // сравнивается по ссылке
+    private LogLevel maxLevel; // уровень события не выше
+    private Pattern message; // find() по отформатированному сообщению
+    private String mdcKey;
+    private String mdcValue; // null - достаточно наличия ключа
+    private String exception; // класс исключения или его предка в цепочке причин
+
+    private LogFilter(FilterResult onMatch) {
+        this.onMatch = onMatch;
+    }
+
+    public static LogFilter deny() {
+        return new LogFilter(FilterResult.DENY);
+    }
+
+    public static LogFilter accept() {
+        return new LogFilter(FilterResult.ACCEPT);
+    }
+
+    public static LogFilter onMatch(FilterResult onMatch) {
+        return new LogFilter(onMatch);
+    }
+
+    public static LogFilter of(LoggerConfig.FilterDefinition definition) {
+        return onMatch(definition.getOnMatch()).onMismatch(definition.getOnMismatch())
+                .logger(definition.getLogger()).marker(Marker.find(definition.getMarker())).maxLevel(definition.getMaxLevel()).message(definition.getMessage())
+                .mdc(definition.getMdcKey(), definition.getMdcValue()).exception(definition.getException());
+    }
+
+    public LogFilter onMismatch(FilterResult onMismatch) {
+        this.onMismatch = onMismatch;
+        return this;
+    }
+
+    public LogFilter logger(String logger) {
+        this.logger = logger == null || logger.isEmpty() ? null : logger;
+        return this;
+    }
+
+    public LogFilter marker(Marker marker) {
+        this.marker = marker;
+        return this;
+    }
+
+    public LogFilter maxLevel(LogLevel maxLevel) {
+        this.maxLevel = maxLevel;
+        return this;
+    }
+
+    public LogFilter message(String regex) {
+        this.message = regex == null || regex.isEmpty() ? null : Pattern.compile(regex);
+        return this;
+    }
+
+    public LogFilter mdc(String key, String value) {
+        this.mdcKey = key == null || key.isEmpty() ? null : key;
+        this.mdcValue = value == null || value.isEmpty() ? null : value;
+        return this;
+    }
+
+    public LogFilter exception(String className) {
+        this.exception = className == null || className.isEmpty() ? null : className;
+        return this;
+    }
+
+    public LogFilter exception(Class<? extends Throwable> type) {
+        return exception(type.getName());
+    }
+
+    // Есть условия, для которых нужно событие
+    public boolean isContentDependent() {
+        return message != null || mdcKey != null || exception != null;
+    }
+
+    // Может ли фильтр содержимого ответить ACCEPT
+    boolean mayAccept() {
+        return onMatch == FilterResult.ACCEPT || onMismatch == FilterResult.ACCEPT;
+    }
+
+    public boolean hasMarker() {
+        return marker != null;
+    }
+
+    // Решение по логгеру, метке и уровню; null - совпадение зависит от содержимого события
+    FilterResult decide(String loggerName, Marker eventMarker, LogLevel level) {
+        if ((logger != null && !matchesLogger(loggerName, logger))
+                || (marker != null && marker != eventMarker)
+                || (maxLevel != null && level.getLevel() > maxLevel.getLevel())) {
+            return onMismatch;
+        }
+        return isContentDependent() ? null : onMatch;
+    }
+
+    // Условия по содержимому; логгер и уровень уже совпали
+    FilterResult filter(LogEvent event) {
+        return matchesContent(event) ? onMatch : onMismatch;
+    }
+
+    private boolean matchesContent(LogEvent event) {
+        if (mdcKey != null) {
+            String value = event.getContext() != null ? event.getContext().get(mdcKey) : null;
+            if (value == null || (mdcValue != null && !mdcValue.equals(value))) {
+                return false;
+            }
+        }
+        if (exception != null && !matchesException(event.getThrowable())) {
+            return false;
+        }
+        return message == null || message.matcher(event.getMessage()).find();
+    }
+
+    private boolean matchesException(Throwable throwable) {
+        for (int depth = 0; throwable != null && depth < 32; depth++, throwable = throwable.getCause()) {
+            for (Class<?> type = throwable.getClass(); type != null; type = type.getSuperclass()) {
+                if (type.getName().equals(exception)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    static boolean matchesLogger(String name, String prefix) {
+        return name.startsWith(prefix) && (name.length() == prefix.length() || name.charAt(prefix.length()) == '.');
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder(onMatch.name().toLowerCase());
+        if (logger != null) {
+            out.append(" logger=").append(logger);
+        }
+        if (marker != null) {
+            out.append(" marker=").append(marker);
+        }
+        if (maxLevel != null) {
+            out.append(" max-level=").append(maxLevel);
+        }
+        if (message != null) {
+            out.append(" message=").append(message.pattern());
+        }
+        if (mdcKey != null) {
+            out.append(" mdc=").append(mdcKey).append(mdcValue != null ? "=" + mdcValue : "");
+        }
+        if (exception != null) {
+            out.append(" exception=").append(exception);
+        }
+        return out.append(" else ").append(onMismatch.name().toLowerCase()).toString();
+    }
+}
@@ -0,0 +1,143 @@
+// LogIndex.java
+package com.example.logging.index;
+
+import com.example.logging.appender.LogQuery;
+import com.example.logging.config.LogLevel;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Прочитанный индекс одного файла: блоки по возрастанию смещения и битовые карты
+// блоков по уровню и логгеру. Участки без индекса попадают в любой отбор.
+public class LogIndex {
+
+    private static final LogLevel[] LEVELS = LogLevel.values();
+
+    private final List<Block> blocks;
+    private final BitSet unindexed = new BitSet();
+    private final BitSet[] byLevel = new BitSet[LEVELS.length];
+    private final Map<String, BitSet> byLogger = new HashMap<>();
+
+    public LogIndex(List<Block> blocks) {
+        this.blocks = blocks;
+        for (int i = 0; i < byLevel.length; i++) {
+            byLevel[i] = new BitSet();
+        }
+        for (int i = 0; i < blocks.size(); i++) {
+            Block block = blocks.get(i);
+            if (!block.indexed) {
+                unindexed.set(i);
+                continue;
+            }
+            for (int level = 0; level < LEVELS.length; level++) {
+                if ((block.levelMask & (1 << level)) != 0) {
+                    byLevel[level].set(i);
+                }
+            }
+            for (String logger : block.loggers) {
+                byLogger.computeIfAbsent(logger, name -> new BitSet()).set(i);
+            }
+        }
+    }
+
+    public List<Block> getBlocks() {
+        return blocks;
+    }
+
+    // Блоки, в которых могут быть подходящие события
+    public BitSet candidates(LogQuery query) {
+        BitSet result = new BitSet();
+        result.set(0, blocks.size());
+        if (query.getLevel() != null) {
+            BitSet levels = (BitSet) unindexed.clone();
+            for (LogLevel level : LEVELS) {
+                if (level.isEnabled(query.getLevel())) {
+                    levels.or(byLevel[level.ordinal()]);
+                }
+            }
+            result.and(levels);
+        }
+        if (query.getLogger() != null) {
+            BitSet loggers = (BitSet) unindexed.clone();
+            for (Map.Entry<String, BitSet> entry : byLogger.entrySet()) {
+                if (matchesLogger(entry.getKey(), query.getLogger())) {
+                    loggers.or(entry.getValue());
+                }
+            }
+            result.and(loggers);
+        }
+        for (int i = result.nextSetBit(0); i >= 0; i = result.nextSetBit(i + 1)) {
+            Block block = blocks.get(i);
+            if (block.indexed && (block.maxTimestamp < query.getFrom() || block.minTimestamp >= query.getTo()
+                    || (query.getContains() != null && !TrigramBloom.mightContain(block.bloom, query.getContains())))) {
+                result.clear(i);
+            }
+        }
+        return result;
+    }
+
+    // Логгер или пакет: com.foo подходит для com.foo и com.foo.Bar, но не для com.foobar
+    static boolean matchesLogger(String name, String prefix) {
+        return name.startsWith(prefix) && (name.length() == prefix.length() || name.charAt(prefix.length()) == '.');
+    }
+
+    // Блок лога; indexed = false - участок без индекса, поля кроме смещений не заданы
+    public static final class Block {
+        final boolean indexed;
+        final long offset;
+        final long length;
+        final long compressedOffset; // -1 - смещение в .gz неизвестно
+        final long minTimestamp;
+        final long maxTimestamp;
+        final long baseTimestamp; // время первого события, от него считаются времена событий
+        final int levelMask;
+        final String[] loggers;
+        final byte[] events;
+        final long[] bloom;
+
+        Block(long offset, long length, long compressedOffset, long minTimestamp, long maxTimestamp,
+              long baseTimestamp, int levelMask, String[] loggers, byte[] events, long[] bloom) {
+            this.indexed = true;
+            this.offset = offset;
+            this.length = length;
+            this.compressedOffset = compressedOffset;
+            this.minTimestamp = minTimestamp;
+            this.maxTimestamp = maxTimestamp;
+            this.baseTimestamp = baseTimestamp;
+            this.levelMask = levelMask;
+            this.loggers = loggers;
+            this.events = events;
+            this.bloom = bloom;
+        }
+
+        Block(long offset, long length, long compressedOffset) {
+            this.indexed = false;
+            this.offset = offset;
+            this.length = length;
+            this.compressedOffset = compressedOffset;
+            this.minTimestamp = Long.MIN_VALUE;
+            this.maxTimestamp = Long.MAX_VALUE;
+            this.baseTimestamp = 0;
+            this.levelMask = 0;
+            this.loggers = new String[0];
+            this.events = new byte[0];
+            this.bloom = null;
+        }
+
+        Block withCompressedOffset(long compressedOffset) {
+            return indexed
+                    ? new Block(offset, length, compressedOffset, minTimestamp, maxTimestamp, baseTimestamp,
+                            levelMask, loggers, events, bloom)
+                    : new Block(offset, length, compressedOffset);
+        }
+
+        public boolean isIndexed() { return indexed; }
+        public long getOffset() { return offset; }
+        public long getLength() { return length; }
+        public long getCompressedOffset() { return compressedOffset; }
+        public long getMinTimestamp() { return minTimestamp; }
+        public long getMaxTimestamp() { return maxTimestamp; }
+    }
+}
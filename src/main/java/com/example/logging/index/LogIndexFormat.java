@@ -0,0 +1,54 @@
+// LogIndexFormat.java
+package com.example.logging.index;
+
+import java.nio.file.Path;
+
+// Сайдкар-индекс текстового лога: logs/app.log -> logs/app.log.idx,
+// архив logs/app.2026-10-17.0.log[.gz] -> logs/app.2026-10-17.0.log.idx.
+//
+// Лог делится на блоки примерно по BLOCK_SIZE байт по границам событий. Файл индекса -
+// заголовок 'L' 'L' 'I' <версия> и записи, дописываемые по мере закрытия блоков:
+//
+//   'B' <varlong: смещение блока в логе> <varlong: длина> <varlong: смещение в .gz + 1, 0 - не сжат>
+//       <varlong: время самого раннего события> <varlong: позднее - раннее>
+//       <varlong: время первого события - раннее> <байт: маска уровней>
+//       <varint: число логгеров> <логгеры: varint длина, UTF-8>
+//       <varint: длина списка событий> <события: varlong смещение от предыдущего, байт уровня,
+//        varint номер логгера в блоке, zigzag varlong время - время первого события>
+//       <фильтр Блума триграмм текста, BLOOM_BITS / 8 байт>
+//   'U' <varlong: смещение> <varlong: длина> <varlong: смещение в .gz + 1> - участок без индекса
+//       (содержимое до включения индекса, хвост после аварийной остановки)
+//
+// Маска уровней и список логгеров дают битовые карты блоков по уровню и логгеру,
+// границы времени блока - разреженный индекс время -> смещение,
+// фильтр Блума - отсев блоков, где искомой подстроки точно нет.
+//
+// При сжатии архива каждый блок становится отдельным gzip-членом (файл по-прежнему
+// читается gunzip/zcat), а смещения членов дописываются в индекс, так что поиск
+// распаковывает только подходящие блоки.
+public final class LogIndexFormat {
+
+    public static final byte[] MAGIC = {'L', 'L', 'I'};
+    public static final byte VERSION = 1;
+
+    public static final byte BLOCK = 'B';
+    public static final byte UNINDEXED = 'U';
+
+    public static final int BLOCK_SIZE = 64 * 1024;
+    public static final int BLOOM_BITS = 32768;
+
+    public static final String INDEX_SUFFIX = ".idx";
+    public static final String GZIP_SUFFIX = ".gz";
+
+    private LogIndexFormat() {
+    }
+
+    // Индекс лога или его архива: сжатый и несжатый архив делят один индекс
+    public static Path indexFor(Path logFile) {
+        String name = logFile.getFileName().toString();
+        if (name.endsWith(GZIP_SUFFIX)) {
+            name = name.substring(0, name.length() - GZIP_SUFFIX.length());
+        }
+        return logFile.resolveSibling(name + INDEX_SUFFIX);
+    }
+}
@@ -0,0 +1,138 @@
+// LogIndexReader.java
+package com.example.logging.index;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.example.logging.index.LogIndexFormat.*;
+
+// Читает индекс целиком. Оборванная последняя запись (процесс упал посреди записи
+// индекса) отбрасывается.
+public final class LogIndexReader {
+
+    private LogIndexReader() {
+    }
+
+    // logSize - длина индексированного файла; блоки, выходящие за неё, отбрасываются,
+    // а непокрытые индексом участки файла добавляются как 'U'. Для сжатого архива,
+    // длина которого без распаковки неизвестна, - -1: записи берутся как есть
+    public static LogIndex read(Path indexFile, long logSize) throws IOException {
+        ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(indexFile));
+        if (in.remaining() < MAGIC.length + 1
+                || in.get() != MAGIC[0] || in.get() != MAGIC[1] || in.get() != MAGIC[2]) {
+            throw new IOException("Not a log index: " + indexFile);
+        }
+        byte version = in.get();
+        if (version != VERSION) {
+            throw new IOException("Unsupported log index version " + version + ": " + indexFile);
+        }
+        List<LogIndex.Block> records = new ArrayList<>();
+        try {
+            while (in.hasRemaining()) {
+                records.add(readBlock(in));
+            }
+        } catch (BufferUnderflowException e) {
+            // хвост, не дописанный до конца
+        }
+        return new LogIndex(logSize < 0 ? records : cover(records, logSize));
+    }
+
+    private static LogIndex.Block readBlock(ByteBuffer in) throws IOException {
+        byte tag = in.get();
+        long offset = readVarLong(in);
+        long length = readVarLong(in);
+        long compressedOffset = readVarLong(in) - 1;
+        if (tag == UNINDEXED) {
+            return new LogIndex.Block(offset, length, compressedOffset);
+        }
+        if (tag != BLOCK) {
+            throw new IOException("Corrupted log index: unexpected record tag " + tag);
+        }
+        long minTimestamp = readVarLong(in);
+        long maxTimestamp = minTimestamp + readVarLong(in);
+        long baseTimestamp = minTimestamp + readVarLong(in);
+        int levelMask = in.get() & 0xFF;
+        String[] loggers = new String[(int) readVarLong(in)];
+        for (int i = 0; i < loggers.length; i++) {
+            byte[] name = new byte[(int) readVarLong(in)];
+            in.get(name);
+            loggers[i] = new String(name, StandardCharsets.UTF_8);
+        }
+        byte[] events = new byte[(int) readVarLong(in)];
+        in.get(events);
+        long[] bloom = TrigramBloom.create();
+        for (int i = 0; i < bloom.length; i++) {
+            bloom[i] = in.getLong();
+        }
+        return new LogIndex.Block(offset, length, compressedOffset, minTimestamp, maxTimestamp, baseTimestamp,
+                levelMask, loggers, events, bloom);
+    }
+
+    // Блоки, покрывающие файл [0, logSize) без пропусков
+    private static List<LogIndex.Block> cover(List<LogIndex.Block> records, long logSize) {
+        List<LogIndex.Block> blocks = new ArrayList<>(records.size() + 1);
+        long covered = 0;
+        for (LogIndex.Block block : records) {
+            if (block.offset < covered) {
+                continue;
+            }
+            if (block.offset + block.length > logSize) {
+                break;
+            }
+            if (block.offset > covered) {
+                blocks.add(new LogIndex.Block(covered, block.offset - covered, -1));
+            }
+            blocks.add(block);
+            covered = block.offset + block.length;
+        }
+        if (covered < logSize) {
+            blocks.add(new LogIndex.Block(covered, logSize - covered, -1));
+        }
+        return blocks;
+    }
+
+    // События блока: смещение в файле, уровень, номер логгера и время
+    static long[][] events(LogIndex.Block block) {
+        ByteBuffer in = ByteBuffer.wrap(block.events);
+        long[][] events = new long[4][16];
+        int count = 0;
+        long offset = block.offset;
+        while (in.hasRemaining()) {
+            if (count == events[0].length) {
+                for (int i = 0; i < events.length; i++) {
+                    events[i] = Arrays.copyOf(events[i], count * 2);
+                }
+            }
+            offset += readVarLong(in);
+            events[0][count] = offset;
+            events[1][count] = in.get();
+            events[2][count] = readVarLong(in);
+            long zigzag = readVarLong(in);
+            events[3][count] = block.baseTimestamp + ((zigzag >>> 1) ^ -(zigzag & 1));
+            count++;
+        }
+        for (int i = 0; i < events.length; i++) {
+            events[i] = Arrays.copyOf(events[i], count);
+        }
+        return events;
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new BufferUnderflowException();
+    }
+}
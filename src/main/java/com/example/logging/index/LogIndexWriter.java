@@ -0,0 +1,237 @@
+// LogIndexWriter.java
+package com.example.logging.index;
+
+import com.example.logging.config.LogLevel;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import static com.example.logging.index.LogIndexFormat.*;
+
+// Пишет индекс активного файла лога. Вызывается под блокировкой приёмника, после
+// того как событие закодировано: offset - позиция события в файле, length - длина в байтах.
+// Запись блока уходит в файл индекса при его закрытии, поэтому после аварии в индексе
+// нет только последнего блока - при следующем открытии он становится участком 'U'.
+public class LogIndexWriter implements Closeable {
+
+    private final FileChannel channel;
+    private final ByteArrayOutputStream record = new ByteArrayOutputStream(8192);
+    private final ByteArrayOutputStream events = new ByteArrayOutputStream(8192);
+    private final Map<String, Integer> loggerIndexes = new HashMap<>();
+    private final List<String> loggers = new ArrayList<>();
+
+    private long blockOffset = -1;
+    private long blockEnd;
+    private long lastEventOffset;
+    private long minTimestamp;
+    private long maxTimestamp;
+    private long baseTimestamp;
+    private int levelMask;
+    private long[] bloom = TrigramBloom.create();
+
+    private LogIndexWriter(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    // Открывает индекс файла длиной logSize. Существующий индекс проверяется по длине файла
+    // и переписывается: оборванные и выходящие за файл блоки, а также всё, что записано без
+    // индекса, становятся участками 'U'
+    public static LogIndexWriter open(Path indexFile, long logSize) throws IOException {
+        List<LogIndex.Block> blocks = logSize > 0 ? List.of(new LogIndex.Block(0, logSize, -1)) : List.of();
+        if (Files.exists(indexFile)) {
+            try {
+                blocks = LogIndexReader.read(indexFile, logSize).getBlocks();
+            } catch (IOException e) {
+                // испорченный индекс заменяется новым, старое содержимое остаётся без индекса
+            }
+        }
+        write(indexFile, blocks);
+        return new LogIndexWriter(FileChannel.open(indexFile, StandardOpenOption.WRITE, StandardOpenOption.APPEND));
+    }
+
+    public void add(long offset, int length, long timestamp, LogLevel level, String logger, CharSequence text)
+            throws IOException {
+        if (blockOffset >= 0 && offset != blockEnd) {
+            // Кто-то писал в файл мимо индекса - начинаем новый блок
+            finishBlock();
+        }
+        if (blockOffset < 0) {
+            blockOffset = offset;
+            lastEventOffset = offset;
+            minTimestamp = maxTimestamp = baseTimestamp = timestamp;
+        }
+        Integer loggerIndex = loggerIndexes.get(logger);
+        if (loggerIndex == null) {
+            loggerIndex = loggers.size();
+            loggerIndexes.put(logger, loggerIndex);
+            loggers.add(logger);
+        }
+        writeVarLong(events, offset - lastEventOffset);
+        events.write(level.ordinal());
+        writeVarLong(events, loggerIndex);
+        writeVarLong(events, zigzag(timestamp - baseTimestamp));
+        TrigramBloom.add(bloom, text);
+
+        lastEventOffset = offset;
+        minTimestamp = Math.min(minTimestamp, timestamp);
+        maxTimestamp = Math.max(maxTimestamp, timestamp);
+        levelMask |= 1 << level.ordinal();
+        blockEnd = offset + length;
+        if (blockEnd - blockOffset >= BLOCK_SIZE) {
+            finishBlock();
+        }
+    }
+
+    public void finishBlock() throws IOException {
+        if (blockOffset < 0) {
+            return;
+        }
+        LogIndex.Block block = new LogIndex.Block(blockOffset, blockEnd - blockOffset, -1, minTimestamp,
+                maxTimestamp, baseTimestamp, levelMask, loggers.toArray(new String[0]), events.toByteArray(), bloom);
+        blockOffset = -1;
+        levelMask = 0;
+        loggers.clear();
+        loggerIndexes.clear();
+        events.reset();
+        bloom = TrigramBloom.create();
+
+        record.reset();
+        encode(block, record);
+        ByteBuffer bytes = ByteBuffer.wrap(record.toByteArray());
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            finishBlock();
+        } finally {
+            channel.close();
+        }
+    }
+
+    // Сжимает архив log в target: каждый блок индекса - отдельный gzip-член. Индекс
+    // переписывается со смещениями членов; несжатый файл по нему по-прежнему читается
+    public static void compress(Path log, Path target) throws IOException {
+        Path indexFile = indexFor(log);
+        List<LogIndex.Block> blocks = LogIndexReader.read(indexFile, Files.size(log)).getBlocks();
+        List<LogIndex.Block> compressed = new ArrayList<>(blocks.size());
+        byte[] chunk = new byte[65536];
+        try (FileChannel in = FileChannel.open(log, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                     StandardOpenOption.TRUNCATE_EXISTING)) {
+            OutputStream member = new ChannelOutputStream(out);
+            for (LogIndex.Block block : blocks) {
+                compressed.add(block.withCompressedOffset(out.position()));
+                GZIPOutputStream gzip = new GZIPOutputStream(member, chunk.length);
+                long position = block.offset;
+                long end = block.offset + block.length;
+                while (position < end) {
+                    int read = in.read(ByteBuffer.wrap(chunk, 0, (int) Math.min(chunk.length, end - position)),
+                            position);
+                    if (read < 0) {
+                        throw new IOException("Log file is shorter than its index: " + log);
+                    }
+                    gzip.write(chunk, 0, read);
+                    position += read;
+                }
+                gzip.finish();
+            }
+        }
+        Path partial = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+        write(partial, compressed);
+        try {
+            Files.move(partial, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(partial, indexFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    static void write(Path indexFile, List<LogIndex.Block> blocks) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+        out.writeBytes(MAGIC);
+        out.write(VERSION);
+        for (LogIndex.Block block : blocks) {
+            encode(block, out);
+        }
+        Files.write(indexFile, out.toByteArray());
+    }
+
+    static void encode(LogIndex.Block block, ByteArrayOutputStream out) {
+        out.write(block.indexed ? BLOCK : UNINDEXED);
+        writeVarLong(out, block.offset);
+        writeVarLong(out, block.length);
+        writeVarLong(out, block.compressedOffset + 1);
+        if (!block.indexed) {
+            return;
+        }
+        writeVarLong(out, block.minTimestamp);
+        writeVarLong(out, block.maxTimestamp - block.minTimestamp);
+        writeVarLong(out, block.baseTimestamp - block.minTimestamp);
+        out.write(block.levelMask);
+        writeVarLong(out, block.loggers.length);
+        for (String logger : block.loggers) {
+            byte[] bytes = logger.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(out, bytes.length);
+            out.write(bytes, 0, bytes.length);
+        }
+        writeVarLong(out, block.events.length);
+        out.write(block.events, 0, block.events.length);
+        for (long word : block.bloom) {
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                out.write((int) (word >>> shift));
+            }
+        }
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    // Поток в канал, который не закрывается вместе с GZIPOutputStream очередного члена
+    private static final class ChannelOutputStream extends OutputStream {
+        private final FileChannel channel;
+
+        ChannelOutputStream(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes, offset, length);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+}
@@ -0,0 +1,338 @@
+// LogSearch.java
+package com.example.logging.index;
+
+import com.example.logging.appender.LogQuery;
+import com.example.logging.config.LogLevel;
+import com.example.logging.util.Utf8;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+import static com.example.logging.index.LogIndexFormat.*;
+
+// Поиск по текстовым логам RollingFileAppender с индексом (file-index: true).
+// Читаются только блоки, которые индекс не отсёк; в сжатых архивах распаковываются
+// только gzip-члены этих блоков. Файлы и участки без индекса просматриваются целиком,
+// и в них проверяется только contains - уровень, логгер и время строки неизвестны.
+//
+//   java -cp logging-library.jar com.example.logging.index.LogSearch \
+//        [--level WARN] [--logger com.foo] [--from 2026-10-17T10:00:00Z] [--to ...] \
+//        [--contains timeout] [--limit 100] [--no-archives] logs/app.log
+public class LogSearch {
+
+    private static final String USAGE = "Usage: LogSearch [--level <level>] [--logger <name>] [--from <instant>]"
+            + " [--to <instant>] [--contains <text>] [--limit <n>] [--no-archives] <log file>";
+
+    private static final LogLevel[] LEVELS = LogLevel.values();
+
+    private final LogQuery query;
+    private long blocksTotal;
+    private long blocksRead;
+    private long bytesRead;
+
+    public LogSearch(LogQuery query) {
+        this.query = query;
+    }
+
+    // Активный файл и все его архивы; самые новые query.limit событий по порядку записи
+    public List<LogSearchHit> search(Path logFile) throws IOException {
+        ArrayDeque<LogSearchHit> hits = new ArrayDeque<>();
+        Consumer<LogSearchHit> collector = hit -> {
+            hits.addLast(hit);
+            if (hits.size() > query.getLimit()) {
+                hits.removeFirst();
+            }
+        };
+        for (Path file : files(logFile)) {
+            searchFile(file, collector);
+        }
+        return new ArrayList<>(hits);
+    }
+
+    // Архивы лога от старых к новым (logs/app.2026-10-17.0.log[.gz]), затем сам лог
+    public static List<Path> files(Path logFile) throws IOException {
+        Path file = logFile.toAbsolutePath();
+        String fileName = file.getFileName().toString();
+        int dot = fileName.lastIndexOf('.');
+        String baseName = dot > 0 ? fileName.substring(0, dot) : fileName;
+        String extension = dot > 0 ? fileName.substring(dot) : "";
+        Pattern archivePattern = Pattern.compile(Pattern.quote(baseName) + "\\.(\\d{4}-\\d{2}-\\d{2})\\.(\\d+)"
+                + Pattern.quote(extension) + "(" + Pattern.quote(GZIP_SUFFIX) + ")?");
+
+        // Пока архив сжимается, рядом лежат обе версии - берём несжатую
+        TreeMap<String, Path> archives = new TreeMap<>(Comparator.comparing((String key) -> key.substring(0, 10))
+                .thenComparingLong(key -> Long.parseLong(key.substring(11))));
+        if (Files.isDirectory(file.getParent())) {
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(file.getParent())) {
+                for (Path entry : entries) {
+                    Matcher matcher = archivePattern.matcher(entry.getFileName().toString());
+                    if (matcher.matches()) {
+                        String key = matcher.group(1) + "." + matcher.group(2);
+                        if (matcher.group(3) == null || !archives.containsKey(key)) {
+                            archives.put(key, entry);
+                        }
+                    }
+                }
+            }
+        }
+        List<Path> files = new ArrayList<>(archives.values());
+        if (Files.exists(file)) {
+            files.add(file);
+        }
+        return files;
+    }
+
+    // Один файл: активный лог, архив или сжатый архив
+    public void searchFile(Path file, Consumer<LogSearchHit> hits) throws IOException {
+        boolean gzip = file.getFileName().toString().endsWith(GZIP_SUFFIX);
+        Path indexFile = indexFor(file);
+        LogIndex index = null;
+        if (Files.exists(indexFile)) {
+            try {
+                index = LogIndexReader.read(indexFile, gzip ? -1 : Files.size(file));
+            } catch (IOException e) {
+                System.err.println("Ignoring log index " + indexFile + ": " + e.getMessage());
+            }
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (index == null) {
+                blocksTotal++;
+                blocksRead++;
+                InputStream in = new ChannelInputStream(channel, 0, Long.MAX_VALUE);
+                try (InputStream text = gzip ? new GZIPInputStream(in, 65536) : in) {
+                    scanLines(file, 0, text, Long.MAX_VALUE, hits);
+                }
+                return;
+            }
+
+            List<LogIndex.Block> blocks = index.getBlocks();
+            BitSet candidates = index.candidates(query);
+            blocksTotal += blocks.size();
+            // Архив, сжатый без разбиения на блоки, распаковывается подряд с пропуском лишнего
+            InputStream sequential = null;
+            long sequentialPosition = 0;
+            for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+                LogIndex.Block block = blocks.get(i);
+                InputStream in;
+                if (!gzip) {
+                    in = new ChannelInputStream(channel, block.offset, block.length);
+                } else if (block.compressedOffset >= 0) {
+                    in = new GZIPInputStream(new ChannelInputStream(channel, block.compressedOffset, Long.MAX_VALUE),
+                            65536);
+                } else {
+                    if (sequential == null) {
+                        sequential = new GZIPInputStream(new ChannelInputStream(channel, 0, Long.MAX_VALUE), 65536);
+                    }
+                    sequential.skipNBytes(block.offset - sequentialPosition);
+                    sequentialPosition = block.offset + block.length;
+                    in = sequential;
+                }
+                blocksRead++;
+                if (block.indexed) {
+                    byte[] bytes = in.readNBytes((int) block.length);
+                    bytesRead += bytes.length;
+                    matchEvents(file, block, bytes, hits);
+                } else {
+                    scanLines(file, block.offset, in, block.length, hits);
+                }
+                if (in != sequential) {
+                    in.close();
+                }
+            }
+            if (sequential != null) {
+                sequential.close();
+            }
+        }
+    }
+
+    private void matchEvents(Path file, LogIndex.Block block, byte[] bytes, Consumer<LogSearchHit> hits) {
+        long[][] events = LogIndexReader.events(block);
+        int count = events[0].length;
+        for (int i = 0; i < count; i++) {
+            LogLevel level = LEVELS[(int) events[1][i]];
+            String logger = block.loggers[(int) events[2][i]];
+            long timestamp = events[3][i];
+            if ((query.getLevel() != null && !level.isEnabled(query.getLevel()))
+                    || (query.getLogger() != null && !LogIndex.matchesLogger(logger, query.getLogger()))
+                    || timestamp < query.getFrom() || timestamp >= query.getTo()) {
+                continue;
+            }
+            int start = (int) (events[0][i] - block.offset);
+            int end = i + 1 < count ? (int) (events[0][i + 1] - block.offset) : bytes.length;
+            String text = new String(bytes, start, Math.min(end, bytes.length) - start, StandardCharsets.UTF_8);
+            if (query.getContains() == null || text.contains(query.getContains())) {
+                hits.accept(new LogSearchHit(file, events[0][i], timestamp, level, logger, text));
+            }
+        }
+    }
+
+    private void scanLines(Path file, long offset, InputStream in, long length, Consumer<LogSearchHit> hits)
+            throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new LimitedInputStream(in, length),
+                StandardCharsets.UTF_8), 65536);
+        String line;
+        long position = offset;
+        while ((line = reader.readLine()) != null) {
+            int lineLength = Utf8.encodedLength(line) + 1;
+            if (query.getContains() == null || line.contains(query.getContains())) {
+                hits.accept(new LogSearchHit(file, position, -1, null, null, line + "\n"));
+            }
+            position += lineLength;
+            bytesRead += lineLength;
+        }
+    }
+
+    public long getBlocksTotal() { return blocksTotal; }
+    public long getBlocksRead() { return blocksRead; }
+    public long getBytesRead() { return bytesRead; }
+
+    public static void main(String[] args) throws IOException {
+        LogQuery query = LogQuery.all();
+        boolean archives = true;
+        String logFile = null;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                if (arg.equals("--no-archives")) {
+                    archives = false;
+                } else if (arg.startsWith("--") && i + 1 < args.length) {
+                    String value = args[++i];
+                    switch (arg) {
+                        case "--level" -> query.level(LogLevel.valueOf(value.toUpperCase()));
+                        case "--logger" -> query.logger(value);
+                        case "--from" -> query.from(Instant.parse(value));
+                        case "--to" -> query.to(Instant.parse(value));
+                        case "--contains" -> query.contains(value);
+                        case "--limit" -> query.limit(Integer.parseInt(value));
+                        default -> throw new IllegalArgumentException(arg);
+                    }
+                } else if (arg.startsWith("--") || logFile != null) {
+                    throw new IllegalArgumentException(arg);
+                } else {
+                    logFile = arg;
+                }
+            }
+            if (logFile == null) {
+                throw new IllegalArgumentException("no log file");
+            }
+        } catch (RuntimeException e) {
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+
+        LogSearch search = new LogSearch(query);
+        List<LogSearchHit> hits;
+        if (archives) {
+            hits = search.search(Paths.get(logFile));
+        } else {
+            ArrayDeque<LogSearchHit> newest = new ArrayDeque<>();
+            search.searchFile(Paths.get(logFile), hit -> {
+                newest.addLast(hit);
+                if (newest.size() > query.getLimit()) {
+                    newest.removeFirst();
+                }
+            });
+            hits = new ArrayList<>(newest);
+        }
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 65536);
+        for (LogSearchHit hit : hits) {
+            out.write(hit.getText());
+        }
+        out.flush();
+        System.err.println(hits.size() + " events, read " + search.getBlocksRead() + " of "
+                + search.getBlocksTotal() + " blocks (" + search.getBytesRead() + " bytes)");
+    }
+
+    // Чтение канала с позиции, не закрывающее канал
+    private static final class ChannelInputStream extends InputStream {
+        private final FileChannel channel;
+        private long position;
+        private long remaining;
+
+        ChannelInputStream(FileChannel channel, long position, long length) {
+            this.channel = channel;
+            this.position = position;
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int read = channel.read(ByteBuffer.wrap(bytes, offset, (int) Math.min(length, remaining)), position);
+            if (read > 0) {
+                position += read;
+                remaining -= read;
+            }
+            return read;
+        }
+    }
+
+    // Не больше length байт из потока; сам поток не закрывается
+    private static final class LimitedInputStream extends InputStream {
+        private final InputStream in;
+        private long remaining;
+
+        LimitedInputStream(InputStream in, long length) {
+            this.in = in;
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = in.read();
+            if (b >= 0) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int read = in.read(bytes, offset, (int) Math.min(length, remaining));
+            if (read > 0) {
+                remaining -= read;
+            }
+            return read;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+// LogSearchHit.java
+package com.example.logging.index;
+
+import com.example.logging.config.LogLevel;
+
+import java.nio.file.Path;
+
+// Найденное событие. Для участков без индекса известны только файл, смещение и
+// строка: timestamp = -1, level и loggerName - null
+public class LogSearchHit {
+
+    private final Path file;
+    private final long offset;
+    private final long timestamp;
+    private final LogLevel level;
+    private final String loggerName;
+    private final String text;
+
+    public LogSearchHit(Path file, long offset, long timestamp, LogLevel level, String loggerName, String text) {
+        this.file = file;
+        this.offset = offset;
+        this.timestamp = timestamp;
+        this.level = level;
+        this.loggerName = loggerName;
+        this.text = text;
+    }
+
+    public Path getFile() { return file; }
+    public long getOffset() { return offset; }
+    public long getTimestamp() { return timestamp; }
+    public LogLevel getLevel() { return level; }
+    public String getLoggerName() { return loggerName; }
+    public String getText() { return text; }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+}
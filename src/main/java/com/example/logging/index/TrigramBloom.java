@@ -0,0 +1,57 @@
+// TrigramBloom.java
+package com.example.logging.index;
+
+// Фильтр Блума по триграммам (три подряд идущих символа UTF-16) с тремя хэшами.
+// Подстрока длиной от трёх символов может быть в блоке, только если в фильтре есть
+// все её триграммы; более короткие строки фильтр не отсекает.
+public final class TrigramBloom {
+
+    private static final int MASK = LogIndexFormat.BLOOM_BITS - 1;
+
+    private TrigramBloom() {
+    }
+
+    public static long[] create() {
+        return new long[LogIndexFormat.BLOOM_BITS / 64];
+    }
+
+    public static void add(long[] bloom, CharSequence text) {
+        int length = text.length();
+        if (length < 3) {
+            return;
+        }
+        long window = ((long) text.charAt(0) << 16) | text.charAt(1);
+        for (int i = 2; i < length; i++) {
+            window = ((window << 16) | text.charAt(i)) & 0xFFFF_FFFF_FFFFL;
+            long hash = window * 0x9E3779B97F4A7C15L;
+            set(bloom, (int) (hash >>> 49) & MASK);
+            set(bloom, (int) (hash >>> 34) & MASK);
+            set(bloom, (int) (hash >>> 19) & MASK);
+        }
+    }
+
+    public static boolean mightContain(long[] bloom, String text) {
+        int length = text.length();
+        if (length < 3) {
+            return true;
+        }
+        long window = ((long) text.charAt(0) << 16) | text.charAt(1);
+        for (int i = 2; i < length; i++) {
+            window = ((window << 16) | text.charAt(i)) & 0xFFFF_FFFF_FFFFL;
+            long hash = window * 0x9E3779B97F4A7C15L;
+            if (!get(bloom, (int) (hash >>> 49) & MASK) || !get(bloom, (int) (hash >>> 34) & MASK)
+                    || !get(bloom, (int) (hash >>> 19) & MASK)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void set(long[] bloom, int bit) {
+        bloom[bit >>> 6] |= 1L << bit;
+    }
+
+    private static boolean get(long[] bloom, int bit) {
+        return (bloom[bit >>> 6] & (1L << bit)) != 0;
+    }
+}
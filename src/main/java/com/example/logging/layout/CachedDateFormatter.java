@@ -0,0 +1,163 @@
+// CachedDateFormatter.java
+package com.example.logging.layout;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+// Рендер времени для %d без LocalDateTime и DateTimeFormatter на каждом событии.
+//
+// Шаблон делится по полю "SSS" на две части; они форматируются один раз в секунду
+// и кешируются, а миллисекунды дописываются в буфер цифрами. Для шаблонов с другими
+// долями секунды (SSSSSS, n, N, A) кешируется готовая строка последней миллисекунды.
+public class CachedDateFormatter {
+
+    private final String pattern;
+    private final ZoneId zone;
+    private final DateTimeFormatter formatter;
+    // null, если шаблон нельзя разделить по "SSS"
+    private final DateTimeFormatter prefixFormatter;
+    private final DateTimeFormatter suffixFormatter;
+    private final boolean hasMillis;
+
+    private volatile CachedSecond cachedSecond = new CachedSecond(Long.MIN_VALUE, "", "");
+    private volatile CachedMillis cachedMillis = new CachedMillis(Long.MIN_VALUE, "");
+
+    public CachedDateFormatter(String pattern) {
+        this(pattern, ZoneId.systemDefault());
+    }
+
+    public CachedDateFormatter(String pattern, ZoneId zone) {
+        this.pattern = pattern;
+        this.zone = zone;
+        this.formatter = DateTimeFormatter.ofPattern(pattern).withZone(zone);
+
+        int[] split = findMillisField(pattern);
+        if (split == null) {
+            prefixFormatter = null;
+            suffixFormatter = null;
+            hasMillis = false;
+        } else if (split.length == 0) {
+            // Нет долей секунды: весь шаблон меняется не чаще раза в секунду
+            prefixFormatter = formatter;
+            suffixFormatter = null;
+            hasMillis = false;
+        } else {
+            prefixFormatter = ofPatternOrNull(pattern.substring(0, split[0]));
+            suffixFormatter = ofPatternOrNull(pattern.substring(split[1]));
+            hasMillis = true;
+        }
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    public void formatTo(long epochMillis, StringBuilder out) {
+        if (prefixFormatter == null) {
+            out.append(formatCachedMillis(epochMillis));
+            return;
+        }
+
+        long epochSecond = Math.floorDiv(epochMillis, 1000L);
+        CachedSecond second = cachedSecond;
+        if (second.epochSecond != epochSecond) {
+            second = cacheSecond(epochSecond);
+        }
+
+        out.append(second.prefix);
+        if (hasMillis) {
+            int millis = (int) Math.floorMod(epochMillis, 1000L);
+            out.append((char) ('0' + millis / 100))
+                    .append((char) ('0' + millis / 10 % 10))
+                    .append((char) ('0' + millis % 10));
+            out.append(second.suffix);
+        }
+    }
+
+    public String format(long epochMillis) {
+        StringBuilder out = new StringBuilder(32);
+        formatTo(epochMillis, out);
+        return out.toString();
+    }
+
+    private CachedSecond cacheSecond(long epochSecond) {
+        Instant instant = Instant.ofEpochSecond(epochSecond);
+        String prefix = prefixFormatter.format(instant);
+        String suffix = suffixFormatter != null ? suffixFormatter.format(instant) : "";
+        CachedSecond second = new CachedSecond(epochSecond, prefix, suffix);
+        cachedSecond = second;
+        return second;
+    }
+
+    private String formatCachedMillis(long epochMillis) {
+        CachedMillis cached = cachedMillis;
+        if (cached.epochMillis != epochMillis) {
+            cached = new CachedMillis(epochMillis, formatter.format(Instant.ofEpochMilli(epochMillis)));
+            cachedMillis = cached;
+        }
+        return cached.text;
+    }
+
+    private DateTimeFormatter ofPatternOrNull(String part) {
+        return part.isEmpty() ? null : DateTimeFormatter.ofPattern(part).withZone(zone);
+    }
+
+    // Возвращает [начало, конец) единственного поля "SSS", пустой массив, если долей
+    // секунды нет, и null, если шаблон так разделить нельзя
+    static int[] findMillisField(String pattern) {
+        int[] result = new int[0];
+        boolean quoted = false;
+        int i = 0;
+        while (i < pattern.length()) {
+            char c = pattern.charAt(i);
+            if (c == '\'') {
+                quoted = !quoted;
+                i++;
+                continue;
+            }
+            if (quoted) {
+                i++;
+                continue;
+            }
+            if (c == 'n' || c == 'N' || c == 'A') {
+                return null;
+            }
+            if (c == 'S') {
+                int start = i;
+                while (i < pattern.length() && pattern.charAt(i) == 'S') {
+                    i++;
+                }
+                if (i - start != 3 || result.length != 0) {
+                    return null;
+                }
+                result = new int[]{start, i};
+                continue;
+            }
+            i++;
+        }
+        return quoted ? null : result;
+    }
+
+    private static final class CachedSecond {
+        final long epochSecond;
+        final String prefix;
+        final String suffix;
+
+        CachedSecond(long epochSecond, String prefix, String suffix) {
+            this.epochSecond = epochSecond;
+            this.prefix = prefix;
+            this.suffix = suffix;
+        }
+    }
+
+    private static final class CachedMillis {
+        final long epochMillis;
+        final String text;
+
+        CachedMillis(long epochMillis, String text) {
+            this.epochMillis = epochMillis;
+            this.text = text;
+        }
+    }
+}
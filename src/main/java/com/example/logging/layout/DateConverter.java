@@ -0,0 +1,21 @@
+// DateConverter.java
+package com.example.logging.layout;
+
+import com.example.logging.core.LogEvent;
+
+// %d, %d{yyyy-MM-dd HH:mm:ss.SSS}
+public class DateConverter implements PatternConverter {
+
+    public static final String DEFAULT_PATTERN = "yyyy-MM-dd HH:mm:ss.SSS";
+
+    private final CachedDateFormatter formatter;
+
+    public DateConverter(String pattern) {
+        this.formatter = new CachedDateFormatter(pattern == null || pattern.isBlank() ? DEFAULT_PATTERN : pattern);
+    }
+
+    @Override
+    public void format(LogEvent event, StringBuilder out) {
+        formatter.formatTo(event.getTimestamp(), out);
+    }
+}
@@ -0,0 +1,206 @@
+// JsonLayout.java
+package com.example.logging.layout;
+
+import com.example.logging.core.ContextMap;
+import com.example.logging.core.KeyValue;
+import com.example.logging.core.LogEvent;
+import com.example.logging.core.Marker;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.ZoneId;
+
+// JSON Lines: один объект на событие, поля
+// {"timestamp":"2026-10-17T10:15:30.123+03:00","level":"INFO","thread":"main",
+//  "logger":"com.foo.Bar","marker":"AUDIT","message":"...","mdc":{...},"exception":"...", <поля KeyValue>}
+// Ключ KeyValue, совпадающий со стандартным полем (level, message...), пишется
+// с префиксом "kv.", чтобы в объекте не было повторяющихся ключей.
+//
+// Кодировщик ручной и потоковый: каждое поле экранируется прямо в выходной буфер,
+// без промежуточных строк и без рефлексии. Числа и boolean из KeyValue пишутся
+// как есть, остальные значения - строкой через toString().
+public class JsonLayout implements Layout {
+
+    public static final String TIMESTAMP_PATTERN = "yyyy-MM-dd'T'HH:mm:ss.SSSXXX";
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final int MAX_RETAINED_CAPACITY = 8192;
+    private static final String RESERVED_PREFIX = "kv.";
+
+    private final CachedDateFormatter dateFormatter;
+    // Сообщение с подставленными аргументами и стек собираются здесь, затем экранируются в out
+    private final ThreadLocal<StringBuilder> scratch = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+    public JsonLayout() {
+        this(ZoneId.systemDefault());
+    }
+
+    public JsonLayout(ZoneId zone) {
+        this.dateFormatter = new CachedDateFormatter(TIMESTAMP_PATTERN, zone);
+    }
+
+    @Override
+    public void format(LogEvent event, StringBuilder out) {
+        out.append("{\"timestamp\":\"");
+        dateFormatter.formatTo(event.getTimestamp(), out);
+        out.append("\",\"level\":\"").append(event.getLevel().name());
+        out.append("\",\"thread\":");
+        appendString(out, event.getThreadName());
+        out.append(",\"logger\":");
+        appendString(out, event.getLoggerName());
+        Marker marker = event.getMarker();
+        if (marker != null) {
+            out.append(",\"marker\":");
+            appendString(out, marker.getName());
+        }
+
+        out.append(",\"message\":");
+        StringBuilder message = scratch.get();
+        message.setLength(0);
+        event.appendMessage(message);
+        appendString(out, message);
+
+        ContextMap context = event.getContext();
+        if (!context.isEmpty()) {
+            out.append(",\"mdc\":{");
+            for (int i = 0; i < context.size(); i++) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                appendString(out, context.getKey(i));
+                out.append(':');
+                appendString(out, context.getValue(i));
+            }
+            out.append('}');
+        }
+
+        Throwable throwable = event.getThrowable();
+        if (throwable != null) {
+            // Стек целиком, тем же кодом, что и %ex; последний перевод строки не нужен
+            message.setLength(0);
+            ThrowableRenderer.FULL.render(throwable, message, "\n");
+            message.setLength(message.length() - 1);
+            out.append(",\"exception\":");
+            appendString(out, message);
+        }
+
+        Object[] parameters = event.getParameters();
+        if (parameters != null) {
+            for (int i = 0; i < parameters.length; i++) {
+                if (parameters[i] instanceof KeyValue && !overridden(parameters, i)) {
+                    KeyValue keyValue = (KeyValue) parameters[i];
+                    String key = keyValue.getKey();
+                    out.append(',');
+                    if (isReserved(key)) {
+                        out.append('"').append(RESERVED_PREFIX);
+                        appendEscaped(out, key);
+                        out.append('"');
+                    } else {
+                        appendString(out, key);
+                    }
+                    out.append(':');
+                    appendValue(out, keyValue.getValue());
+                }
+            }
+        }
+        out.append("}\n");
+        if (message.capacity() > MAX_RETAINED_CAPACITY) {
+            scratch.set(new StringBuilder(256));
+        }
+    }
+
+    // Одно имя поля дважды: при повторе ключа пишется последнее значение
+    private static boolean overridden(Object[] parameters, int index) {
+        String key = ((KeyValue) parameters[index]).getKey();
+        for (int i = index + 1; i < parameters.length; i++) {
+            if (parameters[i] instanceof KeyValue && sameField(key, ((KeyValue) parameters[i]).getKey())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Сравнение имён полей с учётом префикса: "kv.level" совпадает с зарезервированным "level"
+    private static boolean sameField(String a, String b) {
+        boolean reservedA = isReserved(a);
+        if (reservedA == isReserved(b)) {
+            return a.equals(b);
+        }
+        String prefixed = reservedA ? b : a;
+        String plain = reservedA ? a : b;
+        return prefixed.length() == RESERVED_PREFIX.length() + plain.length()
+                && prefixed.startsWith(RESERVED_PREFIX) && prefixed.endsWith(plain);
+    }
+
+    private static boolean isReserved(String key) {
+        switch (key) {
+            case "timestamp", "level", "thread", "logger", "marker", "message", "mdc", "exception":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    static void appendValue(StringBuilder out, Object value) {
+        if (value == null) {
+            out.append("null");
+        } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            out.append(((Number) value).intValue());
+        } else if (value instanceof Long) {
+            out.append(((Long) value).longValue());
+        } else if (value instanceof Double || value instanceof Float) {
+            double d = ((Number) value).doubleValue();
+            if (Double.isFinite(d)) {
+                out.append(d);
+            } else {
+                // NaN и бесконечность в JSON не представимы
+                out.append('"').append(d).append('"');
+            }
+        } else if (value instanceof BigInteger || value instanceof BigDecimal) {
+            out.append(value);
+        } else if (value instanceof Boolean) {
+            out.append((boolean) (Boolean) value);
+        } else if (value instanceof CharSequence) {
+            appendString(out, (CharSequence) value);
+        } else {
+            appendString(out, String.valueOf(value));
+        }
+    }
+
+    static void appendString(StringBuilder out, CharSequence value) {
+        if (value == null) {
+            out.append("null");
+            return;
+        }
+        out.append('"');
+        appendEscaped(out, value);
+        out.append('"');
+    }
+
+    static void appendEscaped(StringBuilder out, CharSequence value) {
+        int length = value.length();
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x20 && c != '"' && c != '\\' && c != '\u2028' && c != '\u2029') {
+                continue;
+            }
+            // Неизменяемый участок копируется одним вызовом
+            out.append(value, start, i);
+            start = i + 1;
+            switch (c) {
+                case '"': out.append("\\\""); break;
+                case '\\': out.append("\\\\"); break;
+                case '\n': out.append("\\n"); break;
+                case '\r': out.append("\\r"); break;
+                case '\t': out.append("\\t"); break;
+                case '\b': out.append("\\b"); break;
+                case '\f': out.append("\\f"); break;
+                default:
+                    out.append("\\u").append(HEX[c >> 12]).append(HEX[(c >> 8) & 0xF])
+                            .append(HEX[(c >> 4) & 0xF]).append(HEX[c & 0xF]);
+            }
+        }
+        out.append(value, start, length);
+    }
+}
@@ -0,0 +1,8 @@
+// Layout.java
+package com.example.logging.layout;
+
+import com.example.logging.core.LogEvent;
+
+public interface Layout {
+    void format(LogEvent event, StringBuilder out);
+}
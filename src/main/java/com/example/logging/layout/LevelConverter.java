@@ -0,0 +1,12 @@
+// LevelConverter.java
+package com.example.logging.layout;
+
+import com.example.logging.core.LogEvent;
+
+public class LevelConverter implements PatternConverter {
+
+    @Override
+    public void format(LogEvent event, StringBuilder out) {
+        out.append(event.getLevel().name());
+    }
+}
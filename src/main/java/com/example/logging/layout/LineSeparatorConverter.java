@@ -0,0 +1,14 @@
+// LineSeparatorConverter.java
+package com.example.logging.layout;
+
+import com.example.logging.core.LogEvent;
+
+public class LineSeparatorConverter implements PatternConverter {
+
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    @Override
+    public void format(LogEvent event, StringBuilder out) {
+        out.append(LINE_SEPARATOR);
+    }
+}
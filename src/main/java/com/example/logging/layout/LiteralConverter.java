@@ -0,0 +1,22 @@
+// LiteralConverter.java
+package com.example.logging.layout;
+
+import com.example.logging.core.LogEvent;
+
+public class LiteralConverter implements PatternConverter {
+
+    private final String literal;
+
+    public LiteralConverter(String literal) {
+        this.literal = literal;
+    }
+
+    @Override
+    public void format(LogEvent event, StringBuilder out) {
+        out.append(literal);
+    }
+
+    public String getLiteral() {
+        return literal;
+    }
+}
@@ -0,0 +1,58 @@
+// LoggerConverter.java
+package com.example.logging.layout;
+
+import com.example.logging.core.LogEvent;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// %logger, %logger{36}. Сокращает имя как logback: пакеты слева сворачиваются
+// до первой буквы, пока имя не уложится в заданную длину; имя класса не сокращается.
+public class LoggerConverter implements PatternConverter {
+
+    private final int targetLength;
+    // Логгеров немного и имена не меняются - сокращение считается один раз на имя
+    private final ConcurrentMap<String, String> abbreviations = new ConcurrentHashMap<>();
+
+    public LoggerConverter(int targetLength) {
+        this.targetLength = targetLength;
+    }
+
+    @Override
+    public void format(LogEvent event, StringBuilder out) {
+        String name = event.getLoggerName();
+        if (targetLength <= 0 || name.length() <= targetLength) {
+            out.append(name);
+        } else {
+            // get до computeIfAbsent: ссылка на метод this::abbreviate создаётся на каждый вызов
+            String abbreviated = abbreviations.get(name);
+            if (abbreviated == null) {
+                abbreviated = abbreviations.computeIfAbsent(name, this::abbreviate);
+            }
+            out.append(abbreviated);
+        }
+    }
+
+    String abbreviate(String name) {
+        int lastDot = name.lastIndexOf('.');
+        if (lastDot < 0) {
+            return name;
+        }
+        StringBuilder result = new StringBuilder(targetLength);
+        int excess = name.length() - targetLength;
+        int start = 0;
+        while (start < lastDot) {
+            int dot = name.indexOf('.', start);
+            int segmentLength = dot - start;
+            if (excess > 0 && segmentLength > 1) {
+                result.append(name.charAt(start)).append('.');
+                excess -= segmentLength - 1;
+            } else {
+                result.append(name, start, dot + 1);
+            }
+            start = dot + 1;
+        }
+        result.append(name, lastDot + 1, name.length());
+        return result.toString();
+    }
+}
@@ -0,0 +1,17 @@
+// MarkerConverter.java
+package com.example.logging.layout;
+
+import com.example.logging.core.LogEvent;
+import com.example.logging.core.Marker;
+
+// %marker - имя метки события, пусто для событий без метки
+public class MarkerConverter implements PatternConverter {
+
+    @Override
+    public void format(LogEvent event, StringBuilder out) {
+        Marker marker = event.getMarker();
+        if (marker != null) {
+            out.append(marker.getName());
+        }
+    }
+}
@@ -0,0 +1,28 @@
+// MdcConverter.java
+package com.example.logging.layout;
+
+import com.example.logging.core.ContextMap;
+import com.example.logging.core.LogEvent;
+
+// %X{key} - значение ключа MDC (пусто, если ключа нет), %X - весь контекст: k1=v1, k2=v2
+public class MdcConverter implements PatternConverter {
+
+    private final String key;
+
+    public MdcConverter(String key) {
+        this.key = key == null || key.isBlank() ? null : key.trim();
+    }
+
+    @Override
+    public void format(LogEvent event, StringBuilder out) {
+        ContextMap context = event.getContext();
+        if (key == null) {
+            context.appendTo(out);
+            return;
+        }
+        String value = context.get(key);
+        if (value != null) {
+            out.append(value);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+// MessageConverter.java
+package com.example.logging.layout;
+
+import com.example.logging.core.LogEvent;
+
+public class MessageConverter implements PatternConverter {
+
+    @Override
+    public void format(LogEvent event, StringBuilder out) {
+        event.appendMessage(out);
+    }
+}
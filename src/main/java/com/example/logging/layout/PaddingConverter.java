@@ -0,0 +1,53 @@
+// PaddingConverter.java
+package com.example.logging.layout;
+
+import com.example.logging.core.LogEvent;
+
+// Модификаторы формата: %-5level, %10thread, %.20logger
+public class PaddingConverter implements PatternConverter {
+
+    private static final String SPACES = "                                ";
+
+    private final PatternConverter delegate;
+    private final int minLength;
+    private final int maxLength;
+    private final boolean leftAlign;
+
+    public PaddingConverter(PatternConverter delegate, int minLength, int maxLength, boolean leftAlign) {
+        this.delegate = delegate;
+        this.minLength = minLength;
+        this.maxLength = maxLength;
+        this.leftAlign = leftAlign;
+    }
+
+    @Override
+    public void format(LogEvent event, StringBuilder out) {
+        int start = out.length();
+        delegate.format(event, out);
+        int length = out.length() - start;
+
+        if (maxLength > 0 && length > maxLength) {
+            // Как в logback: обрезается начало значения
+            out.delete(start, start + length - maxLength);
+        } else if (length < minLength) {
+            int padding = minLength - length;
+            if (leftAlign) {
+                appendSpaces(out, padding);
+            } else {
+                while (padding > 0) {
+                    int chunk = Math.min(padding, SPACES.length());
+                    out.insert(start, SPACES, 0, chunk);
+                    padding -= chunk;
+                }
+            }
+        }
+    }
+
+    private static void appendSpaces(StringBuilder out, int count) {
+        while (count > 0) {
+            int chunk = Math.min(count, SPACES.length());
+            out.append(SPACES, 0, chunk);
+            count -= chunk;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+// PatternConverter.java
+package com.example.logging.layout;
+
+import com.example.logging.core.LogEvent;
+
+// Один элемент скомпилированного шаблона: дописывает свою часть строки в общий буфер
+@FunctionalInterface
+public interface PatternConverter {
+    void format(LogEvent event, StringBuilder out);
+}
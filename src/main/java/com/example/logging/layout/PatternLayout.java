@@ -0,0 +1,186 @@
+// PatternLayout.java
+package com.example.logging.layout;
+
+import com.example.logging.core.LogEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Шаблон разбирается один раз в массив конвертеров; при записи события
+// конвертеры по очереди дописывают свою часть в один переиспользуемый StringBuilder.
+//
+// Поддерживаются: %d{pattern}, %thread, %level, %logger{length}, %msg, %X{key}, %marker, %ex{options}, %n,
+// модификаторы ширины (%-5level, %.30logger) и %% для символа процента.
+// Каждое событие завершается переводом строки, даже если в шаблоне нет %n,
+// а стек исключения выводится после него, даже если в шаблоне нет %ex.
+public class PatternLayout implements Layout {
+
+    private static final int MAX_RETAINED_CAPACITY = 8192;
+
+    private final String pattern;
+    private final PatternConverter[] converters;
+    private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+    public PatternLayout(String pattern) {
+        this.pattern = pattern;
+        this.converters = parse(pattern);
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    @Override
+    public void format(LogEvent event, StringBuilder out) {
+        for (PatternConverter converter : converters) {
+            converter.format(event, out);
+        }
+    }
+
+    public String render(LogEvent event) {
+        StringBuilder buffer = buffers.get();
+        buffer.setLength(0);
+        format(event, buffer);
+        String result = buffer.toString();
+        if (buffer.capacity() > MAX_RETAINED_CAPACITY) {
+            // Не держим в ThreadLocal буфер, раздутый одним огромным сообщением
+            buffers.set(new StringBuilder(256));
+        }
+        return result;
+    }
+
+    private static PatternConverter[] parse(String pattern) {
+        List<PatternConverter> result = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        boolean throwable = false;
+        int length = pattern.length();
+        int i = 0;
+
+        while (i < length) {
+            char c = pattern.charAt(i);
+            if (c != '%') {
+                literal.append(c);
+                i++;
+                continue;
+            }
+            int start = i++;
+            if (i < length && pattern.charAt(i) == '%') {
+                literal.append('%');
+                i++;
+                continue;
+            }
+
+            // Модификаторы формата: [-][min][.max]
+            boolean leftAlign = false;
+            int minLength = 0;
+            int maxLength = 0;
+            if (i < length && pattern.charAt(i) == '-') {
+                leftAlign = true;
+                i++;
+            }
+            while (i < length && Character.isDigit(pattern.charAt(i))) {
+                minLength = minLength * 10 + (pattern.charAt(i++) - '0');
+            }
+            if (i < length && pattern.charAt(i) == '.') {
+                i++;
+                while (i < length && Character.isDigit(pattern.charAt(i))) {
+                    maxLength = maxLength * 10 + (pattern.charAt(i++) - '0');
+                }
+            }
+
+            int wordStart = i;
+            while (i < length && Character.isLetter(pattern.charAt(i))) {
+                i++;
+            }
+            String word = pattern.substring(wordStart, i);
+
+            String option = null;
+            if (i < length && pattern.charAt(i) == '{') {
+                int close = pattern.indexOf('}', i);
+                if (close > 0) {
+                    option = pattern.substring(i + 1, close);
+                    i = close + 1;
+                }
+            }
+
+            PatternConverter converter = createConverter(word, option);
+            if (converter == null) {
+                // Неизвестный спецификатор выводится как есть
+                literal.append(pattern, start, i);
+                continue;
+            }
+            if (literal.length() > 0) {
+                result.add(new LiteralConverter(literal.toString()));
+                literal.setLength(0);
+            }
+            throwable |= converter instanceof ThrowableConverter;
+            if (minLength > 0 || maxLength > 0) {
+                converter = new PaddingConverter(converter, minLength, maxLength, leftAlign);
+            }
+            result.add(converter);
+        }
+
+        if (literal.length() > 0) {
+            result.add(new LiteralConverter(literal.toString()));
+        }
+        // %ex в конце шаблона идёт после перевода строки: "%msg%ex" работает как "%msg%n%ex"
+        int last = result.size() - 1;
+        if (last >= 0 && result.get(last) instanceof ThrowableConverter) {
+            last--;
+        }
+        if (last < 0 || !(result.get(last) instanceof LineSeparatorConverter)) {
+            result.add(last + 1, new LineSeparatorConverter());
+        }
+        if (!throwable) {
+            result.add(new ThrowableConverter(null));
+        }
+        return result.toArray(new PatternConverter[0]);
+    }
+
+    private static PatternConverter createConverter(String word, String option) {
+        switch (word) {
+            case "d":
+            case "date":
+                return new DateConverter(option);
+            case "t":
+            case "thread":
+                return new ThreadConverter();
+            case "p":
+            case "le":
+            case "level":
+                return new LevelConverter();
+            case "c":
+            case "lo":
+            case "logger":
+                return new LoggerConverter(parseLength(option));
+            case "m":
+            case "msg":
+            case "message":
+                return new MessageConverter();
+            case "n":
+                return new LineSeparatorConverter();
+            case "X":
+            case "mdc":
+                return new MdcConverter(option);
+            case "marker":
+                return new MarkerConverter();
+            case "ex":
+            case "exception":
+            case "throwable":
+                return new ThrowableConverter(option);
+            default:
+                return null;
+        }
+    }
+
+    private static int parseLength(String option) {
+        if (option == null || option.isBlank()) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(option.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid logger length in pattern: " + option, e);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+// ThreadConverter.java
+package com.example.logging.layout;
+
+import com.example.logging.core.LogEvent;
+
+public class ThreadConverter implements PatternConverter {
+
+    @Override
+    public void format(LogEvent event, StringBuilder out) {
+        out.append(event.getThreadName());
+    }
+}
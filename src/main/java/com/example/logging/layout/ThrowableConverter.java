@@ -0,0 +1,75 @@
+// ThrowableConverter.java
+package com.example.logging.layout;
+
+import com.example.logging.core.LogEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// %ex, %exception, %throwable - стек исключения события, строками после сообщения.
+// Опции через запятую, в любом порядке:
+//   %ex{30}, %ex{depth=30}  - не больше 30 кадров на исключение;
+//   %ex{causes=3}           - не больше 3 уровней Caused by;
+//   %ex{dedupe}, %ex{dedupe=4096} - повторный стек одной строкой со ссылкой (по умолчанию 1024 стека в кэше);
+//   любое другое слово      - префикс пакета, кадры которого сворачиваются:
+//   %ex{30, dedupe, org.springframework.aop, jdk.internal.reflect, jdk.proxy}
+//
+// Если в шаблоне нет %ex, PatternLayout добавляет его без опций в конец.
+public class ThrowableConverter implements PatternConverter {
+
+    public static final int DEFAULT_CACHE_SIZE = 1024;
+
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private final ThrowableRenderer renderer;
+
+    public ThrowableConverter(String option) {
+        this.renderer = parse(option);
+    }
+
+    @Override
+    public void format(LogEvent event, StringBuilder out) {
+        Throwable throwable = event.getThrowable();
+        if (throwable != null) {
+            renderer.render(throwable, out, LINE_SEPARATOR);
+        }
+    }
+
+    private static ThrowableRenderer parse(String option) {
+        if (option == null || option.isBlank() || option.trim().equals("full")) {
+            return ThrowableRenderer.FULL;
+        }
+        int maxFrames = 0;
+        int maxCauses = 0;
+        int cacheSize = 0;
+        List<String> filtered = new ArrayList<>();
+        for (String token : option.split(",")) {
+            String value = token.trim();
+            if (value.isEmpty() || value.equals("full")) {
+                continue;
+            }
+            if (Character.isDigit(value.charAt(0))) {
+                maxFrames = parseNumber(value, option);
+            } else if (value.startsWith("depth=")) {
+                maxFrames = parseNumber(value.substring(6), option);
+            } else if (value.startsWith("causes=")) {
+                maxCauses = parseNumber(value.substring(7), option);
+            } else if (value.equals("dedupe")) {
+                cacheSize = DEFAULT_CACHE_SIZE;
+            } else if (value.startsWith("dedupe=")) {
+                cacheSize = parseNumber(value.substring(7), option);
+            } else {
+                filtered.add(value);
+            }
+        }
+        return new ThrowableRenderer(maxFrames, maxCauses, filtered.toArray(new String[0]), cacheSize);
+    }
+
+    private static int parseNumber(String value, String option) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid exception option in pattern: " + option, e);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+// ThrowableRenderer.java
+package com.example.logging.layout;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Стек исключения в формате printStackTrace (Caused by, Suppressed, "... N more"),
+// но без модулей и загрузчиков в кадрах и с ограничениями:
+//   maxFrames - кадров на одно исключение цепочки, остальные сворачиваются в "... N frames truncated";
+//   maxCauses - глубина цепочки причин;
+//   filtered  - пакеты, кадры которых сворачиваются в "... N frames filtered" (прокси, рефлексия).
+//
+// С дедупликацией стек при первой встрече выводится целиком с номером [stack #hash],
+// а повторы того же стека - одной строкой со ссылкой на этот номер и строками Caused by.
+// Номер - хэш структуры цепочки: классы исключений и кадры, но не сообщения.
+public class ThrowableRenderer {
+
+    // Предел глубины цепочки, даже если ограничение не задано: защита от рекурсии
+    public static final int MAX_CAUSES = 32;
+
+    public static final ThrowableRenderer FULL = new ThrowableRenderer(0, 0, new String[0], 0);
+
+    private final int maxFrames;
+    private final int maxCauses;
+    private final String[] filtered;
+    private final int cacheSize;
+    // hash структуры -> число повторов; null - без дедупликации
+    private final ConcurrentMap<Long, AtomicLong> seen;
+
+    public ThrowableRenderer(int maxFrames, int maxCauses, String[] filtered, int cacheSize) {
+        this.maxFrames = maxFrames > 0 ? maxFrames : Integer.MAX_VALUE;
+        this.maxCauses = maxCauses > 0 ? Math.min(maxCauses, MAX_CAUSES) : MAX_CAUSES;
+        this.filtered = filtered.clone();
+        this.cacheSize = cacheSize;
+        this.seen = cacheSize > 0 ? new ConcurrentHashMap<>() : null;
+    }
+
+    // Каждая строка, включая последнюю, завершается newline
+    public void render(Throwable throwable, StringBuilder out, String newline) {
+        String header = null;
+        if (seen != null) {
+            long hash = structuralHash(throwable);
+            AtomicLong repeats = seen.get(hash);
+            if (repeats == null) {
+                if (seen.size() >= cacheSize) {
+                    // Вместо LRU - сброс: после него каждый стек снова выводится целиком один раз
+                    seen.clear();
+                }
+                repeats = seen.putIfAbsent(hash, new AtomicLong());
+            }
+            if (repeats != null) {
+                renderReference(throwable, hash, repeats.incrementAndGet(), out, newline);
+                return;
+            }
+            header = " [stack #" + Long.toHexString(hash) + "]";
+        }
+        Set<Throwable> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        render(throwable, null, "", "", header, 0, visited, out, newline);
+    }
+
+    private void renderReference(Throwable throwable, long hash, long repeat, StringBuilder out, String newline) {
+        out.append(throwable).append(" [stack #").append(Long.toHexString(hash))
+                .append(", repeat ").append(repeat).append(']').append(newline);
+        Throwable current = throwable;
+        for (int depth = 0; depth < maxCauses; depth++) {
+            Throwable cause = current.getCause();
+            if (cause == null || cause == current) {
+                return;
+            }
+            out.append("Caused by: ").append(cause).append(newline);
+            current = cause;
+        }
+    }
+
+    private void render(Throwable throwable, StackTraceElement[] enclosing, String caption, String prefix,
+                        String header, int depth, Set<Throwable> visited, StringBuilder out, String newline) {
+        if (!visited.add(throwable)) {
+            out.append(prefix).append(caption).append("[CIRCULAR REFERENCE: ").append(throwable).append(']')
+                    .append(newline);
+            return;
+        }
+        // toString(), а не имя класса: так же печатает printStackTrace, и так
+        // сохраняется исходный класс у исключений, прочитанных из бинарного лога
+        out.append(prefix).append(caption).append(throwable);
+        if (header != null) {
+            out.append(header);
+        }
+        out.append(newline);
+
+        StackTraceElement[] trace = throwable.getStackTrace();
+        int common = enclosing == null ? 0 : commonFrames(trace, enclosing);
+        appendFrames(trace, trace.length - common, prefix, out, newline);
+        if (common > 0) {
+            out.append(prefix).append("\t... ").append(common).append(" more").append(newline);
+        }
+
+        for (Throwable suppressed : throwable.getSuppressed()) {
+            if (depth + 1 < maxCauses) {
+                render(suppressed, trace, "Suppressed: ", prefix + "\t", null, depth + 1, visited, out, newline);
+            }
+        }
+        Throwable cause = throwable.getCause();
+        if (cause != null) {
+            if (depth + 1 < maxCauses) {
+                render(cause, trace, "Caused by: ", prefix, null, depth + 1, visited, out, newline);
+            } else {
+                out.append(prefix).append("\t... ").append(countCauses(cause)).append(" causes omitted")
+                        .append(newline);
+            }
+        }
+    }
+
+    private void appendFrames(StackTraceElement[] trace, int end, String prefix, StringBuilder out, String newline) {
+        int printed = 0;
+        int skipped = 0;
+        for (int i = 0; i < end; i++) {
+            StackTraceElement element = trace[i];
+            if (isFiltered(element.getClassName())) {
+                skipped++;
+                continue;
+            }
+            if (skipped > 0) {
+                out.append(prefix).append("\t... ").append(skipped).append(" frames filtered").append(newline);
+                skipped = 0;
+            }
+            if (printed == maxFrames) {
+                // Кадры, которые фильтр всё равно скрыл бы, в число отрезанных не входят
+                int truncated = 0;
+                for (int j = i; j < end; j++) {
+                    if (!isFiltered(trace[j].getClassName())) {
+                        truncated++;
+                    }
+                }
+                out.append(prefix).append("\t... ").append(truncated).append(" frames truncated").append(newline);
+                return;
+            }
+            out.append(prefix).append("\tat ");
+            appendFrame(element, out);
+            out.append(newline);
+            printed++;
+        }
+        if (skipped > 0) {
+            out.append(prefix).append("\t... ").append(skipped).append(" frames filtered").append(newline);
+        }
+    }
+
+    // ClassName.method(File.java:42), как StackTraceElement.toString() без модуля и загрузчика
+    private static void appendFrame(StackTraceElement element, StringBuilder out) {
+        out.append(element.getClassName()).append('.').append(element.getMethodName()).append('(');
+        if (element.isNativeMethod()) {
+            out.append("Native Method");
+        } else if (element.getFileName() == null) {
+            out.append("Unknown Source");
+        } else {
+            out.append(element.getFileName());
+            if (element.getLineNumber() >= 0) {
+                out.append(':').append(element.getLineNumber());
+            }
+        }
+        out.append(')');
+    }
+
+    private boolean isFiltered(String className) {
+        for (String prefix : filtered) {
+            if (className.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Общий с внешним исключением хвост стека, как у printStackTrace
+    private static int commonFrames(StackTraceElement[] trace, StackTraceElement[] enclosing) {
+        int m = trace.length - 1;
+        int n = enclosing.length - 1;
+        while (m >= 0 && n >= 0 && trace[m].equals(enclosing[n])) {
+            m--;
+            n--;
+        }
+        return trace.length - 1 - m;
+    }
+
+    private static int countCauses(Throwable cause) {
+        int count = 0;
+        Throwable current = cause;
+        while (current != null && count < MAX_CAUSES) {
+            count++;
+            Throwable next = current.getCause();
+            current = next == current ? null : next;
+        }
+        return count;
+    }
+
+    // FNV-1a по хэшам имён: классы цепочки, для каждого кадра класс, метод и строка
+    static long structuralHash(Throwable throwable) {
+        long hash = 0xcbf29ce484222325L;
+        Throwable current = throwable;
+        for (int depth = 0; current != null && depth < MAX_CAUSES; depth++) {
+            hash = mix(hash, current.getClass().getName().hashCode());
+            for (StackTraceElement element : current.getStackTrace()) {
+                hash = mix(hash, element.getClassName().hashCode());
+                hash = mix(hash, element.getMethodName().hashCode());
+                hash = mix(hash, element.getLineNumber());
+            }
+            Throwable next = current.getCause();
+            current = next == current ? null : next;
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, int value) {
+        return (hash ^ value) * 0x100000001b3L;
+    }
+}
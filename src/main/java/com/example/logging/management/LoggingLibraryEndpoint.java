@@ -0,0 +1,92 @@
+// LoggingLibraryEndpoint.java
+package com.example.logging.management;
+
+import com.example.logging.config.LayoutType;
+import com.example.logging.config.LogLevel;
+import com.example.logging.config.OutputType;
+import com.example.logging.core.LoggingLibrary;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+// /actuator/logginglibrary (и одноимённый MBean при включённом JMX).
+//
+// GET  /actuator/logginglibrary                 - уровни, шаблон, приёмники
+// GET  /actuator/logginglibrary/com.foo         - уровень логгера/пакета
+// POST /actuator/logginglibrary/com.foo         {"level": "DEBUG", "duration": "10m"}
+//      без level - сброс к родительскому (duration без level - 400), без duration - до следующего изменения
+// POST /actuator/logginglibrary                 {"pattern": "...", "layout": "JSON", "output": "FILE", "enabled": true}
+//
+// Nullable - из spring-core: actuator 3.2 считает необязательными только параметры с ним
+@Endpoint(id = "logginglibrary")
+@SuppressWarnings("deprecation")
+public class LoggingLibraryEndpoint {
+
+    private final LoggingLibrary library;
+
+    public LoggingLibraryEndpoint(LoggingLibrary library) {
+        this.library = library;
+    }
+
+    @ReadOperation
+    public Map<String, Object> configuration() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("levels", new TreeMap<>(library.getLevels()));
+        result.put("expirations", new TreeMap<>(library.getLevelExpirations()));
+        result.put("pattern", library.getPattern());
+        result.put("layout", library.getLayout());
+        result.put("output", library.getOutput());
+        result.put("enabled", library.isEnabled());
+        return result;
+    }
+
+    @ReadOperation
+    public Map<String, Object> logger(@Selector String name) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("configuredLevel", library.getLevels().get(name));
+        result.put("effectiveLevel", library.getEffectiveLevel(name));
+        Duration expiresIn = library.getLevelExpirations().get(name);
+        if (expiresIn != null) {
+            result.put("expiresIn", expiresIn);
+        }
+        return result;
+    }
+
+    @WriteOperation
+    public void configureLevel(@Selector String name, @Nullable LogLevel level, @Nullable Duration duration) {
+        if (duration != null && level == null) {
+            // Сброс не может быть временным: без проверки это был бы молчаливый постоянный сброс
+            throw new InvalidEndpointRequestException("duration requires level", "duration requires level");
+        }
+        if (duration != null) {
+            library.setLevel(name, level, duration);
+        } else {
+            library.setLevel(name, level);
+        }
+    }
+
+    @WriteOperation
+    public void configure(@Nullable String pattern, @Nullable LayoutType layout, @Nullable OutputType output,
+                          @Nullable Boolean enabled) {
+        if (pattern != null) {
+            library.setPattern(pattern);
+        }
+        if (layout != null) {
+            library.setLayout(layout);
+        }
+        if (output != null) {
+            library.setOutput(output);
+        }
+        if (enabled != null) {
+            library.setEnabled(enabled);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+// RecentLogsEndpoint.java
+package com.example.logging.management;
+
+import com.example.logging.appender.LogQuery;
+import com.example.logging.appender.MemoryLogEntry;
+import com.example.logging.config.LogLevel;
+import com.example.logging.core.LoggingLibrary;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+// /actuator/recentlogs - последние события из приёмников типа MEMORY:
+//
+// logging.library.appenders.recent: {type: MEMORY, capacity: 20000, max-size: 8192}
+//
+// GET /actuator/recentlogs?level=WARN&logger=com.foo&contains=timeout&since=15m&limit=200
+//     from/to - ISO-8601 (2026-10-17T10:15:30Z), since - длительность до текущего момента
+//
+// Nullable - из spring-core: actuator 3.2 считает необязательными только параметры с ним
+@Endpoint(id = "recentlogs")
+@SuppressWarnings("deprecation")
+public class RecentLogsEndpoint {
+
+    public static final int DEFAULT_LIMIT = 1000;
+
+    private final LoggingLibrary library;
+
+    public RecentLogsEndpoint(LoggingLibrary library) {
+        this.library = library;
+    }
+
+    @ReadOperation
+    public List<MemoryLogEntry> events(@Nullable LogLevel level, @Nullable String logger, @Nullable String contains,
+                                       @Nullable String from, @Nullable String to, @Nullable Duration since,
+                                       @Nullable Integer limit) {
+        LogQuery query = LogQuery.all().level(level).logger(logger).contains(contains)
+                .limit(limit != null ? limit : DEFAULT_LIMIT);
+        if (since != null) {
+            query.from(Instant.now().minus(since));
+        }
+        if (from != null) {
+            query.from(instant("from", from));
+        }
+        if (to != null) {
+            query.to(instant("to", to));
+        }
+        return library.queryRecent(query);
+    }
+
+    // Неверная дата - ошибка запроса (400), а не сервера
+    private static Instant instant(String name, String value) {
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeParseException e) {
+            String message = name + " must be an ISO-8601 instant: " + value;
+            throw new InvalidEndpointRequestException(message, message);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+// ExecutionMetrics.java
+package com.example.logging.metrics;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+// Метрики методов с @LogExecution по отображаемому имени метода
+public class ExecutionMetrics {
+
+    private final ConcurrentMap<String, MethodMetrics> methods = new ConcurrentHashMap<>();
+    // Уведомляются о каждом новом методе (например, для регистрации meters в Micrometer)
+    private final List<Consumer<MethodMetrics>> listeners = new CopyOnWriteArrayList<>();
+
+    public MethodMetrics get(String name) {
+        MethodMetrics metrics = methods.get(name);
+        if (metrics != null) {
+            return metrics;
+        }
+        boolean[] created = new boolean[1];
+        metrics = methods.computeIfAbsent(name, key -> {
+            created[0] = true;
+            return new MethodMetrics(key);
+        });
+        if (created[0]) {
+            for (Consumer<MethodMetrics> listener : listeners) {
+                listener.accept(metrics);
+            }
+        }
+        return metrics;
+    }
+
+    // Регистрирует слушателя и сразу передаёт ему уже известные методы
+    public void addListener(Consumer<MethodMetrics> listener) {
+        listeners.add(listener);
+        methods.values().forEach(listener);
+    }
+
+    public Map<String, MethodMetrics.Snapshot> snapshot() {
+        Map<String, MethodMetrics.Snapshot> result = new TreeMap<>();
+        for (MethodMetrics metrics : methods.values()) {
+            result.put(metrics.getName(), metrics.snapshot());
+        }
+        return result;
+    }
+
+    // Наносекунды в миллисекунды с тремя знаками: 1234567 -> "1.234"
+    public static String formatMillis(long nanos) {
+        long micros = Math.max(nanos, 0) / 1000;
+        long fraction = micros % 1000;
+        StringBuilder out = new StringBuilder(16).append(micros / 1000).append('.');
+        if (fraction < 100) {
+            out.append('0');
+        }
+        if (fraction < 10) {
+            out.append('0');
+        }
+        return out.append(fraction).toString();
+    }
+}
@@ -0,0 +1,61 @@
+// ExecutionMetricsBinder.java
+package com.example.logging.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.TimeUnit;
+
+// Публикует ExecutionMetrics в Micrometer. Meters читают счётчики при сборе,
+// путь записи о Micrometer не знает. Тег method - отображаемое имя метода.
+//
+// logging.execution          - FunctionTimer: число вызовов и суммарное время
+// logging.execution.errors   - FunctionCounter
+// logging.execution.active   - Gauge: выполняются сейчас
+// logging.execution.latency  - Gauge с тегом quantile (0.5, 0.9, 0.99, 0.999, max), секунды
+public class ExecutionMetricsBinder implements MeterBinder {
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final ExecutionMetrics metrics;
+
+    public ExecutionMetricsBinder(ExecutionMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        metrics.addListener(method -> register(registry, method));
+    }
+
+    private void register(MeterRegistry registry, MethodMetrics method) {
+        String name = method.getName();
+        FunctionTimer.builder("logging.execution", method,
+                        MethodMetrics::getCalls, MethodMetrics::getTotalNanos, TimeUnit.NANOSECONDS)
+                .tag("method", name)
+                .description("Calls of @LogExecution methods")
+                .register(registry);
+        FunctionCounter.builder("logging.execution.errors", method, MethodMetrics::getErrors)
+                .tag("method", name)
+                .register(registry);
+        Gauge.builder("logging.execution.active", method, MethodMetrics::getInFlight)
+                .tag("method", name)
+                .register(registry);
+        for (double quantile : QUANTILES) {
+            Gauge.builder("logging.execution.latency", method,
+                            m -> m.snapshot().getLatency().getValueAtPercentile(quantile) / 1e9)
+                    .tag("method", name)
+                    .tag("quantile", String.valueOf(quantile))
+                    .baseUnit("seconds")
+                    .register(registry);
+        }
+        Gauge.builder("logging.execution.latency", method, m -> m.snapshot().getLatency().getMax() / 1e9)
+                .tag("method", name)
+                .tag("quantile", "max")
+                .baseUnit("seconds")
+                .register(registry);
+    }
+}
@@ -0,0 +1,50 @@
+// HistogramSnapshot.java
+package com.example.logging.metrics;
+
+// Неизменяемый снимок LatencyHistogram, значения в наносекундах
+public class HistogramSnapshot {
+
+    private final long[] counts;
+    private final long count;
+    private final long min;
+    private final long max;
+    private final long sum;
+
+    HistogramSnapshot(long[] counts, long count, long min, long max, long sum) {
+        this.counts = counts;
+        this.count = count;
+        this.min = min;
+        this.max = max;
+        this.sum = sum;
+    }
+
+    public long getCount() { return count; }
+    public long getMin() { return min; }
+    public long getMax() { return max; }
+    public long getTotal() { return sum; }
+
+    public double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    // Значение, не меньше которого q-я доля записей (q от 0 до 1); не больше точного максимума
+    public long getValueAtPercentile(double q) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(Math.max(q, 0), 1) * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(LatencyHistogram.highestValue(i), max);
+            }
+        }
+        return max;
+    }
+
+    public long getP50() { return getValueAtPercentile(0.50); }
+    public long getP90() { return getValueAtPercentile(0.90); }
+    public long getP99() { return getValueAtPercentile(0.99); }
+    public long getP999() { return getValueAtPercentile(0.999); }
+}
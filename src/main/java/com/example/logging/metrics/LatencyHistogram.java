@@ -0,0 +1,86 @@
+// LatencyHistogram.java
+package com.example.logging.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// Гистограмма задержек в наносекундах в духе HdrHistogram: лог-линейные корзины
+// (16 корзин на каждую степень двойки, погрешность значения не больше 1/16)
+// от 0 до ~18 минут. Запись - один атомарный инкремент без блокировок; счётчики
+// разнесены по полосам (stripes) по id потока, чтобы потоки не делили кеш-линии.
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;         // 32
+    private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT >> 1;         // 16
+    public static final long MAX_TRACKABLE = (1L << 40) - 1;
+    static final int BUCKET_COUNT = bucketIndex(MAX_TRACKABLE) + 1;
+
+    private final AtomicLongArray[] stripes;
+    private final int stripeMask;
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+    private final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+
+    public LatencyHistogram() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public LatencyHistogram(int concurrency) {
+        int count = Integer.highestOneBit(Math.max(1, Math.min(concurrency, 16)) * 2 - 1);
+        stripes = new AtomicLongArray[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new AtomicLongArray(BUCKET_COUNT);
+        }
+        stripeMask = count - 1;
+    }
+
+    public void record(long nanos) {
+        long value = Math.max(0, Math.min(nanos, MAX_TRACKABLE));
+        int stripe = (int) (Thread.currentThread().threadId() * 0x9E3779B9L >>> 16) & stripeMask;
+        stripes[stripe].incrementAndGet(bucketIndex(value));
+        sum.add(value);
+        max.accumulate(value);
+        min.accumulate(value);
+    }
+
+    public long getTotal() {
+        return sum.sum();
+    }
+
+    // Снимок не атомарен относительно записи: событие, записанное во время снятия,
+    // может попасть в корзины, но не в сумму - для метрик это допустимо
+    public HistogramSnapshot snapshot() {
+        long[] counts = new long[BUCKET_COUNT];
+        long total = 0;
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                long c = stripe.get(i);
+                counts[i] += c;
+                total += c;
+            }
+        }
+        long minValue = min.get();
+        return new HistogramSnapshot(counts, total, total == 0 ? 0 : minValue, max.get(), sum.sum());
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        int shift = magnitude - (SUB_BUCKET_BITS - 1);
+        return shift * SUB_BUCKET_HALF + (int) (value >>> shift);
+    }
+
+    // Наибольшее значение, попадающее в корзину
+    static long highestValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_HALF - 1;
+        long sub = index - (long) shift * SUB_BUCKET_HALF;
+        return ((sub + 1) << shift) - 1;
+    }
+}
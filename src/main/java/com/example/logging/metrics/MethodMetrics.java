@@ -0,0 +1,66 @@
+// MethodMetrics.java
+package com.example.logging.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Счётчики одного метода с @LogExecution: вызовы, ошибки, выполняющиеся сейчас и задержки
+public class MethodMetrics {
+
+    private final String name;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder inFlight = new LongAdder();
+
+    public MethodMetrics(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void enter() {
+        inFlight.increment();
+    }
+
+    public void exit(long nanos, boolean failed) {
+        inFlight.decrement();
+        calls.increment();
+        if (failed) {
+            errors.increment();
+        }
+        latency.record(nanos);
+    }
+
+    public long getCalls() { return calls.sum(); }
+    public long getErrors() { return errors.sum(); }
+    public long getInFlight() { return inFlight.sum(); }
+    public long getTotalNanos() { return latency.getTotal(); }
+
+    public Snapshot snapshot() {
+        return new Snapshot(name, calls.sum(), errors.sum(), inFlight.sum(), latency.snapshot());
+    }
+
+    public static class Snapshot {
+        private final String name;
+        private final long calls;
+        private final long errors;
+        private final long inFlight;
+        private final HistogramSnapshot latency;
+
+        Snapshot(String name, long calls, long errors, long inFlight, HistogramSnapshot latency) {
+            this.name = name;
+            this.calls = calls;
+            this.errors = errors;
+            this.inFlight = inFlight;
+            this.latency = latency;
+        }
+
+        public String getName() { return name; }
+        public long getCalls() { return calls; }
+        public long getErrors() { return errors; }
+        public long getInFlight() { return inFlight; }
+        public HistogramSnapshot getLatency() { return latency; }
+    }
+}
@@ -0,0 +1,306 @@
+// NetworkSpool.java
+package com.example.logging.network;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Очередь на диске для пачек сетевого приёмника, которые нельзя отправить сразу:
+// сервер недоступен или не успевает читать. Пачки дописываются в сегменты
+// <dir>/<name>.<n>.spool записями [int длина][байты] и отправляются по порядку
+// после переподключения; отправленный сегмент удаляется, последний переиспользуется.
+//
+// Позиция чтения (сегмент и смещение) хранится в <name>.pos без fsync: после
+// перезапуска процесса отправка продолжается с неё; повторно могут уйти только
+// пачки, отправленные после последней записи позиции (доставка "хотя бы раз").
+// Оборванная запись в конце последнего сегмента отрезается при открытии.
+// Не потокобезопасна - ей пользуется только поток отправки.
+public final class NetworkSpool implements Closeable {
+
+    private static final String SUFFIX = ".spool";
+    private static final int RECORD_HEADER = 4;
+
+    private final Path dir;
+    private final String name;
+    private final long segmentSize;
+    private final long maxSize;
+    private final ArrayDeque<Segment> segments = new ArrayDeque<>();
+    private final ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER);
+    private final ByteBuffer position = ByteBuffer.allocate(16);
+    private FileChannel positionFile;
+    private long diskSize; // байт во всех сегментах, включая уже отправленные части
+    private int pending = -1; // длина записи, отданной next() и ещё не подтверждённой
+
+    private NetworkSpool(Path dir, String name, long segmentSize, long maxSize) {
+        this.dir = dir;
+        this.name = name;
+        this.segmentSize = segmentSize;
+        this.maxSize = maxSize;
+    }
+
+    public static NetworkSpool open(Path dir, String name, long segmentSize, long maxSize) throws IOException {
+        Files.createDirectories(dir);
+        NetworkSpool spool = new NetworkSpool(dir, name, segmentSize, maxSize);
+        try {
+            spool.load();
+        } catch (IOException e) {
+            spool.close();
+            throw e;
+        }
+        return spool;
+    }
+
+    private void load() throws IOException {
+        List<Long> numbers = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, name + ".*" + SUFFIX)) {
+            for (Path file : files) {
+                String fileName = file.getFileName().toString();
+                try {
+                    numbers.add(Long.parseLong(fileName.substring(name.length() + 1,
+                            fileName.length() - SUFFIX.length())));
+                } catch (NumberFormatException e) {
+                    // чужой файл с похожим именем
+                }
+            }
+        }
+        Collections.sort(numbers);
+
+        positionFile = FileChannel.open(dir.resolve(name + ".pos"), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long headNumber = Long.MIN_VALUE;
+        long headPosition = 0;
+        if (positionFile.size() >= position.capacity()) {
+            position.clear();
+            readFully(positionFile, position, 0);
+            headNumber = position.getLong(0);
+            headPosition = position.getLong(8);
+        }
+
+        for (long number : numbers) {
+            Path file = segmentFile(number);
+            if (number < headNumber) {
+                Files.deleteIfExists(file); // отправлен до перезапуска
+                continue;
+            }
+            Segment segment = new Segment(number, FileChannel.open(file, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE));
+            segment.size = segment.channel.size();
+            segment.readFrom = number == headNumber ? Math.min(headPosition, segment.size) : 0;
+            segments.add(segment);
+            diskSize += segment.size;
+        }
+
+        Segment tail = segments.peekLast();
+        if (tail != null) {
+            long valid = validLength(tail);
+            if (valid < tail.size) {
+                tail.channel.truncate(valid);
+                diskSize -= tail.size - valid;
+                tail.size = valid;
+                tail.readFrom = Math.min(tail.readFrom, valid);
+            }
+        }
+        dropConsumed();
+        writePosition();
+    }
+
+    // Длина сегмента до первой оборванной записи
+    private long validLength(Segment segment) throws IOException {
+        long offset = 0;
+        while (offset + RECORD_HEADER <= segment.size) {
+            header.clear();
+            readFully(segment.channel, header, offset);
+            int length = header.getInt(0);
+            if (length < 0 || offset + RECORD_HEADER + length > segment.size) {
+                break;
+            }
+            offset += RECORD_HEADER + length;
+        }
+        return offset;
+    }
+
+    public boolean isEmpty() {
+        Segment head = segments.peekFirst();
+        return head == null || head.readFrom >= head.size;
+    }
+
+    // Байт на диске
+    public long size() {
+        return diskSize;
+    }
+
+    // false - spool заполнен (maxSize)
+    public boolean append(byte[] data, int offset, int length) throws IOException {
+        if (diskSize + RECORD_HEADER + length > maxSize) {
+            return false;
+        }
+        Segment tail = segments.peekLast();
+        if (tail == null || tail.size >= segmentSize) {
+            tail = createSegment(tail != null ? tail.number + 1 : 0);
+            segments.addLast(tail);
+        }
+        write(tail, data, offset, length);
+        return true;
+    }
+
+    // Запись в начало очереди: пачка, отправка которой началась раньше, чем были
+    // сохранены остальные, и оборвалась вместе с соединением
+    public boolean prepend(byte[] data, int offset, int length) throws IOException {
+        if (isEmpty()) {
+            return append(data, offset, length);
+        }
+        if (pending >= 0) {
+            throw new IllegalStateException("Record is being sent");
+        }
+        if (diskSize + RECORD_HEADER + length > maxSize) {
+            return false;
+        }
+        Segment head = createSegment(segments.peekFirst().number - 1);
+        segments.addFirst(head);
+        write(head, data, offset, length);
+        writePosition();
+        return true;
+    }
+
+    // Следующая запись целиком или null; остаётся в очереди до commit().
+    // IllegalStateException - запись испорчена, spool дальше использовать нельзя
+    public ByteBuffer next(ByteBuffer buffer) throws IOException {
+        Segment head = segments.peekFirst();
+        if (head == null || head.readFrom >= head.size) {
+            return null;
+        }
+        header.clear();
+        readFully(head.channel, header, head.readFrom);
+        int length = header.getInt(0);
+        if (length < 0 || head.readFrom + RECORD_HEADER + length > head.size) {
+            // Повторное чтение вернёт то же самое: очередь дальше этой записи не продвинется
+            throw new IllegalStateException("Corrupted record in " + segmentFile(head.number) + " at "
+                    + head.readFrom);
+        }
+        if (buffer == null || buffer.capacity() < length) {
+            buffer = ByteBuffer.allocate(Math.max(length, 64 * 1024));
+        }
+        buffer.clear().limit(length);
+        readFully(head.channel, buffer, head.readFrom + RECORD_HEADER);
+        buffer.flip();
+        pending = length;
+        return buffer;
+    }
+
+    // Запись, полученная из next(), отправлена
+    public void commit() throws IOException {
+        if (pending < 0) {
+            return;
+        }
+        segments.peekFirst().readFrom += RECORD_HEADER + pending;
+        pending = -1;
+        dropConsumed();
+        writePosition();
+    }
+
+    // Запись, полученная из next(), не отправлена: next() вернёт её снова
+    public void rollback() {
+        pending = -1;
+    }
+
+    private void dropConsumed() throws IOException {
+        Segment head;
+        while ((head = segments.peekFirst()) != null && head.readFrom >= head.size) {
+            if (segments.size() > 1) {
+                segments.removeFirst();
+                head.channel.close();
+                Files.deleteIfExists(segmentFile(head.number));
+                diskSize -= head.size;
+            } else {
+                // Последний сегмент не удаляется, а начинается заново
+                head.channel.truncate(0);
+                diskSize -= head.size;
+                head.size = 0;
+                head.readFrom = 0;
+                break;
+            }
+        }
+    }
+
+    private Segment createSegment(long number) throws IOException {
+        return new Segment(number, FileChannel.open(segmentFile(number), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE));
+    }
+
+    private void write(Segment segment, byte[] data, int offset, int length) throws IOException {
+        header.clear();
+        header.putInt(length).flip();
+        writeFully(segment.channel, header, segment.size);
+        writeFully(segment.channel, ByteBuffer.wrap(data, offset, length), segment.size + RECORD_HEADER);
+        segment.size += RECORD_HEADER + length;
+        diskSize += RECORD_HEADER + length;
+    }
+
+    private void writePosition() throws IOException {
+        Segment head = segments.peekFirst();
+        position.clear();
+        position.putLong(head != null ? head.number : Long.MIN_VALUE).putLong(head != null ? head.readFrom : 0).flip();
+        writeFully(positionFile, position, 0);
+    }
+
+    private Path segmentFile(long number) {
+        return dir.resolve(name + "." + number + SUFFIX);
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long offset) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, offset);
+            if (read < 0) {
+                throw new EOFException("Unexpected end of spool segment");
+            }
+            offset += read;
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long offset) throws IOException {
+        while (buffer.hasRemaining()) {
+            offset += channel.write(buffer, offset);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (Segment segment : segments) {
+            try {
+                segment.channel.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        segments.clear();
+        if (positionFile != null) {
+            positionFile.close();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static final class Segment {
+        final long number;
+        final FileChannel channel;
+        long size;
+        long readFrom;
+
+        Segment(long number, FileChannel channel) {
+            this.number = number;
+            this.channel = channel;
+        }
+    }
+}
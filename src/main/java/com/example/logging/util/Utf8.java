@@ -0,0 +1,97 @@
+// Utf8.java
+package com.example.logging.util;
+
+import java.nio.ByteBuffer;
+
+// Кодирование CharSequence в UTF-8 прямо в ByteBuffer без промежуточных byte[] и String.
+// Непарные суррогаты заменяются на '?', как у стандартного кодировщика.
+public final class Utf8 {
+
+    // Максимальная длина одного символа (суррогатной пары) в UTF-8
+    public static final int MAX_BYTES_PER_CHAR = 4;
+
+    private Utf8() {
+    }
+
+    public static int encodedLength(CharSequence s) {
+        int length = s.length();
+        int bytes = length;
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                continue;
+            }
+            if (c < 0x800) {
+                bytes += 1;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(s.charAt(i + 1))) {
+                bytes += 2; // 2 символа -> 4 байта
+                i++;
+            } else if (!Character.isSurrogate(c)) {
+                bytes += 2;
+            }
+        }
+        return bytes;
+    }
+
+    // Кодирует символы начиная с from, пока в буфере есть место под самый длинный символ.
+    // Возвращает индекс первого незакодированного символа.
+    public static int encode(CharSequence s, int from, ByteBuffer out) {
+        int length = s.length();
+        int i = from;
+        while (i < length && out.remaining() >= MAX_BYTES_PER_CHAR) {
+            char c = s.charAt(i++);
+            if (c < 0x80) {
+                out.put((byte) c);
+            } else if (c < 0x800) {
+                out.put((byte) (0xC0 | (c >> 6)));
+                out.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i < length && Character.isLowSurrogate(s.charAt(i))) {
+                    int codePoint = Character.toCodePoint(c, s.charAt(i++));
+                    out.put((byte) (0xF0 | (codePoint >> 18)));
+                    out.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                    out.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                    out.put((byte) (0x80 | (codePoint & 0x3F)));
+                } else {
+                    out.put((byte) '?');
+                }
+            } else {
+                out.put((byte) (0xE0 | (c >> 12)));
+                out.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                out.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+        return i;
+    }
+
+    // Кодирует всю строку в out с позиции offset; место (encodedLength) проверяет вызывающий.
+    // Возвращает позицию после последнего байта.
+    public static int encode(CharSequence s, byte[] out, int offset) {
+        int length = s.length();
+        int position = offset;
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                out[position++] = (byte) c;
+            } else if (c < 0x800) {
+                out[position++] = (byte) (0xC0 | (c >> 6));
+                out[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(s.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, s.charAt(++i));
+                    out[position++] = (byte) (0xF0 | (codePoint >> 18));
+                    out[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    out[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    out[position++] = (byte) (0x80 | (codePoint & 0x3F));
+                } else {
+                    out[position++] = (byte) '?';
+                }
+            } else {
+                out[position++] = (byte) (0xE0 | (c >> 12));
+                out[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                out[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return position;
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.logging;
+
+import com.example.logging.async.AsyncLogProcessor;
+import com.example.logging.config.LogLevel;
+import com.example.logging.config.LoggerConfig;
+import com.example.logging.config.OutputType;
+import com.example.logging.config.OverflowPolicy;
+import com.example.logging.config.WaitStrategyType;
+import com.example.logging.core.Logger;
+import com.example.logging.core.LoggingLibrary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncLoggingTest {
+
+    private static final Path TEST_LOG_DIR = Paths.get("target/test-logs");
+    private LoggerConfig config;
+    private File testLogFile;
+
+    @BeforeEach
+    void setUp() {
+        config = new LoggerConfig();
+        testLogFile = TEST_LOG_DIR.resolve("async-" + UUID.randomUUID() + ".log").toFile();
+        config.setFilePath(testLogFile.getAbsolutePath());
+        config.setOutput(OutputType.FILE);
+        config.getAsync().setEnabled(true);
+    }
+
+    @Test
+    void testAllEventsWrittenAfterCleanup() throws Exception {
+        config.getAsync().setBufferSize(64);
+        config.getAsync().setWaitStrategy(WaitStrategyType.SLEEPING);
+        config.getAsync().setOverflowPolicy(OverflowPolicy.BLOCK);
+
+        LoggingLibrary loggingLibrary = new LoggingLibrary(config);
+        loggingLibrary.init();
+        Logger logger = loggingLibrary.getLogger("AsyncLogger");
+
+        int threads = 4;
+        int perThread = 2_000;
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            Thread worker = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    logger.info("async message " + id + "-" + i);
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        loggingLibrary.cleanup();
+
+        List<String> lines = Files.readAllLines(testLogFile.toPath());
+        long written = lines.stream().filter(l -> l.contains("async message")).count();
+        assertEquals(threads * perThread, written, "BLOCK policy must not lose events");
+        assertEquals(0, loggingLibrary.getDroppedEventCount());
+    }
+
+    @Test
+    void testEventsKeepCallerThreadName() throws Exception {
+        config.setPattern("[%thread] %msg");
+
+        LoggingLibrary loggingLibrary = new LoggingLibrary(config);
+        loggingLibrary.init();
+        Logger logger = loggingLibrary.getLogger("AsyncLogger");
+
+        Thread worker = new Thread(() -> logger.info("from worker"), "caller-thread");
+        worker.start();
+        worker.join();
+
+        loggingLibrary.cleanup();
+
+        List<String> lines = Files.readAllLines(testLogFile.toPath());
+        assertTrue(lines.contains("[caller-thread] from worker"));
+    }
+
+    @Test
+    void testDiscardPolicyCountsDroppedEvents() throws Exception {
+        config.getAsync().setBufferSize(2);
+        config.getAsync().setOverflowPolicy(OverflowPolicy.DISCARD);
+
+        LoggingLibrary loggingLibrary = new LoggingLibrary(config);
+        loggingLibrary.init();
+        Logger logger = loggingLibrary.getLogger("AsyncLogger");
+
+        int total = 10_000;
+        for (int i = 0; i < total; i++) {
+            logger.info("burst " + i);
+        }
+
+        loggingLibrary.cleanup();
+
+        long written = Files.readAllLines(testLogFile.toPath()).stream()
+                .filter(l -> l.contains("burst")).count();
+        assertEquals(total, written + loggingLibrary.getDroppedEventCount());
+    }
+
+    @Test
+    void testConsumerSurvivesErrorsAndCountsEventsAfterStop() {
+        config.getAsync().setBufferSize(4);
+        config.getAsync().setOverflowPolicy(OverflowPolicy.BLOCK);
+        AtomicInteger handled = new AtomicInteger();
+        AsyncLogProcessor processor = new AsyncLogProcessor(config.getAsync(), (event, endOfBatch) -> {
+            if (handled.getAndIncrement() == 0) {
+                throw new StackOverflowError("appender failure");
+            }
+        });
+        processor.start();
+
+        // При BLOCK производитель завис бы, если бы Error остановил фоновый поток
+        for (int i = 0; i < 100; i++) {
+            long sequence = processor.claim(LogLevel.INFO);
+            assertTrue(sequence >= 0);
+            processor.publish(sequence);
+        }
+        assertTrue(processor.stop(5_000));
+        assertEquals(100, handled.get());
+
+        assertEquals(-1, processor.claim(LogLevel.ERROR));
+        assertEquals(1, processor.getDiscardedCount());
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.logging.aop;
+
+import com.example.logging.annotation.LogExecution;
+import com.example.logging.appender.InMemoryAppender;
+import com.example.logging.config.LogLevel;
+import com.example.logging.config.LoggerConfig;
+import com.example.logging.config.OutputType;
+import com.example.logging.core.LoggingLibrary;
+import com.example.logging.layout.PatternLayout;
+import com.example.logging.metrics.ExecutionMetrics;
+import com.example.logging.metrics.MethodMetrics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.lang.reflect.Field;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoggingAspectTest {
+
+    public interface Service {
+        int add(int a, int b);
+
+        String fail();
+    }
+
+    public static class SimpleService implements Service {
+        @Override
+        @LogExecution(logResult = true)
+        public int add(int a, int b) {
+            return a + b;
+        }
+
+        @Override
+        @LogExecution(value = "failing", level = LogLevel.DEBUG, metrics = true, logCalls = false)
+        public String fail() {
+            throw new IllegalStateException("broken");
+        }
+    }
+
+    private LoggingLibrary library;
+    private InMemoryAppender memory;
+    private Service service;
+
+    @BeforeEach
+    void setUp() throws ReflectiveOperationException {
+        LoggerConfig config = new LoggerConfig();
+        config.setOutput(OutputType.NONE);
+        library = new LoggingLibrary(config);
+        library.init();
+        memory = new InMemoryAppender("memory", 100);
+        memory.setLayout(new PatternLayout("%level %logger - %msg"));
+        library.addAppender(memory);
+
+        LoggingAspect aspect = new LoggingAspect();
+        Field field = LoggingAspect.class.getDeclaredField("loggingLibrary");
+        field.setAccessible(true);
+        field.set(aspect, library);
+
+        AspectJProxyFactory factory = new AspectJProxyFactory(new SimpleService());
+        factory.addAspect(aspect);
+        service = factory.getProxy();
+    }
+
+    @AfterEach
+    void tearDown() {
+        library.cleanup();
+    }
+
+    @Test
+    void testEntryAndExitLoggedWithCachedMetadata() {
+        assertThat(service.add(1, 2)).isEqualTo(3);
+        assertThat(service.add(3, 4)).isEqualTo(7);
+
+        List<String> lines = memory.getLines();
+        assertThat(lines).hasSize(4);
+        String logger = SimpleService.class.getName();
+        assertThat(lines.get(0)).isEqualTo("INFO " + logger + " - Entering SimpleService.add with arguments: [1, 2]\n");
+        assertThat(lines.get(1)).matches("INFO " + logger.replace("$", "\\$")
+                + " - Exiting SimpleService.add with result: 3 \\(execution time: \\d+\\.\\d{3} ms\\)\n");
+        assertThat(lines.get(2)).contains("arguments: [3, 4]");
+    }
+
+    @Test
+    void testDisabledLevelStillReportsExceptions() {
+        assertThatThrownBy(() -> service.fail()).isInstanceOf(IllegalStateException.class);
+
+        List<String> lines = memory.getLines();
+        assertThat(lines).isNotEmpty().noneMatch(line -> line.contains("Entering"));
+        assertThat(lines.get(0)).startsWith("ERROR").contains("Exception in failing (execution time: ")
+                .contains("ms): broken");
+    }
+
+    @Test
+    void testMetricsRecordedWithoutCallLines() {
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> service.fail()).isInstanceOf(IllegalStateException.class);
+        }
+
+        MethodMetrics.Snapshot failing = library.getMethodMetrics().get("failing");
+        assertThat(failing.getCalls()).isEqualTo(3);
+        assertThat(failing.getErrors()).isEqualTo(3);
+        assertThat(failing.getInFlight()).isZero();
+        assertThat(failing.getLatency().getCount()).isEqualTo(3);
+        // add без metrics = true метрики не собирает
+        service.add(1, 1);
+        assertThat(library.getMethodMetrics()).containsOnlyKeys("failing");
+    }
+
+    @Test
+    void testFormatMillis() {
+        assertThat(ExecutionMetrics.formatMillis(1_234_567)).isEqualTo("1.234");
+        assertThat(ExecutionMetrics.formatMillis(5_000)).isEqualTo("0.005");
+        assertThat(ExecutionMetrics.formatMillis(2_000_000_000L)).isEqualTo("2000.000");
+    }
+}
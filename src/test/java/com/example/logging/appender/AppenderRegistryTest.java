@@ -0,0 +1,140 @@
+package com.example.logging.appender;
+
+import com.example.logging.config.AppenderType;
+import com.example.logging.config.LogLevel;
+import com.example.logging.config.LoggerConfig;
+import com.example.logging.config.OutputType;
+import com.example.logging.core.LogEvent;
+import com.example.logging.core.Logger;
+import com.example.logging.core.LoggingLibrary;
+import com.example.logging.layout.PatternLayout;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AppenderRegistryTest {
+
+    // Приёмник для проверки загрузки по имени класса
+    public static class CollectingAppender implements Appender {
+        private final String name;
+        final List<LogEvent> events = new ArrayList<>();
+
+        public CollectingAppender(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public synchronized void append(LogEvent event, boolean endOfBatch) {
+            events.add(event);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    @Test
+    void testOutputTypeMapsToDefaultAppenders() {
+        LoggerConfig config = new LoggerConfig();
+        config.setOutput(OutputType.NONE);
+        LoggerConfig.AppenderDefinition memory = new LoggerConfig.AppenderDefinition();
+        memory.setType(AppenderType.MEMORY);
+        config.getAppenders().put("memory", memory);
+
+        AppenderRegistry registry = new AppenderRegistry();
+        registry.configure(config);
+
+        assertThat(registry.get(AppenderRegistry.CONSOLE)).isNull();
+        assertThat(registry.get("memory")).isInstanceOf(InMemoryAppender.class);
+        assertThat(registry.getRouting().getAppenders()).hasSize(1);
+        assertThat(registry.getRouting().isSharedLayoutNeeded()).isTrue();
+        registry.closeAll();
+        assertThat(registry.getRouting().getAppenders()).isEmpty();
+    }
+
+    @Test
+    void testCustomAppenderIsLoadedByClassName() {
+        LoggerConfig.AppenderDefinition definition = new LoggerConfig.AppenderDefinition();
+        definition.setType(AppenderType.CUSTOM);
+        definition.setClassName(CollectingAppender.class.getName());
+
+        Appender appender = AppenderRegistry.create("collector", definition, new LoggerConfig());
+
+        assertThat(appender).isInstanceOf(CollectingAppender.class);
+        assertThat(appender.getName()).isEqualTo("collector");
+    }
+
+    @Test
+    void testEventsRoutedToEachAppenderWithOwnLayoutAndThreshold() {
+        LoggerConfig config = new LoggerConfig();
+        config.setOutput(OutputType.NONE);
+        config.setLevel(LogLevel.DEBUG);
+        LoggingLibrary library = new LoggingLibrary(config);
+        library.init();
+
+        InMemoryAppender all = new InMemoryAppender("all", 100);
+        InMemoryAppender errors = new InMemoryAppender("errors", 100);
+        errors.setThreshold(LogLevel.ERROR);
+        errors.setLayout(new PatternLayout("%level %msg"));
+        CollectingAppender raw = new CollectingAppender("raw");
+        library.addAppender(all);
+        library.addAppender(errors);
+        library.addAppender(raw);
+
+        Logger logger = library.getLogger("routing");
+        logger.info("hello {}", "world");
+        logger.error("boom");
+
+        assertThat(all.getLines()).hasSize(2);
+        assertThat(all.getLines().get(0)).contains("INFO").contains("routing").endsWith("hello world\n");
+        assertThat(errors.getLines()).containsExactly("ERROR boom\n");
+        assertThat(raw.events).hasSize(2);
+
+        assertThat(library.removeAppender("all")).isSameAs(all);
+        logger.info("after removal");
+        assertThat(all.getLines()).hasSize(2);
+        assertThat(raw.events).hasSize(3);
+
+        library.cleanup();
+    }
+
+    @Test
+    void testLayoutChangedAfterRegistrationAndLibraryPatternFallback() {
+        LoggerConfig config = new LoggerConfig();
+        config.setOutput(OutputType.NONE);
+        config.setPattern("%level %logger - %msg");
+        LoggingLibrary library = new LoggingLibrary(config);
+        library.init();
+
+        InMemoryAppender memory = new InMemoryAppender("memory", 100);
+        memory.setLayout(new PatternLayout("own %msg"));
+        library.addAppender(memory);
+        Logger logger = library.getLogger("routing");
+        logger.info("first");
+
+        // Маршрут пересобран: приёмник снова получает текст общего layout
+        memory.setLayout(null);
+        logger.info("second");
+        library.setPattern("%level %msg");
+        logger.info("third");
+
+        // Без готового текста приёмник рисует событие общим layout библиотеки
+        memory.append(new LogEvent(0, LogLevel.WARN, "direct", "main", "fourth", null), true);
+
+        assertThat(memory.getLines()).containsExactly("own first\n", "INFO routing - second\n", "INFO third\n",
+                "WARN fourth\n");
+        library.cleanup();
+    }
+}
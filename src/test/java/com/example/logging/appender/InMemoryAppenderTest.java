@@ -0,0 +1,99 @@
+package com.example.logging.appender;
+
+import com.example.logging.config.LogLevel;
+import com.example.logging.core.LogEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryAppenderTest {
+
+    private static void append(InMemoryAppender appender, long timestamp, LogLevel level, String logger,
+                               String message) {
+        appender.append(new LogEvent(timestamp, level, logger, "main", message, null), message + "\n", true);
+    }
+
+    @Test
+    void testOldestEventsAreEvictedByCountAndBytes() {
+        InMemoryAppender byCount = new InMemoryAppender("count", 3);
+        for (int i = 0; i < 5; i++) {
+            append(byCount, i, LogLevel.INFO, "L", "event " + i);
+        }
+        assertThat(byCount.getLines()).containsExactly("event 2\n", "event 3\n", "event 4\n");
+
+        InMemoryAppender byBytes = new InMemoryAppender("bytes", 1000, 200);
+        for (int i = 0; i < 100; i++) {
+            append(byBytes, i, LogLevel.INFO, "L", "event " + i + " Ж");
+        }
+        // Заголовок 25 байт + логгер, поток и текст - около 45 байт на событие
+        assertThat(byBytes.getSizeInBytes()).isLessThanOrEqualTo(200);
+        assertThat(byBytes.getLines()).hasSize(4).last().isEqualTo("event 99 Ж\n");
+
+        byBytes.clear();
+        assertThat(byBytes.getLines()).isEmpty();
+        assertThat(byBytes.getSizeInBytes()).isZero();
+    }
+
+    @Test
+    void testQueryFilters() {
+        InMemoryAppender appender = new InMemoryAppender("memory", 100);
+        append(appender, 1_000, LogLevel.INFO, "com.shop.OrderService", "order placed");
+        append(appender, 2_000, LogLevel.WARN, "com.shop.OrderService", "payment timeout");
+        append(appender, 3_000, LogLevel.ERROR, "com.shopping.Cart", "cart timeout");
+        append(appender, 4_000, LogLevel.ERROR, "com.shop", "shop timeout");
+
+        assertThat(appender.query(LogQuery.all().level(LogLevel.WARN).logger("com.shop")))
+                .extracting(MemoryLogEntry::getText).containsExactly("payment timeout\n", "shop timeout\n");
+        assertThat(appender.query(LogQuery.all().contains("timeout").limit(2)))
+                .extracting(MemoryLogEntry::getLoggerName).containsExactly("com.shopping.Cart", "com.shop");
+        assertThat(appender.query(LogQuery.all().from(Instant.ofEpochMilli(2_000)).to(Instant.ofEpochMilli(4_000))))
+                .extracting(MemoryLogEntry::getLevel).containsExactly(LogLevel.WARN, LogLevel.ERROR);
+
+        MemoryLogEntry first = appender.query(LogQuery.all()).get(0);
+        assertThat(first.getTimestamp()).isEqualTo(1_000);
+        assertThat(first.getThreadName()).isEqualTo("main");
+        assertThat(first.getSequence()).isZero();
+    }
+
+    @Test
+    void testConcurrentWritersKeepNewestEvents() throws Exception {
+        int threads = 4;
+        int perThread = 20_000;
+        InMemoryAppender appender = new InMemoryAppender("memory", 1000);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            String logger = "writer" + t;
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                for (int i = 0; i < perThread; i++) {
+                    append(appender, i, LogLevel.INFO, logger, logger + " " + i);
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        List<MemoryLogEntry> entries = appender.query(LogQuery.all());
+        assertThat(entries).hasSize(1000);
+        assertThat(entries.get(999).getSequence()).isEqualTo(threads * perThread - 1);
+        for (int i = 1; i < entries.size(); i++) {
+            assertThat(entries.get(i).getSequence()).isEqualTo(entries.get(i - 1).getSequence() + 1);
+        }
+        assertThat(appender.getSizeInBytes()).isEqualTo(entries.stream()
+                .mapToLong(e -> 25 + e.getLoggerName().length() + e.getThreadName().length() + e.getText().length())
+                .sum());
+    }
+}
@@ -0,0 +1,297 @@
+package com.example.logging.appender;
+
+import com.example.logging.config.LogLevel;
+import com.example.logging.config.NetworkFraming;
+import com.example.logging.config.NetworkProtocol;
+import com.example.logging.core.LogEvent;
+import com.example.logging.network.NetworkSpool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NetworkAppenderTest {
+
+    @TempDir
+    Path dir;
+
+    private final List<AutoCloseable> resources = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (AutoCloseable resource : resources) {
+            resource.close();
+        }
+    }
+
+    private NetworkAppender appender(int port, NetworkFraming framing, long flushInterval) {
+        NetworkAppender appender = new NetworkAppender("network", "127.0.0.1", port, NetworkProtocol.TCP, framing,
+                4096, flushInterval, dir.resolve("spool"), 1024 * 1024);
+        appender.setReconnectDelay(20);
+        appender.setAppName("shop");
+        appender.start();
+        resources.add(0, appender::close);
+        return appender;
+    }
+
+    private static void write(NetworkAppender appender, int from, int to) {
+        for (int i = from; i < to; i++) {
+            String text = "Order " + i + " paid\n";
+            appender.append(new LogEvent(System.currentTimeMillis(), LogLevel.INFO, "com.shop.Billing", "main",
+                    text, null), text, true);
+        }
+    }
+
+    // Сервер в том же процессе: принимает соединения по очереди и читает кадры
+    private Server server(int port, NetworkFraming framing) throws IOException {
+        Server server = new Server(port, framing);
+        resources.add(0, server);
+        return server;
+    }
+
+    private static List<String> receive(Server server, int count) throws InterruptedException {
+        List<String> frames = new ArrayList<>();
+        while (frames.size() < count) {
+            String frame = server.frames.poll(10, TimeUnit.SECONDS);
+            if (frame == null) {
+                break;
+            }
+            frames.add(frame);
+        }
+        return frames;
+    }
+
+    private static List<String> expected(int from, int to) {
+        List<String> frames = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            frames.add("Order " + i + " paid");
+        }
+        return frames;
+    }
+
+    @Test
+    void testBatchedFramesArriveInOrder() throws Exception {
+        Server server = server(0, NetworkFraming.LENGTH_PREFIXED);
+        NetworkAppender appender = appender(server.port(), NetworkFraming.LENGTH_PREFIXED, 50);
+
+        write(appender, 0, 2000);
+        appender.flush();
+
+        assertThat(receive(server, 2000)).isEqualTo(expected(0, 2000));
+        assertThat(appender.getSpoolSize()).isZero();
+        assertThat(appender.getDroppedCount()).isZero();
+    }
+
+    @Test
+    void testSpoolsWhileServerIsDownAndReplaysAfterReconnect() throws Exception {
+        int port;
+        try (ServerSocket probe = new ServerSocket(0)) {
+            port = probe.getLocalPort();
+        }
+        NetworkAppender appender = appender(port, NetworkFraming.LENGTH_PREFIXED, 0);
+
+        write(appender, 0, 300);
+        appender.flush();
+        assertThat(appender.isConnected()).isFalse();
+        assertThat(appender.getSpoolSize()).isGreaterThan(0);
+
+        Server server = server(port, NetworkFraming.LENGTH_PREFIXED);
+        write(appender, 300, 600);
+        appender.flush();
+
+        // Сначала то, что накопилось в spool, затем новые события
+        assertThat(receive(server, 600)).isEqualTo(expected(0, 600));
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (appender.getSpoolSize() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(appender.getSpoolSize()).isZero();
+
+        // Сервер оборвал соединение: пачки, записанные в сокет до RST, теряются
+        // (подтверждений в протоколе нет), остальные доходят после переподключения по порядку
+        server.dropConnection();
+        write(appender, 600, 700);
+        appender.flush();
+        List<String> frames = new ArrayList<>();
+        String frame;
+        while (!frames.contains("Order 699 paid") && (frame = server.frames.poll(10, TimeUnit.SECONDS)) != null) {
+            frames.add(frame);
+        }
+        assertThat(frames).endsWith("Order 699 paid");
+        assertThat(expected(600, 700)).containsSubsequence(frames);
+    }
+
+    @Test
+    void testSyslogOctetCounting() throws Exception {
+        Server server = server(0, NetworkFraming.SYSLOG);
+        NetworkAppender appender = appender(server.port(), NetworkFraming.SYSLOG, 0);
+
+        String text = "Payment failed: карта отклонена\n";
+        appender.append(new LogEvent(1_700_000_000_123L, LogLevel.WARN, "com.shop.Billing", "main", text, null),
+                text, true);
+        appender.flush();
+
+        List<String> frames = receive(server, 1);
+        assertThat(frames).hasSize(1);
+        assertThat(frames.get(0)).startsWith("<12>1 2023-11-14T22:13:20.123Z ")
+                .endsWith(" shop - - - Payment failed: карта отклонена");
+    }
+
+    @Test
+    void testSpoolResumesAfterRestartAndCutsTornRecord() throws IOException {
+        Path spoolDir = dir.resolve("spool");
+        try (NetworkSpool spool = NetworkSpool.open(spoolDir, "network", 64, 1024 * 1024)) {
+            for (int i = 0; i < 10; i++) {
+                byte[] data = ("batch " + i).getBytes(StandardCharsets.UTF_8);
+                assertThat(spool.append(data, 0, data.length)).isTrue();
+            }
+            for (int i = 0; i < 3; i++) {
+                spool.next(null);
+                spool.commit();
+            }
+        }
+        // Процесс упал посреди записи пачки
+        Path tail;
+        try (var files = Files.list(spoolDir)) {
+            tail = files.filter(file -> file.toString().endsWith(".spool")).sorted((a, b) -> Long.compare(
+                    number(b), number(a))).findFirst().orElseThrow();
+        }
+        Files.write(tail, new byte[]{0, 0, 0, 100, 'x'}, StandardOpenOption.APPEND);
+
+        try (NetworkSpool spool = NetworkSpool.open(spoolDir, "network", 64, 1024 * 1024)) {
+            List<String> rest = new ArrayList<>();
+            ByteBuffer buffer;
+            while ((buffer = spool.next(null)) != null) {
+                rest.add(StandardCharsets.UTF_8.decode(buffer).toString());
+                spool.commit();
+            }
+            assertThat(rest).containsExactly("batch 3", "batch 4", "batch 5", "batch 6", "batch 7", "batch 8",
+                    "batch 9");
+            assertThat(spool.isEmpty()).isTrue();
+        }
+    }
+
+    @Test
+    void testCorruptedSpoolIsAbandonedAndSendingContinues() throws Exception {
+        Path spoolDir = dir.resolve("spool");
+        try (NetworkSpool spool = NetworkSpool.open(spoolDir, "network", 64, 1024 * 1024)) {
+            for (int i = 0; i < 10; i++) {
+                byte[] data = ("batch " + i).getBytes(StandardCharsets.UTF_8);
+                spool.append(data, 0, data.length);
+            }
+        }
+        // Длина первой записи испорчена; хвост последнего сегмента при открытии не проверяет её
+        try (FileChannel head = FileChannel.open(spoolDir.resolve("network.0.spool"), StandardOpenOption.WRITE)) {
+            head.write(ByteBuffer.allocate(4).putInt(0, Integer.MAX_VALUE), 0);
+        }
+
+        Server server = server(0, NetworkFraming.LENGTH_PREFIXED);
+        NetworkAppender appender = appender(server.port(), NetworkFraming.LENGTH_PREFIXED, 0);
+        // Пока ошибка spool не обнаружена, пачки ещё попадают в него и пропадают вместе с ним
+        String first = null;
+        for (int i = 0; first == null && i < 100; i++) {
+            write(appender, i, i + 1);
+            appender.flush();
+            first = server.frames.poll(100, TimeUnit.MILLISECONDS);
+        }
+        assertThat(first).isNotNull();
+
+        long dropped = appender.getDroppedCount();
+        write(appender, 100, 200);
+        appender.flush();
+        assertThat(receive(server, 100)).isEqualTo(expected(100, 200));
+        assertThat(appender.getDroppedCount()).isEqualTo(dropped);
+    }
+
+    private static long number(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring("network.".length(), name.length() - ".spool".length()));
+    }
+
+    private static final class Server implements AutoCloseable {
+        final BlockingQueue<String> frames = new LinkedBlockingQueue<>();
+        final ServerSocket socket;
+        final Thread thread;
+        volatile Socket connection;
+
+        Server(int port, NetworkFraming framing) throws IOException {
+            socket = new ServerSocket();
+            socket.setReuseAddress(true);
+            socket.bind(new InetSocketAddress("127.0.0.1", port));
+            thread = new Thread(() -> serve(framing), "test-log-server");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        int port() {
+            return socket.getLocalPort();
+        }
+
+        void dropConnection() throws IOException {
+            Socket current = connection;
+            if (current != null) {
+                current.close();
+            }
+        }
+
+        private void serve(NetworkFraming framing) {
+            while (!socket.isClosed()) {
+                try (Socket accepted = socket.accept()) {
+                    connection = accepted;
+                    DataInputStream in = new DataInputStream(accepted.getInputStream());
+                    while (true) {
+                        int length = framing == NetworkFraming.SYSLOG ? readOctetCount(in) : in.readInt();
+                        byte[] frame = new byte[length];
+                        in.readFully(frame);
+                        frames.add(new String(frame, StandardCharsets.UTF_8));
+                    }
+                } catch (IOException e) {
+                    // соединение закрыто, ждём следующее
+                }
+            }
+        }
+
+        private static int readOctetCount(InputStream in) throws IOException {
+            int length = 0;
+            int c;
+            while ((c = in.read()) != ' ') {
+                if (c < 0) {
+                    throw new EOFException();
+                }
+                length = length * 10 + (c - '0');
+            }
+            return length;
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+            dropConnection();
+            try {
+                thread.join(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
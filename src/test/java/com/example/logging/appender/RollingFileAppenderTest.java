@@ -0,0 +1,281 @@
+package com.example.logging.appender;
+
+import com.example.logging.config.Durability;
+import com.example.logging.config.LogLevel;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RollingFileAppenderTest {
+
+    private static final ZoneId ZONE = ZoneOffset.UTC;
+
+    @TempDir
+    Path dir;
+
+    private List<String> readAllLines() throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path path : files.sorted().collect(Collectors.toList())) {
+                if (path.toString().endsWith(".gz")) {
+                    try (InputStream in = new GZIPInputStream(Files.newInputStream(path))) {
+                        lines.addAll(new String(in.readAllBytes(), StandardCharsets.UTF_8).lines().toList());
+                    }
+                } else {
+                    lines.addAll(Files.readAllLines(path));
+                }
+            }
+        }
+        return lines;
+    }
+
+    private List<String> fileNames() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(p -> p.getFileName().toString()).sorted().collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    void testSizeBasedRolloverKeepsEveryLine() throws IOException {
+        RollingFileAppender appender = new RollingFileAppender(dir.resolve("app.log").toString(), 1024, 0, false, ZONE);
+        appender.open();
+
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < 500; i++) {
+            appender.write("line " + i + "\n", now, LogLevel.INFO, true);
+        }
+        appender.close();
+
+        String today = LocalDate.now(ZONE).toString();
+        assertThat(fileNames()).contains("app.log", "app." + today + ".0.log", "app." + today + ".1.log");
+        try (Stream<Path> files = Files.list(dir)) {
+            files.forEach(p -> assertThat(p.toFile().length()).isLessThanOrEqualTo(1024));
+        }
+        List<String> lines = readAllLines();
+        assertThat(lines).hasSize(500).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void testDailyRolloverUsesPreviousDate() throws IOException {
+        RollingFileAppender appender = new RollingFileAppender(dir.resolve("app.log").toString(), 0, 0, false, ZONE);
+        appender.open();
+
+        LocalDate today = LocalDate.now(ZONE);
+        long tomorrow = today.plusDays(1).atStartOfDay(ZONE).toInstant().toEpochMilli();
+        appender.write("today\n", System.currentTimeMillis(), LogLevel.INFO, true);
+        appender.write("tomorrow\n", tomorrow, LogLevel.INFO, true);
+        appender.close();
+
+        assertThat(Files.readAllLines(dir.resolve("app." + today + ".0.log"))).containsExactly("today");
+        assertThat(Files.readAllLines(dir.resolve("app.log"))).containsExactly("tomorrow");
+    }
+
+    @Test
+    void testArchivesAreCompressedInBackground() throws IOException {
+        RollingFileAppender appender = new RollingFileAppender(dir.resolve("app.log").toString(), 512, 0, true, ZONE);
+        appender.open();
+
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < 100; i++) {
+            appender.write("compressed line " + i + "\n", now, LogLevel.INFO, true);
+        }
+        appender.close();
+
+        assertThat(fileNames()).allMatch(name -> name.equals("app.log") || name.endsWith(".log.gz"));
+        assertThat(readAllLines()).hasSize(100).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void testExpiredArchivesAreDeleted() throws IOException {
+        LocalDate today = LocalDate.now(ZONE);
+        Path expired = Files.writeString(dir.resolve("app." + today.minusDays(10) + ".0.log.gz"), "old");
+        Path kept = Files.writeString(dir.resolve("app." + today.minusDays(1) + ".0.log"), "recent");
+        Path unrelated = Files.writeString(dir.resolve("other." + today.minusDays(10) + ".0.log"), "other");
+
+        RollingFileAppender appender = new RollingFileAppender(dir.resolve("app.log").toString(), 0, 7, false, ZONE);
+        appender.open();
+        appender.close();
+
+        assertThat(expired).doesNotExist();
+        assertThat(kept).exists();
+        assertThat(unrelated).exists();
+    }
+
+    @Test
+    void testBufferedWritesAreFlushedOnError() throws IOException {
+        Path path = dir.resolve("app.log");
+        RollingFileAppender appender = new RollingFileAppender("file", path.toString(), 0, 0, false,
+                4096, 60_000, Durability.FLUSH, ZONE);
+        appender.open();
+
+        long now = System.currentTimeMillis();
+        appender.write("buffered\n", now, LogLevel.INFO, true);
+        assertThat(Files.readAllLines(path)).isEmpty();
+
+        appender.write("failure \u00e9\u4e2d\uD83D\uDE00\n", now, LogLevel.ERROR, true);
+        assertThat(Files.readAllLines(path)).containsExactly("buffered", "failure \u00e9\u4e2d\uD83D\uDE00");
+
+        appender.close();
+    }
+
+    @Test
+    void testLinesLongerThanBuffer() throws IOException {
+        Path path = dir.resolve("app.log");
+        RollingFileAppender appender = new RollingFileAppender("file", path.toString(), 0, 0, false,
+                256, 0, Durability.NONE, ZONE);
+        appender.open();
+
+        String longLine = "\u0436".repeat(1000);
+        appender.write(longLine + "\n", System.currentTimeMillis(), LogLevel.INFO, true);
+        appender.close();
+
+        assertThat(Files.readAllLines(path)).containsExactly(longLine);
+    }
+
+    @Test
+    void testFailedRolloverKeepsWritingToActiveFile() throws IOException {
+        Path path = dir.resolve("app.log");
+        AtomicInteger attempts = new AtomicInteger();
+        RollingFileAppender appender = new RollingFileAppender("file", path.toString(), 256, 0, false,
+                4096, 0, Durability.FLUSH, ZONE) {
+            @Override
+            Path archive(LocalDate date) throws IOException {
+                attempts.incrementAndGet();
+                throw new IOException("No space left on device");
+            }
+        };
+        appender.open();
+
+        PrintStream originalErr = System.err;
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        System.setErr(new PrintStream(err, true, StandardCharsets.UTF_8));
+        try {
+            long now = System.currentTimeMillis();
+            for (int i = 0; i < 50; i++) {
+                appender.write("line " + i + "\n", now, LogLevel.INFO, true);
+            }
+            // Следующая попытка - не раньше чем через минуту
+            assertThat(attempts.get()).isEqualTo(1);
+            appender.write("line 50\n", now + 61_000, LogLevel.INFO, true);
+            assertThat(attempts.get()).isEqualTo(2);
+        } finally {
+            System.setErr(originalErr);
+        }
+        appender.close();
+
+        assertThat(Files.readAllLines(path)).hasSize(51).startsWith("line 0").endsWith("line 50");
+        // Сообщение об ошибке одно на все неудачные попытки
+        assertThat(err.toString(StandardCharsets.UTF_8).lines())
+                .containsExactly("Failed to roll over log file " + path + ": No space left on device");
+    }
+
+    @Test
+    void testReopenAfterClose() throws IOException {
+        Path path = dir.resolve("app.log");
+        RollingFileAppender appender = new RollingFileAppender("file", path.toString(), 0, 0, false,
+                4096, 50, Durability.FLUSH, ZONE);
+        appender.open();
+        appender.write("first\n", System.currentTimeMillis(), LogLevel.INFO, true);
+        appender.close();
+
+        appender.open();
+        appender.write("second\n", System.currentTimeMillis(), LogLevel.INFO, true);
+        appender.close();
+
+        assertThat(Files.readAllLines(path)).containsExactly("first", "second");
+    }
+
+    @Test
+    void testLockWaitersDoNotPinVirtualThreads() throws Exception {
+        Path path = dir.resolve("app.log");
+        RollingFileAppender appender = new RollingFileAppender(path.toString(), 0, 0, false, ZONE);
+        appender.open();
+        CountDownLatch inside = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // Текст, который "зависает" на первом символе кодирования, то есть под блокировкой файла
+        CharSequence slow = new CharSequence() {
+            private final String text = "slow\n";
+            private int calls;
+
+            @Override
+            public int length() {
+                return text.length();
+            }
+
+            @Override
+            public char charAt(int index) {
+                if (++calls == text.length() + 1) {
+                    inside.countDown();
+                    await(release);
+                }
+                return text.charAt(index);
+            }
+
+            @Override
+            public CharSequence subSequence(int start, int end) {
+                return text.subSequence(start, end);
+            }
+
+            @Override
+            public String toString() {
+                return text;
+            }
+        };
+
+        Thread holder = Thread.ofVirtual().start(() -> write(appender, slow));
+        inside.await();
+        Thread waiter = Thread.ofVirtual().start(() -> write(appender, "fast\n"));
+
+        // На ReentrantLock ожидающий виртуальный поток паркуется (WAITING) и отпускает
+        // поток-носитель; на мониторе synchronized он был бы BLOCKED и держал бы носитель
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (waiter.getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        Thread.State waiterState = waiter.getState();
+        release.countDown();
+        holder.join();
+        waiter.join();
+        appender.close();
+
+        assertThat(waiterState).isEqualTo(Thread.State.WAITING);
+        assertThat(Files.readAllLines(path)).containsExactly("slow", "fast");
+    }
+
+    private static void write(RollingFileAppender appender, CharSequence text) {
+        try {
+            appender.write(text, System.currentTimeMillis(), LogLevel.INFO, true);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
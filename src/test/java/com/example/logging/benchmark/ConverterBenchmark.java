@@ -0,0 +1,60 @@
+package com.example.logging.benchmark;
+
+import com.example.logging.config.LogLevel;
+import com.example.logging.core.LogEvent;
+import com.example.logging.layout.PatternLayout;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+// Стоимость каждого конвертера по отдельности и полного шаблона по умолчанию.
+// Шаблоны заканчиваются на %n, иначе PatternLayout допишет перевод строки сам.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ConverterBenchmark {
+
+    @Param({"%n", "%d%n", "%thread%n", "%level%n", "%-5level%n", "%logger%n", "%logger{36}%n",
+            "%msg%n", "%msg{}%n", "%d [%thread] %-5level %logger{36} - %msg%n"})
+    public String pattern;
+
+    private PatternLayout layout;
+    private LogEvent event;
+    private final StringBuilder buffer = new StringBuilder(256);
+
+    @Setup
+    public void setUp() {
+        // %msg{} - тот же %msg, но с параметрами в шаблоне сообщения
+        layout = new PatternLayout(pattern.replace("%msg{}", "%msg"));
+        if (pattern.contains("%msg{}")) {
+            event = new LogEvent(System.currentTimeMillis(), LogLevel.INFO,
+                    "com.example.logging.benchmark.ConverterBenchmark", "main",
+                    "User {} logged in from {}", new Object[]{"john.doe", "192.168.1.1"}, null);
+        } else {
+            event = new LogEvent(System.currentTimeMillis(), LogLevel.INFO,
+                    "com.example.logging.benchmark.ConverterBenchmark", "main",
+                    "User john.doe logged in from 192.168.1.1", null);
+        }
+    }
+
+    @Benchmark
+    public StringBuilder format() {
+        buffer.setLength(0);
+        layout.format(event, buffer);
+        return buffer;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ConverterBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
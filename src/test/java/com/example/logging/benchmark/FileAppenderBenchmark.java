@@ -0,0 +1,140 @@
+package com.example.logging.benchmark;
+
+import com.example.logging.appender.Appender;
+import com.example.logging.appender.BinaryFileAppender;
+import com.example.logging.appender.CompressedFileAppender;
+import com.example.logging.compressed.CompressedLogFormat;
+import com.example.logging.appender.RollingFileAppender;
+import com.example.logging.config.Durability;
+import com.example.logging.config.LogLevel;
+import com.example.logging.core.LogEvent;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+// Запись в RollingFileAppender из 1/4/16 потоков: конкуренция за блокировку файла.
+// flushInterval задаёт режим: 0 - сброс после каждого события, 1000 - буферизация.
+// format: TEXT - PatternLayout + UTF-8, BINARY - BinaryFileAppender без форматирования,
+// COMPRESSED - CompressedFileAppender (текст, сжатие кадров Deflater в фоновом потоке).
+// Сжатие не видно в пропускной способности вызывающих потоков, поэтому после каждой
+// итерации печатается CPU процесса на событие и итоговый размер файла.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FileAppenderBenchmark {
+
+    @Param({"0", "1000"})
+    public long flushInterval;
+
+    @Param({"TEXT", "BINARY", "COMPRESSED"})
+    public String format;
+
+    private Path dir;
+    private Appender appender;
+    private final LongAdder events = new LongAdder();
+    private long cpuAtStart;
+
+    @State(Scope.Thread)
+    public static class ThreadEvent {
+        LogEvent event;
+
+        @Setup
+        public void setUp() {
+            event = new LogEvent(System.currentTimeMillis(), LogLevel.INFO,
+                    "com.example.logging.benchmark.FileAppenderBenchmark", Thread.currentThread().getName(),
+                    "User {} logged in from {}", new Object[]{"john.doe", "192.168.1.1"}, null);
+        }
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("logging-bench");
+        if (format.equals("COMPRESSED")) {
+            appender = new CompressedFileAppender("compressed", dir.resolve("bench.zlog").toString(),
+                    CompressedLogFormat.DEFAULT_FRAME_SIZE, 1, flushInterval, Durability.FLUSH);
+        } else if (format.equals("BINARY")) {
+            appender = new BinaryFileAppender("binary", dir.resolve("bench.blog").toString(),
+                    RollingFileAppender.DEFAULT_BUFFER_SIZE, flushInterval, Durability.FLUSH);
+        } else {
+            appender = new RollingFileAppender("file", dir.resolve("bench.log").toString(), 64L * 1024 * 1024, 0,
+                    false, RollingFileAppender.DEFAULT_BUFFER_SIZE, flushInterval, Durability.FLUSH,
+                    ZoneId.systemDefault());
+        }
+        appender.start();
+    }
+
+    @Setup(Level.Iteration)
+    public void startIteration() {
+        events.reset();
+        cpuAtStart = processCpuTime();
+    }
+
+    @TearDown(Level.Iteration)
+    public void endIteration() throws IOException {
+        appender.flush();
+        long cpu = processCpuTime() - cpuAtStart;
+        long size;
+        try (Stream<Path> files = Files.list(dir)) {
+            size = files.mapToLong(p -> p.toFile().length()).sum();
+        }
+        System.out.printf("%n%s: %d ns CPU/event, %d bytes on disk%n", format, cpu / Math.max(events.sum(), 1), size);
+    }
+
+    private static long processCpuTime() {
+        return ((com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean())
+                .getProcessCpuTime();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        appender.close();
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void append1Thread(ThreadEvent state) {
+        appender.append(state.event, true);
+        events.increment();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void append4Threads(ThreadEvent state) {
+        appender.append(state.event, true);
+        events.increment();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void append16Threads(ThreadEvent state) {
+        appender.append(state.event, true);
+        events.increment();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(FileAppenderBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.logging.benchmark;
+
+import com.example.logging.annotation.LogExecution;
+import com.example.logging.aop.LoggingAspect;
+import com.example.logging.config.LogLevel;
+import com.example.logging.config.LoggerConfig;
+import com.example.logging.config.OutputType;
+import com.example.logging.core.LoggingLibrary;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+// Накладные расходы @LogExecution: прямой вызов, вызов через прокси с выключенным
+// уровнем и с включённым уровнем в NullAppender
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LogExecutionAspectBenchmark {
+
+    public interface Calculator {
+        int add(int a, int b);
+
+        int addTraced(int a, int b);
+    }
+
+    public static class SimpleCalculator implements Calculator {
+        @Override
+        public int add(int a, int b) {
+            return a + b;
+        }
+
+        @Override
+        @LogExecution(level = LogLevel.DEBUG)
+        public int addTraced(int a, int b) {
+            return a + b;
+        }
+    }
+
+    @Param({"INFO", "DEBUG"})
+    public LogLevel level;
+
+    private LoggingLibrary library;
+    private Calculator plain;
+    private Calculator proxied;
+    private int a = 1;
+    private int b = 2;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        LoggerConfig config = new LoggerConfig();
+        config.setLevel(level);
+        config.setOutput(OutputType.NONE);
+        library = new LoggingLibrary(config);
+        library.init();
+        library.addAppender(new NullAppender());
+
+        LoggingAspect aspect = new LoggingAspect();
+        Field field = LoggingAspect.class.getDeclaredField("loggingLibrary");
+        field.setAccessible(true);
+        field.set(aspect, library);
+
+        plain = new SimpleCalculator();
+        AspectJProxyFactory factory = new AspectJProxyFactory(new SimpleCalculator());
+        factory.addAspect(aspect);
+        proxied = factory.getProxy();
+    }
+
+    @TearDown
+    public void tearDown() {
+        library.cleanup();
+    }
+
+    @Benchmark
+    public int plainCall() {
+        return plain.addTraced(a, b);
+    }
+
+    @Benchmark
+    public int proxyWithoutAdvice() {
+        return proxied.add(a, b);
+    }
+
+    @Benchmark
+    public int proxyWithAdvice() {
+        return proxied.addTraced(a, b);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(LogExecutionAspectBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.logging.benchmark;
+
+import com.example.logging.config.LogLevel;
+import com.example.logging.config.LoggerConfig;
+import com.example.logging.config.OutputType;
+import com.example.logging.core.Logger;
+import com.example.logging.core.LoggingLibrary;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+// Полный путь Logger -> LoggingLibrary -> приёмник: отключённый уровень,
+// включённый уровень в NullAppender и запись исключения; garbageFree - режим
+// с переиспользуемым событием и массивом аргументов
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoggerBenchmark {
+
+    @Param({"false", "true"})
+    public boolean garbageFree;
+
+    private LoggingLibrary library;
+    private Logger logger;
+    private Exception exception;
+
+    @Setup
+    public void setUp() {
+        LoggerConfig config = new LoggerConfig();
+        config.setLevel(LogLevel.INFO);
+        config.setOutput(OutputType.NONE);
+        config.setGarbageFree(garbageFree);
+        library = new LoggingLibrary(config);
+        library.init();
+        library.addAppender(new NullAppender());
+        logger = library.getLogger(LoggerBenchmark.class);
+        exception = new IllegalStateException("Connection refused");
+    }
+
+    @TearDown
+    public void tearDown() {
+        library.cleanup();
+    }
+
+    @Benchmark
+    public void disabledLevel() {
+        logger.debug("User {} logged in from {}", "john.doe", "192.168.1.1");
+    }
+
+    @Benchmark
+    public boolean disabledLevelGuard() {
+        return logger.isDebugEnabled();
+    }
+
+    @Benchmark
+    public void enabledToNullSink() {
+        logger.info("User {} logged in from {}", "john.doe", "192.168.1.1");
+    }
+
+    @Benchmark
+    public void enabledConstantMessage() {
+        logger.info("User logged in");
+    }
+
+    @Benchmark
+    public void exceptionLogging() {
+        logger.error("Request failed", exception);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(LoggerBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.logging.benchmark;
+
+import com.example.logging.appender.AbstractAppender;
+import com.example.logging.core.LogEvent;
+
+// Приёмник-заглушка: принимает отрисованный текст и ничего не пишет.
+// Длина накапливается в поле, чтобы JIT не выбросил отрисовку как мёртвый код.
+public class NullAppender extends AbstractAppender {
+
+    private long chars;
+
+    public NullAppender() {
+        super("null");
+    }
+
+    @Override
+    protected void write(LogEvent event, CharSequence text, boolean endOfBatch) {
+        chars += text.length();
+    }
+
+    public long getChars() {
+        return chars;
+    }
+}
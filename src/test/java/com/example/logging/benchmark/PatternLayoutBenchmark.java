@@ -0,0 +1,71 @@
+package com.example.logging.benchmark;
+
+import com.example.logging.config.LogLevel;
+import com.example.logging.core.LogEvent;
+import com.example.logging.layout.PatternLayout;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+// Сравнение скомпилированного PatternLayout с прежней цепочкой String.replace
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PatternLayoutBenchmark {
+
+    private static final String PATTERN = "%d [%thread] %-5level %logger{36} - %msg%n";
+
+    private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+    private PatternLayout layout;
+    private LogEvent event;
+
+    @Setup
+    public void setUp() {
+        layout = new PatternLayout(PATTERN);
+        event = new LogEvent(System.currentTimeMillis(), LogLevel.INFO,
+                "com.example.logging.benchmark.PatternLayoutBenchmark", "main",
+                "User john.doe logged in from 192.168.1.1", null);
+    }
+
+    @Benchmark
+    public String compiledLayout() {
+        return layout.render(event);
+    }
+
+    @Benchmark
+    public String legacyReplaceChain() {
+        String loggerName = event.getLoggerName();
+        String result = PATTERN;
+        result = result.replace("%d", LocalDateTime.now().format(formatter))
+                .replace("%thread", event.getThreadName())
+                .replace("%level", event.getLevel().toString())
+                .replace("%logger", loggerName)
+                .replace("%msg", event.getMessage())
+                .replace("%n", System.lineSeparator());
+        if (loggerName.length() > 36) {
+            result = result.replace("%logger{36}", loggerName.substring(0, 36));
+        } else {
+            result = result.replace("%logger{36}", loggerName);
+        }
+        if (result.contains("%-5level")) {
+            result = result.replace("%-5level", String.format("%-5s", event.getLevel().toString()));
+        }
+        return result;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(PatternLayoutBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
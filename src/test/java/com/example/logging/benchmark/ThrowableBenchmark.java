@@ -0,0 +1,68 @@
+package com.example.logging.benchmark;
+
+import com.example.logging.config.LogLevel;
+import com.example.logging.core.LogEvent;
+import com.example.logging.layout.PatternLayout;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+
+// Шторм ошибок: одно и то же исключение с глубоким (~200 кадров) стеком раз за разом.
+// printStackTrace - прежний способ (StringWriter + отдельное событие), остальные - %ex.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ThrowableBenchmark {
+
+    @Param({"printStackTrace", "%msg%n%ex", "%msg%n%ex{30, org.openjdk.jmh, jdk.internal.reflect}",
+            "%msg%n%ex{dedupe}"})
+    public String pattern;
+
+    private PatternLayout layout;
+    private Throwable error;
+    private LogEvent event;
+    private final StringBuilder buffer = new StringBuilder(16384);
+
+    @Setup
+    public void setUp() {
+        error = deep(190);
+        layout = new PatternLayout(pattern.startsWith("%") ? pattern : "%msg%n");
+        event = new LogEvent(System.currentTimeMillis(), LogLevel.ERROR,
+                "com.example.logging.benchmark.ThrowableBenchmark", "main", "Request failed", error);
+    }
+
+    private static Throwable deep(int depth) {
+        if (depth == 0) {
+            return new IllegalStateException("boom", new RuntimeException("connection reset"));
+        }
+        return deep(depth - 1);
+    }
+
+    @Benchmark
+    public Object render() {
+        if (pattern.equals("printStackTrace")) {
+            StringWriter writer = new StringWriter();
+            error.printStackTrace(new PrintWriter(writer));
+            return writer.toString();
+        }
+        buffer.setLength(0);
+        layout.format(event, buffer);
+        return buffer;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ThrowableBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
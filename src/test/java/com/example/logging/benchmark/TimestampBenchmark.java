@@ -0,0 +1,57 @@
+package com.example.logging.benchmark;
+
+import com.example.logging.layout.CachedDateFormatter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+// %d: прежний LocalDateTime.now().format(...) против CachedDateFormatter
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TimestampBenchmark {
+
+    private static final String PATTERN = "yyyy-MM-dd HH:mm:ss.SSS";
+
+    private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern(PATTERN);
+    private final DateTimeFormatter zonedFormatter = DateTimeFormatter.ofPattern(PATTERN).withZone(ZoneId.systemDefault());
+    private final CachedDateFormatter cachedFormatter = new CachedDateFormatter(PATTERN);
+    private final StringBuilder buffer = new StringBuilder(64);
+
+    @Benchmark
+    public String localDateTimeNow() {
+        return LocalDateTime.now().format(formatter);
+    }
+
+    @Benchmark
+    public StringBuilder dateTimeFormatterFormatTo() {
+        buffer.setLength(0);
+        zonedFormatter.formatTo(Instant.ofEpochMilli(System.currentTimeMillis()), buffer);
+        return buffer;
+    }
+
+    @Benchmark
+    public StringBuilder cachedFormatter() {
+        buffer.setLength(0);
+        cachedFormatter.formatTo(System.currentTimeMillis(), buffer);
+        return buffer;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(TimestampBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.logging.binary;
+
+import com.example.logging.appender.BinaryFileAppender;
+import com.example.logging.config.Durability;
+import com.example.logging.config.LogLevel;
+import com.example.logging.core.ContextMap;
+import com.example.logging.core.KeyValue;
+import com.example.logging.core.LogEvent;
+import com.example.logging.layout.JsonLayout;
+import com.example.logging.layout.PatternLayout;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class BinaryLogTest {
+
+    private static final PatternLayout LAYOUT = new PatternLayout("%d [%thread] %-5level %logger{36} %X - %msg%n");
+
+    @TempDir
+    Path dir;
+
+    private BinaryFileAppender appender(Path file) {
+        BinaryFileAppender appender = new BinaryFileAppender("binary", file.toString(), 4096, 0, Durability.FLUSH);
+        appender.start();
+        return appender;
+    }
+
+    private List<LogEvent> sampleEvents() {
+        long now = System.currentTimeMillis();
+        List<LogEvent> events = new ArrayList<>();
+        events.add(new LogEvent(now, LogLevel.INFO, "com.example.OrderService", "main",
+                "Order {} placed by {} for {} ({}, {})",
+                new Object[]{42L, "Анна", 9.5, true, KeyValue.of("items", 3)}, null));
+        events.add(new LogEvent(now - 5, LogLevel.WARN, "com.example.OrderService", "worker-1",
+                "Values {} {} {} {} {}", new Object[]{null, 'x', 1.5f, new int[]{1, 2}, Integer.MIN_VALUE}, null));
+        events.add(new LogEvent(now + 1000, LogLevel.DEBUG, "com.example.Other", "main", "no parameters", null, null,
+                ContextMap.EMPTY.with("requestId", "r-1").with("tenant", "acme")));
+        return events;
+    }
+
+    @Test
+    void testDecodedTextMatchesPatternLayout() throws IOException {
+        Path file = dir.resolve("app.blog");
+        BinaryFileAppender appender = appender(file);
+        List<LogEvent> events = sampleEvents();
+        for (LogEvent event : events) {
+            appender.append(event, true);
+        }
+        appender.close();
+
+        StringBuilder expected = new StringBuilder();
+        for (LogEvent event : events) {
+            LAYOUT.format(event, expected);
+        }
+        StringBuilder decoded = new StringBuilder();
+        try (InputStream in = Files.newInputStream(file)) {
+            assertThat(BinaryLogDecoder.decode(in, LAYOUT, decoded)).isFalse();
+        }
+        assertThat(decoded.toString()).isEqualTo(expected.toString());
+    }
+
+    @Test
+    void testReopenedFileStartsNewSegment() throws IOException {
+        Path file = dir.resolve("app.blog");
+        for (int run = 0; run < 2; run++) {
+            BinaryFileAppender appender = appender(file);
+            appender.append(new LogEvent(1000L * run, LogLevel.INFO, "L", "main", "run {}", new Object[]{run}, null),
+                    true);
+            appender.close();
+        }
+
+        List<String> messages = new ArrayList<>();
+        try (BinaryLogReader reader = new BinaryLogReader(Files.newInputStream(file))) {
+            LogEvent event;
+            while ((event = reader.next()) != null) {
+                messages.add(event.getTimestamp() + " " + event.getLoggerName() + " " + event.getMessage());
+            }
+        }
+        assertThat(messages).containsExactly("0 L run 0", "1000 L run 1");
+    }
+
+    @Test
+    void testThrowableRoundTrip() throws IOException {
+        Path file = dir.resolve("app.blog");
+        IllegalStateException error = new IllegalStateException("outer", new IllegalArgumentException("inner"));
+        BinaryFileAppender appender = appender(file);
+        appender.append(new LogEvent(0L, LogLevel.ERROR, "L", "main", "failed", error), true);
+        appender.close();
+
+        LogEvent decoded;
+        try (BinaryLogReader reader = new BinaryLogReader(Files.newInputStream(file))) {
+            decoded = reader.next();
+            assertThat(reader.next()).isNull();
+        }
+        Throwable throwable = decoded.getThrowable();
+        assertThat(throwable.toString()).isEqualTo("java.lang.IllegalStateException: outer");
+        // Загрузчик и модуль кадра не сохраняются
+        assertThat(throwable.getStackTrace()).extracting(StackTraceElement::getClassName, StackTraceElement::getMethodName,
+                        StackTraceElement::getFileName, StackTraceElement::getLineNumber)
+                .isEqualTo(Arrays.stream(error.getStackTrace()).map(frame -> tuple(frame.getClassName(),
+                        frame.getMethodName(), frame.getFileName(), frame.getLineNumber())).toList());
+        assertThat(throwable.getCause().toString()).isEqualTo("java.lang.IllegalArgumentException: inner");
+
+        JsonLayout json = new JsonLayout(ZoneOffset.UTC);
+        StringBuilder original = new StringBuilder();
+        StringBuilder restored = new StringBuilder();
+        json.format(new LogEvent(0L, LogLevel.ERROR, "L", "main", "failed", error), original);
+        json.format(decoded, restored);
+        assertThat(restored.toString()).isEqualTo(original.toString());
+    }
+
+    @Test
+    void testTruncatedTailAndSize() throws IOException {
+        Path file = dir.resolve("app.blog");
+        BinaryFileAppender appender = appender(file);
+        StringBuilder text = new StringBuilder();
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < 1000; i++) {
+            LogEvent event = new LogEvent(now + i, LogLevel.INFO, "com.example.logging.benchmark.OrderService",
+                    "http-nio-8080-exec-1", "Processed order {} for customer {} in {} ms",
+                    new Object[]{100_000L + i, "customer-" + (i % 10), i % 50}, null);
+            appender.append(event, true);
+            LAYOUT.format(event, text);
+        }
+        appender.close();
+
+        byte[] bytes = Files.readAllBytes(file);
+        assertThat(bytes.length * 4L).isLessThan(text.length());
+
+        BinaryLogReader reader = new BinaryLogReader(new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length - 3)));
+        int count = 0;
+        while (reader.next() != null) {
+            count++;
+        }
+        assertThat(count).isEqualTo(999);
+        assertThat(reader.isTruncated()).isTrue();
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.logging.compressed;
+
+import com.example.logging.appender.CompressedFileAppender;
+import com.example.logging.config.Durability;
+import com.example.logging.config.LogLevel;
+import com.example.logging.core.LogEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompressedLogTest {
+
+    private static final long START = 1_700_000_000_000L;
+
+    @TempDir
+    Path dir;
+
+    private CompressedFileAppender appender(Path file) {
+        CompressedFileAppender appender = new CompressedFileAppender("compressed", file.toString(), 8192,
+                Deflater.BEST_SPEED, 60_000, Durability.NONE);
+        appender.start();
+        return appender;
+    }
+
+    // Событие i записано в момент START + i секунд
+    private static String write(CompressedFileAppender appender, int from, int to) {
+        StringBuilder expected = new StringBuilder();
+        for (int i = from; i < to; i++) {
+            String text = "INFO com.shop.Cart - item " + i + " added, корзина " + (i % 7) + "\n";
+            appender.append(new LogEvent(START + i * 1000L, LogLevel.INFO, "com.shop.Cart", "main", text, null),
+                    text, true);
+            expected.append(text);
+        }
+        return expected.toString();
+    }
+
+    private static String decode(Path file) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CompressedLogDecoder.decode(file, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testFramesRoundTripAndCompress() throws IOException {
+        Path file = dir.resolve("app.zlog");
+        CompressedFileAppender appender = appender(file);
+        String expected = write(appender, 0, 5000);
+        appender.close();
+
+        assertThat(decode(file)).isEqualTo(expected);
+        assertThat(Files.size(file)).isLessThan(expected.getBytes(StandardCharsets.UTF_8).length / 4);
+
+        List<CompressedLogReader.Frame> frames = new ArrayList<>();
+        try (CompressedLogReader reader = new CompressedLogReader(file)) {
+            CompressedLogReader.Frame frame;
+            while ((frame = reader.next()) != null) {
+                frames.add(frame);
+            }
+        }
+        assertThat(frames.size()).isGreaterThan(10);
+        assertThat(frames).allSatisfy(frame -> assertThat(frame.getRawLength()).isLessThanOrEqualTo(8192));
+        assertThat(frames.stream().mapToInt(CompressedLogReader.Frame::getEvents).sum()).isEqualTo(5000);
+        assertThat(frames.get(0).getMinTimestamp()).isEqualTo(START);
+        assertThat(frames.get(frames.size() - 1).getMaxTimestamp()).isEqualTo(START + 4999_000L);
+    }
+
+    @Test
+    void testErrorIsOnDiskWhenCallReturns() throws IOException {
+        Path file = dir.resolve("app.zlog");
+        CompressedFileAppender appender = new CompressedFileAppender("compressed", file.toString(), 8192,
+                Deflater.BEST_SPEED, 60_000, Durability.FSYNC_ON_ERROR);
+        appender.start();
+        String expected = write(appender, 0, 10);
+        String error = "ERROR com.shop.Cart - checkout failed\n";
+        appender.append(new LogEvent(START, LogLevel.ERROR, "com.shop.Cart", "main", error, null), error, true);
+
+        // Без flush() и до срабатывания таймера
+        assertThat(decode(file)).isEqualTo(expected + error);
+        appender.close();
+    }
+
+    @Test
+    void testSeekByTimeInflatesOnlyMatchingFrames() throws IOException {
+        Path file = dir.resolve("app.zlog");
+        CompressedFileAppender appender = appender(file);
+        write(appender, 0, 5000);
+        appender.close();
+
+        try (CompressedLogReader reader = new CompressedLogReader(file)) {
+            CompressedLogReader.Frame frame = reader.seek(START + 3000_000L);
+            assertThat(frame.getMinTimestamp()).isLessThanOrEqualTo(START + 3000_000L);
+            assertThat(frame.getMaxTimestamp()).isGreaterThanOrEqualTo(START + 3000_000L);
+            assertThat(new String(reader.text(frame), StandardCharsets.UTF_8))
+                    .contains("item 3000 added").doesNotContain("item 2000 added");
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (CompressedLogReader reader = new CompressedLogReader(file)) {
+            CompressedLogDecoder.decode(reader, START + 1000_000L, START + 1001_000L, out);
+        }
+        // Распакован один кадр вокруг нужной секунды
+        assertThat(out.toString(StandardCharsets.UTF_8)).contains("item 1000 added");
+        assertThat(out.size()).isLessThanOrEqualTo(8192);
+    }
+
+    @Test
+    void testTruncatedFrameIsCutOnReopen() throws IOException {
+        Path file = dir.resolve("app.zlog");
+        CompressedFileAppender appender = appender(file);
+        String first = write(appender, 0, 1000);
+        appender.close();
+        long complete = Files.size(file);
+
+        // Процесс упал посреди записи кадра
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(complete - 10);
+        }
+        try (CompressedLogReader reader = new CompressedLogReader(file)) {
+            while (reader.next() != null) {
+                // до конца
+            }
+            assertThat(reader.isTruncated()).isTrue();
+        }
+        String surviving = decode(file);
+        assertThat(first).startsWith(surviving);
+
+        appender = appender(file);
+        String second = write(appender, 1000, 1100);
+        appender.close();
+        assertThat(decode(file)).isEqualTo(surviving + second);
+    }
+}
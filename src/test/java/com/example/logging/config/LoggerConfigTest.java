@@ -55,6 +55,22 @@ class LoggerConfigTest {
                 });
     }
 
+    @Test
+    void testPerLoggerLevelsBinding() {
+        contextRunner
+                .withPropertyValues(
+                        "logging.library.levels.com.foo.bar=DEBUG",
+                        "logging.library.levels.root=WARN"
+                )
+                .run(context -> {
+                    LoggerConfig config = context.getBean(LoggerConfig.class);
+
+                    assertThat(config.getLevels())
+                            .containsEntry("com.foo.bar", LogLevel.DEBUG)
+                            .containsEntry("root", LogLevel.WARN);
+                });
+    }
+
     @Test
     void testSettersAndGetters() {
         LoggerConfig config = new LoggerConfig();
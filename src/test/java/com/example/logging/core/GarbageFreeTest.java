@@ -0,0 +1,160 @@
+package com.example.logging.core;
+
+import com.example.logging.appender.ConsoleAppender;
+import com.example.logging.config.LogLevel;
+import com.example.logging.config.LoggerConfig;
+import com.example.logging.config.OutputType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Режим garbage-free: после прогрева вызов логгера не выделяет памяти в потоке
+// приложения. Счётчик выделенных потоком байт - com.sun.management.ThreadMXBean.
+class GarbageFreeTest {
+
+    private static final int WARMUP = 50_000;
+    private static final int CALLS = 20_000;
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @TempDir
+    Path dir;
+
+    private LoggingLibrary library;
+
+    @AfterEach
+    void tearDown() {
+        if (library != null) {
+            library.cleanup();
+        }
+    }
+
+    private Logger start(boolean garbageFree, boolean async) {
+        LoggerConfig config = new LoggerConfig();
+        config.setOutput(OutputType.FILE);
+        config.setFilePath(dir.resolve("gc.log").toString());
+        config.setLevel(LogLevel.INFO);
+        config.setPattern("%d [%thread] %-5level %logger{36} %X{requestId} - %msg%n");
+        config.setFlushInterval(0);
+        config.setGarbageFree(garbageFree);
+        config.getAsync().setEnabled(async);
+        library = new LoggingLibrary(config);
+        library.init();
+        return library.getLogger("com.example.logging.core.GarbageFreeTest");
+    }
+
+    private double bytesPerCall(Logger logger) {
+        String user = "john.doe";
+        String address = "192.168.1.1";
+        Integer attempt = 3;
+        for (int i = 0; i < WARMUP; i++) {
+            logger.info("User {} logged in from {}", user, address);
+            logger.info("Attempt {} for {} from {}", attempt, user, address);
+            logger.info("Plain message");
+        }
+        long threadId = Thread.currentThread().threadId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < CALLS; i++) {
+            logger.info("User {} logged in from {}", user, address);
+            logger.info("Attempt {} for {} from {}", attempt, user, address);
+            logger.info("Plain message");
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+        return (double) allocated / (CALLS * 3);
+    }
+
+    @Test
+    void testSynchronousFileLoggingIsGarbageFree() {
+        MDC.put("requestId", "r-1");
+        try {
+            assertThat(bytesPerCall(start(true, false))).isLessThan(1.0);
+        } finally {
+            MDC.clear();
+        }
+    }
+
+    @Test
+    void testAsyncProducerIsGarbageFree() {
+        assertThat(bytesPerCall(start(true, true))).isLessThan(1.0);
+    }
+
+    @Test
+    void testDefaultModeAllocates() {
+        // Контроль: без garbage-free событие и массив аргументов создаются на каждый вызов
+        assertThat(bytesPerCall(start(false, false))).isGreaterThan(16.0);
+    }
+
+    @Test
+    void testReusedEventProducesSameOutput() throws Exception {
+        Logger logger = start(true, false);
+        logger.info("User {} logged in from {}", "john.doe", "192.168.1.1");
+        logger.info("Attempt {} for {} from {}", 1, "jane", "10.0.0.1");
+        logger.error("Failed {}", "job", new IllegalStateException("boom"));
+        logger.info("Done {}", "ok");
+        library.cleanup();
+        library = null;
+
+        List<String> lines = Files.readAllLines(dir.resolve("gc.log"));
+        assertThat(lines.stream().filter(line -> line.contains(" - ")).map(line -> line.substring(line.indexOf(" - ") + 3)))
+                .containsExactly("User john.doe logged in from 192.168.1.1",
+                        "Attempt 1 for jane from 10.0.0.1", "Failed job", "Done ok");
+        // Стек - в том же событии, сразу после сообщения
+        assertThat(lines.get(3)).isEqualTo("java.lang.IllegalStateException: boom");
+        assertThat(lines.get(4)).startsWith("\tat com.example.logging.core.GarbageFreeTest.");
+    }
+
+    @Test
+    void testConsoleEncoderHandlesLongAndNonAsciiText() {
+        PrintStream original = System.out;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(bytes, true, StandardCharsets.UTF_8));
+        try {
+            ConsoleAppender appender = new ConsoleAppender("console", true);
+            String text = "ж😀".repeat(2000) + "\n";
+            appender.append(new LogEvent(0L, LogLevel.INFO, "L", "main", text, null), "x" + text, true);
+        } finally {
+            System.setOut(original);
+        }
+        assertThat(bytes.toString(StandardCharsets.UTF_8)).isEqualTo("x" + "ж😀".repeat(2000) + "\n");
+    }
+
+    @Test
+    void testConsoleLinesFromConcurrentThreadsDoNotInterleave() throws Exception {
+        PrintStream original = System.out;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(bytes, true, StandardCharsets.UTF_8));
+        try {
+            ConsoleAppender appender = new ConsoleAppender("console", true);
+            // Строки длиннее буфера символов кодировщика уходят несколькими write
+            List<Thread> writers = new ArrayList<>();
+            for (char c = 'a'; c < 'e'; c++) {
+                String text = String.valueOf(c).repeat(5000) + "\n";
+                writers.add(Thread.ofPlatform().start(() -> {
+                    for (int i = 0; i < 50; i++) {
+                        appender.append(new LogEvent(0L, LogLevel.INFO, "L", "main", text, null), text, true);
+                    }
+                }));
+            }
+            for (Thread writer : writers) {
+                writer.join();
+            }
+        } finally {
+            System.setOut(original);
+        }
+        List<String> lines = bytes.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines).hasSize(200).allSatisfy(line ->
+                assertThat(line).isEqualTo(String.valueOf(line.charAt(0)).repeat(5000)));
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.logging.core;
+
+import com.example.logging.appender.InMemoryAppender;
+import com.example.logging.config.LogLevel;
+import com.example.logging.config.LoggerConfig;
+import com.example.logging.config.OutputType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoggerLevelsTest {
+
+    private LoggerConfig config;
+    private LoggingLibrary library;
+
+    @BeforeEach
+    void setUp() {
+        config = new LoggerConfig();
+        config.setOutput(OutputType.NONE);
+        config.setLevel(LogLevel.INFO);
+        config.getLevels().put("com.foo", LogLevel.DEBUG);
+        config.getLevels().put("com.foo.bar.Quiet", LogLevel.ERROR);
+        library = new LoggingLibrary(config);
+        library.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        library.cleanup();
+    }
+
+    @Test
+    void testLevelResolvedThroughNearestAncestor() {
+        assertThat(library.getLogger("com.foo.bar.Service").isDebugEnabled()).isTrue();
+        assertThat(library.getLogger("com.foo").isDebugEnabled()).isTrue();
+        assertThat(library.getLogger("com.foo.bar.Quiet").isWarnEnabled()).isFalse();
+        assertThat(library.getLogger("com.foobar.Other").isDebugEnabled()).isFalse();
+        assertThat(library.getLogger("org.other.Type").isInfoEnabled()).isTrue();
+        assertThat(library.getEffectiveLevel("com.foo.baz")).isEqualTo(LogLevel.DEBUG);
+    }
+
+    @Test
+    void testSetLevelUpdatesExistingSubtree() {
+        Logger service = library.getLogger("com.foo.bar.Service");
+        Logger quiet = library.getLogger("com.foo.bar.Quiet");
+        Logger sibling = library.getLogger("com.foobar.Other");
+
+        library.setLevel("com.foo.bar", LogLevel.TRACE);
+
+        assertThat(service.isTraceEnabled()).isTrue();
+        assertThat(quiet.isWarnEnabled()).isFalse();
+        assertThat(sibling.isDebugEnabled()).isFalse();
+
+        library.setLevel("com.foo.bar", null);
+        assertThat(service.isTraceEnabled()).isFalse();
+        assertThat(service.isDebugEnabled()).isTrue();
+    }
+
+    @Test
+    void testRootLevelAndDisable() {
+        Logger other = library.getLogger("org.other.Type");
+        library.setLevel(LoggingLibrary.ROOT_LOGGER_NAME, LogLevel.ERROR);
+        assertThat(other.isWarnEnabled()).isFalse();
+        assertThat(other.isErrorEnabled()).isTrue();
+
+        config.setEnabled(false);
+        library.refreshLevels();
+        assertThat(other.isErrorEnabled()).isFalse();
+        assertThat(library.getLogger("com.foo.New").isErrorEnabled()).isFalse();
+    }
+
+    @Test
+    void testTemporaryLevelExpires() throws InterruptedException {
+        Logger other = library.getLogger("org.other.Type");
+
+        library.setLevel("org.other", LogLevel.TRACE, Duration.ofMillis(200));
+        library.setLevel("org.other", LogLevel.DEBUG, Duration.ofMillis(200));
+        assertThat(other.isDebugEnabled()).isTrue();
+        assertThat(library.getLevelExpirations()).containsKey("org.other");
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (other.isDebugEnabled() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        // Откат к значению до первого временного изменения
+        assertThat(other.isDebugEnabled()).isFalse();
+        assertThat(library.getLevels()).doesNotContainKey("org.other");
+        assertThat(library.getLevelExpirations()).isEmpty();
+    }
+
+    @Test
+    void testPermanentLevelCancelsExpiry() {
+        library.setLevel("com.foo", LogLevel.TRACE, Duration.ofMillis(50));
+        library.setLevel("com.foo", LogLevel.WARN);
+
+        assertThat(library.getLevelExpirations()).isEmpty();
+        assertThat(library.getEffectiveLevel("com.foo.Service")).isEqualTo(LogLevel.WARN);
+    }
+
+    @Test
+    void testPatternAndOutputSwappedAtRuntime() {
+        InMemoryAppender memory = new InMemoryAppender("memory", 10);
+        library.addAppender(memory);
+        Logger logger = library.getLogger("org.other.Type");
+
+        library.setPattern("%level|%msg");
+        logger.info("first");
+        library.setOutput(OutputType.CONSOLE);
+        assertThat(library.getAppender("console")).isNotNull();
+        library.setOutput(OutputType.NONE);
+        assertThat(library.getAppender("console")).isNull();
+        logger.info("second");
+
+        assertThat(memory.getLines()).containsExactly("INFO|first\n", "INFO|second\n");
+        assertThat(library.getPattern()).isEqualTo("%level|%msg");
+    }
+}
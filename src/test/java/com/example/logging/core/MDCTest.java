@@ -0,0 +1,136 @@
+package com.example.logging.core;
+
+import com.example.logging.appender.InMemoryAppender;
+import com.example.logging.config.LogLevel;
+import com.example.logging.config.LoggerConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MDCTest {
+
+    private final TestLibrary test = new TestLibrary();
+    private LoggingLibrary library;
+
+    @AfterEach
+    void tearDown() {
+        MDC.clear();
+        test.stop();
+    }
+
+    private InMemoryAppender start(boolean async) {
+        LoggerConfig config = test.getConfig();
+        config.setLevel(LogLevel.INFO);
+        config.setPattern("%X{requestId}|%X|%msg");
+        config.getAsync().setEnabled(async);
+        library = test.start();
+        return test.addMemory("memory", null);
+    }
+
+    @Test
+    void testContextMapIsCopyOnWrite() {
+        ContextMap empty = ContextMap.EMPTY;
+        ContextMap one = empty.with("a", "1");
+        ContextMap two = one.with("b", "2").with("a", "3");
+
+        assertThat(empty.isEmpty()).isTrue();
+        assertThat(one.toMap()).containsExactly(Map.entry("a", "1"));
+        assertThat(two.toString()).isEqualTo("{a=3, b=2}");
+        assertThat(two.without("a").without("b")).isSameAs(ContextMap.EMPTY);
+        assertThat(one.with("a", "1")).isSameAs(one);
+    }
+
+    @Test
+    void testScopedValueIsRestored() {
+        MDC.put("requestId", "outer");
+        try (MDC.Scope ignored = MDC.putScoped("requestId", "inner")) {
+            assertThat(MDC.get("requestId")).isEqualTo("inner");
+        }
+        assertThat(MDC.get("requestId")).isEqualTo("outer");
+        MDC.remove("requestId");
+        assertThat(MDC.getContext()).isSameAs(ContextMap.EMPTY);
+    }
+
+    @Test
+    void testContextIsCapturedAtCallSiteInAsyncMode() {
+        InMemoryAppender memory = start(true);
+        Logger logger = library.getLogger("mdc");
+
+        MDC.put("requestId", "r-1");
+        MDC.put("tenant", "acme");
+        logger.info("first");
+        // Изменение после вызова не должно попасть в уже поставленное событие
+        MDC.put("requestId", "r-2");
+        MDC.remove("tenant");
+        logger.info("second");
+        test.stop();
+
+        assertThat(memory.getLines()).containsExactly("r-1|requestId=r-1, tenant=acme|first\n",
+                "r-2|requestId=r-2|second\n");
+    }
+
+    @Test
+    void testPropagationToExecutorsAndVirtualThreads() throws Exception {
+        InMemoryAppender memory = start(false);
+        Logger logger = library.getLogger("mdc");
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            // Поток пула создан до установки контекста и сам его не унаследует
+            pool.submit(() -> { }).get();
+            MDC.put("requestId", "r-7");
+
+            pool.submit(MDC.wrap(() -> logger.info("wrapped"))).get();
+            pool.submit(() -> logger.info("plain")).get();
+            MDC.wrap(pool).execute(() -> logger.info("executor"));
+            pool.submit(() -> { }).get();
+
+            AtomicReference<String> seen = new AtomicReference<>();
+            Thread virtual = Thread.ofVirtual().start(MDC.wrap(() -> {
+                seen.set(MDC.get("requestId"));
+                logger.info("virtual");
+            }));
+            virtual.join();
+            assertThat(seen.get()).isEqualTo("r-7");
+
+            // Без wrap() новый поток контекст не наследует
+            Thread plain = Thread.ofVirtual().start(() -> seen.set(MDC.get("requestId")));
+            plain.join();
+            assertThat(seen.get()).isNull();
+
+            Future<String> callable = pool.submit(MDC.wrap(() -> MDC.get("requestId")));
+            assertThat(callable.get()).isEqualTo("r-7");
+        } finally {
+            pool.shutdown();
+        }
+
+        assertThat(memory.getLines()).containsExactly("r-7|requestId=r-7|wrapped\n", "||plain\n",
+                "r-7|requestId=r-7|executor\n", "r-7|requestId=r-7|virtual\n");
+    }
+
+    @Test
+    void testPoolThreadCreatedDuringRequestDoesNotKeepItsContext() throws Exception {
+        InMemoryAppender memory = start(false);
+        Logger logger = library.getLogger("mdc");
+        ExecutorService pool = Executors.newFixedThreadPool(1);
+        try {
+            // Поток пула создаётся первой задачей, пока у отправителя установлен контекст
+            MDC.put("requestId", "r-9");
+            pool.submit(() -> logger.info("first")).get();
+            pool.submit(MDC.wrap(() -> logger.info("wrapped"))).get();
+            MDC.clear();
+            MDC.put("requestId", "r-10");
+            pool.submit(() -> logger.info("plain")).get();
+        } finally {
+            pool.shutdown();
+        }
+
+        assertThat(memory.getLines()).containsExactly("||first\n", "r-9|requestId=r-9|wrapped\n", "||plain\n");
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.logging.core;
+
+import com.example.logging.appender.AppenderRegistry;
+import com.example.logging.appender.InMemoryAppender;
+import com.example.logging.appender.RouteRule;
+import com.example.logging.config.LogLevel;
+import com.example.logging.config.LoggerConfig;
+import com.example.logging.filter.LogFilter;
+import com.example.logging.layout.JsonLayout;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MarkerTest {
+
+    private static final Marker AUDIT = Marker.get("AUDIT");
+    private static final Marker SECURITY = Marker.get("SECURITY");
+
+    private final TestLibrary test = new TestLibrary();
+    private final LoggerConfig config = test.getConfig();
+    private LoggingLibrary library;
+    private InMemoryAppender main;
+    private InMemoryAppender audit;
+
+    private void start() {
+        library = test.start();
+        main = test.addMemory("main", "%level [%marker] %msg");
+        audit = test.addMemory("audit", "%level [%marker] %msg");
+    }
+
+    @AfterEach
+    void tearDown() {
+        test.stop();
+    }
+
+    @Test
+    void testMarkersAreInterned() {
+        assertThat(Marker.get("AUDIT")).isSameAs(AUDIT);
+        assertThat(Marker.find("")).isNull();
+        assertThat(SECURITY.getId()).isNotEqualTo(AUDIT.getId());
+    }
+
+    @Test
+    void testMarkedEventsGoToDedicatedAppender() {
+        LoggerConfig.RouteDefinition route = new LoggerConfig.RouteDefinition();
+        route.setMarker("AUDIT");
+        route.setAppenders(List.of("audit"));
+        config.getRoutes().add(route);
+        start();
+        Logger logger = library.getLogger("com.shop.Admin");
+
+        logger.info("Page opened");
+        logger.info(AUDIT, "Role of {} changed to {}", "bob", "admin");
+        logger.warn(SECURITY, "Login failed for {}", "eve");
+
+        assertThat(main.getLines()).containsExactly("INFO [] Page opened\n", "WARN [SECURITY] Login failed for eve\n");
+        assertThat(audit.getLines()).containsExactly("INFO [AUDIT] Role of bob changed to admin\n");
+
+        // Additive: в свой приёмник и в обычные; правило только для одного пакета
+        library.setRoutes(List.of(new RouteRule(SECURITY, "com.shop", List.of("audit"), true)));
+        main.clear();
+        audit.clear();
+        logger.warn(SECURITY, "Login failed for {}", "eve");
+        library.getLogger("com.other.Api").warn(SECURITY, "Token expired");
+        logger.info(AUDIT, "Not routed any more");
+
+        assertThat(audit.getLines()).containsExactly("WARN [SECURITY] Login failed for eve\n");
+        assertThat(main.getLines()).containsExactly("WARN [SECURITY] Login failed for eve\n",
+                "WARN [SECURITY] Token expired\n", "INFO [AUDIT] Not routed any more\n");
+    }
+
+    @Test
+    void testRouteIsResolvedOncePerLoggerAndMarker() {
+        AppenderRegistry registry = new AppenderRegistry();
+        registry.register(new InMemoryAppender("main", 10));
+        registry.register(new InMemoryAppender("audit", 10));
+        registry.setRoutes(List.of(new RouteRule(AUDIT, null, List.of("audit"), false)));
+
+        AppenderRegistry.Routing routing = registry.getRouting();
+        AppenderRegistry.Route marked = routing.resolve("com.shop.Cart", AUDIT);
+        assertThat(routing.resolve("com.shop.Cart", AUDIT)).isSameAs(marked);
+        assertThat(marked.getAppenders()).extracting(appender -> appender.getName()).containsExactly("audit");
+        assertThat(routing.resolve("com.shop.Cart", null).getAppenders())
+                .extracting(appender -> appender.getName()).containsExactly("main");
+        registry.closeAll();
+    }
+
+    @Test
+    void testMarkerFiltersAndLevelChecks() {
+        start();
+        library.setLevel("com.shop", LogLevel.WARN);
+        library.setFilters(List.of(
+                LogFilter.accept().marker(AUDIT),
+                LogFilter.deny().marker(SECURITY).logger("com.shop.Health")));
+        Logger logger = library.getLogger("com.shop.Cart");
+
+        // Метка AUDIT включает уровни ниже порога логгера, без метки порог прежний
+        assertThat(logger.isEnabled(LogLevel.INFO, AUDIT)).isTrue();
+        assertThat(logger.isEnabled(LogLevel.INFO)).isFalse();
+        assertThat(library.getLogger("com.shop.Health").isEnabled(LogLevel.ERROR, SECURITY)).isFalse();
+        assertThat(library.getLogger("com.shop.Health").isEnabled(LogLevel.ERROR)).isTrue();
+
+        logger.info(AUDIT, "Order {} refunded", 42);
+        logger.info("Cart updated");
+        assertThat(main.getLines()).containsExactly("INFO [AUDIT] Order 42 refunded\n");
+
+        library.setLevel("com.shop", LogLevel.ERROR);
+        library.setFilters(List.of());
+        assertThat(logger.isEnabled(LogLevel.INFO, AUDIT)).isFalse();
+    }
+
+    @Test
+    void testJsonLayoutWritesMarker() {
+        StringBuilder out = new StringBuilder();
+        new JsonLayout().format(new LogEvent(0, LogLevel.INFO, "com.shop.Admin", "main", "Role changed",
+                null, null, ContextMap.EMPTY, AUDIT), out);
+        assertThat(out.toString()).contains("\"logger\":\"com.shop.Admin\",\"marker\":\"AUDIT\",");
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.logging.core;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MessageFormatterTest {
+
+    @Test
+    void testPlaceholders() {
+        assertThat(MessageFormatter.format("User {} logged in from {}", new Object[]{"john.doe", "192.168.1.1"}))
+                .isEqualTo("User john.doe logged in from 192.168.1.1");
+    }
+
+    @Test
+    void testMissingAndExtraArguments() {
+        assertThat(MessageFormatter.format("{} and {}", new Object[]{"a"})).isEqualTo("a and {}");
+        assertThat(MessageFormatter.format("only {}", new Object[]{"a", "b"})).isEqualTo("only a");
+    }
+
+    @Test
+    void testNullsAndArrays() {
+        assertThat(MessageFormatter.format("{} {} {}", new Object[]{null, new int[]{1, 2}, new Object[]{"x", 3}}))
+                .isEqualTo("null [1, 2] [x, 3]");
+    }
+
+    @Test
+    void testEscapedPlaceholder() {
+        assertThat(MessageFormatter.format("\\{} is literal, {} is not", new Object[]{"this"}))
+                .isEqualTo("{} is literal, this is not");
+        assertThat(MessageFormatter.countPlaceholders("\\{} {}")).isEqualTo(1);
+    }
+
+    @Test
+    void testTrailingThrowableIsExtracted() {
+        RuntimeException e = new RuntimeException("boom");
+
+        assertThat(MessageFormatter.extractThrowable("failed {}", new Object[]{"x", e})).isSameAs(e);
+        assertThat(MessageFormatter.extractThrowable("failed {}", new Object[]{e})).isNull();
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.logging.core;
+
+import com.example.logging.appender.InMemoryAppender;
+import com.example.logging.config.LoggerConfig;
+import com.example.logging.config.OutputType;
+import com.example.logging.layout.PatternLayout;
+
+// Библиотека для тестов: конфигурация без вывода (OutputType.NONE), которую тест
+// дополняет до start(), события собираются приёмниками InMemoryAppender.
+// stop() вызывается в @AfterEach; повторный вызов ничего не делает.
+public final class TestLibrary {
+
+    private final LoggerConfig config = new LoggerConfig();
+    private LoggingLibrary library;
+
+    public TestLibrary() {
+        config.setOutput(OutputType.NONE);
+    }
+
+    public LoggerConfig getConfig() {
+        return config;
+    }
+
+    public LoggingLibrary start() {
+        library = new LoggingLibrary(config);
+        library.init();
+        return library;
+    }
+
+    // pattern == null - общий шаблон библиотеки
+    public InMemoryAppender addMemory(String name, String pattern) {
+        InMemoryAppender appender = new InMemoryAppender(name, 10_000);
+        if (pattern != null) {
+            appender.setLayout(new PatternLayout(pattern));
+        }
+        library.addAppender(appender);
+        return appender;
+    }
+
+    // Останавливает библиотеку; в асинхронном режиме - после записи всех событий
+    public void stop() {
+        if (library != null) {
+            library.cleanup();
+            library = null;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.logging.core;
+
+import com.example.logging.appender.InMemoryAppender;
+import com.example.logging.config.LogLevel;
+import com.example.logging.config.LoggerConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ThrottleTest {
+
+    private final TestLibrary test = new TestLibrary();
+    private final LoggerConfig config = test.getConfig();
+    private LoggingLibrary library;
+    private InMemoryAppender memory;
+
+    @BeforeEach
+    void setUp() {
+        config.getRateLimit().setEnabled(true);
+        config.getRateLimit().setReportInterval(0);
+    }
+
+    private void start() {
+        library = test.start();
+        memory = test.addMemory("memory", "%level %msg");
+    }
+
+    @AfterEach
+    void tearDown() {
+        test.stop();
+    }
+
+    @Test
+    void testRateLimiterAllowsBurstThenRate() {
+        RateLimiter limiter = new RateLimiter(10, 3);
+        long now = System.nanoTime();
+
+        assertThat(limiter.tryAcquire(now)).isTrue();
+        assertThat(limiter.tryAcquire(now)).isTrue();
+        assertThat(limiter.tryAcquire(now)).isTrue();
+        assertThat(limiter.tryAcquire(now)).isFalse();
+        // Через 100 мс освобождается ровно один жетон
+        assertThat(limiter.tryAcquire(now + 100_000_000L)).isTrue();
+        assertThat(limiter.tryAcquire(now + 100_000_000L)).isFalse();
+    }
+
+    @Test
+    void testPerSiteLimitAndSuppressedSummary() {
+        config.getRateLimit().setPerSite(5);
+        start();
+        Logger logger = library.getLogger("com.example.Hot");
+
+        for (int i = 0; i < 100; i++) {
+            logger.warn("Connection to {} failed", "db");
+            logger.info("Heartbeat {}", i);
+        }
+        logger.error("Errors are never limited");
+
+        assertThat(memory.getLines()).filteredOn(line -> line.startsWith("WARN")).hasSize(5);
+        assertThat(memory.getLines()).filteredOn(line -> line.startsWith("INFO")).hasSize(5);
+        assertThat(memory.getLines()).contains("ERROR Errors are never limited\n");
+
+        library.reportSuppressed();
+        assertThat(memory.getLines())
+                .contains("WARN 95 similar messages suppressed: Connection to {} failed\n")
+                .contains("INFO 95 similar messages suppressed: Heartbeat {}\n");
+    }
+
+    @Test
+    void testSameTemplateIsThrottledPerLevel() {
+        config.getRateLimit().setPerSite(2);
+        start();
+        Logger logger = library.getLogger("com.example.Hot");
+
+        for (int i = 0; i < 10; i++) {
+            logger.info("Retry {}", i);
+            logger.warn("Retry {}", i);
+        }
+
+        assertThat(memory.getLines()).filteredOn(line -> line.startsWith("INFO")).hasSize(2);
+        assertThat(memory.getLines()).filteredOn(line -> line.startsWith("WARN")).hasSize(2);
+        library.reportSuppressed();
+        assertThat(memory.getLines())
+                .contains("INFO 8 similar messages suppressed: Retry {}\n")
+                .contains("WARN 8 similar messages suppressed: Retry {}\n");
+    }
+
+    @Test
+    void testLimiterRunsBeforeFormatting() {
+        config.getRateLimit().setPerSite(1);
+        start();
+        Logger logger = library.getLogger("com.example.Hot");
+        AtomicInteger renders = new AtomicInteger();
+        Object argument = new Object() {
+            @Override
+            public String toString() {
+                renders.incrementAndGet();
+                return "value";
+            }
+        };
+
+        for (int i = 0; i < 10; i++) {
+            logger.warn("Value {}", argument);
+        }
+
+        assertThat(renders.get()).isEqualTo(1);
+    }
+
+    @Test
+    void testPerLoggerLimitAndSamplingByHierarchy() {
+        config.getRateLimit().getLoggers().put("com.example.limited", 3.0);
+        config.getRateLimit().getSampleRates().put("com.example.sampled", 0.0);
+        start();
+
+        Logger limited = library.getLogger("com.example.limited.Service");
+        for (int i = 0; i < 20; i++) {
+            limited.info("message " + i);
+        }
+        library.getLogger("com.example.sampled.Service").info("never");
+        library.getLogger("com.example.Other").info("always");
+
+        assertThat(memory.getLines()).filteredOn(line -> line.startsWith("INFO message")).hasSize(3);
+        assertThat(memory.getLines()).doesNotContain("INFO never\n").contains("INFO always\n");
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.logging.core;
+
+import com.example.logging.config.LogLevel;
+import com.example.logging.config.LoggerConfig;
+import com.example.logging.config.OutputType;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 100k виртуальных потоков пишут в файл. JFR-событие jdk.VirtualThreadPinned
+// фиксирует каждую парковку виртуального потока, закреплённого за носителем
+// (ожидание внутри synchronized), - ни одного такого события от логирования быть не должно.
+class VirtualThreadLoggingTest {
+
+    private static final int THREADS = 100_000;
+    private static final String CONTROL_THREAD = "pinning-control";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testSynchronousFileLoggingDoesNotPin() throws Exception {
+        assertNoPinning(false);
+    }
+
+    @Test
+    void testAsyncLoggingWithBlockingOverflowDoesNotPin() throws Exception {
+        assertNoPinning(true);
+    }
+
+    private void assertNoPinning(boolean async) throws Exception {
+        Path logFile = dir.resolve("virtual.log");
+        LoggerConfig config = new LoggerConfig();
+        config.setOutput(OutputType.FILE);
+        config.setFilePath(logFile.toString());
+        config.setLevel(LogLevel.INFO);
+        config.setPattern("%thread %msg%n");
+        config.setFlushInterval(0);
+        config.getAsync().setEnabled(async);
+        // Маленький буфер: производители постоянно упираются в политику BLOCK
+        config.getAsync().setBufferSize(256);
+        LoggingLibrary library = new LoggingLibrary(config);
+        library.init();
+        Logger logger = library.getLogger("virtual");
+
+        Path recordingFile = dir.resolve("pinning.jfr");
+        long elapsed;
+        try (Recording recording = new Recording()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.start();
+
+            // Контрольная проверка, что закрепление вообще обнаруживается
+            Object monitor = new Object();
+            Thread.ofVirtual().name(CONTROL_THREAD).start(() -> {
+                synchronized (monitor) {
+                    sleep();
+                }
+            }).join();
+
+            long start = System.nanoTime();
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < THREADS; i++) {
+                    int id = i;
+                    executor.execute(() -> logger.info("request {} done", id));
+                }
+            }
+            library.cleanup();
+            elapsed = System.nanoTime() - start;
+
+            recording.stop();
+            recording.dump(recordingFile);
+        }
+
+        List<RecordedEvent> pinned = RecordingFile.readAllEvents(recordingFile);
+        assertThat(pinned).isNotEmpty();
+        assertThat(pinned).allSatisfy(event ->
+                assertThat(event.getThread() != null ? event.getThread().getJavaName() : CONTROL_THREAD)
+                        .as("pinned at %s", event.getStackTrace())
+                        .isEqualTo(CONTROL_THREAD));
+
+        try (Stream<String> lines = Files.lines(logFile)) {
+            assertThat(lines.filter(line -> line.endsWith(" done")).count()).isEqualTo(THREADS);
+        }
+        assertThat(TimeUnit.NANOSECONDS.toSeconds(elapsed)).isLessThan(60);
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(50);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.logging.filter;
+
+import com.example.logging.appender.InMemoryAppender;
+import com.example.logging.config.FilterResult;
+import com.example.logging.config.LogLevel;
+import com.example.logging.config.LoggerConfig;
+import com.example.logging.core.LogEvent;
+import com.example.logging.core.Logger;
+import com.example.logging.core.LoggingLibrary;
+import com.example.logging.core.MDC;
+import com.example.logging.core.TestLibrary;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FilterChainTest {
+
+    private final TestLibrary test = new TestLibrary();
+    private final LoggerConfig config = test.getConfig();
+    private LoggingLibrary library;
+    private InMemoryAppender memory;
+
+    private void start() {
+        library = test.start();
+        memory = test.addMemory("memory", "%level %logger %msg");
+    }
+
+    @AfterEach
+    void tearDown() {
+        test.stop();
+        MDC.clear();
+    }
+
+    @Test
+    void testStaticFiltersAreFoldedIntoLevelMask() {
+        LoggerConfig.FilterDefinition hibernate = new LoggerConfig.FilterDefinition();
+        hibernate.setLogger("org.hibernate");
+        hibernate.setMaxLevel(LogLevel.INFO);
+        config.setFilters(List.of(hibernate));
+        start();
+
+        Logger noisy = library.getLogger("org.hibernate.SQL");
+        assertThat(noisy.isEnabled(LogLevel.INFO)).isFalse();
+        assertThat(noisy.isEnabled(LogLevel.WARN)).isTrue();
+        assertThat(library.getLogger("org.hibernateX").isEnabled(LogLevel.INFO)).isTrue();
+
+        noisy.info("select 1");
+        noisy.warn("slow query");
+        assertThat(lines()).containsExactly("WARN org.hibernate.SQL slow query");
+
+        // ACCEPT до события включает уровень ниже порога логгера
+        library.setFilters(List.of(LogFilter.accept().logger("com.shop.Cart").maxLevel(LogLevel.DEBUG)
+                .onMismatch(FilterResult.NEUTRAL)));
+        assertThat(library.getLogger("com.shop.Cart").isEnabled(LogLevel.DEBUG)).isTrue();
+        assertThat(library.getLogger("com.shop.Order").isEnabled(LogLevel.DEBUG)).isFalse();
+        assertThat(noisy.isEnabled(LogLevel.INFO)).isTrue();
+
+        library.setFilters(List.of());
+        assertThat(library.getLogger("com.shop.Cart").isEnabled(LogLevel.DEBUG)).isFalse();
+    }
+
+    @Test
+    void testContentFiltersRunOnlyForEnabledLevels() {
+        start();
+        library.setFilters(List.of(
+                LogFilter.deny().message("health check"),
+                LogFilter.deny().mdc("tenant", "test"),
+                LogFilter.deny().exception(IOException.class)));
+        Logger logger = library.getLogger("com.shop.Api");
+
+        logger.info("GET /health check ok");
+        logger.info("GET /cart");
+        logger.error("Read failed", new UncheckedIOException(new EOFException("eof")));
+        logger.error("Bad state", new IllegalStateException("x"));
+        try (MDC.Scope scope = MDC.putScoped("tenant", "test")) {
+            logger.info("test tenant");
+        }
+        try (MDC.Scope scope = MDC.putScoped("tenant", "prod")) {
+            logger.info("prod tenant");
+        }
+
+        assertThat(lines()).containsExactly(
+                "INFO com.shop.Api GET /cart", "ERROR com.shop.Api Bad state", "INFO com.shop.Api prod tenant");
+    }
+
+    @Test
+    void testFirstDecisionWinsAndTailAppliesToContentFilters() {
+        FilterChain chain = new FilterChain(List.of(
+                LogFilter.accept().logger("com.audit"),
+                LogFilter.accept().message("^keep").onMismatch(FilterResult.DENY)));
+
+        // Для com.audit всё решено заранее, включая уровни ниже порога
+        FilterChain.Compiled audit = chain.compile("com.audit.Log", null, LogLevel.WARN);
+        assertThat(audit.getEnabledLevels()).isEqualTo(FilterChain.mask(LogLevel.TRACE));
+        assertThat(audit.hasContentFilters()).isFalse();
+
+        // ACCEPT по содержимому возможен на любом уровне: маска включает всё, решает сообщение
+        FilterChain.Compiled other = chain.compile("com.shop.Cart", null, LogLevel.INFO);
+        assertThat(other.getEnabledLevels()).isEqualTo(FilterChain.mask(LogLevel.TRACE));
+        assertThat(other.hasContentFilters()).isTrue();
+        assertThat(other.accept(event(LogLevel.DEBUG, "keep me"))).isTrue();
+        assertThat(other.accept(event(LogLevel.INFO, "drop me"))).isFalse();
+
+        // Выключенный логгер не включают даже ACCEPT-фильтры
+        assertThat(chain.compile("com.audit.Log", null, null).getEnabledLevels()).isZero();
+
+        // Фильтр содержимого вернул NEUTRAL - решает следующий за ним статический DENY
+        FilterChain tail = new FilterChain(List.of(
+                LogFilter.accept().message("^keep"),
+                LogFilter.deny().maxLevel(LogLevel.INFO)));
+        FilterChain.Compiled compiled = tail.compile("com.shop.Cart", null, LogLevel.WARN);
+        assertThat(compiled.accept(event(LogLevel.INFO, "keep me"))).isTrue();
+        assertThat(compiled.accept(event(LogLevel.INFO, "drop me"))).isFalse();
+        assertThat(compiled.accept(event(LogLevel.ERROR, "drop me"))).isTrue();
+        // Ниже порога и без ACCEPT по содержимому - отказ по уровню логгера
+        assertThat(compiled.accept(event(LogLevel.DEBUG, "drop me"))).isFalse();
+    }
+
+    // Первая строка каждой записи, без стека исключения
+    private List<String> lines() {
+        return memory.getLines().stream().map(line -> line.lines().findFirst().orElse("")).toList();
+    }
+
+    private static LogEvent event(LogLevel level, String message) {
+        return new LogEvent(0, level, "com.shop.Cart", "main", message, null);
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.logging.index;
+
+import com.example.logging.appender.LogQuery;
+import com.example.logging.appender.RollingFileAppender;
+import com.example.logging.config.Durability;
+import com.example.logging.config.LogLevel;
+import com.example.logging.core.LogEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LogSearchTest {
+
+    @TempDir
+    Path dir;
+
+    private RollingFileAppender appender(long maxFileSize, boolean compress) throws IOException {
+        RollingFileAppender appender = new RollingFileAppender("file", dir.resolve("app.log").toString(),
+                maxFileSize, 0, compress, 64 * 1024, 0, Durability.NONE, ZoneOffset.UTC);
+        appender.setIndexed(true);
+        appender.open();
+        return appender;
+    }
+
+    private static void append(RollingFileAppender appender, long timestamp, LogLevel level, String logger,
+                               String message) {
+        appender.append(new LogEvent(timestamp, level, logger, "main", message, null),
+                level + " " + logger + " - " + message + "\n", true);
+    }
+
+    // 20000 событий INFO и десять ERROR в середине
+    private static long writeOrders(RollingFileAppender appender) {
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < 20_000; i++) {
+            append(appender, start + i, LogLevel.INFO, "com.shop.Cart", "item added to cart " + i);
+            if (i >= 10_000 && i < 10_010) {
+                append(appender, start + i, LogLevel.ERROR, "com.shop.Payment", "gateway timeout order=" + i);
+            }
+        }
+        return start;
+    }
+
+    @Test
+    void testIndexSelectsOnlyMatchingBlocks() throws IOException {
+        RollingFileAppender appender = appender(0, false);
+        long start = writeOrders(appender);
+        appender.close();
+
+        LogSearch search = new LogSearch(LogQuery.all().level(LogLevel.WARN));
+        List<LogSearchHit> errors = search.search(dir.resolve("app.log"));
+        assertThat(errors).hasSize(10).allSatisfy(hit -> {
+            assertThat(hit.getLevel()).isEqualTo(LogLevel.ERROR);
+            assertThat(hit.getLoggerName()).isEqualTo("com.shop.Payment");
+        });
+        assertThat(errors.get(0).getText()).isEqualTo("ERROR com.shop.Payment - gateway timeout order=10000\n");
+        assertThat(errors.get(0).getTimestamp()).isEqualTo(start + 10_000);
+        assertThat(search.getBlocksTotal()).isGreaterThan(5);
+        assertThat(search.getBlocksRead()).isEqualTo(1);
+
+        // Смещение найденного события указывает на его строку в файле
+        byte[] log = Files.readAllBytes(dir.resolve("app.log"));
+        assertThat(new String(log, (int) errors.get(9).getOffset(), errors.get(9).getText().length(),
+                StandardCharsets.UTF_8)).isEqualTo(errors.get(9).getText());
+
+        LogSearch byText = new LogSearch(LogQuery.all().contains("order=10005"));
+        assertThat(byText.search(dir.resolve("app.log"))).extracting(LogSearchHit::getText)
+                .containsExactly("ERROR com.shop.Payment - gateway timeout order=10005\n");
+        assertThat(byText.getBlocksRead()).isLessThan(byText.getBlocksTotal());
+
+        LogSearch byTime = new LogSearch(LogQuery.all().logger("com.shop").limit(3)
+                .from(Instant.ofEpochMilli(start + 500)).to(Instant.ofEpochMilli(start + 510)));
+        assertThat(byTime.search(dir.resolve("app.log"))).extracting(LogSearchHit::getText)
+                .containsExactly("INFO com.shop.Cart - item added to cart 507\n",
+                        "INFO com.shop.Cart - item added to cart 508\n",
+                        "INFO com.shop.Cart - item added to cart 509\n");
+        assertThat(byTime.getBlocksRead()).isEqualTo(1);
+    }
+
+    @Test
+    void testCompressedArchivesAreSearchedBlockByBlock() throws IOException {
+        RollingFileAppender appender = appender(300 * 1024, true);
+        writeOrders(appender);
+        appender.close();
+
+        List<String> names;
+        try (Stream<Path> files = Files.list(dir)) {
+            names = files.map(p -> p.getFileName().toString()).sorted().collect(Collectors.toList());
+        }
+        assertThat(names).anyMatch(name -> name.endsWith(".0.log.gz")).anyMatch(name -> name.endsWith(".0.log.idx"))
+                .noneMatch(name -> name.endsWith(".0.log"));
+
+        LogSearch search = new LogSearch(LogQuery.all().level(LogLevel.ERROR));
+        List<LogSearchHit> errors = search.search(dir.resolve("app.log"));
+        assertThat(errors).extracting(LogSearchHit::getText).hasSize(10)
+                .first().isEqualTo("ERROR com.shop.Payment - gateway timeout order=10000\n");
+        assertThat(errors).anyMatch(hit -> hit.getFile().toString().endsWith(".gz"));
+        assertThat(search.getBlocksRead()).isLessThanOrEqualTo(2);
+
+        // Архив из отдельных gzip-членов читается обычным gunzip
+        long lines = 0;
+        for (Path file : LogSearch.files(dir.resolve("app.log"))) {
+            try (InputStream in = file.toString().endsWith(".gz")
+                    ? new GZIPInputStream(Files.newInputStream(file)) : Files.newInputStream(file)) {
+                lines += new String(in.readAllBytes(), StandardCharsets.UTF_8).lines().count();
+            }
+        }
+        assertThat(lines).isEqualTo(20_010);
+    }
+
+    @Test
+    void testTruncatedIndexAndUnindexedTailAreStillSearched() throws IOException {
+        RollingFileAppender appender = appender(0, false);
+        writeOrders(appender);
+        appender.close();
+
+        // Аварийная остановка: индекс оборван, в лог дописано то, чего в индексе нет
+        Path log = dir.resolve("app.log");
+        Path index = LogIndexFormat.indexFor(log);
+        try (FileChannel channel = FileChannel.open(index, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 100);
+        }
+        Files.writeString(log, "ERROR com.shop.Payment - gateway timeout order=99999\n", StandardOpenOption.APPEND);
+
+        LogSearch search = new LogSearch(LogQuery.all().contains("gateway timeout"));
+        assertThat(search.search(log)).extracting(LogSearchHit::getText).hasSize(11)
+                .last().isEqualTo("ERROR com.shop.Payment - gateway timeout order=99999\n");
+
+        // После перезапуска приёмника непокрытые участки записаны в индекс как 'U', новые события индексируются
+        appender = appender(0, false);
+        append(appender, System.currentTimeMillis(), LogLevel.ERROR, "com.shop.Payment", "gateway timeout again");
+        appender.close();
+        LogIndex reopened = LogIndexReader.read(index, Files.size(log));
+        assertThat(reopened.getBlocks()).filteredOn(block -> !block.isIndexed()).hasSize(1);
+        assertThat(reopened.getBlocks().get(reopened.getBlocks().size() - 1).isIndexed()).isTrue();
+        assertThat(new LogSearch(LogQuery.all().contains("gateway timeout")).search(log)).hasSize(12);
+    }
+}
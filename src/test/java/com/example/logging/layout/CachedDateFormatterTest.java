@@ -0,0 +1,57 @@
+package com.example.logging.layout;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachedDateFormatterTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Europe/Moscow");
+    private static final long[] TIMESTAMPS = {
+            0L, 999L, 1000L, 1_700_000_000_001L, 1_700_000_000_999L, 1_700_000_001_000L, -1L, -1001L
+    };
+
+    private void assertMatchesDateTimeFormatter(String pattern) {
+        CachedDateFormatter cached = new CachedDateFormatter(pattern, ZONE);
+        DateTimeFormatter reference = DateTimeFormatter.ofPattern(pattern).withZone(ZONE);
+
+        for (long timestamp : TIMESTAMPS) {
+            assertThat(cached.format(timestamp))
+                    .as("%s @ %d", pattern, timestamp)
+                    .isEqualTo(reference.format(Instant.ofEpochMilli(timestamp)));
+        }
+    }
+
+    @Test
+    void testDefaultPattern() {
+        assertMatchesDateTimeFormatter(DateConverter.DEFAULT_PATTERN);
+    }
+
+    @Test
+    void testMillisInTheMiddle() {
+        assertMatchesDateTimeFormatter("HH:mm:ss,SSS 'at' dd.MM.yyyy");
+    }
+
+    @Test
+    void testPatternWithoutMillis() {
+        assertMatchesDateTimeFormatter("yyyy-MM-dd HH:mm:ss");
+    }
+
+    @Test
+    void testFallbackPatterns() {
+        assertMatchesDateTimeFormatter("HH:mm:ss.SSSSSS");
+        assertMatchesDateTimeFormatter("'SSS' HH:mm:ss.SS");
+    }
+
+    @Test
+    void testMillisFieldDetection() {
+        assertThat(CachedDateFormatter.findMillisField("HH:mm:ss.SSS")).containsExactly(9, 12);
+        assertThat(CachedDateFormatter.findMillisField("HH:mm:ss")).isEmpty();
+        assertThat(CachedDateFormatter.findMillisField("'SSS' HH:mm:ss")).isEmpty();
+        assertThat(CachedDateFormatter.findMillisField("HH:mm:ss.SSSSSS")).isNull();
+    }
+}
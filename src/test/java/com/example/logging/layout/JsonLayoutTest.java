@@ -0,0 +1,128 @@
+package com.example.logging.layout;
+
+import com.example.logging.appender.InMemoryAppender;
+import com.example.logging.config.LogLevel;
+import com.example.logging.config.LoggerConfig;
+import com.example.logging.config.OutputType;
+import com.example.logging.core.ContextMap;
+import com.example.logging.core.KeyValue;
+import com.example.logging.core.LogEvent;
+import com.example.logging.core.Logger;
+import com.example.logging.core.LoggingLibrary;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JsonLayoutTest {
+
+    private final JsonLayout layout = new JsonLayout(ZoneOffset.UTC);
+
+    private String render(LogEvent event) {
+        StringBuilder out = new StringBuilder();
+        layout.format(event, out);
+        return out.toString();
+    }
+
+    @Test
+    void testBasicFields() {
+        String json = render(new LogEvent(0L, LogLevel.INFO, "com.foo.Bar", "main", "hello", null));
+
+        assertThat(json).isEqualTo("{\"timestamp\":\"1970-01-01T00:00:00.000Z\",\"level\":\"INFO\","
+                + "\"thread\":\"main\",\"logger\":\"com.foo.Bar\",\"message\":\"hello\"}\n");
+    }
+
+    @Test
+    void testEscaping() {
+        String json = render(new LogEvent(0L, LogLevel.WARN, "L", "t\"1",
+                "quote \" slash \\ line\nbreak\ttab \u0001 \u2028", null));
+
+        assertThat(json).contains("\"thread\":\"t\\\"1\"")
+                .contains("\"message\":\"quote \\\" slash \\\\ line\\nbreak\\ttab \\u0001 \\u2028\"")
+                .endsWith("}\n");
+        assertThat(json.indexOf('\n')).isEqualTo(json.length() - 1);
+    }
+
+    @Test
+    void testKeyValueParametersBecomeFields() {
+        Object[] parameters = {KeyValue.of("orderId", 42L), KeyValue.of("amount", 9.5),
+                KeyValue.of("paid", true), KeyValue.of("customer", "Анна \"A\""), KeyValue.of("note", null)};
+        String json = render(new LogEvent(0L, LogLevel.INFO, "L", "main", "order {} {}", parameters, null));
+
+        assertThat(json).contains("\"message\":\"order orderId=42 amount=9.5\"")
+                .endsWith(",\"orderId\":42,\"amount\":9.5,\"paid\":true,\"customer\":\"Анна \\\"A\\\"\","
+                        + "\"note\":null}\n");
+    }
+
+    @Test
+    void testMdcIsNestedObject() {
+        ContextMap context = ContextMap.EMPTY.with("requestId", "r-1").with("tenant", "a\"b");
+        String json = render(new LogEvent(0L, LogLevel.INFO, "L", "main", "m", null, null, context));
+
+        assertThat(json).endsWith("\"message\":\"m\",\"mdc\":{\"requestId\":\"r-1\",\"tenant\":\"a\\\"b\"}}\n");
+    }
+
+    @Test
+    void testExceptionIsSingleEscapedField() {
+        IllegalStateException error = new IllegalStateException("outer", new IllegalArgumentException("in\"ner"));
+        String json = render(new LogEvent(0L, LogLevel.ERROR, "L", "main", "failed", error));
+
+        assertThat(json).contains("\"exception\":\"java.lang.IllegalStateException: outer\\n\\tat ")
+                // Причина создана в той же строке: все её кадры общие, как у printStackTrace
+                .contains("\\nCaused by: java.lang.IllegalArgumentException: in\\\"ner\\n\\t... ")
+                .endsWith("\"}\n");
+        assertThat(json.indexOf('\n')).isEqualTo(json.length() - 1);
+    }
+
+    @Test
+    void testReservedKeyValueNamesArePrefixed() {
+        Object[] parameters = {KeyValue.of("level", "gold"), KeyValue.of("message", "m2"), KeyValue.of("tier", 2)};
+        String json = render(new LogEvent(0L, LogLevel.INFO, "L", "main", "customer", parameters, null));
+
+        assertThat(json).isEqualTo("{\"timestamp\":\"1970-01-01T00:00:00.000Z\",\"level\":\"INFO\","
+                + "\"thread\":\"main\",\"logger\":\"L\",\"message\":\"customer\","
+                + "\"kv.level\":\"gold\",\"kv.message\":\"m2\",\"tier\":2}\n");
+    }
+
+    @Test
+    void testDuplicateKeyValueFieldsKeepLastValue() {
+        Object[] parameters = {KeyValue.of("orderId", 1), KeyValue.of("level", "gold"), KeyValue.of("tier", 2),
+                KeyValue.of("orderId", 3), KeyValue.of("kv.level", "silver")};
+        String json = render(new LogEvent(0L, LogLevel.INFO, "L", "main", "customer", parameters, null));
+
+        assertThat(json).isEqualTo("{\"timestamp\":\"1970-01-01T00:00:00.000Z\",\"level\":\"INFO\","
+                + "\"thread\":\"main\",\"logger\":\"L\",\"message\":\"customer\","
+                + "\"tier\":2,\"orderId\":3,\"kv.level\":\"silver\"}\n");
+        assertThatThrownBy(() -> KeyValue.of(null, 1)).isInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    void testKeyValuesKeptWhenExceptionIsLastArgument() {
+        LoggerConfig config = new LoggerConfig();
+        config.setOutput(OutputType.NONE);
+        LoggingLibrary library = new LoggingLibrary(config);
+        library.init();
+        InMemoryAppender memory = new InMemoryAppender("memory", 10);
+        memory.setLayout(layout);
+        library.addAppender(memory);
+        Logger logger = library.getLogger("com.shop.Billing");
+
+        IllegalStateException error = new IllegalStateException("declined");
+        logger.error("Payment {} failed", KeyValue.of("orderId", 42L), error);
+        logger.error("Refund {} failed: {} {}", error, KeyValue.of("orderId", 43L), KeyValue.of("reason", "fraud"),
+                KeyValue.of("retry", false));
+        library.cleanup();
+
+        assertThat(memory.getLines()).hasSize(2);
+        assertThat(memory.getLines().get(0))
+                .contains("\"message\":\"Payment orderId=42 failed\"")
+                .contains("\"exception\":\"java.lang.IllegalStateException: declined\\n\\tat ")
+                .endsWith(",\"orderId\":42}\n");
+        assertThat(memory.getLines().get(1))
+                .contains("\"message\":\"Refund orderId=43 failed: reason=fraud retry=false\"")
+                .contains("\"exception\":\"java.lang.IllegalStateException: declined")
+                .endsWith(",\"orderId\":43,\"reason\":\"fraud\",\"retry\":false}\n");
+    }
+}
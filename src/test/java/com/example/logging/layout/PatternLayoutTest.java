@@ -0,0 +1,64 @@
+package com.example.logging.layout;
+
+import com.example.logging.config.LogLevel;
+import com.example.logging.core.LogEvent;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PatternLayoutTest {
+
+    private static final String NL = System.lineSeparator();
+
+    private LogEvent event(String loggerName, LogLevel level, String message) {
+        return new LogEvent(0L, level, loggerName, "main", message, null);
+    }
+
+    @Test
+    void testBasicConverters() {
+        PatternLayout layout = new PatternLayout("[%thread] %level %logger - %msg%n");
+
+        String line = layout.render(event("FormatLogger", LogLevel.INFO, "hello"));
+
+        assertThat(line).isEqualTo("[main] INFO FormatLogger - hello" + NL);
+    }
+
+    @Test
+    void testLevelPadding() {
+        PatternLayout layout = new PatternLayout("%-5level|%5level|");
+
+        assertThat(layout.render(event("L", LogLevel.WARN, "m"))).isEqualTo("WARN | WARN|" + NL);
+    }
+
+    @Test
+    void testLoggerAbbreviation() {
+        PatternLayout layout = new PatternLayout("%logger{36}");
+
+        String line = layout.render(event("com.example.logging.benchmark.PatternLayoutBenchmark", LogLevel.INFO, "m"));
+
+        assertThat(line).isEqualTo("c.e.l.b.PatternLayoutBenchmark" + NL);
+    }
+
+    @Test
+    void testShortLoggerNameIsNotAbbreviated() {
+        PatternLayout layout = new PatternLayout("%logger{36}");
+
+        assertThat(layout.render(event("com.example.Foo", LogLevel.INFO, "m"))).isEqualTo("com.example.Foo" + NL);
+    }
+
+    @Test
+    void testDatePattern() {
+        PatternLayout layout = new PatternLayout("%d{yyyy}");
+
+        String line = layout.render(event("L", LogLevel.INFO, "m"));
+
+        assertThat(line).matches("19(69|70)" + NL);
+    }
+
+    @Test
+    void testLiteralsAndUnknownSpecifiers() {
+        PatternLayout layout = new PatternLayout("100%% %foo %msg");
+
+        assertThat(layout.render(event("L", LogLevel.INFO, "m"))).isEqualTo("100% %foo m" + NL);
+    }
+}
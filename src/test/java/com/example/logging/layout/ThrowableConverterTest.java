@@ -0,0 +1,143 @@
+package com.example.logging.layout;
+
+import com.example.logging.appender.InMemoryAppender;
+import com.example.logging.config.LogLevel;
+import com.example.logging.config.LoggerConfig;
+import com.example.logging.config.OutputType;
+import com.example.logging.core.LogEvent;
+import com.example.logging.core.LoggingLibrary;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ThrowableConverterTest {
+
+    private static final String NL = System.lineSeparator();
+
+    private static StackTraceElement frame(String className, String method, int line) {
+        String file = className.substring(className.lastIndexOf('.') + 1) + ".java";
+        return new StackTraceElement(className, method, file, line);
+    }
+
+    private static <T extends Throwable> T withTrace(T throwable, StackTraceElement... frames) {
+        throwable.setStackTrace(frames);
+        return throwable;
+    }
+
+    private static final StackTraceElement[] SERVICE_TRACE = {
+            frame("com.shop.OrderService", "place", 42),
+            frame("org.springframework.aop.framework.ReflectiveMethodInvocation", "proceed", 186),
+            frame("org.springframework.aop.framework.CglibAopProxy", "intercept", 713),
+            frame("com.shop.OrderController", "create", 17),
+            frame("java.lang.Thread", "run", 1583)
+    };
+
+    private static IllegalStateException failure(String message) {
+        RuntimeException cause = withTrace(new RuntimeException("timeout"), frame("com.shop.Client", "send", 3));
+        return withTrace(new IllegalStateException(message, cause), SERVICE_TRACE);
+    }
+
+    private static String render(String pattern, Throwable throwable) {
+        return new PatternLayout(pattern).render(new LogEvent(0L, LogLevel.ERROR, "L", "main", "failed", throwable));
+    }
+
+    @Test
+    void testTraceFollowsMessageWithoutExplicitConverter() {
+        IllegalStateException error = withTrace(new IllegalStateException("boom"), SERVICE_TRACE);
+
+        assertThat(render("%msg", error)).isEqualTo("failed" + NL
+                + "java.lang.IllegalStateException: boom" + NL
+                + "\tat com.shop.OrderService.place(OrderService.java:42)" + NL
+                + "\tat org.springframework.aop.framework.ReflectiveMethodInvocation.proceed(ReflectiveMethodInvocation.java:186)" + NL
+                + "\tat org.springframework.aop.framework.CglibAopProxy.intercept(CglibAopProxy.java:713)" + NL
+                + "\tat com.shop.OrderController.create(OrderController.java:17)" + NL
+                + "\tat java.lang.Thread.run(Thread.java:1583)" + NL);
+        // Без исключения шаблон не меняется, "%msg%ex" - то же, что "%msg%n%ex"
+        assertThat(new PatternLayout("%msg%ex").render(new LogEvent(0L, LogLevel.INFO, "L", "main", "ok", null)))
+                .isEqualTo("ok" + NL);
+        assertThat(render("%msg%ex", error)).isEqualTo(render("%msg%n", error));
+    }
+
+    @Test
+    void testDepthAndPackageFiltering() {
+        IllegalStateException error = withTrace(new IllegalStateException("boom"), SERVICE_TRACE);
+
+        assertThat(render("%msg%n%ex{2, org.springframework.aop}", error)).isEqualTo("failed" + NL
+                + "java.lang.IllegalStateException: boom" + NL
+                + "\tat com.shop.OrderService.place(OrderService.java:42)" + NL
+                + "\t... 2 frames filtered" + NL
+                + "\tat com.shop.OrderController.create(OrderController.java:17)" + NL
+                + "\t... 1 frames truncated" + NL);
+    }
+
+    @Test
+    void testTruncatedCountExcludesFilteredFrames() {
+        IllegalStateException error = withTrace(new IllegalStateException("boom"), SERVICE_TRACE);
+
+        assertThat(render("%msg%n%ex{1, java.lang}", error)).isEqualTo("failed" + NL
+                + "java.lang.IllegalStateException: boom" + NL
+                + "\tat com.shop.OrderService.place(OrderService.java:42)" + NL
+                + "\t... 3 frames truncated" + NL);
+    }
+
+    @Test
+    void testCommonFramesAndCauseLimit() {
+        RuntimeException root = withTrace(new RuntimeException("disk"),
+                frame("com.shop.Storage", "write", 9), SERVICE_TRACE[3], SERVICE_TRACE[4]);
+        IllegalArgumentException middle = withTrace(new IllegalArgumentException("bad", root),
+                frame("com.shop.Validator", "check", 5), SERVICE_TRACE[3], SERVICE_TRACE[4]);
+        IllegalStateException error = withTrace(new IllegalStateException("boom", middle), SERVICE_TRACE);
+
+        String full = render("%m%n%ex", error);
+        assertThat(full).contains(NL + "Caused by: java.lang.IllegalArgumentException: bad" + NL
+                        + "\tat com.shop.Validator.check(Validator.java:5)" + NL + "\t... 2 more" + NL)
+                .endsWith("Caused by: java.lang.RuntimeException: disk" + NL
+                        + "\tat com.shop.Storage.write(Storage.java:9)" + NL + "\t... 2 more" + NL);
+
+        assertThat(render("%m%n%ex{causes=1}", error))
+                .endsWith("\tat java.lang.Thread.run(Thread.java:1583)" + NL + "\t... 2 causes omitted" + NL);
+    }
+
+    @Test
+    void testRepeatedStackIsReplacedByReference() {
+        PatternLayout layout = new PatternLayout("%msg%n%ex{dedupe}");
+        StackTraceElement[] other = {frame("com.shop.Other", "run", 1)};
+
+        String first = layout.render(new LogEvent(0L, LogLevel.ERROR, "L", "main", "a", failure("order 1")));
+        String second = layout.render(new LogEvent(0L, LogLevel.ERROR, "L", "main", "b", failure("order 2")));
+        String third = layout.render(new LogEvent(0L, LogLevel.ERROR, "L", "main", "c",
+                withTrace(new IllegalStateException("order 3"), other)));
+
+        String id = first.substring(first.indexOf("[stack #") + 8, first.indexOf(']'));
+        assertThat(first).startsWith("a" + NL + "java.lang.IllegalStateException: order 1 [stack #" + id + "]" + NL
+                + "\tat com.shop.OrderService.place(OrderService.java:42)" + NL);
+        // Другое сообщение, та же структура - одна строка со ссылкой и причины без кадров
+        assertThat(second).isEqualTo("b" + NL
+                + "java.lang.IllegalStateException: order 2 [stack #" + id + ", repeat 1]" + NL
+                + "Caused by: java.lang.RuntimeException: timeout" + NL);
+        assertThat(third).contains("\tat com.shop.Other.run(Other.java:1)").doesNotContain(id);
+    }
+
+    @Test
+    void testErrorWithThrowableIsSingleEvent() {
+        LoggerConfig config = new LoggerConfig();
+        config.setOutput(OutputType.NONE);
+        config.setLevel(LogLevel.INFO);
+        config.setPattern("%level %msg%n%ex{1}");
+        LoggingLibrary library = new LoggingLibrary(config);
+        library.init();
+        try {
+            InMemoryAppender memory = new InMemoryAppender("memory", 10);
+            library.addAppender(memory);
+            library.getLogger("errors").error("Request failed",
+                    withTrace(new IllegalStateException("boom"), SERVICE_TRACE));
+
+            assertThat(memory.getLines()).containsExactly("ERROR Request failed" + NL
+                    + "java.lang.IllegalStateException: boom" + NL
+                    + "\tat com.shop.OrderService.place(OrderService.java:42)" + NL
+                    + "\t... 4 frames truncated" + NL);
+        } finally {
+            library.cleanup();
+        }
+    }
+}
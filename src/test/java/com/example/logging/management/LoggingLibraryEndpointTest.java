@@ -0,0 +1,140 @@
+package com.example.logging.management;
+
+import com.example.logging.appender.MemoryLogEntry;
+import com.example.logging.autoconfigure.LoggingLibraryAutoConfiguration;
+import com.example.logging.config.LogLevel;
+import com.example.logging.core.LoggingLibrary;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.InvocationContext;
+import org.springframework.boot.actuate.endpoint.OperationType;
+import org.springframework.boot.actuate.endpoint.SecurityContext;
+import org.springframework.boot.actuate.endpoint.invoke.convert.ConversionServiceParameterValueMapper;
+import org.springframework.boot.actuate.endpoint.invoke.reflect.OperationMethod;
+import org.springframework.boot.actuate.endpoint.invoke.reflect.ReflectiveOperationInvoker;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoggingLibraryEndpointTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(LoggingLibraryAutoConfiguration.class))
+            .withPropertyValues("logging.library.output=NONE", "logging.library.levels.com.foo=WARN");
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testEndpointReadsAndChangesLevels() {
+        contextRunner.run(context -> {
+            LoggingLibraryEndpoint endpoint = context.getBean(LoggingLibraryEndpoint.class);
+            LoggingLibrary library = context.getBean(LoggingLibrary.class);
+
+            assertThat((Map<String, LogLevel>) endpoint.configuration().get("levels"))
+                    .containsEntry("com.foo", LogLevel.WARN);
+
+            endpoint.configureLevel("com.foo.bar", LogLevel.DEBUG, Duration.ofMinutes(10));
+            assertThat(library.getLogger("com.foo.bar.Service").isDebugEnabled()).isTrue();
+            assertThat(endpoint.logger("com.foo.bar"))
+                    .containsEntry("configuredLevel", LogLevel.DEBUG)
+                    .containsEntry("effectiveLevel", LogLevel.DEBUG)
+                    .containsKey("expiresIn");
+
+            // Временный сброс не поддерживается: 400, а не молчаливый постоянный сброс
+            assertThatThrownBy(() -> endpoint.configureLevel("com.foo.bar", null, Duration.ofMinutes(5)))
+                    .isInstanceOf(InvalidEndpointRequestException.class);
+            assertThat(endpoint.logger("com.foo.bar")).containsEntry("configuredLevel", LogLevel.DEBUG);
+
+            endpoint.configureLevel("com.foo.bar", null, null);
+            assertThat(library.getLogger("com.foo.bar.Service").isDebugEnabled()).isFalse();
+            assertThat(endpoint.logger("com.foo.bar")).containsEntry("effectiveLevel", LogLevel.WARN);
+
+            endpoint.configure("%msg%n", null, null, false);
+            assertThat(library.getPattern()).isEqualTo("%msg%n");
+            assertThat(library.getLogger("com.foo.bar.Service").isErrorEnabled()).isFalse();
+            assertThat(library.getLogger("com.foo.New").isErrorEnabled()).isFalse();
+            assertThat(endpoint.configuration()).containsEntry("enabled", false);
+        });
+    }
+
+    // Вызов так, как его делает actuator для HTTP/JMX: строковые аргументы, отсутствующие не передаются
+    private static Object invoke(Object endpoint, String operation, OperationType type, Object... arguments) {
+        Method method = Arrays.stream(endpoint.getClass().getMethods())
+                .filter(candidate -> candidate.getName().equals(operation)).findFirst().orElseThrow();
+        Map<String, Object> values = new HashMap<>();
+        for (int i = 0; i < arguments.length; i += 2) {
+            values.put((String) arguments[i], arguments[i + 1]);
+        }
+        return new ReflectiveOperationInvoker(endpoint, new OperationMethod(method, type),
+                new ConversionServiceParameterValueMapper()).invoke(new InvocationContext(SecurityContext.NONE, values));
+    }
+
+    @Test
+    void testOmittedParametersAreOptionalThroughOperationInvoker() {
+        contextRunner.run(context -> {
+            LoggingLibraryEndpoint endpoint = context.getBean(LoggingLibraryEndpoint.class);
+            LoggingLibrary library = context.getBean(LoggingLibrary.class);
+
+            invoke(endpoint, "configureLevel", OperationType.WRITE, "name", "com.foo.bar", "level", "DEBUG");
+            assertThat(library.getLogger("com.foo.bar.Service").isDebugEnabled()).isTrue();
+            assertThat(library.getLevelExpirations()).doesNotContainKey("com.foo.bar");
+
+            invoke(endpoint, "configureLevel", OperationType.WRITE, "name", "com.foo.bar", "level", "TRACE",
+                    "duration", "10m");
+            assertThat(library.getLevelExpirations()).containsKey("com.foo.bar");
+
+            invoke(endpoint, "configureLevel", OperationType.WRITE, "name", "com.foo.bar");
+            assertThat(library.getLevels()).doesNotContainKey("com.foo.bar");
+
+            invoke(endpoint, "configure", OperationType.WRITE, "pattern", "%msg%n");
+            assertThat(library.getPattern()).isEqualTo("%msg%n");
+            assertThat(library.isEnabled()).isTrue();
+        });
+    }
+
+    @Test
+    void testRecentLogsEndpointQueriesMemoryAppender() {
+        contextRunner.withPropertyValues("logging.library.appenders.recent.type=MEMORY",
+                "logging.library.appenders.recent.pattern=%level %logger %msg%n").run(context -> {
+            RecentLogsEndpoint endpoint = context.getBean(RecentLogsEndpoint.class);
+            LoggingLibrary library = context.getBean(LoggingLibrary.class);
+            library.getLogger("com.foo.Service").warn("slow call {}", 1);
+            library.getLogger("com.foo.Service").error("call failed");
+            library.getLogger("com.bar.Job").error("job failed");
+
+            assertThat(endpoint.events(null, "com.foo", "failed", null, null, Duration.ofMinutes(5), null))
+                    .extracting(MemoryLogEntry::getText)
+                    .containsExactly("ERROR com.foo.Service call failed" + System.lineSeparator());
+            assertThat(endpoint.events(LogLevel.ERROR, null, null, null, null, null, 1))
+                    .extracting(MemoryLogEntry::getLoggerName).containsExactly("com.bar.Job");
+        });
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRecentLogsQueryParametersAreOptionalThroughOperationInvoker() {
+        contextRunner.withPropertyValues("logging.library.appenders.recent.type=MEMORY").run(context -> {
+            RecentLogsEndpoint endpoint = context.getBean(RecentLogsEndpoint.class);
+            LoggingLibrary library = context.getBean(LoggingLibrary.class);
+            library.getLogger("com.foo.Service").warn("slow call");
+            library.getLogger("com.foo.Service").error("call failed");
+
+            assertThat((List<MemoryLogEntry>) invoke(endpoint, "events", OperationType.READ)).hasSize(2);
+            assertThat((List<MemoryLogEntry>) invoke(endpoint, "events", OperationType.READ, "level", "WARN",
+                    "since", "15m")).hasSize(2);
+            assertThat((List<MemoryLogEntry>) invoke(endpoint, "events", OperationType.READ, "level", "ERROR"))
+                    .extracting(MemoryLogEntry::getLevel).containsExactly(LogLevel.ERROR);
+
+            assertThatThrownBy(() -> invoke(endpoint, "events", OperationType.READ, "from", "yesterday"))
+                    .isInstanceOf(InvalidEndpointRequestException.class);
+        });
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.logging.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class LatencyHistogramTest {
+
+    @Test
+    void testBucketBoundsCoverEveryValue() {
+        long previousHighest = -1;
+        for (int i = 0; i < LatencyHistogram.BUCKET_COUNT; i++) {
+            long highest = LatencyHistogram.highestValue(i);
+            assertThat(LatencyHistogram.bucketIndex(previousHighest + 1)).isEqualTo(i);
+            assertThat(LatencyHistogram.bucketIndex(highest)).isEqualTo(i);
+            // Относительная ширина корзины не больше 1/16
+            assertThat(highest - previousHighest - 1).isLessThanOrEqualTo(Math.max(0, highest / 16));
+            previousHighest = highest;
+        }
+        assertThat(previousHighest).isEqualTo(LatencyHistogram.MAX_TRACKABLE);
+    }
+
+    @Test
+    void testPercentilesWithinPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram(4);
+        for (long value = 1; value <= 10_000; value++) {
+            histogram.record(value * 1000);
+        }
+
+        HistogramSnapshot snapshot = histogram.snapshot();
+        assertThat(snapshot.getCount()).isEqualTo(10_000);
+        assertThat(snapshot.getMin()).isEqualTo(1000);
+        assertThat(snapshot.getMax()).isEqualTo(10_000_000);
+        assertThat(snapshot.getMean()).isCloseTo(5_000_500, within(1.0));
+        assertThat((double) snapshot.getP50()).isCloseTo(5_000_000, within(5_000_000 / 16.0));
+        assertThat((double) snapshot.getP99()).isCloseTo(9_900_000, within(9_900_000 / 16.0));
+        assertThat(snapshot.getValueAtPercentile(1.0)).isEqualTo(10_000_000);
+    }
+
+    @Test
+    void testConcurrentRecordingLosesNothing() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram(8);
+        int threads = 8;
+        int perThread = 50_000;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    histogram.record(i);
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertThat(histogram.snapshot().getCount()).isEqualTo((long) threads * perThread);
+    }
+
+    @Test
+    void testMicrometerBinderRegistersNewMethods() {
+        ExecutionMetrics metrics = new ExecutionMetrics();
+        metrics.get("Service.before").exit(2_000_000, false);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new ExecutionMetricsBinder(metrics).bindTo(registry);
+
+        MethodMetrics after = metrics.get("Service.after");
+        after.exit(1_000_000, false);
+        after.exit(3_000_000, true);
+
+        assertThat(registry.get("logging.execution").tag("method", "Service.before").functionTimer().count())
+                .isEqualTo(1);
+        assertThat(registry.get("logging.execution").tag("method", "Service.after").functionTimer().count())
+                .isEqualTo(2);
+        assertThat(registry.get("logging.execution.errors").tag("method", "Service.after").functionCounter().count())
+                .isEqualTo(1);
+        assertThat(registry.get("logging.execution.latency").tag("method", "Service.after").tag("quantile", "max")
+                .gauge().value()).isEqualTo(0.003);
+    }
+}